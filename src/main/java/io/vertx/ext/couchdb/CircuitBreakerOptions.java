@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb;
+
+/**
+ * Options of the circuit breaker of a server, set with
+ * {@link CouchdbClientBuilder#circuitBreaker(CircuitBreakerOptions)}.
+ * <p>
+ * After {@code failureThreshold} consecutive failures, connection errors or
+ * 5xx responses, the circuit opens and requests fail immediately with
+ * {@link io.vertx.ext.couchdb.exception.CouchdbCircuitOpenException} instead
+ * of piling up on a struggling server. After {@code resetTimeout}
+ * milliseconds one trial request is let through, its success closes the
+ * circuit, its failure opens it again. A trial request without a request
+ * timeout is bounded by {@code trialTimeout}.
+ * <p>
+ * With a cluster, each node has its own circuit breaker.
+ */
+public class CircuitBreakerOptions {
+
+  public static final int DEFAULT_FAILURE_THRESHOLD = 5;
+  public static final long DEFAULT_RESET_TIMEOUT = 30_000L;
+  public static final long DEFAULT_TRIAL_TIMEOUT = 10_000L;
+
+  private int failureThreshold = DEFAULT_FAILURE_THRESHOLD;
+  private long resetTimeout = DEFAULT_RESET_TIMEOUT;
+  private long trialTimeout = DEFAULT_TRIAL_TIMEOUT;
+
+  public CircuitBreakerOptions() {
+  }
+
+  public CircuitBreakerOptions(CircuitBreakerOptions other) {
+    this.failureThreshold = other.failureThreshold;
+    this.resetTimeout = other.resetTimeout;
+    this.trialTimeout = other.trialTimeout;
+  }
+
+  /**
+   * @param failureThreshold consecutive failures opening the circuit,
+   *        default 5
+   */
+  public CircuitBreakerOptions failureThreshold(int failureThreshold) {
+    if (failureThreshold < 1) {
+      throw new IllegalArgumentException("failureThreshold must be positive");
+    }
+    this.failureThreshold = failureThreshold;
+    return this;
+  }
+
+  /**
+   * @param resetTimeout milliseconds the circuit stays open before a trial
+   *        request, default 30000
+   */
+  public CircuitBreakerOptions resetTimeout(long resetTimeout) {
+    if (resetTimeout < 1) {
+      throw new IllegalArgumentException("resetTimeout must be positive");
+    }
+    this.resetTimeout = resetTimeout;
+    return this;
+  }
+
+  /**
+   * @param trialTimeout milliseconds a trial request sent without a request
+   *        timeout may take, default 10000
+   */
+  public CircuitBreakerOptions trialTimeout(long trialTimeout) {
+    if (trialTimeout < 1) {
+      throw new IllegalArgumentException("trialTimeout must be positive");
+    }
+    this.trialTimeout = trialTimeout;
+    return this;
+  }
+
+  public int getFailureThreshold() {
+    return failureThreshold;
+  }
+
+  public long getResetTimeout() {
+    return resetTimeout;
+  }
+
+  public long getTrialTimeout() {
+    return trialTimeout;
+  }
+}
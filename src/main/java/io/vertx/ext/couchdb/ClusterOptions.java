@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb;
+
+/**
+ * Options of a client talking to the nodes of a CouchDB cluster directly,
+ * see {@link CouchdbClientBuilder#endpoint(String, int)}.
+ * <p>
+ * Every {@code healthCheckInterval} milliseconds each node is asked for
+ * {@code /_up}. A node failing {@code unhealthyThreshold} checks or requests
+ * in a row, with a connection error, a timeout or a non 200 response (e.g. in
+ * maintenance mode), gets no more requests until a health check succeeds
+ * again. When all nodes are unhealthy, requests are spread over all of them.
+ * <p>
+ * Requests in flight on a failing node are not moved to another node, unless
+ * {@link RetryOptions} are set: each retry picks a node again.
+ */
+public class ClusterOptions {
+
+  public static final LoadBalancing DEFAULT_LOAD_BALANCING = LoadBalancing.ROUND_ROBIN;
+  public static final long DEFAULT_HEALTH_CHECK_INTERVAL = 5_000L;
+  public static final long DEFAULT_HEALTH_CHECK_TIMEOUT = 2_000L;
+  public static final int DEFAULT_UNHEALTHY_THRESHOLD = 2;
+
+  private LoadBalancing loadBalancing = DEFAULT_LOAD_BALANCING;
+  private long healthCheckInterval = DEFAULT_HEALTH_CHECK_INTERVAL;
+  private long healthCheckTimeout = DEFAULT_HEALTH_CHECK_TIMEOUT;
+  private int unhealthyThreshold = DEFAULT_UNHEALTHY_THRESHOLD;
+
+  public ClusterOptions() {
+  }
+
+  public ClusterOptions(ClusterOptions other) {
+    this.loadBalancing = other.loadBalancing;
+    this.healthCheckInterval = other.healthCheckInterval;
+    this.healthCheckTimeout = other.healthCheckTimeout;
+    this.unhealthyThreshold = other.unhealthyThreshold;
+  }
+
+  /**
+   * @param loadBalancing how requests are spread, default round robin
+   */
+  public ClusterOptions loadBalancing(LoadBalancing loadBalancing) {
+    if (loadBalancing == null) {
+      throw new IllegalArgumentException("loadBalancing must not be null");
+    }
+    this.loadBalancing = loadBalancing;
+    return this;
+  }
+
+  /**
+   * @param healthCheckInterval milliseconds between health checks of a node,
+   *        default 5000
+   */
+  public ClusterOptions healthCheckInterval(long healthCheckInterval) {
+    if (healthCheckInterval < 1) {
+      throw new IllegalArgumentException("healthCheckInterval must be positive");
+    }
+    this.healthCheckInterval = healthCheckInterval;
+    return this;
+  }
+
+  /**
+   * @param healthCheckTimeout milliseconds a health check may take, default
+   *        2000
+   */
+  public ClusterOptions healthCheckTimeout(long healthCheckTimeout) {
+    if (healthCheckTimeout < 1) {
+      throw new IllegalArgumentException("healthCheckTimeout must be positive");
+    }
+    this.healthCheckTimeout = healthCheckTimeout;
+    return this;
+  }
+
+  /**
+   * @param unhealthyThreshold consecutive failures after which a node gets no
+   *        more requests, default 2
+   */
+  public ClusterOptions unhealthyThreshold(int unhealthyThreshold) {
+    if (unhealthyThreshold < 1) {
+      throw new IllegalArgumentException("unhealthyThreshold must be positive");
+    }
+    this.unhealthyThreshold = unhealthyThreshold;
+    return this;
+  }
+
+  public LoadBalancing getLoadBalancing() {
+    return loadBalancing;
+  }
+
+  public long getHealthCheckInterval() {
+    return healthCheckInterval;
+  }
+
+  public long getHealthCheckTimeout() {
+    return healthCheckTimeout;
+  }
+
+  public int getUnhealthyThreshold() {
+    return unhealthyThreshold;
+  }
+}
@@ -12,12 +12,17 @@
 package io.vertx.ext.couchdb;
 
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.couchdb.admin.CouchdbAdmin;
 import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.CouchDbDatabaseOptions;
 import io.vertx.ext.couchdb.exception.CouchdbException;
 import io.vertx.ext.couchdb.parameters.QueryParameters;
 import io.vertx.ext.web.client.HttpResponse;
@@ -69,6 +74,16 @@ public interface CouchdbClient {
    */
   Future<CouchDbDatabase> getDatabase(String databaseName);
 
+  /**
+   * Retrieves a specified database with database level options.
+   *
+   * @param databaseName The name of the database, must follow specific naming
+   *        rules.
+   * @param options options of the returned database handle
+   * @return Future with a CouchDbDatabase instance
+   */
+  Future<CouchDbDatabase> getDatabase(String databaseName, CouchDbDatabaseOptions options);
+
   /**
    * @return CouchdbAdmin for administrative functions
    */
@@ -111,6 +126,28 @@ public interface CouchdbClient {
    */
   Future<JsonObject> putJsonObject(UriTemplate baseUrl, QueryParameters params, JsonObject body);
 
+  /**
+   * Performs a POST request with a JSON body and returns the result as a
+   * JsonObject, e.g. for _all_docs with keys.
+   *
+   * @param baseUrl The base URL for the request.
+   * @param params The query parameters to append to the URL, or null if none.
+   * @param body The JSON body to send in the POST request.
+   * @return A Future with the JsonObject result of the POST request.
+   */
+  Future<JsonObject> postJsonObject(UriTemplate baseUrl, QueryParameters params, JsonObject body);
+
+  /**
+   * Performs a POST request with a JSON body and returns the result as a
+   * JsonArray, e.g. for _bulk_docs.
+   *
+   * @param baseUrl The base URL for the request.
+   * @param params The query parameters to append to the URL, or null if none.
+   * @param body The JSON body to send in the POST request.
+   * @return A Future with the JsonArray result of the POST request.
+   */
+  Future<JsonArray> postJsonArray(UriTemplate baseUrl, QueryParameters params, JsonObject body);
+
   /**
    * Performs a DELETE request and returns the result as a JsonObject.
    *
@@ -148,6 +185,118 @@ public interface CouchdbClient {
   Future<HttpResponse<Buffer>> noBody(HttpMethod method, UriTemplate baseUrl,
       QueryParameters params);
 
+  /**
+   * Performs a conditional GET request, a 304 Not Modified response for a
+   * matching ETag is successful and has no body.
+   *
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param etag The ETag of the cached representation, null for an
+   *        unconditional request.
+   * @return A Future containing the HttpResponse with a Buffer body.
+   */
+  Future<HttpResponse<Buffer>> getIfNoneMatch(UriTemplate baseUrl, QueryParameters params,
+      String etag);
+
+  /**
+   * Performs a HttpRequest request with an already encoded JSON body, so
+   * callers assembling large payloads don't need to build a JsonObject tree.
+   *
+   * @param method The HttpMethod to be used for the request.
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param body The encoded JSON body.
+   * @return A Future containing the HttpResponse with a Buffer body.
+   */
+  Future<HttpResponse<Buffer>> bufferBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, Buffer body);
+
+  /**
+   * Performs a HttpRequest request piping the response body into the sink
+   * as it arrives, the HTTP response is paused while the sink's write queue
+   * is full.
+   * <p>
+   * Only the body of a 2xx response is written to the sink. Any other
+   * response fails with a
+   * {@link io.vertx.ext.couchdb.exception.CouchdbResponseException} carrying
+   * the status code and CouchDB's error, the sink is neither written to nor
+   * ended.
+   *
+   * @param method The HttpMethod to be used for the request.
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param sink The WriteStream receiving the response body.
+   * @return A Future containing the 2xx HttpResponse once the body is piped.
+   */
+  Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, WriteStream<Buffer> sink);
+
+  /**
+   * Like {@link #streamBody(HttpMethod, UriTemplate, QueryParameters, WriteStream)}
+   * sending a JSON request body, e.g. the keys of a view query.
+   *
+   * @param method The HttpMethod to be used for the request.
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param body The JsonObject body to be sent in the request.
+   * @param sink The WriteStream receiving the response body.
+   * @return A Future containing the HttpResponse once the body is piped.
+   */
+  Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, JsonObject body, WriteStream<Buffer> sink);
+
+  /**
+   * Like {@link #streamBody(HttpMethod, UriTemplate, QueryParameters, WriteStream)}
+   * with additional request headers, e.g. Accept.
+   *
+   * @param method The HttpMethod to be used for the request.
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param headers Additional request headers.
+   * @param sink The WriteStream receiving the response body.
+   * @return A Future containing the HttpResponse once the body is piped.
+   */
+  Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, MultiMap headers, WriteStream<Buffer> sink);
+
+  /**
+   * Performs a HttpRequest request streaming the body from a ReadStream, the
+   * source is paused while the connection can't take more data. Without a
+   * Content-Length header the body is sent chunked.
+   * <p>
+   * The request is not repeated, e.g. after an expired session, since the
+   * body has been consumed.
+   *
+   * @param method The HttpMethod to be used for the request.
+   * @param baseUrl The UriTemplate representing the base URL for the request.
+   * @param params The QueryParameters to be applied to the request.
+   * @param headers Additional request headers, e.g. Content-Type.
+   * @param body The ReadStream providing the request body.
+   * @return A Future containing the HttpResponse with a Buffer body.
+   */
+  Future<HttpResponse<Buffer>> sendStream(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, MultiMap headers, ReadStream<Buffer> body);
+
+  /**
+   * Returns a view of this client with a deadline: every request made
+   * through it, including all steps of composite operations and their
+   * retries, must complete within {@code timeout} milliseconds from now.
+   * Requests running past the deadline, streaming ones included, are reset
+   * on their connection and fail with
+   * {@link io.vertx.ext.couchdb.exception.CouchdbTimeoutException}, later
+   * ones fail without being sent. Create a new view for each operation. The
+   * view shares the connections of this client, closing it does nothing.
+   *
+   * @param timeout the milliseconds until the deadline
+   * @return the client with the deadline
+   */
+  CouchdbClient withTimeout(long timeout);
+
+  /**
+   * @return the Vertx instance the client runs on
+   */
+  Vertx vertx();
+
   /**
    * Closes the client and releases all associated resources.
    */
@@ -10,10 +10,22 @@
  */
 package io.vertx.ext.couchdb;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
+import io.vertx.core.net.SocketAddress;
 import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.couchdb.database.CouchDbDatabaseOptions;
+import io.vertx.ext.couchdb.impl.Cluster;
+import io.vertx.ext.couchdb.impl.CouchdbClientConfig;
 import io.vertx.ext.couchdb.impl.CouchdbClientImpl;
+import io.vertx.ext.couchdb.metrics.CouchdbMetrics;
 import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
 
 /**
  * Builder for creating a CouchdbClient instance.
@@ -32,6 +44,10 @@ import io.vertx.ext.web.client.WebClient;
  *     .build();
  * }
  * </pre>
+ * <p>
+ * Without a WebClient the builder creates one, configured with the
+ * connection options (pool size, wait queue, HTTP/2, pipelining, idle
+ * timeout). These options are ignored when a WebClient is passed in.
  */
 
 /**
@@ -40,6 +56,11 @@ import io.vertx.ext.web.client.WebClient;
  */
 public class CouchdbClientBuilder {
 
+  public static final int DEFAULT_MAX_POOL_SIZE = 50;
+  public static final int DEFAULT_HTTP2_MAX_POOL_SIZE = 2;
+  public static final int DEFAULT_MAX_WAIT_QUEUE_SIZE = 1024;
+  public static final int DEFAULT_IDLE_TIMEOUT = 60;
+
   final Vertx vertx;
   final WebClient client;
 
@@ -47,6 +68,32 @@ public class CouchdbClientBuilder {
   Credentials credentials = new NullCredentials();
   int port = 5984;
   String host = "localhost";
+  CouchDbDatabaseOptions databaseOptions = new CouchDbDatabaseOptions();
+  int maxPoolSize = DEFAULT_MAX_POOL_SIZE;
+  int http2MaxPoolSize = DEFAULT_HTTP2_MAX_POOL_SIZE;
+  int maxWaitQueueSize = DEFAULT_MAX_WAIT_QUEUE_SIZE;
+  boolean http2 = false;
+  boolean http2ClearTextUpgrade = true;
+  int pipeliningLimit = 0;
+  int idleTimeout = DEFAULT_IDLE_TIMEOUT;
+  boolean keepAlive = true;
+  boolean sessionAuth = false;
+  CouchdbMetrics metrics;
+  RetryOptions retryOptions;
+  CircuitBreakerOptions circuitBreakerOptions;
+  List<SocketAddress> endpoints = new ArrayList<>();
+  ClusterOptions clusterOptions = new ClusterOptions();
+  long requestTimeout = 0L;
+
+  /**
+   * Constructor for CouchdbClientBuilder creating its own WebClient from the
+   * connection options of the builder.
+   *
+   * @param vertx The Vertx instance to use for the client.
+   */
+  public CouchdbClientBuilder(Vertx vertx) {
+    this(vertx, null);
+  }
 
   /**
    * Constructor for CouchdbClientBuilder.
@@ -103,13 +150,274 @@ public class CouchdbClientBuilder {
     return this;
   }
 
+  /**
+   * Set the default options of database handles retrieved with
+   * {@link CouchdbClient#getDatabase(String)}, e.g. the write mode.
+   *
+   * @param databaseOptions The database options to use for the client.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder databaseOptions(CouchDbDatabaseOptions databaseOptions) {
+    this.databaseOptions = databaseOptions;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of HTTP/1.1 connections to the server, default 50.
+   *
+   * @param maxPoolSize The maximum pool size.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder maxPoolSize(int maxPoolSize) {
+    this.maxPoolSize = maxPoolSize;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of HTTP/2 connections to the server, each one
+   * multiplexing many requests, default 2.
+   *
+   * @param http2MaxPoolSize The maximum HTTP/2 pool size.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder http2MaxPoolSize(int http2MaxPoolSize) {
+    this.http2MaxPoolSize = http2MaxPoolSize;
+    return this;
+  }
+
+  /**
+   * Set the maximum number of requests waiting for a connection, default
+   * 1024. Requests beyond fail immediately instead of queuing unbounded.
+   *
+   * @param maxWaitQueueSize The maximum wait queue size, -1 for unbounded.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder maxWaitQueueSize(int maxWaitQueueSize) {
+    this.maxWaitQueueSize = maxWaitQueueSize;
+    return this;
+  }
+
+  /**
+   * Use HTTP/2, negotiated with ALPN over https and with an h2c upgrade
+   * (or prior knowledge) over plain http, default false.
+   *
+   * @param http2 true to use HTTP/2.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder http2(boolean http2) {
+    this.http2 = http2;
+    return this;
+  }
+
+  /**
+   * Set how HTTP/2 is started over plain http: true (default) sends an
+   * HTTP/1.1 upgrade request, false uses prior knowledge, for servers or
+   * proxies known to speak h2c.
+   *
+   * @param http2ClearTextUpgrade true to use the h2c upgrade.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder http2ClearTextUpgrade(boolean http2ClearTextUpgrade) {
+    this.http2ClearTextUpgrade = http2ClearTextUpgrade;
+    return this;
+  }
+
+  /**
+   * Set the number of pipelined HTTP/1.1 requests per connection, 0 (default)
+   * disables pipelining.
+   *
+   * @param pipeliningLimit The pipelining depth.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder pipeliningLimit(int pipeliningLimit) {
+    this.pipeliningLimit = pipeliningLimit;
+    return this;
+  }
+
+  /**
+   * Set the seconds after which an idle connection is closed, default 60.
+   *
+   * @param idleTimeout The idle timeout in seconds, 0 to never close.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder idleTimeout(int idleTimeout) {
+    this.idleTimeout = idleTimeout;
+    return this;
+  }
+
+  /**
+   * Set whether connections are kept alive and reused, default true.
+   *
+   * @param keepAlive true to reuse connections.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder keepAlive(boolean keepAlive) {
+    this.keepAlive = keepAlive;
+    return this;
+  }
+
+  /**
+   * Authenticate with a CouchDB session instead of sending the credentials
+   * with every request, default false. The client logs in once with the
+   * {@link io.vertx.ext.auth.authentication.UsernamePasswordCredentials},
+   * shares the AuthSession cookie across all requests, renews it before it
+   * expires and repeats a request once when it is rejected with 401. This
+   * saves the server from verifying the password hash on each request.
+   *
+   * @param sessionAuth true to use cookie session authentication.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder sessionAuth(boolean sessionAuth) {
+    this.sessionAuth = sessionAuth;
+    return this;
+  }
+
+  /**
+   * Set the metrics every request is reported to, tagged with the database
+   * and the kind of operation. By default the client reports to the Vert.x
+   * metrics SPI when metrics are enabled on the Vertx instance.
+   *
+   * @param metrics The metrics to report to.
+   * @return The CouchdbClientBuilder instance.
+   * @see CouchdbMetrics#create(Vertx, String, int)
+   */
+  public CouchdbClientBuilder metrics(CouchdbMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Repeat requests failing with connection errors or transient status codes
+   * like 503, with a jittered exponential backoff. Not set by default, each
+   * failure goes to the caller.
+   *
+   * @param retryOptions The retry options, null to not repeat requests.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder retry(RetryOptions retryOptions) {
+    this.retryOptions = retryOptions;
+    return this;
+  }
+
+  /**
+   * Fail requests immediately while the server keeps failing, instead of
+   * waiting for each one to time out. Not set by default.
+   *
+   * @param circuitBreakerOptions The circuit breaker options, null for none.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder circuitBreaker(CircuitBreakerOptions circuitBreakerOptions) {
+    this.circuitBreakerOptions = circuitBreakerOptions;
+    return this;
+  }
+
+  /**
+   * Add a node of a CouchDB cluster. With endpoints the client spreads the
+   * requests over the healthy nodes itself, without a load balancer in
+   * front, host and port are ignored then.
+   *
+   * @param host The host of the node.
+   * @param port The port of the node.
+   * @return The CouchdbClientBuilder instance.
+   * @see #clusterOptions(ClusterOptions)
+   */
+  public CouchdbClientBuilder endpoint(String host, int port) {
+    this.endpoints.add(SocketAddress.inetSocketAddress(port, host));
+    return this;
+  }
+
+  /**
+   * Set how requests are spread over the endpoints and how their health is
+   * checked.
+   *
+   * @param clusterOptions The cluster options.
+   * @return The CouchdbClientBuilder instance.
+   */
+  public CouchdbClientBuilder clusterOptions(ClusterOptions clusterOptions) {
+    this.clusterOptions = clusterOptions;
+    return this;
+  }
+
+  /**
+   * Fail requests whose response does not arrive in time with a
+   * CouchdbTimeoutException. Applies to each attempt of requests with a
+   * buffered response, streaming requests like continuous _changes feeds
+   * are not limited. Not set by default.
+   *
+   * @param requestTimeout The timeout in milliseconds, 0 for none.
+   * @return The CouchdbClientBuilder instance.
+   * @see CouchdbClient#withTimeout(long)
+   */
+  public CouchdbClientBuilder requestTimeout(long requestTimeout) {
+    if (requestTimeout < 0) {
+      throw new IllegalArgumentException("requestTimeout must not be negative");
+    }
+    this.requestTimeout = requestTimeout;
+    return this;
+  }
+
+  /**
+   * @return the WebClientOptions of a WebClient created by the builder
+   */
+  WebClientOptions webClientOptions() {
+    WebClientOptions options = new WebClientOptions()
+        .setDefaultHost(this.host)
+        .setDefaultPort(this.port)
+        .setKeepAlive(this.keepAlive)
+        .setIdleTimeout(this.idleTimeout)
+        .setIdleTimeoutUnit(TimeUnit.SECONDS);
+    if (this.pipeliningLimit > 0) {
+      options.setPipelining(true).setPipeliningLimit(this.pipeliningLimit);
+    }
+    if (this.http2) {
+      options.setProtocolVersion(HttpVersion.HTTP_2)
+          .setUseAlpn(true)
+          .setHttp2ClearTextUpgrade(this.http2ClearTextUpgrade);
+    }
+    return options;
+  }
+
+  /**
+   * @return the PoolOptions of a WebClient created by the builder
+   */
+  PoolOptions poolOptions() {
+    return new PoolOptions()
+        .setHttp1MaxSize(this.maxPoolSize)
+        .setHttp2MaxSize(this.http2MaxPoolSize)
+        .setMaxWaitQueueSize(this.maxWaitQueueSize);
+  }
+
   /**
    * Build the CouchdbClient instance.
    *
    * @return The CouchdbClient instance.
    */
   public CouchdbClient build() {
-    return new CouchdbClientImpl(vertx, client, host, port, https, credentials);
+    WebClient actualClient = this.client != null
+        ? this.client
+        : WebClient.create(this.vertx, this.webClientOptions(), this.poolOptions());
+    Cluster cluster = this.endpoints.isEmpty()
+        ? null
+        : new Cluster(this.vertx, actualClient, this.endpoints, this.https, this.clusterOptions);
+    String metricsHost = cluster == null ? this.host : this.endpoints.get(0).host();
+    int metricsPort = cluster == null ? this.port : this.endpoints.get(0).port();
+    CouchdbMetrics actualMetrics = this.metrics != null
+        ? this.metrics
+        : CouchdbMetrics.create(this.vertx, metricsHost, metricsPort);
+    return new CouchdbClientImpl(new CouchdbClientConfig()
+        .vertx(this.vertx)
+        .webClient(actualClient)
+        .host(this.host)
+        .port(this.port)
+        .https(this.https)
+        .credentials(this.credentials)
+        .databaseOptions(this.databaseOptions)
+        .sessionAuth(this.sessionAuth)
+        .metrics(actualMetrics)
+        .retryOptions(this.retryOptions)
+        .circuitBreakerOptions(this.circuitBreakerOptions)
+        .cluster(cluster)
+        .requestTimeout(this.requestTimeout));
   }
 
 }
@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb;
+
+/**
+ * How requests are spread over the nodes of a cluster.
+ */
+public enum LoadBalancing {
+
+  /** Each healthy node in turn */
+  ROUND_ROBIN,
+  /** The healthy node with the fewest requests in flight */
+  LEAST_IN_FLIGHT,
+  /**
+   * A random healthy node, weighted by the inverse of its recent latency and
+   * its requests in flight, so slow nodes get less traffic
+   */
+  LATENCY_WEIGHTED
+}
@@ -0,0 +1,149 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Options for repeating requests that failed transiently, set with
+ * {@link CouchdbClientBuilder#retry(RetryOptions)}.
+ * <p>
+ * A request is repeated when the connection failed or was reset, or when the
+ * response has one of the {@code retryStatusCodes}. The delay before retry n
+ * is a random value between 0 and
+ * {@code min(maxBackoff, initialBackoff * backoffMultiplier^n)}, so clients
+ * failing together do not come back together. A Retry-After header of the
+ * response is used as delay instead, a response asking for more than
+ * {@code maxBackoff} is returned to the caller.
+ * <p>
+ * Reads (GET, HEAD and the POST queries _all_docs, views and _find) are
+ * always repeated. Writes are only repeated when the request never reached
+ * the server, unless {@code retryWrites} is set: a repeated write which was
+ * applied the first time fails with a conflict. Streaming requests are not
+ * repeated.
+ */
+public class RetryOptions {
+
+  public static final int DEFAULT_MAX_RETRIES = 3;
+  public static final long DEFAULT_INITIAL_BACKOFF = 100L;
+  public static final long DEFAULT_MAX_BACKOFF = 10_000L;
+  public static final double DEFAULT_BACKOFF_MULTIPLIER = 2.0;
+  public static final Set<Integer> DEFAULT_RETRY_STATUS_CODES = Set.of(429, 500, 502, 503, 504);
+
+  private int maxRetries = DEFAULT_MAX_RETRIES;
+  private long initialBackoff = DEFAULT_INITIAL_BACKOFF;
+  private long maxBackoff = DEFAULT_MAX_BACKOFF;
+  private double backoffMultiplier = DEFAULT_BACKOFF_MULTIPLIER;
+  private Set<Integer> retryStatusCodes = new TreeSet<>(DEFAULT_RETRY_STATUS_CODES);
+  private boolean retryWrites = false;
+
+  public RetryOptions() {
+  }
+
+  public RetryOptions(RetryOptions other) {
+    this.maxRetries = other.maxRetries;
+    this.initialBackoff = other.initialBackoff;
+    this.maxBackoff = other.maxBackoff;
+    this.backoffMultiplier = other.backoffMultiplier;
+    this.retryStatusCodes = new TreeSet<>(other.retryStatusCodes);
+    this.retryWrites = other.retryWrites;
+  }
+
+  /**
+   * @param maxRetries how often a request is repeated at most, default 3
+   */
+  public RetryOptions maxRetries(int maxRetries) {
+    if (maxRetries < 0) {
+      throw new IllegalArgumentException("maxRetries must not be negative");
+    }
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * @param initialBackoff upper bound in milliseconds of the delay before the
+   *        first retry, default 100
+   */
+  public RetryOptions initialBackoff(long initialBackoff) {
+    if (initialBackoff < 1) {
+      throw new IllegalArgumentException("initialBackoff must be positive");
+    }
+    this.initialBackoff = initialBackoff;
+    return this;
+  }
+
+  /**
+   * @param maxBackoff upper bound in milliseconds of any delay, including
+   *        the one asked for with Retry-After, default 10000
+   */
+  public RetryOptions maxBackoff(long maxBackoff) {
+    if (maxBackoff < 1) {
+      throw new IllegalArgumentException("maxBackoff must be positive");
+    }
+    this.maxBackoff = maxBackoff;
+    return this;
+  }
+
+  /**
+   * @param backoffMultiplier growth of the delay bound per retry, default 2
+   */
+  public RetryOptions backoffMultiplier(double backoffMultiplier) {
+    if (backoffMultiplier < 1.0) {
+      throw new IllegalArgumentException("backoffMultiplier must be at least 1");
+    }
+    this.backoffMultiplier = backoffMultiplier;
+    return this;
+  }
+
+  /**
+   * @param retryStatusCodes the status codes of responses to repeat, default
+   *        429, 500, 502, 503 and 504
+   */
+  public RetryOptions retryStatusCodes(Collection<Integer> retryStatusCodes) {
+    this.retryStatusCodes = new TreeSet<>(retryStatusCodes);
+    return this;
+  }
+
+  /**
+   * @param retryWrites true to repeat writes that may have reached the
+   *        server, default false
+   */
+  public RetryOptions retryWrites(boolean retryWrites) {
+    this.retryWrites = retryWrites;
+    return this;
+  }
+
+  public int getMaxRetries() {
+    return maxRetries;
+  }
+
+  public long getInitialBackoff() {
+    return initialBackoff;
+  }
+
+  public long getMaxBackoff() {
+    return maxBackoff;
+  }
+
+  public double getBackoffMultiplier() {
+    return backoffMultiplier;
+  }
+
+  public Set<Integer> getRetryStatusCodes() {
+    return retryStatusCodes;
+  }
+
+  public boolean isRetryWrites() {
+    return retryWrites;
+  }
+}
@@ -23,15 +23,21 @@ import io.vertx.core.json.JsonObject;
 import io.vertx.ext.couchdb.CouchdbClient;
 import io.vertx.ext.couchdb.admin.CouchdbAdmin;
 import io.vertx.ext.couchdb.database.CouchDbDatabase;
-import io.vertx.ext.couchdb.parameters.BaseQueryParameters;
 import io.vertx.ext.couchdb.parameters.DbCreateParams;
 import io.vertx.ext.couchdb.parameters.DbQueryParams;
+import io.vertx.ext.couchdb.parameters.EncodedQueryParameters;
 import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
 import io.vertx.ext.couchdb.parameters.QueryParameters;
 import io.vertx.uritemplate.UriTemplate;
 
 public class CouchdbAdminImpl implements CouchdbAdmin {
 
+  private static final UriTemplate ACTIVE_TASKS_URL = UriTemplate.of("/_active_tasks");
+  private static final UriTemplate ALL_DBS_URL =
+      UriTemplate.of("/_all_dbs" + PathParameterTemplates.QUERY);
+  private static final UriTemplate DBS_INFO_URL =
+      UriTemplate.of("/_dbs_info" + PathParameterTemplates.QUERY);
+
   final CouchdbClient client;
 
   public CouchdbAdminImpl(CouchdbClient client) {
@@ -45,8 +51,7 @@ public class CouchdbAdminImpl implements CouchdbAdmin {
 
   @Override
   public Future<JsonArray> activeTasks() {
-    UriTemplate baseUrl = UriTemplate.of("/_active_tasks");
-    return this.client.getJsonArray(baseUrl, null);
+    return this.client.getJsonArray(ACTIVE_TASKS_URL, null);
   }
 
   @Override
@@ -56,14 +61,12 @@ public class CouchdbAdminImpl implements CouchdbAdmin {
 
   @Override
   public Future<JsonArray> allDbs(DbQueryParams options) {
-    UriTemplate baseUrl = UriTemplate.of("/_all_dbs" + PathParameterTemplates.QUERY);
-    return this.client.getJsonArray(baseUrl, options);
+    return this.client.getJsonArray(ALL_DBS_URL, options);
   }
 
   @Override
   public Future<JsonArray> dbsInfo(DbQueryParams options) {
-    UriTemplate baseUrl = UriTemplate.of("/_dbs_info" + PathParameterTemplates.QUERY);;
-    return this.client.getJsonArray(baseUrl, options);
+    return this.client.getJsonArray(DBS_INFO_URL, options);
   }
 
   @Override
@@ -98,7 +101,7 @@ public class CouchdbAdminImpl implements CouchdbAdmin {
     Promise<JsonObject> promise = Promise.promise();
     List<String> systemDatabases =
         Arrays.asList("_users", "_replicator", "_global_changes", "_metadata");
-    QueryParameters options = new BaseQueryParameters();
+    QueryParameters options = EncodedQueryParameters.EMPTY;
     JsonObject systemDbs = new JsonObject();
     List<Future<Void>> futures = new ArrayList<>();
     systemDatabases.forEach(db -> {
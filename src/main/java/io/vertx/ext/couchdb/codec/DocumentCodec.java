@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.codec;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.ext.couchdb.codec.impl.DocumentCodecs;
+import io.vertx.ext.couchdb.codec.impl.JacksonDocumentCodec;
+import io.vertx.ext.couchdb.codec.impl.JsonDocumentCodec;
+import io.vertx.ext.couchdb.database.ViewResult;
+
+/**
+ * Maps documents between the JSON stored by CouchDB and Java types, decoding
+ * straight from the response body instead of going through a JsonObject.
+ * <p>
+ * Implementations must be thread safe, one codec serves all requests of a
+ * database handle. Decoding failures are reported with
+ * {@link io.vertx.core.json.DecodeException}, encoding failures with
+ * {@link io.vertx.core.json.EncodeException}.
+ *
+ * @see io.vertx.ext.couchdb.database.CouchDbDatabaseOptions#codec(DocumentCodec)
+ */
+public interface DocumentCodec {
+
+  /**
+   * @return the Jackson databind codec when jackson-databind is on the
+   *         classpath, otherwise the codec of {@link #json()}
+   */
+  static DocumentCodec defaultCodec() {
+    return DocumentCodecs.defaultCodec();
+  }
+
+  /**
+   * Maps documents with Jackson databind, which must be on the classpath.
+   * Properties of the document named {@code id} and {@code rev} are mapped to
+   * {@code _id} and {@code _rev}, those of nested objects keep their names.
+   * Null properties are not written and unknown properties, e.g.
+   * {@code _attachments}, are ignored.
+   *
+   * @return a new Jackson codec
+   */
+  static DocumentCodec jackson() {
+    return new JacksonDocumentCodec();
+  }
+
+  /**
+   * Maps documents without Jackson databind: JsonObject, JsonArray, Buffer,
+   * String and classes with a public JsonObject constructor are decoded,
+   * JsonObject, JsonArray, Buffer and JsonObjectSerializable are encoded.
+   *
+   * @return the JsonObject based codec
+   */
+  static DocumentCodec json() {
+    return JsonDocumentCodec.INSTANCE;
+  }
+
+  /**
+   * @param json the encoded document
+   * @param type the class to decode to
+   * @return the document
+   */
+  <T> T decode(Buffer json, Class<T> type);
+
+  /**
+   * Decodes a view or _all_docs response, the documents included with
+   * include_docs=true are decoded to {@code type}.
+   *
+   * @param json the encoded view response
+   * @param type the class of the included documents
+   * @return the view result
+   */
+  <T> ViewResult<T> decodeView(Buffer json, Class<T> type);
+
+  /**
+   * @param document the document to encode
+   * @return the JSON encoded document
+   */
+  Buffer encode(Object document);
+}
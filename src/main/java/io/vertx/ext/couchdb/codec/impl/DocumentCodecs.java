@@ -0,0 +1,43 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.codec.impl;
+
+import io.vertx.ext.couchdb.codec.DocumentCodec;
+
+/**
+ * Resolves the default codec once, Jackson databind is an optional
+ * dependency.
+ */
+public final class DocumentCodecs {
+
+  private static final String OBJECT_MAPPER = "com.fasterxml.jackson.databind.ObjectMapper";
+
+  private static class DefaultCodec {
+    static final DocumentCodec INSTANCE = create();
+  }
+
+  public static DocumentCodec defaultCodec() {
+    return DefaultCodec.INSTANCE;
+  }
+
+  private static DocumentCodec create() {
+    try {
+      Class.forName(OBJECT_MAPPER, false, DocumentCodecs.class.getClassLoader());
+    } catch (ClassNotFoundException | LinkageError e) {
+      return JsonDocumentCodec.INSTANCE;
+    }
+    return new JacksonDocumentCodec();
+  }
+
+  private DocumentCodecs() {
+    // static helpers only
+  }
+}
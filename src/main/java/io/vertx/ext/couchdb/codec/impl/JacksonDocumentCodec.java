@@ -0,0 +1,258 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.codec.impl;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.introspect.BeanPropertyDefinition;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import io.netty.buffer.ByteBufInputStream;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.internal.buffer.BufferInternal;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.jackson.DatabindCodec;
+import io.vertx.ext.couchdb.codec.DocumentCodec;
+import io.vertx.ext.couchdb.database.ViewResult;
+import io.vertx.ext.couchdb.database.ViewRow;
+
+/**
+ * Codec based on Jackson databind, reading documents directly from the bytes
+ * of the response. View responses are parsed row by row, so the included
+ * documents are bound without building a tree of the whole response.
+ * <p>
+ * The id and rev properties of a document type map to the _id and _rev of
+ * the document, not those of nested objects. Documents of such types are
+ * renamed on a tree of the document.
+ */
+public class JacksonDocumentCodec implements DocumentCodec {
+
+  private final ObjectMapper mapper;
+  private final boolean documentIds;
+  /** whether a type has id or rev properties, by document type */
+  private final ConcurrentMap<Class<?>, Boolean> idTypes = new ConcurrentHashMap<>();
+
+  /**
+   * Uses a copy of the Vert.x mapper, which also maps JsonObject and
+   * JsonArray properties, with the CouchDB defaults of
+   * {@link DocumentCodec#jackson()}.
+   */
+  public JacksonDocumentCodec() {
+    this(DatabindCodec.mapper().copy()
+        .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+        .setDefaultPropertyInclusion(JsonInclude.Include.NON_NULL), true);
+  }
+
+  /**
+   * @param mapper the mapper to use as it is, without the CouchDB defaults
+   */
+  public JacksonDocumentCodec(ObjectMapper mapper) {
+    this(mapper, false);
+  }
+
+  /**
+   * @param documentIds true to map the id and rev properties of a document
+   *        to its _id and _rev
+   */
+  private JacksonDocumentCodec(ObjectMapper mapper, boolean documentIds) {
+    this.mapper = mapper;
+    this.documentIds = documentIds;
+  }
+
+  @Override
+  public <T> T decode(Buffer json, Class<T> type) {
+    try (InputStream input = input(json)) {
+      if (this.hasIds(type)) {
+        return this.fromDocument(this.mapper.readTree(input), type);
+      }
+      return this.mapper.readValue(input, type);
+    } catch (IOException e) {
+      throw new DecodeException("Failed to decode " + type.getName() + ": " + e.getMessage(), e);
+    }
+  }
+
+  @Override
+  public <T> ViewResult<T> decodeView(Buffer json, Class<T> type) {
+    try (JsonParser parser = this.mapper.createParser(input(json))) {
+      if (parser.nextToken() != JsonToken.START_OBJECT) {
+        throw new DecodeException("View response is not a JSON object");
+      }
+      long totalRows = 0L;
+      long offset = 0L;
+      List<ViewRow<T>> rows = new ArrayList<>();
+      while (parser.nextToken() == JsonToken.FIELD_NAME) {
+        String field = parser.currentName();
+        parser.nextToken();
+        switch (field) {
+          case "total_rows":
+            totalRows = parser.getValueAsLong();
+            break;
+          case "offset":
+            offset = parser.getValueAsLong();
+            break;
+          case "rows":
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+              rows.add(this.readRow(parser, type));
+            }
+            break;
+          default:
+            parser.skipChildren();
+        }
+      }
+      return new ViewResult<>(totalRows, offset, rows);
+    } catch (IOException e) {
+      throw new DecodeException("Failed to decode view of " + type.getName() + ": "
+          + e.getMessage(), e);
+    }
+  }
+
+  private <T> ViewRow<T> readRow(JsonParser parser, Class<T> type) throws IOException {
+    String id = null;
+    Object key = null;
+    Object value = null;
+    T doc = null;
+    String error = null;
+    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+      String field = parser.currentName();
+      JsonToken token = parser.nextToken();
+      switch (field) {
+        case "id":
+          id = parser.getValueAsString();
+          break;
+        case "key":
+          key = this.mapper.readValue(parser, Object.class);
+          break;
+        case "value":
+          value = this.mapper.readValue(parser, Object.class);
+          break;
+        case "doc":
+          doc = token == JsonToken.VALUE_NULL ? null : this.readDocument(parser, type);
+          break;
+        case "error":
+          error = parser.getValueAsString();
+          break;
+        default:
+          parser.skipChildren();
+      }
+    }
+    return new ViewRow<>(id, key, value, doc, error);
+  }
+
+  private <T> T readDocument(JsonParser parser, Class<T> type) throws IOException {
+    if (this.hasIds(type)) {
+      return this.fromDocument(this.mapper.readTree(parser), type);
+    }
+    return this.mapper.readValue(parser, type);
+  }
+
+  @Override
+  public Buffer encode(Object document) {
+    try {
+      if (document != null && this.hasIds(document.getClass())) {
+        JsonNode tree = this.mapper.valueToTree(document);
+        if (tree instanceof ObjectNode) {
+          return Buffer.buffer(this.mapper.writeValueAsBytes(
+              renameRoot((ObjectNode) tree, "id", "_id", "rev", "_rev")));
+        }
+      }
+      return Buffer.buffer(this.mapper.writeValueAsBytes(document));
+    } catch (IOException e) {
+      throw new EncodeException("Failed to encode " + document.getClass().getName() + ": "
+          + e.getMessage(), e);
+    }
+  }
+
+  /**
+   * Reads the bytes of the buffer in place, without copying them.
+   */
+  private static InputStream input(Buffer json) {
+    return new ByteBufInputStream(((BufferInternal) json).getByteBuf());
+  }
+
+  private <T> T fromDocument(JsonNode tree, Class<T> type) throws IOException {
+    JsonNode document = tree instanceof ObjectNode
+        ? renameRoot((ObjectNode) tree, "_id", "id", "_rev", "rev")
+        : tree;
+    return this.mapper.treeToValue(document, type);
+  }
+
+  /**
+   * @return true when the id and rev properties of the type are mapped to
+   *         _id and _rev: for beans and records with such properties, not
+   *         for maps or JsonObject
+   */
+  private boolean hasIds(Class<?> type) {
+    if (!this.documentIds) {
+      return false;
+    }
+    Boolean hasIds = this.idTypes.get(type);
+    if (hasIds == null) {
+      hasIds = this.introspectIds(type);
+      this.idTypes.putIfAbsent(type, hasIds);
+    }
+    return hasIds;
+  }
+
+  private boolean introspectIds(Class<?> type) {
+    JavaType javaType = this.mapper.constructType(type);
+    if (javaType.isContainerType() || javaType.isJavaLangObject() || javaType.isPrimitive()
+        || JsonNode.class.isAssignableFrom(type)) {
+      return false;
+    }
+    return hasIdProperty(this.mapper.getSerializationConfig().introspect(javaType))
+        || hasIdProperty(this.mapper.getDeserializationConfig().introspect(javaType));
+  }
+
+  private static boolean hasIdProperty(BeanDescription bean) {
+    for (BeanPropertyDefinition property : bean.findProperties()) {
+      if ("id".equals(property.getName()) || "rev".equals(property.getName())) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Renames two properties of the document itself, nested objects keep
+   * their names. A property already named like the target is replaced.
+   *
+   * @return a copy of the document in the same order
+   */
+  private static ObjectNode renameRoot(ObjectNode document, String id, String idTarget,
+      String rev, String revTarget) {
+    ObjectNode renamed = document.objectNode();
+    for (Map.Entry<String, JsonNode> property : document.properties()) {
+      String name = property.getKey();
+      if (name.equals(idTarget) && document.has(id)
+          || name.equals(revTarget) && document.has(rev)) {
+        continue;
+      }
+      renamed.set(name.equals(id) ? idTarget : name.equals(rev) ? revTarget : name,
+          property.getValue());
+    }
+    return renamed;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.codec.impl;
+
+import java.lang.reflect.Constructor;
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.DecodeException;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.codec.DocumentCodec;
+import io.vertx.ext.couchdb.database.ViewResult;
+import io.vertx.ext.couchdb.database.ViewRow;
+import io.vertx.ext.couchdb.utils.JsonObjectSerializable;
+
+/**
+ * Codec without Jackson databind, documents are decoded to a JsonObject
+ * first and handed to the JsonObject constructor of data object classes.
+ */
+public class JsonDocumentCodec implements DocumentCodec {
+
+  public static final JsonDocumentCodec INSTANCE = new JsonDocumentCodec();
+
+  @Override
+  public <T> T decode(Buffer json, Class<T> type) {
+    if (type == Buffer.class) {
+      return type.cast(json);
+    }
+    if (type == String.class) {
+      return type.cast(json.toString());
+    }
+    if (type == JsonArray.class) {
+      return type.cast(json.toJsonArray());
+    }
+    return this.fromJson(json.toJsonObject(), type);
+  }
+
+  @Override
+  public <T> ViewResult<T> decodeView(Buffer json, Class<T> type) {
+    JsonObject result = json.toJsonObject();
+    JsonArray jsonRows = result.getJsonArray("rows", new JsonArray());
+    List<ViewRow<T>> rows = new ArrayList<>(jsonRows.size());
+    for (int i = 0; i < jsonRows.size(); i++) {
+      JsonObject row = jsonRows.getJsonObject(i);
+      JsonObject doc = row.getJsonObject("doc");
+      rows.add(new ViewRow<>(row.getString("id"), row.getValue("key"), row.getValue("value"),
+          doc == null ? null : this.fromJson(doc, type), row.getString("error")));
+    }
+    return new ViewResult<>(result.getLong("total_rows", 0L), result.getLong("offset", 0L),
+        rows);
+  }
+
+  @Override
+  public Buffer encode(Object document) {
+    if (document instanceof Buffer) {
+      return (Buffer) document;
+    }
+    if (document instanceof JsonObject) {
+      return ((JsonObject) document).toBuffer();
+    }
+    if (document instanceof JsonArray) {
+      return ((JsonArray) document).toBuffer();
+    }
+    if (document instanceof JsonObjectSerializable) {
+      return ((JsonObjectSerializable) document).toJson().toBuffer();
+    }
+    throw new EncodeException("Cannot encode " + document.getClass().getName()
+        + " without jackson-databind");
+  }
+
+  private <T> T fromJson(JsonObject json, Class<T> type) {
+    if (type == JsonObject.class || type == Object.class) {
+      return type.cast(json);
+    }
+    try {
+      Constructor<T> constructor = type.getConstructor(JsonObject.class);
+      return constructor.newInstance(json);
+    } catch (NoSuchMethodException e) {
+      throw new DecodeException("Cannot decode " + type.getName()
+          + " without jackson-databind, it has no JsonObject constructor");
+    } catch (InvocationTargetException e) {
+      throw new DecodeException("Failed to decode " + type.getName() + ": "
+          + e.getCause().getMessage(), e.getCause());
+    } catch (ReflectiveOperationException e) {
+      throw new DecodeException("Failed to decode " + type.getName() + ": " + e.getMessage(), e);
+    }
+  }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.zip.Deflater;
+
+/**
+ * Options for streaming attachment uploads.
+ * <p>
+ * A known {@code contentLength} is sent as Content-Length, otherwise the
+ * body is sent chunked. With {@code gzip} enabled, bodies of a compressible
+ * content type are compressed while they are sent and stored by CouchDB
+ * with gzip encoding, the length of the compressed body is not known up
+ * front, so these uploads are always chunked.
+ */
+public class AttachmentUploadOptions {
+
+  /** CouchDB's default [attachments] compressible_types */
+  public static final List<String> DEFAULT_COMPRESSIBLE_TYPES =
+      List.of("text/*", "application/javascript", "application/json", "application/xml");
+
+  private long contentLength = -1L;
+  private boolean gzip = false;
+  private int compressionLevel = Deflater.DEFAULT_COMPRESSION;
+  private List<String> compressibleTypes = new ArrayList<>(DEFAULT_COMPRESSIBLE_TYPES);
+
+  /**
+   * @param contentLength the length of the body in bytes, -1 if unknown
+   */
+  public AttachmentUploadOptions contentLength(long contentLength) {
+    this.contentLength = contentLength;
+    return this;
+  }
+
+  /**
+   * @param gzip true to compress bodies of a compressible content type
+   */
+  public AttachmentUploadOptions gzip(boolean gzip) {
+    this.gzip = gzip;
+    return this;
+  }
+
+  /**
+   * @param compressionLevel 1 (fastest) to 9 (smallest), -1 for the default
+   */
+  public AttachmentUploadOptions compressionLevel(int compressionLevel) {
+    if (compressionLevel < -1 || compressionLevel > 9) {
+      throw new IllegalArgumentException("compressionLevel must be between -1 and 9");
+    }
+    this.compressionLevel = compressionLevel;
+    return this;
+  }
+
+  /**
+   * @param compressibleTypes content types worth compressing, a trailing
+   *        {@code *} matches any subtype
+   */
+  public AttachmentUploadOptions compressibleTypes(List<String> compressibleTypes) {
+    this.compressibleTypes = new ArrayList<>(Objects.requireNonNull(compressibleTypes));
+    return this;
+  }
+
+  public long getContentLength() {
+    return contentLength;
+  }
+
+  public boolean isGzip() {
+    return gzip;
+  }
+
+  public int getCompressionLevel() {
+    return compressionLevel;
+  }
+
+  public List<String> getCompressibleTypes() {
+    return compressibleTypes;
+  }
+
+  /**
+   * @param contentType a content type, parameters like charset are ignored
+   * @return true when gzip is enabled and the content type is compressible
+   */
+  public boolean shouldCompress(String contentType) {
+    if (!this.gzip || contentType == null) {
+      return false;
+    }
+    int separator = contentType.indexOf(';');
+    String mimeType = (separator < 0 ? contentType : contentType.substring(0, separator))
+        .trim().toLowerCase(Locale.ROOT);
+    for (String type : this.compressibleTypes) {
+      String candidate = type.trim().toLowerCase(Locale.ROOT);
+      if (candidate.endsWith("*")
+          ? mimeType.startsWith(candidate.substring(0, candidate.length() - 1))
+          : mimeType.equals(candidate)) {
+        return true;
+      }
+    }
+    return false;
+  }
+}
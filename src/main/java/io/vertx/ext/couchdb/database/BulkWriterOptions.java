@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+/**
+ * Options for {@link CouchDbBulkWriter}: a batch is sent to _bulk_docs as soon
+ * as it reaches {@code maxBatchSize} documents, {@code maxBatchBytes} of
+ * encoded JSON or when the oldest queued document waited {@code maxDelay}
+ * milliseconds, whichever comes first.
+ */
+public class BulkWriterOptions {
+
+  public static final int DEFAULT_MAX_BATCH_SIZE = 500;
+  public static final int DEFAULT_MAX_BATCH_BYTES = 1024 * 1024;
+  public static final long DEFAULT_MAX_DELAY = 50L;
+
+  private int maxBatchSize = DEFAULT_MAX_BATCH_SIZE;
+  private int maxBatchBytes = DEFAULT_MAX_BATCH_BYTES;
+  private long maxDelay = DEFAULT_MAX_DELAY;
+
+  /**
+   * @param maxBatchSize maximum number of documents per _bulk_docs request
+   */
+  public BulkWriterOptions maxBatchSize(int maxBatchSize) {
+    if (maxBatchSize < 1) {
+      throw new IllegalArgumentException("maxBatchSize must be positive");
+    }
+    this.maxBatchSize = maxBatchSize;
+    return this;
+  }
+
+  /**
+   * @param maxBatchBytes maximum size of the encoded request body, a single
+   *        larger document is still sent on its own
+   */
+  public BulkWriterOptions maxBatchBytes(int maxBatchBytes) {
+    if (maxBatchBytes < 1) {
+      throw new IllegalArgumentException("maxBatchBytes must be positive");
+    }
+    this.maxBatchBytes = maxBatchBytes;
+    return this;
+  }
+
+  /**
+   * @param maxDelay milliseconds a document may wait for its batch to fill up,
+   *        at least 1
+   */
+  public BulkWriterOptions maxDelay(long maxDelay) {
+    if (maxDelay < 1) {
+      throw new IllegalArgumentException("maxDelay must be positive");
+    }
+    this.maxDelay = maxDelay;
+    return this;
+  }
+
+  public int getMaxBatchSize() {
+    return maxBatchSize;
+  }
+
+  public int getMaxBatchBytes() {
+    return maxBatchBytes;
+  }
+
+  public long getMaxDelay() {
+    return maxDelay;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.exception.CouchdbDocumentException;
+
+/**
+ * Coalesces individual document writes into _bulk_docs requests.
+ * <p>
+ * Each write returns its own Future, completed with the per document result
+ * {"ok": true, "id": "...", "rev": "..."} or failed with a
+ * {@link CouchdbConflictException} / {@link CouchdbDocumentException}.
+ *
+ * @see BulkWriterOptions
+ */
+public interface CouchDbBulkWriter {
+
+  /**
+   * Queues a new document, it fails with a conflict if the id exists.
+   * <p>
+   * The document is written with its <i>_id</i> field set to docId, the
+   * passed document is not modified.
+   *
+   * @param docId the document id
+   * @param document the document
+   * @return Future with the per document result
+   */
+  Future<JsonObject> createDocument(String docId, JsonObject document);
+
+  /**
+   * Queues a document write as is, use <i>_id</i> and <i>_rev</i> to update
+   * and <i>_deleted</i> to delete documents.
+   *
+   * @param document the document
+   * @return Future with the per document result
+   */
+  Future<JsonObject> write(JsonObject document);
+
+  /**
+   * Sends the queued documents now.
+   *
+   * @return Future completing when the request of the current batch completed
+   */
+  Future<Void> flush();
+
+  /**
+   * Flushes and rejects any further writes.
+   *
+   * @return Future completing when all pending batches completed
+   */
+  Future<Void> close();
+}
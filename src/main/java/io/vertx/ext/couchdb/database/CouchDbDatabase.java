@@ -10,32 +10,316 @@
  */
 package io.vertx.ext.couchdb.database;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
 import io.vertx.core.Future;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.codec.DocumentCodec;
 import io.vertx.ext.couchdb.database.designdoc.DBDesignDoc;
 import io.vertx.ext.couchdb.database.impl.CouchDbDatabaseImpl;
+import io.vertx.ext.couchdb.database.mango.MangoIndex;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
 import io.vertx.ext.couchdb.database.security.DBSecurity;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
 import io.vertx.ext.couchdb.parameters.DocumentGetParams;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
+import io.vertx.ext.couchdb.streams.ChangesOptions;
+import io.vertx.ext.couchdb.streams.CouchDbChangesStream;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
 import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.streams.CouchDbStreamOptions;
 
 public interface CouchDbDatabase {
 
   static Future<CouchDbDatabase> create(CouchdbClient client, String databaseName) {
-    return CouchDbDatabaseImpl.create(client, databaseName);
+    return CouchDbDatabaseImpl.create(client, databaseName, new CouchDbDatabaseOptions());
+  }
+
+  static Future<CouchDbDatabase> create(CouchdbClient client, String databaseName,
+      CouchDbDatabaseOptions options) {
+    return CouchDbDatabaseImpl.create(client, databaseName, options);
   }
 
   String name();
 
+  /**
+   * Returns a handle on the same database whose operations must complete
+   * within {@code timeout} milliseconds from now, across all the requests an
+   * operation makes, e.g. the HEAD and PUT of a checked update. Meant for a
+   * single operation:
+   *
+   * <pre>
+   * database.withTimeout(500).updateDocument(docId, rev, document)
+   * </pre>
+   *
+   * Reads served by the document cache or coalesced with other reads use the
+   * timeout of the client instead.
+   *
+   * @param timeout the milliseconds until the deadline
+   * @return the handle with the deadline
+   * @see io.vertx.ext.couchdb.CouchdbClient#withTimeout(long)
+   */
+  CouchDbDatabase withTimeout(long timeout);
+
   Future<JsonObject> status();
 
-  CouchDbStream stream(/* TODO: replace with specific object */ JsonObject options);
+  /**
+   * Streams all documents of the database, paging through _all_docs.
+   * <p>
+   * Pages are requested on demand, the stream honors {@code fetch},
+   * {@code pause} and {@code resume} and keeps one page in flight.
+   *
+   * @param options paging options, batch size, key range and order
+   * @return a CouchDbStream emitting the documents
+   * @see CouchDbStreamOptions
+   */
+  CouchDbStream stream(CouchDbStreamOptions options);
+
+  /**
+   * Streams all documents of the database using default options.
+   *
+   * @return a CouchDbStream emitting the documents
+   * @see #stream(CouchDbStreamOptions)
+   */
+  default CouchDbStream stream() {
+    return this.stream(new CouchDbStreamOptions());
+  }
+
+  /**
+   * Queries _all_docs, emitting the rows as they are parsed from the
+   * response instead of buffering the whole response.
+   *
+   * @param params the _all_docs query parameters
+   * @return a CouchDbRowStream emitting the rows, total_rows and offset are
+   *         available from {@link CouchDbRowStream#metadata()}
+   * @see AllDocsParams
+   */
+  CouchDbRowStream allDocs(AllDocsParams params);
+
+  /**
+   * Queries a view, buffering the complete response.
+   * <p>
+   * Queries with {@link ViewQueryParams#keys(java.util.Collection)} are sent
+   * as POST with the keys in the request body.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @return a Future containing the view response {"total_rows": .., "offset":
+   *         .., "rows": [..]}
+   * @see ViewQueryParams
+   */
+  Future<JsonObject> queryView(String designDocName, String viewName, ViewQueryParams params);
+
+  /**
+   * Queries a view, emitting the rows as they are parsed from the response.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @return a CouchDbRowStream emitting the rows
+   * @see #queryView(String, String, ViewQueryParams)
+   */
+  CouchDbRowStream streamView(String designDocName, String viewName, ViewQueryParams params);
+
+  /**
+   * Queries a view, decoding the documents of include_docs=true with the
+   * {@link DocumentCodec} of the database while the response is parsed.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @param type the class of the included documents
+   * @return a Future containing the view result with typed rows
+   * @see #queryView(String, String, ViewQueryParams)
+   */
+  <T> Future<ViewResult<T>> queryView(String designDocName, String viewName,
+      ViewQueryParams params, Class<T> type);
+
+  /**
+   * Runs a Mango query, streaming the matching documents.
+   * <p>
+   * The stream requests pages of {@link MangoQuery#limit(int)} documents and
+   * follows the bookmark of each page, prefetching the next page while the
+   * current one is consumed.
+   *
+   * @param query the Mango query
+   * @return a CouchDbStream emitting the matching documents
+   * @see MangoQuery
+   */
+  CouchDbStream find(MangoQuery query);
+
+  /**
+   * Creates a Mango index.
+   *
+   * @param index the index definition
+   * @return a Future containing {"result": "created" | "exists", "id": "...",
+   *         "name": "..."}
+   */
+  Future<JsonObject> createIndex(MangoIndex index);
+
+  /**
+   * Lists the Mango indexes of the database.
+   *
+   * @return a Future containing the "indexes" array of the _index response
+   */
+  Future<JsonArray> listIndexes();
+
+  /**
+   * Shows which index a Mango query would use and how, without running it.
+   *
+   * @param query the Mango query
+   * @return a Future containing the _explain response, "index" describes the
+   *         chosen index
+   */
+  Future<JsonObject> explain(MangoQuery query);
+
+  /**
+   * Returns a handle on a partition of this database, which must have been
+   * created partitioned. Queries of the handle are scoped to the partition.
+   *
+   * @param partition the name of the partition, the part of the document ids
+   *        before the ':'
+   * @return the partition handle, sharing the client and codec of this handle
+   * @throws IllegalArgumentException if the name is empty, starts with _ or
+   *         contains :
+   * @see CouchDbPartition
+   */
+  CouchDbPartition partition(String partition);
+
+  /**
+   * Follows the _changes feed of the database.
+   * <p>
+   * The feed starts once a handler is set, reconnects from the last received
+   * sequence after failures and optionally stores checkpoints in a _local
+   * document to resume from.
+   *
+   * @param options feed type, start sequence, filter and checkpoint options
+   * @return a CouchDbChangesStream emitting the change rows
+   * @see ChangesOptions
+   */
+  CouchDbChangesStream changes(ChangesOptions options);
+
+  /**
+   * Follows the continuous _changes feed from the beginning, without
+   * checkpoints.
+   *
+   * @return a CouchDbChangesStream emitting the change rows
+   * @see #changes(ChangesOptions)
+   */
+  default CouchDbChangesStream changes() {
+    return this.changes(new ChangesOptions());
+  }
+
+  /**
+   * Creates an in memory replica of this database, meant for small, read
+   * mostly databases like configuration or ACLs. The replica is loaded with
+   * _all_docs and kept current through the _changes feed.
+   *
+   * @param options staleness bound, heartbeat and size limit
+   * @return a Future completing with the replica once it holds all documents
+   * @see CouchDbReplica
+   */
+  Future<CouchDbReplica> replica(ReplicaOptions options);
 
   Future<JsonObject> createDocument(String docId, JsonObject document);
 
+  /**
+   * Creates a document using the given write mode.
+   * <p>
+   * OPTIMISTIC sends the PUT without checking for an existing document first,
+   * an existing document fails with a {@link CouchdbConflictException}.
+   *
+   * @param docId the id of the new document
+   * @param document the document content
+   * @param writeMode PREFLIGHT or OPTIMISTIC
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see WriteMode
+   */
+  Future<JsonObject> createDocument(String docId, JsonObject document, WriteMode writeMode);
+
+  /**
+   * Creates a document encoded by the {@link DocumentCodec} of the database,
+   * using the default write mode of the database. With the default Jackson
+   * codec a null {@code id} or {@code rev} property is not written.
+   *
+   * @param docId the id of the new document
+   * @param document the document, e.g. a record
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see CouchDbDatabaseOptions#codec(DocumentCodec)
+   */
+  <T> Future<JsonObject> createDocument(String docId, T document);
+
+  /**
+   * Creates a document encoded by the {@link DocumentCodec} of the database.
+   *
+   * @param docId the id of the new document
+   * @param document the document, e.g. a record
+   * @param writeMode PREFLIGHT or OPTIMISTIC
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see #createDocument(String, JsonObject, WriteMode)
+   */
+  <T> Future<JsonObject> createDocument(String docId, T document, WriteMode writeMode);
+
   Future<JsonObject> updateDocument(String docId, String rev, JsonObject document);
 
+  /**
+   * Updates a document using the given write mode.
+   * <p>
+   * OPTIMISTIC sends the PUT without comparing the current revision first, a
+   * stale rev fails with a {@link CouchdbConflictException}.
+   *
+   * @param docId the id of the document
+   * @param rev the revision being updated
+   * @param document the new document content
+   * @param writeMode PREFLIGHT or OPTIMISTIC
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see WriteMode
+   */
+  Future<JsonObject> updateDocument(String docId, String rev, JsonObject document,
+      WriteMode writeMode);
+
+  /**
+   * Writes multiple documents in a single _bulk_docs request.
+   * <p>
+   * Documents without <i>_rev</i> are created, with <i>_rev</i> updated and
+   * with <i>_deleted: true</i> deleted.
+   *
+   * @param documents the documents to write
+   * @return a Future containing one result per document, in request order:
+   *         {"ok": true, "id": "...", "rev": "..."} or
+   *         {"id": "...", "error": "conflict", "reason": "..."}
+   */
+  Future<JsonArray> bulkDocs(List<JsonObject> documents);
+
+  /**
+   * Creates a writer coalescing individual writes into _bulk_docs requests.
+   *
+   * @param options batch size, batch bytes and delay limits
+   * @return a new CouchDbBulkWriter
+   * @see BulkWriterOptions
+   */
+  CouchDbBulkWriter bulkWriter(BulkWriterOptions options);
+
+  /**
+   * Creates a bulk writer using default options.
+   *
+   * @return a new CouchDbBulkWriter
+   * @see #bulkWriter(BulkWriterOptions)
+   */
+  default CouchDbBulkWriter bulkWriter() {
+    return this.bulkWriter(new BulkWriterOptions());
+  }
+
   /**
  * Retrieves a document from the database asynchronously.
  *
@@ -59,6 +343,137 @@ Future<JsonObject> getDocument(String docId, DocumentGetParams options);
     return this.getDocument(docId, null);
   };
 
+  /**
+   * Retrieves a document decoded by the {@link DocumentCodec} of the
+   * database straight from the response, without building a JsonObject
+   * first. The document cache is not used.
+   *
+   * @param docId the id of the document
+   * @param options parameters of the request, may be null
+   * @param type the class to decode the document to, e.g. a record
+   * @return a Future containing the decoded document
+   * @see CouchDbDatabaseOptions#codec(DocumentCodec)
+   */
+  <T> Future<T> getDocumentAs(String docId, DocumentGetParams options, Class<T> type);
+
+  /**
+   * Retrieves a document decoded by the {@link DocumentCodec} of the
+   * database.
+   *
+   * @param docId the id of the document
+   * @param type the class to decode the document to, e.g. a record
+   * @return a Future containing the decoded document
+   * @see #getDocumentAs(String, DocumentGetParams, Class)
+   */
+  default <T> Future<T> getDocumentAs(String docId, Class<T> type) {
+    return this.getDocumentAs(docId, null, type);
+  }
+
+  /**
+   * Retrieves a document as the bytes CouchDB sent, without parsing them,
+   * e.g. to pass the document on to an HTTP response unchanged. The document
+   * cache is not used.
+   *
+   * @param docId the id of the document
+   * @param options parameters of the request, may be null
+   * @return a Future containing the JSON encoded document
+   * @see #getDocument(String, DocumentGetParams)
+   */
+  Future<Buffer> getDocumentRaw(String docId, DocumentGetParams options);
+
+  /**
+   * Retrieves a document as the bytes CouchDB sent, without parsing them.
+   *
+   * @param docId the id of the document
+   * @return a Future containing the JSON encoded document
+   * @see #getDocumentRaw(String, DocumentGetParams)
+   */
+  default Future<Buffer> getDocumentRaw(String docId) {
+    return this.getDocumentRaw(docId, null);
+  }
+
+  /**
+   * Creates or updates a document from already encoded JSON, sent as it is.
+   * The body is not inspected, so the write is always OPTIMISTIC: an update
+   * carries its _rev in the body and a stale or missing _rev fails with a
+   * {@link CouchdbConflictException}.
+   *
+   * @param docId the id of the document
+   * @param document the JSON encoded document
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   */
+  default Future<JsonObject> putDocumentRaw(String docId, Buffer document) {
+    return this.putDocumentRaw(docId, null, document);
+  }
+
+  /**
+   * Creates or updates a document from already encoded JSON, with the
+   * revision being updated passed as rev parameter instead of in the body.
+   *
+   * @param docId the id of the document
+   * @param rev the revision being updated, null to create the document
+   * @param document the JSON encoded document
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see #putDocumentRaw(String, Buffer)
+   */
+  Future<JsonObject> putDocumentRaw(String docId, String rev, Buffer document);
+
+  /**
+   * @return the counters of the document cache, null when the cache is not
+   *         enabled
+   * @see CouchDbDatabaseOptions#cache(DocumentCacheOptions)
+   */
+  DocumentCacheStats cacheStats();
+
+  /**
+   * Retrieves a document and its attachments with a single multipart/related
+   * request. The attachments are streamed into the WriteStreams returned by
+   * {@code attachmentSinks} as the response arrives instead of being base64
+   * decoded in memory, each sink is ended after its attachment.
+   *
+   * @param docId the id of the document
+   * @param options parameters of the request, attachments=true is added
+   * @param attachmentSinks returns the sink for an attachment name, null to
+   *        skip the attachment
+   * @return a Future containing the document, its _attachments stubs are
+   *         marked with "follows": true
+   */
+  Future<JsonObject> getDocumentWithAttachments(String docId, DocumentGetParams options,
+      Function<String, WriteStream<Buffer>> attachmentSinks);
+
+  /**
+   * Creates or updates a document together with its attachments in a single
+   * multipart/related request. Attachment streams are read one after the
+   * other while the request is sent.
+   *
+   * @param docId the id of the document
+   * @param document the document, include _rev to update it. Stubs of
+   *        existing attachments are kept
+   * @param attachments the attachments to store
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   */
+  Future<JsonObject> putDocumentWithAttachments(String docId, JsonObject document,
+      List<MultipartAttachment> attachments);
+
+  /**
+   * Retrieves multiple documents with a single POST to _all_docs.
+   *
+   * @param docIds the ids of the documents to retrieve
+   * @return a Future containing the found documents keyed by id, in request
+   *         order. Missing and deleted documents are not part of the map
+   */
+  Future<Map<String, JsonObject>> getDocuments(Collection<String> docIds);
+
+  /**
+   * Retrieves specific document revisions using _bulk_get.
+   *
+   * @param docs JsonArray of {"id": "...", "rev": "..."} objects, rev is
+   *        optional
+   * @return a Future containing the "results" array of the _bulk_get response
+   * @see https://docs.couchdb.org/en/stable/api/database/bulk-api.html#db-bulk-get
+   */
+  Future<JsonArray> bulkGet(JsonArray docs);
+
   Future<Buffer> getDocumentAttachment(String docId, String attachementName,
       String rev);
 
@@ -66,10 +481,84 @@ Future<JsonObject> getDocument(String docId, DocumentGetParams options);
     return this.getDocumentAttachment(docId, attachementName, null);
   }
 
-  default Future<JsonObject> deleteDocument(String docId, String rev) {
-    return this.deleteDocument(docId, rev, false);
+  /**
+   * Pipes an attachment into a WriteStream, e.g. an AsyncFile or an
+   * HttpServerResponse, without buffering it. The response is paused while
+   * the write queue of the sink is full, the sink is ended with the body.
+   * <p>
+   * The status is checked before the body is piped: for a missing
+   * attachment the Future fails with a CouchdbResponseException and the sink
+   * is neither written to nor ended.
+   *
+   * @param docId the id of the document
+   * @param attachmentName the name of the attachment
+   * @param rev the revision of the document, null for the current one
+   * @param sink the WriteStream receiving the attachment
+   * @return a Future completed once the attachment has been written
+   */
+  Future<Void> streamAttachment(String docId, String attachmentName, String rev,
+      WriteStream<Buffer> sink);
+
+  /**
+   * Streams an attachment as a ReadStream, the request is sent once a
+   * handler is set and the response follows the demand of the consumer.
+   *
+   * @param docId the id of the document
+   * @param attachmentName the name of the attachment
+   * @param rev the revision of the document, null for the current one
+   * @return a ReadStream emitting the attachment chunk by chunk
+   */
+  ReadStream<Buffer> streamAttachment(String docId, String attachmentName, String rev);
+
+  /**
+   * Uploads an attachment streaming the body, e.g. from an AsyncFile, without
+   * buffering it.
+   *
+   * @param docId the id of the document, created when it does not exist
+   * @param attachmentName the name of the attachment
+   * @param rev the current revision of the document, null for a new document
+   * @param contentType the content type of the attachment
+   * @param body the ReadStream providing the attachment
+   * @return a Future containing the new revision of the document
+   */
+  default Future<String> putAttachment(String docId, String attachmentName, String rev,
+      String contentType, ReadStream<Buffer> body) {
+    return this.putAttachment(docId, attachmentName, rev, contentType, body,
+        new AttachmentUploadOptions());
   }
 
+  /**
+   * Uploads an attachment streaming the body, optionally with a known
+   * Content-Length or gzip compressed on the fly.
+   *
+   * @param docId the id of the document, created when it does not exist
+   * @param attachmentName the name of the attachment
+   * @param rev the current revision of the document, null for a new document
+   * @param contentType the content type of the attachment
+   * @param body the ReadStream providing the attachment
+   * @param options length and compression of the upload, null for the defaults
+   * @return a Future containing the new revision of the document
+   * @see AttachmentUploadOptions
+   */
+  Future<String> putAttachment(String docId, String attachmentName, String rev,
+      String contentType, ReadStream<Buffer> body, AttachmentUploadOptions options);
+
+  Future<JsonObject> deleteDocument(String docId, String rev);
+
+  /**
+   * Deletes a document using the given write mode.
+   * <p>
+   * OPTIMISTIC sends the DELETE without comparing the current revision first,
+   * a stale rev fails with a {@link CouchdbConflictException}.
+   *
+   * @param docId the id of the document
+   * @param rev the revision being deleted
+   * @param writeMode PREFLIGHT or OPTIMISTIC
+   * @return a Future containing {"ok": true, "id": "...", "rev": "..."}
+   * @see WriteMode
+   */
+  Future<JsonObject> deleteDocument(String docId, String rev, WriteMode writeMode);
+
   /**
  * Deletes a document from the database.
  *
@@ -0,0 +1,102 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import java.util.Objects;
+
+import io.vertx.ext.couchdb.codec.DocumentCodec;
+
+/**
+ * Options of a {@link CouchDbDatabase} handle.
+ */
+public class CouchDbDatabaseOptions {
+
+  private boolean coalesceReads = false;
+  private WriteMode writeMode = WriteMode.PREFLIGHT;
+  private DocumentCacheOptions cache;
+  private DocumentCodec codec;
+
+  public CouchDbDatabaseOptions() {
+    // defaults
+  }
+
+  public CouchDbDatabaseOptions(CouchDbDatabaseOptions other) {
+    this.coalesceReads = other.coalesceReads;
+    this.writeMode = other.writeMode;
+    this.cache = other.cache == null ? null : new DocumentCacheOptions(other.cache);
+    this.codec = other.codec;
+  }
+
+  /**
+   * When enabled, {@code getDocument(docId)} calls issued within the same
+   * event loop tick are merged into a single _all_docs request and the
+   * results fanned back out to the callers. Calls with DocumentGetParams are
+   * always sent individually.
+   *
+   * @param coalesceReads true to merge concurrent reads, default false
+   */
+  public CouchDbDatabaseOptions coalesceReads(boolean coalesceReads) {
+    this.coalesceReads = coalesceReads;
+    return this;
+  }
+
+  /**
+   * Default write mode of createDocument, updateDocument and deleteDocument
+   * calls that don't specify one.
+   *
+   * @param writeMode PREFLIGHT (default) or OPTIMISTIC
+   */
+  public CouchDbDatabaseOptions writeMode(WriteMode writeMode) {
+    this.writeMode = Objects.requireNonNull(writeMode);
+    return this;
+  }
+
+  /**
+   * Enables a cache in front of {@code getDocument(docId)} that revalidates
+   * cached documents with their ETag. Calls with DocumentGetParams bypass
+   * the cache.
+   *
+   * @param cache the cache options, null (default) to disable the cache
+   * @see DocumentCacheOptions
+   */
+  public CouchDbDatabaseOptions cache(DocumentCacheOptions cache) {
+    this.cache = cache;
+    return this;
+  }
+
+  /**
+   * Codec of the typed document methods, e.g.
+   * {@code getDocumentAs(docId, Class)}.
+   *
+   * @param codec the codec, null (default) for
+   *        {@link DocumentCodec#defaultCodec()}
+   */
+  public CouchDbDatabaseOptions codec(DocumentCodec codec) {
+    this.codec = codec;
+    return this;
+  }
+
+  public boolean isCoalesceReads() {
+    return coalesceReads;
+  }
+
+  public WriteMode getWriteMode() {
+    return writeMode;
+  }
+
+  public DocumentCacheOptions getCache() {
+    return cache;
+  }
+
+  public DocumentCodec getCodec() {
+    return codec;
+  }
+}
@@ -0,0 +1,111 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
+import io.vertx.ext.couchdb.streams.CouchDbStream;
+
+/**
+ * A partition of a partitioned database, see
+ * {@link io.vertx.ext.couchdb.parameters.DbCreateParams#partitioned(boolean)}.
+ * <p>
+ * The documents of a partition have ids of the form {@code partition:docid}
+ * and are stored in the same shard range, queries scoped to the partition
+ * are answered by that range instead of every shard of the database.
+ *
+ * @see CouchDbDatabase#partition(String)
+ */
+public interface CouchDbPartition {
+
+  /**
+   * @return the name of the partition
+   */
+  String name();
+
+  /**
+   * @return the database of the partition
+   */
+  CouchDbDatabase database();
+
+  /**
+   * @return a Future containing the partition information: doc_count,
+   *         doc_del_count and sizes
+   */
+  Future<JsonObject> info();
+
+  /**
+   * Queries the _all_docs of the partition, emitting the rows as they are
+   * parsed from the response.
+   *
+   * @param params the _all_docs query parameters
+   * @return a CouchDbRowStream emitting the rows
+   * @see CouchDbDatabase#allDocs(AllDocsParams)
+   */
+  CouchDbRowStream allDocs(AllDocsParams params);
+
+  /**
+   * Queries a partitioned view, buffering the complete response. Views of
+   * design documents with "partitioned": false can't be queried this way.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @return a Future containing the view response
+   * @see CouchDbDatabase#queryView(String, String, ViewQueryParams)
+   */
+  Future<JsonObject> queryView(String designDocName, String viewName, ViewQueryParams params);
+
+  /**
+   * Queries a partitioned view, decoding the included documents with the
+   * codec of the database.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @param type the class of the included documents
+   * @return a Future containing the view result with typed rows
+   * @see CouchDbDatabase#queryView(String, String, ViewQueryParams, Class)
+   */
+  <T> Future<ViewResult<T>> queryView(String designDocName, String viewName,
+      ViewQueryParams params, Class<T> type);
+
+  /**
+   * Queries a partitioned view, emitting the rows as they are parsed.
+   *
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName the name of the view
+   * @param params the view query parameters, may be null
+   * @return a CouchDbRowStream emitting the rows
+   */
+  CouchDbRowStream streamView(String designDocName, String viewName, ViewQueryParams params);
+
+  /**
+   * Runs a Mango query on the partition, streaming the matching documents.
+   *
+   * @param query the Mango query
+   * @return a CouchDbStream emitting the matching documents
+   * @see CouchDbDatabase#find(MangoQuery)
+   */
+  CouchDbStream find(MangoQuery query);
+
+  /**
+   * Shows which index a Mango query on the partition would use.
+   *
+   * @param query the Mango query
+   * @return a Future containing the _explain response
+   */
+  Future<JsonObject> explain(MangoQuery query);
+}
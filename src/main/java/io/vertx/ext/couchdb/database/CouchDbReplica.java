@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * An in memory copy of a small database, bootstrapped from _all_docs and
+ * kept current by following _changes from the bootstrap update_seq.
+ * <p>
+ * Reads are served from memory while the replica is fresh, i.e. the server
+ * has been heard from within {@link ReplicaOptions#getMaxStaleness()}.
+ * Otherwise they are sent to the database, so a read is never staler than
+ * that bound plus the propagation delay of the feed.
+ */
+public interface CouchDbReplica {
+
+  /**
+   * @param docId the id of the document
+   * @return a Future containing a copy of the document, failing with a
+   *         CouchdbDocumentException when it does not exist
+   */
+  Future<JsonObject> getDocument(String docId);
+
+  /**
+   * @return true when reads are currently served from memory
+   */
+  boolean isFresh();
+
+  /**
+   * @return milliseconds since the server was last heard from
+   */
+  long lag();
+
+  /**
+   * @return number of documents held
+   */
+  int size();
+
+  /**
+   * @return the sequence the replica is current with
+   */
+  String lastSeq();
+
+  /**
+   * @return size, lastSeq, lag in milliseconds, fresh, number of applied
+   *         changes and of reads served locally or by the server, number of
+   *         feed failures, the message of the last one and whether the
+   *         database outgrew maxDocuments
+   */
+  JsonObject metrics();
+
+  /**
+   * Stops following the feed and drops the documents.
+   *
+   * @return a Future completing once the feed is closed
+   */
+  Future<Void> close();
+}
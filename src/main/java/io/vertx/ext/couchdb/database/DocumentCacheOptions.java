@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+/**
+ * Options of the document cache of a {@link CouchDbDatabase}, see
+ * {@link CouchDbDatabaseOptions#cache(DocumentCacheOptions)}.
+ * <p>
+ * Cached documents are revalidated with If-None-Match, an unchanged document
+ * is answered with a 304 without body. Within {@code revalidateAfter}
+ * milliseconds of the last validation a document is served without any
+ * request. The least recently used documents are evicted beyond
+ * {@code maxSize} entries, documents not validated for {@code ttl}
+ * milliseconds are dropped.
+ */
+public class DocumentCacheOptions {
+
+  public static final int DEFAULT_MAX_SIZE = 1000;
+  public static final long DEFAULT_TTL = 300_000L;
+  public static final long DEFAULT_REVALIDATE_AFTER = 0L;
+
+  private int maxSize = DEFAULT_MAX_SIZE;
+  private long ttl = DEFAULT_TTL;
+  private long revalidateAfter = DEFAULT_REVALIDATE_AFTER;
+
+  public DocumentCacheOptions() {
+    // defaults
+  }
+
+  public DocumentCacheOptions(DocumentCacheOptions other) {
+    this.maxSize = other.maxSize;
+    this.ttl = other.ttl;
+    this.revalidateAfter = other.revalidateAfter;
+  }
+
+  /**
+   * @param maxSize maximum number of cached documents
+   */
+  public DocumentCacheOptions maxSize(int maxSize) {
+    if (maxSize < 1) {
+      throw new IllegalArgumentException("maxSize must be positive");
+    }
+    this.maxSize = maxSize;
+    return this;
+  }
+
+  /**
+   * @param ttl milliseconds after the last validation at which a document is
+   *        dropped from the cache
+   */
+  public DocumentCacheOptions ttl(long ttl) {
+    if (ttl < 1) {
+      throw new IllegalArgumentException("ttl must be positive");
+    }
+    this.ttl = ttl;
+    return this;
+  }
+
+  /**
+   * Milliseconds after the last validation during which a cached document is
+   * returned without asking the server, the staleness accepted for hot
+   * documents. 0 (default) revalidates every read, writes through this
+   * handle invalidate the document either way.
+   *
+   * @param revalidateAfter milliseconds, 0 to always revalidate
+   */
+  public DocumentCacheOptions revalidateAfter(long revalidateAfter) {
+    if (revalidateAfter < 0) {
+      throw new IllegalArgumentException("revalidateAfter must not be negative");
+    }
+    this.revalidateAfter = revalidateAfter;
+    return this;
+  }
+
+  public int getMaxSize() {
+    return maxSize;
+  }
+
+  public long getTtl() {
+    return ttl;
+  }
+
+  public long getRevalidateAfter() {
+    return revalidateAfter;
+  }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Counters of the document cache of a {@link CouchDbDatabase}.
+ */
+public class DocumentCacheStats {
+
+  private final long hits;
+  private final long revalidations;
+  private final long misses;
+  private final long evictions;
+  private final int size;
+
+  public DocumentCacheStats(long hits, long revalidations, long misses, long evictions,
+      int size) {
+    this.hits = hits;
+    this.revalidations = revalidations;
+    this.misses = misses;
+    this.evictions = evictions;
+    this.size = size;
+  }
+
+  /**
+   * @return reads served from the cache without a request
+   */
+  public long getHits() {
+    return hits;
+  }
+
+  /**
+   * @return reads answered by the server with 304 Not Modified
+   */
+  public long getRevalidations() {
+    return revalidations;
+  }
+
+  /**
+   * @return reads that transferred the document
+   */
+  public long getMisses() {
+    return misses;
+  }
+
+  /**
+   * @return documents dropped for size, age or a write
+   */
+  public long getEvictions() {
+    return evictions;
+  }
+
+  /**
+   * @return number of cached documents
+   */
+  public int getSize() {
+    return size;
+  }
+
+  public JsonObject toJson() {
+    return new JsonObject()
+        .put("hits", this.hits)
+        .put("revalidations", this.revalidations)
+        .put("misses", this.misses)
+        .put("evictions", this.evictions)
+        .put("size", this.size);
+  }
+}
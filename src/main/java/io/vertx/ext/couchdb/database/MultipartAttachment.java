@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import java.util.Objects;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * An attachment sent as a part of a multipart/related document write. The
+ * length has to be known up front, CouchDB reads it from the attachment
+ * stub of the document.
+ */
+public class MultipartAttachment {
+
+  private final String name;
+  private final String contentType;
+  private final long length;
+  private final Buffer data;
+  private final ReadStream<Buffer> body;
+
+  /**
+   * @param name the name of the attachment
+   * @param contentType the content type of the attachment
+   * @param data the content of the attachment
+   */
+  public MultipartAttachment(String name, String contentType, Buffer data) {
+    this.name = Objects.requireNonNull(name);
+    this.contentType = Objects.requireNonNull(contentType);
+    this.data = Objects.requireNonNull(data);
+    this.length = data.length();
+    this.body = null;
+  }
+
+  /**
+   * @param name the name of the attachment
+   * @param contentType the content type of the attachment
+   * @param length the exact length of the body in bytes
+   * @param body the stream providing the content, e.g. an AsyncFile
+   */
+  public MultipartAttachment(String name, String contentType, long length,
+      ReadStream<Buffer> body) {
+    if (length < 0) {
+      throw new IllegalArgumentException("length must not be negative");
+    }
+    this.name = Objects.requireNonNull(name);
+    this.contentType = Objects.requireNonNull(contentType);
+    this.length = length;
+    this.data = null;
+    this.body = Objects.requireNonNull(body);
+  }
+
+  public String getName() {
+    return name;
+  }
+
+  public String getContentType() {
+    return contentType;
+  }
+
+  public long getLength() {
+    return length;
+  }
+
+  /**
+   * @return the content when given as Buffer, null for a stream
+   */
+  public Buffer getData() {
+    return data;
+  }
+
+  /**
+   * @return the content when given as stream, null for a Buffer
+   */
+  public ReadStream<Buffer> getBody() {
+    return body;
+  }
+}
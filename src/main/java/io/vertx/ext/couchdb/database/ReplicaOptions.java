@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+/**
+ * Options of a {@link CouchDbReplica}.
+ * <p>
+ * The _changes feed is asked for a heartbeat every {@code heartbeat}
+ * milliseconds. When the server has not been heard from for
+ * {@code maxStaleness} milliseconds, e.g. while the feed reconnects, the
+ * replica is considered stale and reads go to the server until the feed
+ * catches up again. Keep the heartbeat well below the staleness bound.
+ * <p>
+ * A feed that gives up, e.g. after its reconnect attempts, is started again
+ * from the last applied sequence, after {@code restartDelay} milliseconds,
+ * doubled for each further failure up to {@code maxRestartDelay}.
+ */
+public class ReplicaOptions {
+
+  public static final long DEFAULT_MAX_STALENESS = 30_000L;
+  public static final long DEFAULT_HEARTBEAT = 5_000L;
+  public static final int DEFAULT_MAX_DOCUMENTS = 100_000;
+  public static final long DEFAULT_RESTART_DELAY = 1_000L;
+  public static final long DEFAULT_MAX_RESTART_DELAY = 60_000L;
+
+  private long maxStaleness = DEFAULT_MAX_STALENESS;
+  private long heartbeat = DEFAULT_HEARTBEAT;
+  private int maxDocuments = DEFAULT_MAX_DOCUMENTS;
+  private long restartDelay = DEFAULT_RESTART_DELAY;
+  private long maxRestartDelay = DEFAULT_MAX_RESTART_DELAY;
+
+  /**
+   * @param maxStaleness milliseconds without contact to the server after
+   *        which reads are no longer served from memory
+   */
+  public ReplicaOptions maxStaleness(long maxStaleness) {
+    if (maxStaleness < 1) {
+      throw new IllegalArgumentException("maxStaleness must be positive");
+    }
+    this.maxStaleness = maxStaleness;
+    return this;
+  }
+
+  /**
+   * @param heartbeat milliseconds between heartbeats of the _changes feed
+   */
+  public ReplicaOptions heartbeat(long heartbeat) {
+    if (heartbeat < 1) {
+      throw new IllegalArgumentException("heartbeat must be positive");
+    }
+    this.heartbeat = heartbeat;
+    return this;
+  }
+
+  /**
+   * @param maxDocuments upper bound of documents held in memory, the
+   *        bootstrap fails for larger databases. A replica that grows beyond
+   *        it later drops its documents, stops following the feed and sends
+   *        all reads to the server.
+   */
+  public ReplicaOptions maxDocuments(int maxDocuments) {
+    if (maxDocuments < 1) {
+      throw new IllegalArgumentException("maxDocuments must be positive");
+    }
+    this.maxDocuments = maxDocuments;
+    return this;
+  }
+
+  /**
+   * @param restartDelay milliseconds before a failed feed is started again
+   */
+  public ReplicaOptions restartDelay(long restartDelay) {
+    if (restartDelay < 1) {
+      throw new IllegalArgumentException("restartDelay must be positive");
+    }
+    this.restartDelay = restartDelay;
+    return this;
+  }
+
+  /**
+   * @param maxRestartDelay upper bound of the delay doubled for repeated
+   *        feed failures
+   */
+  public ReplicaOptions maxRestartDelay(long maxRestartDelay) {
+    if (maxRestartDelay < 1) {
+      throw new IllegalArgumentException("maxRestartDelay must be positive");
+    }
+    this.maxRestartDelay = maxRestartDelay;
+    return this;
+  }
+
+  public long getMaxStaleness() {
+    return maxStaleness;
+  }
+
+  public long getHeartbeat() {
+    return heartbeat;
+  }
+
+  public int getMaxDocuments() {
+    return maxDocuments;
+  }
+
+  public long getRestartDelay() {
+    return restartDelay;
+  }
+
+  public long getMaxRestartDelay() {
+    return maxRestartDelay;
+  }
+}
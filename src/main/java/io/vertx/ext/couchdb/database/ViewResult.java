@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import java.util.List;
+
+/**
+ * A view or _all_docs response with typed rows.
+ *
+ * @param <T> the type of the included documents
+ * @see CouchDbDatabase#queryView(String, String,
+ *      io.vertx.ext.couchdb.parameters.ViewQueryParams, Class)
+ */
+public class ViewResult<T> {
+
+  private final long totalRows;
+  private final long offset;
+  private final List<ViewRow<T>> rows;
+
+  public ViewResult(long totalRows, long offset, List<ViewRow<T>> rows) {
+    this.totalRows = totalRows;
+    this.offset = offset;
+    this.rows = rows;
+  }
+
+  /**
+   * @return the number of rows in the view, 0 for reduced views
+   */
+  public long getTotalRows() {
+    return totalRows;
+  }
+
+  /**
+   * @return the offset of the first row
+   */
+  public long getOffset() {
+    return offset;
+  }
+
+  public List<ViewRow<T>> getRows() {
+    return rows;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+/**
+ * A row of a view or _all_docs response with its included document decoded
+ * by the {@link io.vertx.ext.couchdb.codec.DocumentCodec} of the database.
+ *
+ * @param <T> the type of the included document
+ */
+public class ViewRow<T> {
+
+  private final String id;
+  private final Object key;
+  private final Object value;
+  private final T doc;
+  private final String error;
+
+  public ViewRow(String id, Object key, Object value, T doc, String error) {
+    this.id = id;
+    this.key = key;
+    this.value = value;
+    this.doc = doc;
+    this.error = error;
+  }
+
+  /**
+   * @return the id of the document emitting the row, null for reduced rows
+   */
+  public String getId() {
+    return id;
+  }
+
+  /**
+   * @return the key, as decoded by the codec: Map and List with Jackson,
+   *         JsonObject and JsonArray otherwise
+   */
+  public Object getKey() {
+    return key;
+  }
+
+  /**
+   * @return the value, decoded like the key
+   */
+  public Object getValue() {
+    return value;
+  }
+
+  /**
+   * @return the document, null without include_docs=true or for a deleted
+   *         document
+   */
+  public T getDoc() {
+    return doc;
+  }
+
+  /**
+   * @return the error of a row requested by key, e.g. "not_found", null for
+   *         found rows
+   */
+  public String getError() {
+    return error;
+  }
+}
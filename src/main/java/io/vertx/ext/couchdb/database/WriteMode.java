@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database;
+
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+
+/**
+ * How document writes check the current state of the document.
+ */
+public enum WriteMode {
+  /**
+   * Checks existence / the current rev with a HEAD request before writing,
+   * two round trips per write.
+   */
+  PREFLIGHT,
+  /**
+   * Sends the PUT / DELETE directly with the given rev and lets CouchDB
+   * reject stale writes, a single round trip. Conflicts (409) and failed
+   * preconditions (412) fail with {@link CouchdbConflictException}.
+   */
+  OPTIMISTIC
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpResponseExpectation;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.database.BulkWriterOptions;
+import io.vertx.ext.couchdb.database.CouchDbBulkWriter;
+import io.vertx.ext.couchdb.exception.CouchdbDocumentException;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Collects documents into an encoded _bulk_docs body and sends it when one of
+ * the limits of {@link BulkWriterOptions} is reached. Documents are encoded
+ * once when queued, the request body is assembled from those bytes.
+ * <p>
+ * The ids of written documents are reported when they are queued and again
+ * when their result arrives, the database handle drops them from its cache.
+ */
+public class CouchDbBulkWriterImpl implements CouchDbBulkWriter {
+
+  private static final String BODY_START = "{\"docs\":[";
+  private static final String BODY_END = "]}";
+
+  private final CouchdbClient client;
+  private final Vertx vertx;
+  private final UriTemplate bulkDocsUrl;
+  private final BulkWriterOptions options;
+  private final Consumer<String> written;
+  private final Set<Future<Void>> inFlight = new HashSet<>();
+
+  private List<Promise<JsonObject>> pending = new ArrayList<>();
+  private Buffer body;
+  private long timerId = -1L;
+  private boolean closed;
+
+  public CouchDbBulkWriterImpl(CouchdbClient client, UriTemplate bulkDocsUrl,
+      BulkWriterOptions options, Consumer<String> written) {
+    this.client = client;
+    this.vertx = client.vertx();
+    this.bulkDocsUrl = bulkDocsUrl;
+    this.options = options;
+    this.written = written;
+  }
+
+  @Override
+  public Future<JsonObject> createDocument(String docId, JsonObject document) {
+    Objects.requireNonNull(docId);
+    Objects.requireNonNull(document);
+    return this.write(document.copy().put("_id", docId));
+  }
+
+  @Override
+  public Future<JsonObject> write(JsonObject document) {
+    Objects.requireNonNull(document);
+    if (this.closed) {
+      return Future.failedFuture(new CouchdbException("Bulk writer is closed"));
+    }
+
+    Buffer encoded = document.toBuffer();
+    if (!this.pending.isEmpty() && this.body.length() + encoded.length()
+        + BODY_END.length() + 1 > this.options.getMaxBatchBytes()) {
+      this.flush();
+    }
+
+    if (this.pending.isEmpty()) {
+      this.body = Buffer.buffer(encoded.length() + 64).appendString(BODY_START);
+    } else {
+      this.body.appendByte((byte) ',');
+    }
+    this.body.appendBuffer(encoded);
+
+    String docId = document.getString("_id");
+    this.written.accept(docId);
+    Promise<JsonObject> promise = Promise.promise();
+    this.pending.add(promise);
+
+    if (this.pending.size() >= this.options.getMaxBatchSize()
+        || this.body.length() >= this.options.getMaxBatchBytes()) {
+      this.flush();
+    } else if (this.timerId < 0) {
+      this.timerId = this.vertx.setTimer(this.options.getMaxDelay(), id -> {
+        this.timerId = -1L;
+        this.flush();
+      });
+    }
+
+    return promise.future().onComplete(ar -> this.written
+        .accept(ar.succeeded() ? ar.result().getString("id", docId) : docId));
+  }
+
+  @Override
+  public Future<Void> flush() {
+    if (this.timerId >= 0) {
+      this.vertx.cancelTimer(this.timerId);
+      this.timerId = -1L;
+    }
+    if (this.pending.isEmpty()) {
+      return Future.succeededFuture();
+    }
+
+    List<Promise<JsonObject>> batch = this.pending;
+    Buffer payload = this.body.appendString(BODY_END);
+    this.pending = new ArrayList<>();
+    this.body = null;
+
+    Promise<Void> done = Promise.promise();
+    Future<Void> doneFuture = done.future();
+    this.inFlight.add(doneFuture);
+    doneFuture.onComplete(v -> this.inFlight.remove(doneFuture));
+
+    this.client.bufferBody(HttpMethod.POST, this.bulkDocsUrl, null, payload)
+        .expecting(HttpResponseExpectation.JSON)
+        .onFailure(err -> {
+          batch.forEach(promise -> promise.tryFail(err));
+          done.fail(err);
+        })
+        .onSuccess(response -> {
+          JsonArray results = response.bodyAsJsonArray();
+          for (int i = 0; i < batch.size(); i++) {
+            Promise<JsonObject> promise = batch.get(i);
+            if (i >= results.size()) {
+              promise.tryFail(new CouchdbException("No result for document in _bulk_docs"));
+              continue;
+            }
+            JsonObject result = results.getJsonObject(i);
+            if (result.containsKey("error")) {
+              promise.tryFail(CouchdbDocumentException.fromResult(result));
+            } else {
+              promise.tryComplete(result);
+            }
+          }
+          done.complete();
+        });
+
+    return doneFuture;
+  }
+
+  @Override
+  public Future<Void> close() {
+    this.closed = true;
+    this.flush();
+    return Future.join(new ArrayList<>(this.inFlight)).mapEmpty();
+  }
+}
@@ -10,52 +10,138 @@
  */
 package io.vertx.ext.couchdb.database.impl;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpResponseExpectation;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.codec.DocumentCodec;
+import io.vertx.ext.couchdb.database.AttachmentUploadOptions;
+import io.vertx.ext.couchdb.database.BulkWriterOptions;
+import io.vertx.ext.couchdb.database.CouchDbBulkWriter;
 import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.CouchDbDatabaseOptions;
+import io.vertx.ext.couchdb.database.CouchDbPartition;
+import io.vertx.ext.couchdb.database.CouchDbReplica;
+import io.vertx.ext.couchdb.database.DocumentCacheStats;
+import io.vertx.ext.couchdb.database.MultipartAttachment;
+import io.vertx.ext.couchdb.database.ReplicaOptions;
+import io.vertx.ext.couchdb.database.ViewResult;
+import io.vertx.ext.couchdb.database.WriteMode;
 import io.vertx.ext.couchdb.database.designdoc.DBDesignDoc;
+import io.vertx.ext.couchdb.database.mango.MangoIndex;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
 import io.vertx.ext.couchdb.database.security.DBSecurity;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
 import io.vertx.ext.couchdb.parameters.BaseQueryParameters;
 import io.vertx.ext.couchdb.parameters.DocumentGetParams;
+import io.vertx.ext.couchdb.parameters.EncodedQueryParameters;
 import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
+import io.vertx.ext.couchdb.streams.ChangesOptions;
+import io.vertx.ext.couchdb.streams.CouchDbChangesStream;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
 import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.streams.CouchDbStreamOptions;
+import io.vertx.ext.couchdb.streams.impl.CouchDbAttachmentStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.CouchDbChangesStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.CouchDbFindStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.CouchDbRowStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.ConcatReadStream;
+import io.vertx.ext.couchdb.streams.impl.CouchDbStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.GzipReadStream;
+import io.vertx.ext.couchdb.streams.impl.MultipartRelatedParser;
+import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.uritemplate.UriTemplate;
 
 public class CouchDbDatabaseImpl implements CouchDbDatabase {
 
+  private static final QueryParameters INCLUDE_DOCS =
+      new AllDocsParams().includeDocs(true).encode();
+
   private final CouchdbClient client;
 
   private final String databaseName;
 
+  private final CouchDbDatabaseOptions options;
+
+  private final DocumentLoader loader;
+
+  private final DocumentCache cache;
+
+  private final DocumentCodec codec;
+
   /**
    * Create does create the JavaObject, not the couchDB
    *
    * @param client CouchDBClient
    * @param databaseName String
+   * @param options CouchDbDatabaseOptions
    * @return Future of CouchDbDatabase
    */
-  public static Future<CouchDbDatabase> create(CouchdbClient client, String databaseName) {
+  public static Future<CouchDbDatabase> create(CouchdbClient client, String databaseName,
+      CouchDbDatabaseOptions options) {
 
+    Objects.requireNonNull(options);
     Promise<CouchDbDatabase> promise = Promise.promise();
     UriTemplate urlToCheck = PathParameterTemplates.database(databaseName);
 
     client.doesExist(urlToCheck)
-        .onSuccess(v -> promise.succeed(new CouchDbDatabaseImpl(client, databaseName)))
+        .onSuccess(
+            v -> promise.succeed(new CouchDbDatabaseImpl(client, databaseName, options)))
         .onFailure(promise::fail);
 
     return promise.future();
 
   }
 
-  CouchDbDatabaseImpl(CouchdbClient client, String databaseName) {
+  CouchDbDatabaseImpl(CouchdbClient client, String databaseName,
+      CouchDbDatabaseOptions options) {
     this.client = client;
     this.databaseName = databaseName;
+    this.options = new CouchDbDatabaseOptions(options);
+    this.loader = this.options.isCoalesceReads()
+        ? new DocumentLoader(client.vertx(), this::getDocuments)
+        : null;
+    this.cache = this.options.getCache() != null
+        ? new DocumentCache(this.options.getCache(), (docId, etag) -> client.getIfNoneMatch(
+            PathParameterTemplates.databaseDocumentId(databaseName, docId), null, etag))
+        : null;
+    this.codec = this.options.getCodec() != null
+        ? this.options.getCodec()
+        : DocumentCodec.defaultCodec();
+  }
+
+  /**
+   * A handle on the same database using another client, sharing the loader
+   * and the cache of the base handle.
+   */
+  private CouchDbDatabaseImpl(CouchDbDatabaseImpl base, CouchdbClient client) {
+    this.client = client;
+    this.databaseName = base.databaseName;
+    this.options = base.options;
+    this.loader = base.loader;
+    this.cache = base.cache;
+    this.codec = base.codec;
   }
 
   @Override
@@ -63,23 +149,72 @@ public class CouchDbDatabaseImpl implements CouchDbDatabase {
     return this.databaseName;
   }
 
+  @Override
+  public CouchDbDatabase withTimeout(long timeout) {
+    return new CouchDbDatabaseImpl(this, this.client.withTimeout(timeout));
+  }
+
   @Override
   public Future<JsonObject> createDocument(String docId, JsonObject document) {
+    return this.createDocument(docId, document, this.options.getWriteMode());
+  }
+
+  @Override
+  public Future<JsonObject> createDocument(String docId, JsonObject document,
+      WriteMode writeMode) {
 
     Objects.requireNonNull(docId);
     Objects.requireNonNull(document);
+    Objects.requireNonNull(writeMode);
+    UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    return this.create(docId, urlToCheck, writeMode,
+        () -> this.client.putJsonObject(urlToCheck, null, document));
+  }
 
-    Promise<JsonObject> promise = Promise.promise();
+  @Override
+  public <T> Future<JsonObject> createDocument(String docId, T document) {
+    return this.createDocument(docId, document, this.options.getWriteMode());
+  }
+
+  @Override
+  public <T> Future<JsonObject> createDocument(String docId, T document, WriteMode writeMode) {
+    Objects.requireNonNull(docId);
+    Objects.requireNonNull(document);
+    Objects.requireNonNull(writeMode);
+    Buffer encoded;
+    try {
+      encoded = this.codec.encode(document);
+    } catch (RuntimeException e) {
+      return Future.failedFuture(e);
+    }
     UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    return this.create(docId, urlToCheck, writeMode,
+        () -> this.client.bufferBody(HttpMethod.PUT, urlToCheck, null, encoded)
+            .expecting(HttpResponseExpectation.JSON)
+            .map(HttpResponse::bodyAsJsonObject));
+  }
 
-    this.client.doesExist(urlToCheck)
-        .onSuccess(v -> promise.fail("Document alreday exists"))
-        .onFailure(
-            err -> this.client.putJsonObject(urlToCheck, null, document)
-                .onFailure(promise::fail)
-                .onSuccess(promise::succeed));
+  /**
+   * Sends the PUT of a new document, in PREFLIGHT mode only once a HEAD
+   * request found no document with the id.
+   */
+  private Future<JsonObject> create(String docId, UriTemplate urlToCheck, WriteMode writeMode,
+      Supplier<Future<JsonObject>> put) {
+    if (writeMode == WriteMode.OPTIMISTIC) {
+      return this.write(docId, put);
+    }
 
-    return promise.future();
+    return this.write(docId, () -> {
+      Promise<JsonObject> promise = Promise.promise();
+      this.client.doesExist(urlToCheck)
+          .onSuccess(v -> promise.fail(new CouchdbConflictException(docId,
+              CouchdbConflictException.CONFLICT, "Document alreday exists", 409)))
+          .onFailure(
+              err -> put.get()
+                  .onFailure(promise::fail)
+                  .onSuccess(promise::succeed));
+      return promise.future();
+    });
   }
 
   @Override
@@ -112,40 +247,260 @@ public class CouchDbDatabaseImpl implements CouchDbDatabase {
 
   @Override
   public Future<JsonObject> updateDocument(String docId, String rev, JsonObject document) {
+    return this.updateDocument(docId, rev, document, this.options.getWriteMode());
+  }
+
+  @Override
+  public Future<JsonObject> updateDocument(String docId, String rev, JsonObject document,
+      WriteMode writeMode) {
 
     Objects.requireNonNull(docId);
     Objects.requireNonNull(rev);
     Objects.requireNonNull(document);
+    Objects.requireNonNull(writeMode);
 
     if (document.containsKey("_rev") && !rev.equals(document.getString("_rev"))) {
       return Future.failedFuture("Mismatch between ref parameter and _ref property");
     }
-    BaseQueryParameters params = new BaseQueryParameters();
-    params.addParameter("rev", rev, true);
-    Promise<JsonObject> promise = Promise.promise();
+    QueryParameters params = EncodedQueryParameters.rev(rev);
     UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    if (writeMode == WriteMode.OPTIMISTIC) {
+      return this.write(docId, () -> this.client.putJsonObject(urlToCheck, params, document));
+    }
 
-    this.client.getEtag(urlToCheck)
-        .onSuccess(curRev -> {
-          if (!curRev.equals(rev)) {
-            promise.fail("Existing rev/ETag doesn't match rev param");
-          } else {
-            this.client.putJsonObject(urlToCheck, params, document)
-                .onFailure(promise::fail)
-                .onSuccess(promise::succeed);
+    return this.write(docId, () -> {
+      Promise<JsonObject> promise = Promise.promise();
+      this.client.getEtag(urlToCheck)
+          .onSuccess(curRev -> {
+            if (!curRev.equals(rev)) {
+              promise.fail(new CouchdbConflictException(docId, CouchdbConflictException.CONFLICT,
+                  "Existing rev/ETag doesn't match rev param", 409));
+            } else {
+              this.client.putJsonObject(urlToCheck, params, document)
+                  .onFailure(promise::fail)
+                  .onSuccess(promise::succeed);
+            }
+          })
+          .onFailure(promise::fail);
+      return promise.future();
+    });
+  }
+
+  @Override
+  public Future<JsonArray> bulkDocs(List<JsonObject> documents) {
+    Objects.requireNonNull(documents);
+    JsonObject body = new JsonObject().put("docs", new JsonArray(documents));
+    UriTemplate bulkDocsUrl = PathParameterTemplates.bulkDocs(databaseName);
+    if (this.cache == null) {
+      return this.client.postJsonArray(bulkDocsUrl, null, body);
+    }
+
+    documents.forEach(document -> this.invalidate(document.getString("_id")));
+    return this.client.postJsonArray(bulkDocsUrl, null, body)
+        .onComplete(ar -> {
+          documents.forEach(document -> this.invalidate(document.getString("_id")));
+          if (ar.succeeded()) {
+            // ids CouchDB generated for documents sent without one
+            for (int i = 0; i < ar.result().size(); i++) {
+              JsonObject result = ar.result().getJsonObject(i);
+              this.invalidate(result == null ? null : result.getString("id"));
+            }
           }
-        })
-        .onFailure(promise::fail);
+        });
+  }
 
-    return promise.future();
+  @Override
+  public CouchDbBulkWriter bulkWriter(BulkWriterOptions options) {
+    Objects.requireNonNull(options);
+    UriTemplate bulkDocsUrl = PathParameterTemplates.bulkDocs(databaseName);
+    return new CouchDbBulkWriterImpl(this.client, bulkDocsUrl, options, this::invalidate);
   }
 
   @Override
   public Future<JsonObject> getDocument(String docId, DocumentGetParams options) {
+    if (this.cache != null && options == null) {
+      return this.cache.get(docId);
+    }
+    if (this.loader != null && options == null) {
+      return this.loader.load(docId);
+    }
     UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
     return client.getJsonObject(urlToCheck, options);
   }
 
+  @Override
+  public <T> Future<T> getDocumentAs(String docId, DocumentGetParams options, Class<T> type) {
+    Objects.requireNonNull(type);
+    return this.getDocumentRaw(docId, options).map(json -> this.codec.decode(json, type));
+  }
+
+  @Override
+  public Future<Buffer> getDocumentRaw(String docId, DocumentGetParams options) {
+    Objects.requireNonNull(docId);
+    UriTemplate url = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    return this.client.noBody(HttpMethod.GET, url, options)
+        .expecting(HttpResponseExpectation.JSON)
+        .map(HttpResponse::body);
+  }
+
+  @Override
+  public Future<JsonObject> putDocumentRaw(String docId, String rev, Buffer document) {
+    Objects.requireNonNull(docId);
+    Objects.requireNonNull(document);
+    UriTemplate url = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    return this.write(docId, () -> this.client
+        .bufferBody(HttpMethod.PUT, url, this.revParams(rev), document)
+        .expecting(HttpResponseExpectation.JSON)
+        .map(HttpResponse::bodyAsJsonObject));
+  }
+
+  @Override
+  public DocumentCacheStats cacheStats() {
+    return this.cache == null ? null : this.cache.stats();
+  }
+
+  private void invalidate(String docId) {
+    if (this.cache != null && docId != null) {
+      this.cache.invalidate(docId);
+    }
+  }
+
+  /**
+   * Sends a write of a document, dropping it from the cache before the
+   * request and again once it completes, so a read racing the write does not
+   * keep the old revision.
+   */
+  private <T> Future<T> write(String docId, Supplier<Future<T>> request) {
+    if (this.cache == null) {
+      return request.get();
+    }
+    this.invalidate(docId);
+    return request.get().onComplete(ar -> this.invalidate(docId));
+  }
+
+  @Override
+  public Future<JsonObject> getDocumentWithAttachments(String docId, DocumentGetParams options,
+      Function<String, WriteStream<Buffer>> attachmentSinks) {
+    Objects.requireNonNull(attachmentSinks);
+    // a copy, the caller's parameters may be reused for plain reads
+    QueryParameters params = EncodedQueryParameters.of(options).with("attachments", true);
+    UriTemplate url = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+
+    MultipartRelatedParser parser = new MultipartRelatedParser(headers -> {
+      String name = MultipartRelatedParser.filename(headers);
+      return name == null ? null : attachmentSinks.apply(name);
+    });
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().set("Accept", "multipart/related");
+
+    return this.client.streamBody(HttpMethod.GET, url, params, headers, parser)
+        .compose(response -> {
+          if (!parser.isComplete()) {
+            return Future.failedFuture(new CouchdbException("Incomplete multipart response"));
+          }
+          return Future.succeededFuture(parser.document().length() > 0
+              ? parser.document().toJsonObject()
+              : new JsonObject());
+        })
+        .onFailure(err -> parser.close());
+  }
+
+  @Override
+  public Future<JsonObject> putDocumentWithAttachments(String docId, JsonObject document,
+      List<MultipartAttachment> attachments) {
+    Objects.requireNonNull(document);
+    Objects.requireNonNull(attachments);
+    UriTemplate url = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+
+    JsonObject actualDocument = document.copy();
+    JsonObject stubs = actualDocument.getJsonObject("_attachments", new JsonObject());
+    Map<String, MultipartAttachment> byName = new LinkedHashMap<>();
+    for (MultipartAttachment attachment : attachments) {
+      byName.put(attachment.getName(), attachment);
+      stubs.put(attachment.getName(), new JsonObject()
+          .put("follows", true)
+          .put("content_type", attachment.getContentType())
+          .put("length", attachment.getLength()));
+    }
+    actualDocument.put("_attachments", stubs);
+
+    // CouchDB matches the parts to the stubs marked follows in stub order
+    String boundary = "couchdb-" + UUID.randomUUID();
+    ConcatReadStream body = new ConcatReadStream();
+    Buffer json = actualDocument.toBuffer();
+    Buffer head = Buffer.buffer("--" + boundary + "\r\nContent-Type: application/json\r\n\r\n")
+        .appendBuffer(json);
+    long length = head.length();
+    body.append(head);
+    for (String name : stubs.fieldNames()) {
+      MultipartAttachment attachment = byName.get(name);
+      if (attachment == null) {
+        continue;
+      }
+      Buffer partHead = Buffer.buffer("\r\n--" + boundary
+          + "\r\nContent-Type: " + attachment.getContentType()
+          + "\r\nContent-Length: " + attachment.getLength() + "\r\n\r\n");
+      body.append(partHead);
+      if (attachment.getData() != null) {
+        body.append(attachment.getData());
+      } else {
+        body.append(attachment.getBody());
+      }
+      length += partHead.length() + attachment.getLength();
+    }
+    Buffer tail = Buffer.buffer("\r\n--" + boundary + "--");
+    body.append(tail);
+    length += tail.length();
+
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap()
+        .set("Content-Type", "multipart/related; boundary=\"" + boundary + "\"")
+        .set("Content-Length", String.valueOf(length));
+
+    return this.write(docId, () -> this.client
+        .sendStream(HttpMethod.PUT, url, null, headers, body)
+        .expecting(HttpResponseExpectation.JSON)
+        .map(response -> response.bodyAsJsonObject()));
+  }
+
+  @Override
+  public Future<Map<String, JsonObject>> getDocuments(Collection<String> docIds) {
+    Objects.requireNonNull(docIds);
+    if (docIds.isEmpty()) {
+      return Future.succeededFuture(new LinkedHashMap<>());
+    }
+
+    Promise<Map<String, JsonObject>> promise = Promise.promise();
+    UriTemplate allDocsUrl = PathParameterTemplates.allDocs(databaseName);
+    JsonObject body = new JsonObject().put("keys", new JsonArray(new ArrayList<>(docIds)));
+
+    this.client.postJsonObject(allDocsUrl, INCLUDE_DOCS, body)
+        .onFailure(promise::fail)
+        .onSuccess(json -> {
+          Map<String, JsonObject> result = new LinkedHashMap<>();
+          json.getJsonArray("rows", new JsonArray()).forEach(row -> {
+            JsonObject doc = ((JsonObject) row).getJsonObject("doc");
+            if (doc != null) {
+              result.put(doc.getString("_id"), doc);
+            }
+          });
+          promise.complete(result);
+        });
+
+    return promise.future();
+  }
+
+  @Override
+  public Future<JsonArray> bulkGet(JsonArray docs) {
+    Objects.requireNonNull(docs);
+    Promise<JsonArray> promise = Promise.promise();
+    UriTemplate bulkGetUrl = PathParameterTemplates.bulkGet(databaseName);
+
+    this.client.postJsonObject(bulkGetUrl, null, new JsonObject().put("docs", docs))
+        .onFailure(promise::fail)
+        .onSuccess(json -> promise.complete(json.getJsonArray("results", new JsonArray())));
+
+    return promise.future();
+  }
+
   @Override
   public Future<JsonObject> status() {
     UriTemplate urlToCheck = PathParameterTemplates.database(databaseName);
@@ -158,10 +513,7 @@ public class CouchDbDatabaseImpl implements CouchDbDatabase {
 
     Promise<Buffer> promise = Promise.promise();
 
-    BaseQueryParameters params = new BaseQueryParameters();
-    if (rev != null) {
-      params.addParameter("rev", rev, true);
-    }
+    QueryParameters params = this.revParams(rev);
     UriTemplate urlToCheck =
         PathParameterTemplates.attachment(this.databaseName, docId, attachementName);
 
@@ -173,38 +525,220 @@ public class CouchDbDatabaseImpl implements CouchDbDatabase {
   }
 
   @Override
-  public Future<JsonObject> deleteDocument(String docId, String rev, boolean force) {
+  public Future<Void> streamAttachment(String docId, String attachmentName, String rev,
+      WriteStream<Buffer> sink) {
+    Objects.requireNonNull(sink);
+    UriTemplate url = PathParameterTemplates.attachment(this.databaseName, docId, attachmentName);
 
-    Promise<JsonObject> promise = Promise.promise();
-    UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
-    this.client.getEtag(urlToCheck)
-        .onFailure(promise::fail)
-        .onSuccess(eTag -> {
-          if (force || rev.equals(eTag)) {
-            BaseQueryParameters params = new BaseQueryParameters();
-            params.addParameter("rev", eTag);
-            this.client.deleteJsonObject(urlToCheck, params)
-                .onFailure(promise::fail)
-                .onSuccess(promise::succeed);
-          } else {
-            promise.fail("rev / eTag mismatch");
+    return this.client.streamBody(HttpMethod.GET, url, this.revParams(rev), sink)
+        .mapEmpty();
+  }
+
+  @Override
+  public ReadStream<Buffer> streamAttachment(String docId, String attachmentName, String rev) {
+    UriTemplate url = PathParameterTemplates.attachment(this.databaseName, docId, attachmentName);
+    return new CouchDbAttachmentStreamImpl(this.client, url, this.revParams(rev));
+  }
+
+  @Override
+  public Future<String> putAttachment(String docId, String attachmentName, String rev,
+      String contentType, ReadStream<Buffer> body, AttachmentUploadOptions options) {
+    Objects.requireNonNull(contentType);
+    Objects.requireNonNull(body);
+    UriTemplate url = PathParameterTemplates.attachment(this.databaseName, docId, attachmentName);
+    AttachmentUploadOptions actualOptions =
+        options == null ? new AttachmentUploadOptions() : options;
+
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().set("Content-Type", contentType);
+    GzipReadStream compressed = null;
+    if (actualOptions.shouldCompress(contentType)) {
+      headers.set("Content-Encoding", "gzip");
+      compressed = new GzipReadStream(body, actualOptions.getCompressionLevel());
+    } else if (actualOptions.getContentLength() >= 0) {
+      headers.set("Content-Length", String.valueOf(actualOptions.getContentLength()));
+    }
+
+    GzipReadStream gzip = compressed;
+    ReadStream<Buffer> uploadBody = gzip == null ? body : gzip;
+    return this.write(docId, () -> this.client
+        .sendStream(HttpMethod.PUT, url, this.revParams(rev), headers, uploadBody)
+        .onComplete(ar -> {
+          if (gzip != null) {
+            // a failed or reset upload leaves the source unfinished
+            gzip.close();
           }
+        })
+        .expecting(HttpResponseExpectation.JSON)
+        .map(response -> response.bodyAsJsonObject().getString("rev")));
+  }
 
-        });
+  private QueryParameters revParams(String rev) {
+    return rev == null ? EncodedQueryParameters.EMPTY : EncodedQueryParameters.rev(rev);
+  }
 
-    return promise.future();
+  @Override
+  public Future<JsonObject> deleteDocument(String docId, String rev) {
+    return this.deleteDocument(docId, rev, this.options.getWriteMode());
+  }
+
+  @Override
+  public Future<JsonObject> deleteDocument(String docId, String rev, WriteMode writeMode) {
+    Objects.requireNonNull(writeMode);
+    if (writeMode == WriteMode.PREFLIGHT) {
+      return this.deleteDocument(docId, rev, false);
+    }
+    Objects.requireNonNull(docId);
+    Objects.requireNonNull(rev);
+    QueryParameters params = EncodedQueryParameters.rev(rev);
+    UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+    return this.write(docId, () -> this.client.deleteJsonObject(urlToCheck, params));
+  }
+
+  @Override
+  public Future<JsonObject> deleteDocument(String docId, String rev, boolean force) {
+
+    return this.write(docId, () -> {
+      Promise<JsonObject> promise = Promise.promise();
+      UriTemplate urlToCheck = PathParameterTemplates.databaseDocumentId(databaseName, docId);
+      this.client.getEtag(urlToCheck)
+          .onFailure(promise::fail)
+          .onSuccess(eTag -> {
+            if (force || rev.equals(eTag)) {
+              BaseQueryParameters params = new BaseQueryParameters();
+              params.addParameter("rev", eTag);
+              this.client.deleteJsonObject(urlToCheck, params)
+                  .onFailure(promise::fail)
+                  .onSuccess(promise::succeed);
+            } else {
+              promise.fail("rev / eTag mismatch");
+            }
+
+          });
+      return promise.future();
+    });
+  }
+
+  @Override
+  public CouchDbStream stream(CouchDbStreamOptions options) {
+    Objects.requireNonNull(options);
+    UriTemplate allDocsUrl = PathParameterTemplates.allDocs(databaseName);
+    return new CouchDbStreamImpl(this.client, allDocsUrl, options);
+  }
+
+  @Override
+  public CouchDbRowStream allDocs(AllDocsParams params) {
+    UriTemplate allDocsUrl = PathParameterTemplates.allDocs(databaseName);
+    return new CouchDbRowStreamImpl(this.client, HttpMethod.GET, allDocsUrl, params);
+  }
+
+  @Override
+  public Future<JsonObject> queryView(String designDocName, String viewName,
+      ViewQueryParams params) {
+    Objects.requireNonNull(designDocName);
+    Objects.requireNonNull(viewName);
+    return this.queryView(PathParameterTemplates.view(databaseName, designDocName, viewName),
+        params);
+  }
+
+  @Override
+  public <T> Future<ViewResult<T>> queryView(String designDocName, String viewName,
+      ViewQueryParams params, Class<T> type) {
+    Objects.requireNonNull(designDocName);
+    Objects.requireNonNull(viewName);
+    Objects.requireNonNull(type);
+    return this.queryView(PathParameterTemplates.view(databaseName, designDocName, viewName),
+        params, type);
+  }
+
+  @Override
+  public CouchDbRowStream streamView(String designDocName, String viewName,
+      ViewQueryParams params) {
+    Objects.requireNonNull(designDocName);
+    Objects.requireNonNull(viewName);
+    return this.streamView(PathParameterTemplates.view(databaseName, designDocName, viewName),
+        params);
   }
 
   /**
-   * Creates a stream for CouchDB operations based on provided options.
-   *
-   * @param options A JsonObject containing configuration options for the stream
-   * @return A CouchDbStream instance for streaming database operations
-   * @throws UnsupportedOperationException This operation is currently not implemented
+   * Queries the view at viewUrl, of the database or of one of its partitions.
+   * Queries with keys are sent as POST with the keys in the request body.
    */
+  Future<JsonObject> queryView(UriTemplate viewUrl, ViewQueryParams params) {
+    if (params != null && params.hasKeys()) {
+      return this.client.postJsonObject(viewUrl, params, params.keysBody());
+    }
+    return this.client.getJsonObject(viewUrl, params);
+  }
+
+  <T> Future<ViewResult<T>> queryView(UriTemplate viewUrl, ViewQueryParams params,
+      Class<T> type) {
+    Future<HttpResponse<Buffer>> response = params != null && params.hasKeys()
+        ? this.client.bufferBody(HttpMethod.POST, viewUrl, params, params.keysBody().toBuffer())
+        : this.client.noBody(HttpMethod.GET, viewUrl, params);
+    return response
+        .expecting(HttpResponseExpectation.JSON)
+        .map(result -> this.codec.decodeView(result.body(), type));
+  }
+
+  CouchDbRowStream streamView(UriTemplate viewUrl, ViewQueryParams params) {
+    if (params != null && params.hasKeys()) {
+      return new CouchDbRowStreamImpl(this.client, HttpMethod.POST, viewUrl, params,
+          params.keysBody(), CouchDbRowStreamImpl.DEFAULT_BUFFER_SIZE);
+    }
+    return new CouchDbRowStreamImpl(this.client, HttpMethod.GET, viewUrl, params);
+  }
+
+  @Override
+  public CouchDbPartition partition(String partition) {
+    return new CouchDbPartitionImpl(this, partition);
+  }
+
+  CouchdbClient client() {
+    return this.client;
+  }
+
+  @Override
+  public CouchDbStream find(MangoQuery query) {
+    Objects.requireNonNull(query);
+    UriTemplate findUrl = PathParameterTemplates.find(databaseName);
+    return new CouchDbFindStreamImpl(this.client, findUrl, query);
+  }
+
+  @Override
+  public Future<JsonObject> createIndex(MangoIndex index) {
+    Objects.requireNonNull(index);
+    UriTemplate indexUrl = PathParameterTemplates.index(databaseName);
+    return this.client.postJsonObject(indexUrl, null, index.toJson());
+  }
+
+  @Override
+  public Future<JsonArray> listIndexes() {
+    UriTemplate indexUrl = PathParameterTemplates.index(databaseName);
+    return this.client.getJsonObject(indexUrl, null)
+        .map(json -> json.getJsonArray("indexes", new JsonArray()));
+  }
+
+  @Override
+  public Future<JsonObject> explain(MangoQuery query) {
+    Objects.requireNonNull(query);
+    UriTemplate explainUrl = PathParameterTemplates.explain(databaseName);
+    return this.client.postJsonObject(explainUrl, null, query.toJson());
+  }
+
+  @Override
+  public CouchDbChangesStream changes(ChangesOptions options) {
+    Objects.requireNonNull(options);
+    UriTemplate changesUrl = PathParameterTemplates.changes(databaseName);
+    UriTemplate checkpointUrl = options.getCheckpointId() == null
+        ? null
+        : PathParameterTemplates.localDocument(databaseName, options.getCheckpointId());
+    return new CouchDbChangesStreamImpl(this.client, changesUrl, checkpointUrl, options);
+  }
+
   @Override
-  public CouchDbStream stream(JsonObject options) {
-    throw new UnsupportedOperationException("Unimplemented method 'stream'");
+  public Future<CouchDbReplica> replica(ReplicaOptions options) {
+    Objects.requireNonNull(options);
+    return CouchDbReplicaImpl.start(this.client.vertx(), this, options);
   }
 
   /**
@@ -287,8 +821,7 @@ public class CouchDbDatabaseImpl implements CouchDbDatabase {
     Objects.requireNonNull(rev);
     JsonObject requestSecurityPayload = designDoc.toJson();
     Promise<JsonObject> promise = Promise.promise();
-    BaseQueryParameters params = new BaseQueryParameters();
-    params.addParameter("rev", rev, true);
+    QueryParameters params = EncodedQueryParameters.rev(rev);
     UriTemplate urlToCheck =
         PathParameterTemplates.databaseDesignDoc(databaseName, designDoc.getName());
 
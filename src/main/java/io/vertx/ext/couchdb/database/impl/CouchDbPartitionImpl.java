@@ -0,0 +1,112 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import java.util.Objects;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.CouchDbPartition;
+import io.vertx.ext.couchdb.database.ViewResult;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
+import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.streams.impl.CouchDbFindStreamImpl;
+import io.vertx.ext.couchdb.streams.impl.CouchDbRowStreamImpl;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Sends the queries of the database handle to the _partition endpoints, with
+ * the client and codec of the handle.
+ */
+public class CouchDbPartitionImpl implements CouchDbPartition {
+
+  private final CouchDbDatabaseImpl database;
+  private final String partition;
+
+  CouchDbPartitionImpl(CouchDbDatabaseImpl database, String partition) {
+    Objects.requireNonNull(partition);
+    if (partition.isEmpty() || partition.startsWith("_") || partition.indexOf(':') >= 0) {
+      throw new IllegalArgumentException(
+          "Partition names must not be empty, start with _ or contain :");
+    }
+    this.database = database;
+    this.partition = partition;
+  }
+
+  @Override
+  public String name() {
+    return this.partition;
+  }
+
+  @Override
+  public CouchDbDatabase database() {
+    return this.database;
+  }
+
+  @Override
+  public Future<JsonObject> info() {
+    return this.database.client().getJsonObject(
+        PathParameterTemplates.partition(this.database.name(), this.partition), null);
+  }
+
+  @Override
+  public CouchDbRowStream allDocs(AllDocsParams params) {
+    return new CouchDbRowStreamImpl(this.database.client(), HttpMethod.GET,
+        PathParameterTemplates.partitionAllDocs(this.database.name(), this.partition), params);
+  }
+
+  @Override
+  public Future<JsonObject> queryView(String designDocName, String viewName,
+      ViewQueryParams params) {
+    return this.database.queryView(this.viewUrl(designDocName, viewName), params);
+  }
+
+  @Override
+  public <T> Future<ViewResult<T>> queryView(String designDocName, String viewName,
+      ViewQueryParams params, Class<T> type) {
+    Objects.requireNonNull(type);
+    return this.database.queryView(this.viewUrl(designDocName, viewName), params, type);
+  }
+
+  @Override
+  public CouchDbRowStream streamView(String designDocName, String viewName,
+      ViewQueryParams params) {
+    return this.database.streamView(this.viewUrl(designDocName, viewName), params);
+  }
+
+  @Override
+  public CouchDbStream find(MangoQuery query) {
+    Objects.requireNonNull(query);
+    return new CouchDbFindStreamImpl(this.database.client(),
+        PathParameterTemplates.partitionFind(this.database.name(), this.partition), query);
+  }
+
+  @Override
+  public Future<JsonObject> explain(MangoQuery query) {
+    Objects.requireNonNull(query);
+    return this.database.client().postJsonObject(
+        PathParameterTemplates.partitionExplain(this.database.name(), this.partition), null,
+        query.toJson());
+  }
+
+  private UriTemplate viewUrl(String designDocName, String viewName) {
+    Objects.requireNonNull(designDocName);
+    Objects.requireNonNull(viewName);
+    return PathParameterTemplates.partitionView(this.database.name(), this.partition,
+        designDocName, viewName);
+  }
+}
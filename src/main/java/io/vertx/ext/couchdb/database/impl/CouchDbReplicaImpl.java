@@ -0,0 +1,248 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.CouchDbReplica;
+import io.vertx.ext.couchdb.database.ReplicaOptions;
+import io.vertx.ext.couchdb.exception.CouchdbDocumentException;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
+import io.vertx.ext.couchdb.streams.ChangesOptions;
+import io.vertx.ext.couchdb.streams.CouchDbChangesStream;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
+
+/**
+ * Holds the documents of a database in memory. The bootstrap streams
+ * _all_docs with include_docs and update_seq, afterwards _changes is
+ * followed from that sequence. Changes made while _all_docs was read are
+ * replayed by the feed, which always carries the latest revision.
+ * <p>
+ * A feed that fails for good is counted in the metrics and started again
+ * from the last applied sequence with a growing delay, the replica is stale
+ * in between.
+ */
+public class CouchDbReplicaImpl implements CouchDbReplica {
+
+  private final Vertx vertx;
+  private final CouchDbDatabase database;
+  private final ReplicaOptions options;
+  private final Map<String, JsonObject> documents = new ConcurrentHashMap<>();
+  private final AtomicLong changesApplied = new AtomicLong();
+  private final AtomicLong localReads = new AtomicLong();
+  private final AtomicLong remoteReads = new AtomicLong();
+  private final AtomicLong feedFailures = new AtomicLong();
+  private volatile String lastSeq;
+  private volatile String lastFailure;
+  private volatile long bootstrappedAt;
+  private volatile boolean closed;
+  private volatile boolean tooLarge;
+  private CouchDbChangesStream changes;
+  private long followedAt;
+  private int restarts;
+  private long restartTimer = -1L;
+
+  CouchDbReplicaImpl(Vertx vertx, CouchDbDatabase database, ReplicaOptions options) {
+    this.vertx = vertx;
+    this.database = database;
+    this.options = options;
+  }
+
+  /**
+   * Bootstraps a replica of the database.
+   *
+   * @param vertx the Vertx instance timing feed restarts
+   * @param database the database to replicate
+   * @param options staleness bound, heartbeat and size limit
+   * @return a Future completing with the replica once it holds all documents
+   */
+  public static Future<CouchDbReplica> start(Vertx vertx, CouchDbDatabase database,
+      ReplicaOptions options) {
+    CouchDbReplicaImpl replica = new CouchDbReplicaImpl(vertx, database, options);
+    return replica.bootstrap().map(replica);
+  }
+
+  private Future<Void> bootstrap() {
+    Promise<Void> promise = Promise.promise();
+    CouchDbRowStream rows =
+        this.database.allDocs(new AllDocsParams().includeDocs(true).updateSeq(true));
+    boolean[] tooLarge = new boolean[1];
+
+    rows.exceptionHandler(promise::tryFail)
+        .endHandler(v -> rows.metadata()
+            .onFailure(promise::tryFail)
+            .onSuccess(metadata -> {
+              if (tooLarge[0]) {
+                this.documents.clear();
+                promise.tryFail(new CouchdbException("Database " + this.database.name()
+                    + " exceeds " + this.options.getMaxDocuments() + " documents"));
+                return;
+              }
+              Object updateSeq = metadata.getValue("update_seq");
+              this.lastSeq = updateSeq == null ? "0" : String.valueOf(updateSeq);
+              this.bootstrappedAt = System.currentTimeMillis();
+              this.follow();
+              promise.tryComplete();
+            }))
+        .handler(row -> {
+          JsonObject doc = row.getJsonObject("doc");
+          if (doc == null || tooLarge[0]) {
+            // keep draining the response, a paused one would hold the connection
+            return;
+          }
+          if (this.documents.size() >= this.options.getMaxDocuments()) {
+            tooLarge[0] = true;
+            return;
+          }
+          this.documents.put(row.getString("id"), doc);
+        });
+
+    return promise.future();
+  }
+
+  private void follow() {
+    this.followedAt = System.currentTimeMillis();
+    CouchDbChangesStream feed = this.database.changes(new ChangesOptions()
+        .since(this.lastSeq)
+        .includeDocs(true)
+        .heartbeat(this.options.getHeartbeat()));
+    this.changes = feed;
+    feed.exceptionHandler(err -> this.feedFailed(feed, err)).handler(this::apply);
+  }
+
+  /**
+   * The feed gave up, the replica turns stale and reads go to the server
+   * until a new feed catches up.
+   */
+  private void feedFailed(CouchDbChangesStream feed, Throwable err) {
+    this.feedFailures.incrementAndGet();
+    this.lastFailure = String.valueOf(err.getMessage());
+    if (this.closed || this.tooLarge || feed != this.changes) {
+      return;
+    }
+    if (feed.lastActivity() > this.followedAt) {
+      // the feed was up before it failed, start over with the first delay
+      this.restarts = 0;
+    }
+    long delay = (long) Math.min(this.options.getMaxRestartDelay(),
+        this.options.getRestartDelay() * Math.pow(2, this.restarts));
+    this.restarts++;
+    this.restartTimer = this.vertx.setTimer(delay, id -> {
+      this.restartTimer = -1L;
+      if (!this.closed) {
+        this.follow();
+      }
+    });
+  }
+
+  private void apply(JsonObject change) {
+    if (this.tooLarge) {
+      return;
+    }
+    String docId = change.getString("id");
+    if (docId != null) {
+      JsonObject doc = change.getJsonObject("doc");
+      if (change.getBoolean("deleted", false) || doc == null) {
+        this.documents.remove(docId);
+      } else if (!this.documents.containsKey(docId)
+          && this.documents.size() >= this.options.getMaxDocuments()) {
+        this.exceeded();
+        return;
+      } else {
+        this.documents.put(docId, doc);
+      }
+    }
+    this.lastSeq = String.valueOf(change.getValue("seq"));
+    this.changesApplied.incrementAndGet();
+  }
+
+  /**
+   * The database outgrew maxDocuments, the replica stops holding documents
+   * instead of growing without bound.
+   */
+  private void exceeded() {
+    this.tooLarge = true;
+    this.lastFailure = "Database " + this.database.name() + " exceeds "
+        + this.options.getMaxDocuments() + " documents";
+    this.documents.clear();
+    this.changes.close();
+  }
+
+  @Override
+  public Future<JsonObject> getDocument(String docId) {
+    if (!this.isFresh()) {
+      this.remoteReads.incrementAndGet();
+      return this.database.getDocument(docId);
+    }
+    this.localReads.incrementAndGet();
+    JsonObject doc = this.documents.get(docId);
+    return doc == null
+        ? Future.failedFuture(new CouchdbDocumentException(docId, "not_found", "missing"))
+        : Future.succeededFuture(doc.copy());
+  }
+
+  @Override
+  public boolean isFresh() {
+    return !this.closed && !this.tooLarge && this.lag() < this.options.getMaxStaleness();
+  }
+
+  @Override
+  public long lag() {
+    long lastContact = this.changes == null
+        ? this.bootstrappedAt
+        : Math.max(this.bootstrappedAt, this.changes.lastActivity());
+    return System.currentTimeMillis() - lastContact;
+  }
+
+  @Override
+  public int size() {
+    return this.documents.size();
+  }
+
+  @Override
+  public String lastSeq() {
+    return this.lastSeq;
+  }
+
+  @Override
+  public JsonObject metrics() {
+    return new JsonObject()
+        .put("size", this.size())
+        .put("lastSeq", this.lastSeq)
+        .put("lag", this.lag())
+        .put("fresh", this.isFresh())
+        .put("changesApplied", this.changesApplied.get())
+        .put("localReads", this.localReads.get())
+        .put("remoteReads", this.remoteReads.get())
+        .put("feedFailures", this.feedFailures.get())
+        .put("lastFailure", this.lastFailure)
+        .put("tooLarge", this.tooLarge);
+  }
+
+  @Override
+  public Future<Void> close() {
+    this.closed = true;
+    if (this.restartTimer >= 0) {
+      this.vertx.cancelTimer(this.restartTimer);
+      this.restartTimer = -1L;
+    }
+    this.documents.clear();
+    return this.changes == null ? Future.succeededFuture() : this.changes.close();
+  }
+}
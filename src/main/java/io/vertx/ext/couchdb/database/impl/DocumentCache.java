@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.BiFunction;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.DocumentCacheOptions;
+import io.vertx.ext.couchdb.database.DocumentCacheStats;
+import io.vertx.ext.web.client.HttpResponse;
+
+/**
+ * Bounded LRU cache of documents with their ETag, revalidated with
+ * conditional requests. Callers get a copy of the cached document, so
+ * changing it does not affect the cache.
+ * <p>
+ * A response is only cached when the document was not invalidated while it
+ * was fetched, a read racing a write must not bring back the old revision.
+ */
+class DocumentCache {
+
+  private static final class Entry {
+    final String etag;
+    final JsonObject document;
+    long validatedAt;
+
+    Entry(String etag, JsonObject document, long validatedAt) {
+      this.etag = etag;
+      this.document = document;
+      this.validatedAt = validatedAt;
+    }
+  }
+
+  private final DocumentCacheOptions options;
+  private final BiFunction<String, String, Future<HttpResponse<Buffer>>> fetch;
+  private final Map<String, Entry> entries;
+  private final Map<String, Long> fetching = new HashMap<>();
+  private long fetches;
+  private long hits;
+  private long revalidations;
+  private long misses;
+  private long evictions;
+
+  /**
+   * @param options size and age limits
+   * @param fetch GETs a document by id with an optional If-None-Match ETag
+   */
+  DocumentCache(DocumentCacheOptions options,
+      BiFunction<String, String, Future<HttpResponse<Buffer>>> fetch) {
+    this.options = new DocumentCacheOptions(options);
+    this.fetch = fetch;
+    this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+      private static final long serialVersionUID = 1L;
+
+      @Override
+      protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+        if (size() > DocumentCache.this.options.getMaxSize()) {
+          DocumentCache.this.evictions++;
+          return true;
+        }
+        return false;
+      }
+    };
+  }
+
+  Future<JsonObject> get(String docId) {
+    long now = System.currentTimeMillis();
+    Entry entry;
+    long fetch;
+    synchronized (this) {
+      entry = this.entries.get(docId);
+      if (entry != null && now - entry.validatedAt >= this.options.getTtl()) {
+        this.entries.remove(docId);
+        this.evictions++;
+        entry = null;
+      }
+      if (entry != null && now - entry.validatedAt < this.options.getRevalidateAfter()) {
+        this.hits++;
+        return Future.succeededFuture(entry.document.copy());
+      }
+      fetch = ++this.fetches;
+      this.fetching.put(docId, fetch);
+    }
+
+    Entry cached = entry;
+    return this.fetch.apply(docId, cached == null ? null : cached.etag)
+        .map(response -> {
+          if (response.statusCode() == 304 && cached != null) {
+            synchronized (this) {
+              this.fetching.remove(docId, fetch);
+              this.revalidations++;
+              cached.validatedAt = System.currentTimeMillis();
+            }
+            return cached.document.copy();
+          }
+          JsonObject document = response.bodyAsJsonObject();
+          String etag = response.getHeader("ETag");
+          if (etag == null && document.getString("_rev") != null) {
+            etag = "\"" + document.getString("_rev") + "\"";
+          }
+          synchronized (this) {
+            this.misses++;
+            // false when the document was written since the request was sent
+            boolean current = this.fetching.remove(docId, fetch);
+            if (etag != null && current) {
+              this.entries.put(docId, new Entry(etag, document, System.currentTimeMillis()));
+            }
+          }
+          return document.copy();
+        })
+        .onFailure(err -> this.release(docId, fetch));
+  }
+
+  private synchronized void release(String docId, long fetch) {
+    this.fetching.remove(docId, fetch);
+  }
+
+  synchronized void invalidate(String docId) {
+    this.fetching.remove(docId);
+    if (this.entries.remove(docId) != null) {
+      this.evictions++;
+    }
+  }
+
+  synchronized DocumentCacheStats stats() {
+    return new DocumentCacheStats(this.hits, this.revalidations, this.misses, this.evictions,
+        this.entries.size());
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.exception.CouchdbDocumentException;
+
+/**
+ * Merges document loads requested within the same event loop tick into one
+ * batch load and fans the results back out. Duplicate ids in a tick share a
+ * single slot in the batch.
+ */
+class DocumentLoader {
+
+  private final Vertx vertx;
+  private final Function<List<String>, Future<Map<String, JsonObject>>> batchLoader;
+  private Map<String, List<Promise<JsonObject>>> queued = new LinkedHashMap<>();
+  private boolean scheduled;
+
+  DocumentLoader(Vertx vertx,
+      Function<List<String>, Future<Map<String, JsonObject>>> batchLoader) {
+    this.vertx = vertx;
+    this.batchLoader = batchLoader;
+  }
+
+  synchronized Future<JsonObject> load(String docId) {
+    Promise<JsonObject> promise = Promise.promise();
+    this.queued.computeIfAbsent(docId, id -> new ArrayList<>()).add(promise);
+    if (!this.scheduled) {
+      this.scheduled = true;
+      this.vertx.getOrCreateContext().runOnContext(v -> this.dispatch());
+    }
+    return promise.future();
+  }
+
+  private void dispatch() {
+    Map<String, List<Promise<JsonObject>>> batch;
+    synchronized (this) {
+      batch = this.queued;
+      this.queued = new LinkedHashMap<>();
+      this.scheduled = false;
+    }
+
+    this.batchLoader.apply(new ArrayList<>(batch.keySet()))
+        .onFailure(err -> batch.values()
+            .forEach(promises -> promises.forEach(promise -> promise.tryFail(err))))
+        .onSuccess(docs -> batch.forEach((docId, promises) -> {
+          JsonObject doc = docs.get(docId);
+          if (doc == null) {
+            CouchdbDocumentException notFound =
+                new CouchdbDocumentException(docId, "not_found", "missing");
+            promises.forEach(promise -> promise.tryFail(notFound));
+          } else {
+            promises.forEach(promise -> promise.tryComplete(doc));
+          }
+        }));
+  }
+}
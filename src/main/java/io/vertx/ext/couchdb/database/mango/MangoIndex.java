@@ -0,0 +1,93 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.mango;
+
+import java.util.Objects;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.utils.JsonObjectSerializable;
+
+/**
+ * Request body of POST /{db}/_index
+ * see https://docs.couchdb.org/en/stable/api/database/find.html#db-index
+ */
+public class MangoIndex implements JsonObjectSerializable {
+
+  private final JsonArray fields = new JsonArray();
+  private String name;
+  private String designDoc;
+  private String type = "json";
+  private Selector partialFilter;
+
+  /**
+   * @param fields the indexed fields, in sort order
+   */
+  public MangoIndex(String... fields) {
+    if (fields.length == 0) {
+      throw new IllegalArgumentException("An index needs at least one field");
+    }
+    for (String field : fields) {
+      this.fields.add(Objects.requireNonNull(field));
+    }
+  }
+
+  /**
+   * @param name name of the index, generated by CouchDB when not set
+   */
+  public MangoIndex name(String name) {
+    this.name = name;
+    return this;
+  }
+
+  /**
+   * @param designDoc design document the index is created in, generated by
+   *        CouchDB when not set
+   */
+  public MangoIndex designDoc(String designDoc) {
+    this.designDoc = designDoc;
+    return this;
+  }
+
+  /**
+   * @param type json (default) or text
+   */
+  public MangoIndex type(String type) {
+    this.type = Objects.requireNonNull(type);
+    return this;
+  }
+
+  /**
+   * @param partialFilter selector limiting the documents that are indexed
+   */
+  public MangoIndex partialFilter(Selector partialFilter) {
+    this.partialFilter = partialFilter;
+    return this;
+  }
+
+  @Override
+  public JsonObject toJson() {
+    JsonObject index = new JsonObject().put("fields", this.fields.copy());
+    if (this.partialFilter != null) {
+      index.put("partial_filter_selector", this.partialFilter.toJson());
+    }
+    JsonObject json = new JsonObject()
+        .put("index", index)
+        .put("type", this.type);
+    if (this.name != null) {
+      json.put("name", this.name);
+    }
+    if (this.designDoc != null) {
+      json.put("ddoc", this.designDoc);
+    }
+    return json;
+  }
+}
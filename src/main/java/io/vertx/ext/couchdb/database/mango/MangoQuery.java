@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.mango;
+
+import java.util.Objects;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.utils.JsonObjectSerializable;
+
+/**
+ * Request body of /{db}/_find and /{db}/_explain
+ * see https://docs.couchdb.org/en/stable/api/database/find.html
+ * <p>
+ * When streamed, {@code limit} is the page size, the stream follows the
+ * bookmark of each page until a page returns fewer documents.
+ */
+public class MangoQuery implements JsonObjectSerializable {
+
+  public static final int DEFAULT_LIMIT = 25;
+
+  private final Selector selector;
+  private JsonArray fields;
+  private JsonArray sort;
+  private int limit = DEFAULT_LIMIT;
+  private Integer skip;
+  private Object useIndex;
+  private String bookmark;
+  private Boolean conflicts;
+  private Boolean update;
+  private Boolean stable;
+  private boolean executionStats = false;
+
+  public MangoQuery(Selector selector) {
+    this.selector = Objects.requireNonNull(selector);
+  }
+
+  /**
+   * @param fields the fields to return, all fields when not set
+   */
+  public MangoQuery fields(String... fields) {
+    this.fields = new JsonArray();
+    for (String field : fields) {
+      this.fields.add(field);
+    }
+    return this;
+  }
+
+  /**
+   * Adds a sort field. Sorting requires an index on the sort fields.
+   *
+   * @param field the field to sort by
+   * @param ascending sort direction
+   */
+  public MangoQuery sort(String field, boolean ascending) {
+    if (this.sort == null) {
+      this.sort = new JsonArray();
+    }
+    this.sort.add(new JsonObject().put(field, ascending ? "asc" : "desc"));
+    return this;
+  }
+
+  /**
+   * @param limit maximum number of results / page size, default 25
+   */
+  public MangoQuery limit(int limit) {
+    if (limit < 1) {
+      throw new IllegalArgumentException("limit must be positive");
+    }
+    this.limit = limit;
+    return this;
+  }
+
+  /**
+   * @param skip number of results to skip
+   */
+  public MangoQuery skip(int skip) {
+    this.skip = skip;
+    return this;
+  }
+
+  /**
+   * @param designDoc design document of the index to use
+   */
+  public MangoQuery useIndex(String designDoc) {
+    this.useIndex = designDoc;
+    return this;
+  }
+
+  /**
+   * @param designDoc design document of the index to use
+   * @param indexName name of the index to use
+   */
+  public MangoQuery useIndex(String designDoc, String indexName) {
+    this.useIndex = new JsonArray().add(designDoc).add(indexName);
+    return this;
+  }
+
+  /**
+   * @param bookmark bookmark of a previous page to continue from
+   */
+  public MangoQuery bookmark(String bookmark) {
+    this.bookmark = bookmark;
+    return this;
+  }
+
+  /**
+   * @param conflicts include conflicted revisions
+   */
+  public MangoQuery conflicts(boolean conflicts) {
+    this.conflicts = conflicts;
+    return this;
+  }
+
+  /**
+   * @param update whether to update the index prior to returning the result
+   */
+  public MangoQuery update(boolean update) {
+    this.update = update;
+    return this;
+  }
+
+  /**
+   * @param stable whether to use a stable set of shards
+   */
+  public MangoQuery stable(boolean stable) {
+    this.stable = stable;
+    return this;
+  }
+
+  /**
+   * @param executionStats include execution statistics in the response
+   */
+  public MangoQuery executionStats(boolean executionStats) {
+    this.executionStats = executionStats;
+    return this;
+  }
+
+  public Selector getSelector() {
+    return this.selector;
+  }
+
+  public int getLimit() {
+    return this.limit;
+  }
+
+  public String getBookmark() {
+    return this.bookmark;
+  }
+
+  @Override
+  public JsonObject toJson() {
+    JsonObject json = new JsonObject()
+        .put("selector", this.selector.toJson())
+        .put("limit", this.limit);
+    if (this.fields != null) {
+      json.put("fields", this.fields.copy());
+    }
+    if (this.sort != null) {
+      json.put("sort", this.sort.copy());
+    }
+    if (this.skip != null) {
+      json.put("skip", this.skip);
+    }
+    if (this.useIndex != null) {
+      json.put("use_index", this.useIndex);
+    }
+    if (this.bookmark != null) {
+      json.put("bookmark", this.bookmark);
+    }
+    if (this.conflicts != null) {
+      json.put("conflicts", this.conflicts);
+    }
+    if (this.update != null) {
+      json.put("update", this.update);
+    }
+    if (this.stable != null) {
+      json.put("stable", this.stable);
+    }
+    if (this.executionStats) {
+      json.put("execution_stats", true);
+    }
+    return json;
+  }
+}
@@ -0,0 +1,193 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.mango;
+
+import java.util.Collection;
+import java.util.Objects;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.utils.JsonObjectSerializable;
+
+/**
+ * Builder for Mango selectors
+ * see https://docs.couchdb.org/en/stable/api/database/find.html#selector-syntax
+ * <p>
+ * Field names may use dot notation for nested fields, e.g.
+ * {@code Selector.eq("type", "recipe").and(Selector.gt("rating.stars", 3))}
+ */
+public class Selector implements JsonObjectSerializable {
+
+  private final JsonObject selector;
+
+  private Selector(JsonObject selector) {
+    this.selector = selector;
+  }
+
+  /**
+   * Wraps a selector written as JSON.
+   *
+   * @param selector the selector
+   * @return a Selector
+   */
+  public static Selector of(JsonObject selector) {
+    return new Selector(Objects.requireNonNull(selector).copy());
+  }
+
+  /**
+   * @return the empty selector matching all documents, {"_id": {"$gt": null}}
+   */
+  public static Selector matchAll() {
+    return operator("_id", "$gt", null);
+  }
+
+  public static Selector eq(String field, Object value) {
+    return operator(field, "$eq", value);
+  }
+
+  public static Selector ne(String field, Object value) {
+    return operator(field, "$ne", value);
+  }
+
+  public static Selector gt(String field, Object value) {
+    return operator(field, "$gt", value);
+  }
+
+  public static Selector gte(String field, Object value) {
+    return operator(field, "$gte", value);
+  }
+
+  public static Selector lt(String field, Object value) {
+    return operator(field, "$lt", value);
+  }
+
+  public static Selector lte(String field, Object value) {
+    return operator(field, "$lte", value);
+  }
+
+  public static Selector in(String field, Collection<?> values) {
+    return operator(field, "$in", toArray(values));
+  }
+
+  public static Selector nin(String field, Collection<?> values) {
+    return operator(field, "$nin", toArray(values));
+  }
+
+  /**
+   * @param field array field
+   * @param values values that all have to be contained in the array
+   */
+  public static Selector all(String field, Collection<?> values) {
+    return operator(field, "$all", toArray(values));
+  }
+
+  public static Selector exists(String field, boolean exists) {
+    return operator(field, "$exists", exists);
+  }
+
+  /**
+   * @param field the field
+   * @param type null, boolean, number, string, array or object
+   */
+  public static Selector type(String field, String type) {
+    return operator(field, "$type", type);
+  }
+
+  /**
+   * @param field the field
+   * @param pattern Erlang PCRE regular expression the field has to match
+   */
+  public static Selector regex(String field, String pattern) {
+    return operator(field, "$regex", pattern);
+  }
+
+  public static Selector size(String field, int size) {
+    return operator(field, "$size", size);
+  }
+
+  /**
+   * @param field array field
+   * @param element selector at least one array element has to match
+   */
+  public static Selector elemMatch(String field, Selector element) {
+    return operator(field, "$elemMatch", element.toJson());
+  }
+
+  /**
+   * @param field array field
+   * @param element selector all array elements have to match
+   */
+  public static Selector allMatch(String field, Selector element) {
+    return operator(field, "$allMatch", element.toJson());
+  }
+
+  public static Selector and(Selector... selectors) {
+    return combination("$and", selectors);
+  }
+
+  public static Selector or(Selector... selectors) {
+    return combination("$or", selectors);
+  }
+
+  public static Selector nor(Selector... selectors) {
+    return combination("$nor", selectors);
+  }
+
+  public static Selector not(Selector selector) {
+    return new Selector(new JsonObject().put("$not", selector.toJson()));
+  }
+
+  /**
+   * @param other selector that has to match as well
+   * @return a new Selector matching both selectors
+   */
+  public Selector and(Selector other) {
+    return Selector.and(this, other);
+  }
+
+  /**
+   * @param other alternative selector
+   * @return a new Selector matching either selector
+   */
+  public Selector or(Selector other) {
+    return Selector.or(this, other);
+  }
+
+  @Override
+  public JsonObject toJson() {
+    return this.selector.copy();
+  }
+
+  @Override
+  public String toString() {
+    return this.selector.encode();
+  }
+
+  private static Selector operator(String field, String operator, Object value) {
+    Objects.requireNonNull(field);
+    return new Selector(
+        new JsonObject().put(field, new JsonObject().put(operator, value)));
+  }
+
+  private static Selector combination(String operator, Selector... selectors) {
+    JsonArray combined = new JsonArray();
+    for (Selector selector : selectors) {
+      combined.add(selector.toJson());
+    }
+    return new Selector(new JsonObject().put(operator, combined));
+  }
+
+  private static JsonArray toArray(Collection<?> values) {
+    JsonArray array = new JsonArray();
+    values.forEach(array::add);
+    return array;
+  }
+}
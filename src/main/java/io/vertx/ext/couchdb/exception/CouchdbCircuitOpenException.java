@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.exception;
+
+/**
+ * The circuit breaker of the server is open after repeated failures, the
+ * request was not sent.
+ */
+public class CouchdbCircuitOpenException extends CouchdbException {
+
+  private final String server;
+
+  public CouchdbCircuitOpenException(String server) {
+    super("Circuit breaker open for " + server);
+    this.server = server;
+  }
+
+  /**
+   * @return host:port of the server
+   */
+  public String server() {
+    return server;
+  }
+}
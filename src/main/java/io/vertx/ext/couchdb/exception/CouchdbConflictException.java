@@ -0,0 +1,30 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.exception;
+
+/**
+ * The document exists already or the revision provided isn't the current one.
+ */
+public class CouchdbConflictException extends CouchdbDocumentException {
+
+  public static final String CONFLICT = "conflict";
+
+  private final int statusCode;
+
+  public CouchdbConflictException(String docId, String error, String reason, int statusCode) {
+    super(docId, error, reason);
+    this.statusCode = statusCode;
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+}
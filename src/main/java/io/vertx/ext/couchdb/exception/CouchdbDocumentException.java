@@ -0,0 +1,71 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.exception;
+
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A document level error reported by CouchDB, e.g. one entry of a _bulk_docs
+ * response: {"id": "doc1", "error": "forbidden", "reason": "..."}
+ */
+public class CouchdbDocumentException extends CouchdbException {
+  private final String docId;
+  private final String error;
+  private final String reason;
+
+  public CouchdbDocumentException(String docId, String error, String reason) {
+    super((docId == null ? "" : "Document " + docId + ": ") + error + " - " + reason);
+    this.docId = docId;
+    this.error = error;
+    this.reason = reason;
+  }
+
+  /**
+   * @param message the message, for subclasses describing more than a
+   *        document
+   */
+  protected CouchdbDocumentException(String message, String docId, String error,
+      String reason) {
+    super(message);
+    this.docId = docId;
+    this.error = error;
+    this.reason = reason;
+  }
+
+  /**
+   * Creates the matching exception for a per document result object.
+   *
+   * @param result JsonObject with id, error and reason
+   * @return CouchdbConflictException for conflicts, CouchdbDocumentException
+   *         otherwise
+   */
+  public static CouchdbDocumentException fromResult(JsonObject result) {
+    String docId = result.getString("id");
+    String error = result.getString("error", "unknown_error");
+    String reason = result.getString("reason", "");
+    if (CouchdbConflictException.CONFLICT.equals(error)) {
+      return new CouchdbConflictException(docId, error, reason, 409);
+    }
+    return new CouchdbDocumentException(docId, error, reason);
+  }
+
+  public String docId() {
+    return docId;
+  }
+
+  public String error() {
+    return error;
+  }
+
+  public String reason() {
+    return reason;
+  }
+}
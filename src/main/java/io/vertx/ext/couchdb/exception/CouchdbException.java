@@ -14,4 +14,8 @@ public class CouchdbException extends Exception {
   public CouchdbException(String message) {
     super(message);
   }
+
+  public CouchdbException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
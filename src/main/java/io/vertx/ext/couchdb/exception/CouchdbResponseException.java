@@ -0,0 +1,59 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.exception;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * A non 2xx response of CouchDB, with the error and reason of its JSON body
+ * when it has one, e.g. 404 {"error": "not_found", "reason": "missing"}.
+ */
+public class CouchdbResponseException extends CouchdbDocumentException {
+
+  private final int statusCode;
+
+  /**
+   * @param statusCode the status code of the response
+   * @param error the error of the body, null when the body has none
+   * @param reason the reason of the body
+   */
+  public CouchdbResponseException(int statusCode, String error, String reason) {
+    super("Response status code " + statusCode
+        + (error == null ? "" : ": " + error + " - " + reason), null, error, reason);
+    this.statusCode = statusCode;
+  }
+
+  /**
+   * @param statusCode the status code of the response
+   * @param body the response body, null when it was not read
+   * @return the exception with the error and reason of a JSON error body
+   */
+  public static CouchdbResponseException of(int statusCode, Buffer body) {
+    JsonObject error = null;
+    try {
+      if (body != null && body.length() > 0) {
+        JsonObject json = body.toJsonObject();
+        error = json.containsKey("error") ? json : null;
+      }
+    } catch (RuntimeException e) {
+      // not a JSON error body
+    }
+    return error == null
+        ? new CouchdbResponseException(statusCode, null, null)
+        : new CouchdbResponseException(statusCode, error.getString("error"),
+            error.getString("reason", ""));
+  }
+
+  public int statusCode() {
+    return statusCode;
+  }
+}
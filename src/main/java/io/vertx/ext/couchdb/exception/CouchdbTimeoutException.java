@@ -0,0 +1,27 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.exception;
+
+/**
+ * A request did not complete within its timeout, or an operation ran past
+ * the deadline of a handle created with
+ * {@link io.vertx.ext.couchdb.CouchdbClient#withTimeout(long)}.
+ */
+public class CouchdbTimeoutException extends CouchdbException {
+
+  public CouchdbTimeoutException(String message) {
+    super(message);
+  }
+
+  public CouchdbTimeoutException(String message, Throwable cause) {
+    super(message, cause);
+  }
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.function.LongFunction;
+
+import io.vertx.core.Future;
+import io.vertx.ext.couchdb.CircuitBreakerOptions;
+import io.vertx.ext.couchdb.exception.CouchdbCircuitOpenException;
+import io.vertx.ext.web.client.HttpResponse;
+
+/**
+ * Counts consecutive failures of one server. Closed it lets all requests
+ * through, open none, half open a single trial request. Shared by requests
+ * from all event loops, so the state is guarded by the instance.
+ */
+class CircuitBreaker {
+
+  enum State {
+    CLOSED, OPEN, HALF_OPEN
+  }
+
+  private final CircuitBreakerOptions options;
+  private final String server;
+  private State state = State.CLOSED;
+  private int failures;
+  private long openedAt;
+
+  /**
+   * @param server host:port of the server, for error messages
+   */
+  CircuitBreaker(CircuitBreakerOptions options, String server) {
+    this.options = new CircuitBreakerOptions(options);
+    this.server = server;
+  }
+
+  /**
+   * Sends the request unless the circuit is open and records its outcome,
+   * connection errors, timeouts and 5xx responses count as failures. The
+   * trial request gets the trial timeout when it has no timeout, so it
+   * can't keep the circuit half open forever.
+   *
+   * @param timeout the timeout of the request in milliseconds, 0 for none
+   * @param request sends the request with the given timeout
+   */
+  <T> Future<HttpResponse<T>> execute(long timeout,
+      LongFunction<Future<HttpResponse<T>>> request) {
+    State permit = this.acquire();
+    if (permit == State.OPEN) {
+      return Future.failedFuture(new CouchdbCircuitOpenException(this.server));
+    }
+    long actualTimeout = permit == State.HALF_OPEN && timeout <= 0
+        ? this.options.getTrialTimeout()
+        : timeout;
+    Future<HttpResponse<T>> response;
+    try {
+      response = request.apply(actualTimeout);
+    } catch (RuntimeException e) {
+      this.abort();
+      throw e;
+    }
+    return response.onComplete(ar -> {
+      boolean serverFailure = ar.failed()
+          ? RetryPolicy.isTransient(ar.cause())
+          : ar.result().statusCode() >= 500;
+      if (serverFailure) {
+        this.onFailure();
+      } else {
+        this.onSuccess();
+      }
+    });
+  }
+
+  /**
+   * @return CLOSED when a request may be sent, HALF_OPEN when it is the
+   *         trial request after the reset timeout, OPEN when it must not be
+   *         sent
+   */
+  synchronized State acquire() {
+    switch (this.state) {
+      case CLOSED:
+        return State.CLOSED;
+      case OPEN:
+        if (System.currentTimeMillis() - this.openedAt >= this.options.getResetTimeout()) {
+          this.state = State.HALF_OPEN;
+          return State.HALF_OPEN;
+        }
+        return State.OPEN;
+      default:
+        // a trial request is in flight
+        return State.OPEN;
+    }
+  }
+
+  /**
+   * @return true when a request would fail fast, without taking the trial
+   */
+  synchronized boolean isOpen() {
+    return this.state == State.HALF_OPEN || (this.state == State.OPEN
+        && System.currentTimeMillis() - this.openedAt < this.options.getResetTimeout());
+  }
+
+  synchronized void onSuccess() {
+    this.failures = 0;
+    this.state = State.CLOSED;
+  }
+
+  synchronized void onFailure() {
+    this.failures++;
+    if (this.state == State.HALF_OPEN || this.failures >= this.options.getFailureThreshold()) {
+      this.state = State.OPEN;
+      this.openedAt = System.currentTimeMillis();
+    }
+  }
+
+  /**
+   * The trial request was not sent, the next request is the trial.
+   */
+  synchronized void abort() {
+    if (this.state == State.HALF_OPEN) {
+      this.state = State.OPEN;
+    }
+  }
+
+  synchronized State state() {
+    return this.state;
+  }
+
+  String server() {
+    return this.server;
+  }
+}
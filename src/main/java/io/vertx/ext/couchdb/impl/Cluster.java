@@ -0,0 +1,192 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.couchdb.ClusterOptions;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * The nodes of a CouchDB cluster a client talks to directly. Picks the node
+ * of each request according to the {@link io.vertx.ext.couchdb.LoadBalancing}
+ * and checks the health of all nodes periodically with /_up.
+ */
+public class Cluster {
+
+  private static final UriTemplate UP_URL = UriTemplate.of("/_up");
+
+  private final Vertx vertx;
+  private final WebClient client;
+  private final boolean https;
+  private final ClusterOptions options;
+  private final ClusterNode[] nodes;
+  private final AtomicInteger next = new AtomicInteger();
+  private final long timerId;
+
+  public Cluster(Vertx vertx, WebClient client, List<SocketAddress> endpoints, boolean https,
+      ClusterOptions options) {
+    if (endpoints.isEmpty()) {
+      throw new IllegalArgumentException("A cluster needs at least one endpoint");
+    }
+    this.vertx = vertx;
+    this.client = client;
+    this.https = https;
+    this.options = new ClusterOptions(options);
+    this.nodes = endpoints.stream()
+        .map(address -> new ClusterNode(address, this.options.getUnhealthyThreshold()))
+        .toArray(ClusterNode[]::new);
+    this.timerId = vertx.setPeriodic(this.options.getHealthCheckInterval(),
+        id -> this.checkHealth());
+  }
+
+  /**
+   * @return the node for the next request, among the healthy ones if there
+   *         are any
+   */
+  ClusterNode select() {
+    int healthy = 0;
+    for (ClusterNode node : this.nodes) {
+      if (node.isHealthy()) {
+        healthy++;
+      }
+    }
+    boolean all = healthy == 0;
+    int candidates = all ? this.nodes.length : healthy;
+    int offset = Math.floorMod(this.next.getAndIncrement(), candidates);
+
+    switch (this.options.getLoadBalancing()) {
+      case LEAST_IN_FLIGHT:
+        return this.leastInFlight(all, offset);
+      case LATENCY_WEIGHTED:
+        return this.latencyWeighted(all);
+      default:
+        return this.candidate(all, offset);
+    }
+  }
+
+  /**
+   * @return the number of nodes, healthy or not
+   */
+  int size() {
+    return this.nodes.length;
+  }
+
+  /**
+   * @return the address of the next node, e.g. to log in
+   */
+  public SocketAddress address() {
+    return this.select().address();
+  }
+
+  public void close() {
+    this.vertx.cancelTimer(this.timerId);
+  }
+
+  @Override
+  public String toString() {
+    return Arrays.stream(this.nodes)
+        .map(ClusterNode::toString)
+        .collect(Collectors.joining(","));
+  }
+
+  /**
+   * @return the index-th candidate node
+   */
+  private ClusterNode candidate(boolean all, int index) {
+    int seen = 0;
+    for (ClusterNode node : this.nodes) {
+      if (all || node.isHealthy()) {
+        if (seen == index) {
+          return node;
+        }
+        seen++;
+      }
+    }
+    // health changed while selecting
+    return this.nodes[Math.floorMod(index, this.nodes.length)];
+  }
+
+  /**
+   * Starts looking at a rotating offset, so ties don't all go to the first
+   * node.
+   */
+  private ClusterNode leastInFlight(boolean all, int offset) {
+    ClusterNode best = null;
+    for (int i = 0; i < this.nodes.length; i++) {
+      ClusterNode node = this.nodes[(offset + i) % this.nodes.length];
+      if ((all || node.isHealthy()) && (best == null || node.inFlight() < best.inFlight())) {
+        best = node;
+      }
+    }
+    return best != null ? best : this.nodes[offset % this.nodes.length];
+  }
+
+  /**
+   * Picks at random with weights 1 / (latency * (in flight + 1)), nodes
+   * without measured latency count as 1ms to get traffic early.
+   */
+  private ClusterNode latencyWeighted(boolean all) {
+    double total = 0.0;
+    for (ClusterNode node : this.nodes) {
+      if (all || node.isHealthy()) {
+        total += weight(node);
+      }
+    }
+    double pick = ThreadLocalRandom.current().nextDouble(total);
+    ClusterNode last = this.nodes[0];
+    for (ClusterNode node : this.nodes) {
+      if (all || node.isHealthy()) {
+        pick -= weight(node);
+        last = node;
+        if (pick < 0.0) {
+          return node;
+        }
+      }
+    }
+    return last;
+  }
+
+  private static double weight(ClusterNode node) {
+    return 1.0 / (Math.max(node.latency(), 1.0) * (node.inFlight() + 1));
+  }
+
+  private void checkHealth() {
+    for (ClusterNode node : this.nodes) {
+      if (node.checking) {
+        continue;
+      }
+      node.checking = true;
+      SocketAddress address = node.address();
+      this.client.request(HttpMethod.GET, address.port(), address.host(), UP_URL)
+          .ssl(this.https)
+          .timeout(this.options.getHealthCheckTimeout())
+          .send()
+          .onComplete(ar -> {
+            node.checking = false;
+            // 404 means maintenance mode or nolb, the node wants no traffic
+            if (ar.succeeded() && ar.result().statusCode() == 200) {
+              node.success();
+            } else {
+              node.failure();
+            }
+          });
+    }
+  }
+}
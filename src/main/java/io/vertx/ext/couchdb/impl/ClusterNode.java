@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.vertx.core.net.SocketAddress;
+
+/**
+ * A node of a {@link Cluster}: its requests in flight, a moving average of
+ * its latency and its health, from health checks and requests alike.
+ */
+class ClusterNode {
+
+  /** weight of a new sample in the moving average of the latency */
+  private static final double LATENCY_SMOOTHING = 0.2;
+
+  private final SocketAddress address;
+  private final int unhealthyThreshold;
+  private final AtomicInteger inFlight = new AtomicInteger();
+  private volatile double latency;
+  private volatile boolean healthy = true;
+  private int failures;
+  boolean checking;
+
+  ClusterNode(SocketAddress address, int unhealthyThreshold) {
+    this.address = address;
+    this.unhealthyThreshold = unhealthyThreshold;
+  }
+
+  SocketAddress address() {
+    return this.address;
+  }
+
+  boolean isHealthy() {
+    return this.healthy;
+  }
+
+  int inFlight() {
+    return this.inFlight.get();
+  }
+
+  /**
+   * @return the average latency in milliseconds, 0 before the first request
+   */
+  double latency() {
+    return this.latency;
+  }
+
+  void requestBegin() {
+    this.inFlight.incrementAndGet();
+  }
+
+  /**
+   * @param latencyNanos the time the request took
+   * @param failed true when the request failed with a connection error or a
+   *        timeout
+   */
+  void requestEnd(long latencyNanos, boolean failed) {
+    this.inFlight.decrementAndGet();
+    if (failed) {
+      this.failure();
+      return;
+    }
+    synchronized (this) {
+      double sample = latencyNanos / 1_000_000.0;
+      this.latency = this.latency == 0.0
+          ? sample
+          : this.latency + LATENCY_SMOOTHING * (sample - this.latency);
+    }
+    this.success();
+  }
+
+  synchronized void success() {
+    this.failures = 0;
+    this.healthy = true;
+  }
+
+  synchronized void failure() {
+    this.failures++;
+    if (this.failures >= this.unhealthyThreshold) {
+      this.healthy = false;
+    }
+  }
+
+  @Override
+  public String toString() {
+    return this.address.host() + ":" + this.address.port();
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import io.vertx.core.Vertx;
+import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.couchdb.CircuitBreakerOptions;
+import io.vertx.ext.couchdb.NullCredentials;
+import io.vertx.ext.couchdb.RetryOptions;
+import io.vertx.ext.couchdb.database.CouchDbDatabaseOptions;
+import io.vertx.ext.couchdb.metrics.CouchdbMetrics;
+import io.vertx.ext.web.client.WebClient;
+
+/**
+ * Everything a {@link CouchdbClientImpl} is created from, filled in by the
+ * CouchdbClientBuilder once the WebClient, the cluster and the metrics are
+ * resolved.
+ */
+public class CouchdbClientConfig {
+
+  private Vertx vertx;
+  private WebClient webClient;
+  private String host = "localhost";
+  private int port = 5984;
+  private boolean https;
+  private Credentials credentials = new NullCredentials();
+  private CouchDbDatabaseOptions databaseOptions = new CouchDbDatabaseOptions();
+  private boolean sessionAuth;
+  private CouchdbMetrics metrics;
+  private RetryOptions retryOptions;
+  private CircuitBreakerOptions circuitBreakerOptions;
+  private Cluster cluster;
+  private long requestTimeout;
+
+  /**
+   * @param vertx the Vertx instance of the client
+   */
+  public CouchdbClientConfig vertx(Vertx vertx) {
+    this.vertx = vertx;
+    return this;
+  }
+
+  /**
+   * @param webClient the WebClient sending the requests
+   */
+  public CouchdbClientConfig webClient(WebClient webClient) {
+    this.webClient = webClient;
+    return this;
+  }
+
+  /**
+   * @param host the host of a single server
+   */
+  public CouchdbClientConfig host(String host) {
+    this.host = host;
+    return this;
+  }
+
+  /**
+   * @param port the port of a single server
+   */
+  public CouchdbClientConfig port(int port) {
+    this.port = port;
+    return this;
+  }
+
+  /**
+   * @param https true to connect with TLS
+   */
+  public CouchdbClientConfig https(boolean https) {
+    this.https = https;
+    return this;
+  }
+
+  /**
+   * @param credentials the credentials sent with each request or used to log
+   *        in with session authentication
+   */
+  public CouchdbClientConfig credentials(Credentials credentials) {
+    this.credentials = credentials;
+    return this;
+  }
+
+  /**
+   * @param databaseOptions the default options of database handles
+   */
+  public CouchdbClientConfig databaseOptions(CouchDbDatabaseOptions databaseOptions) {
+    this.databaseOptions = databaseOptions;
+    return this;
+  }
+
+  /**
+   * @param sessionAuth true to log in once with the username / password
+   *        credentials and authenticate all requests with the shared
+   *        AuthSession cookie instead of sending the credentials each time
+   */
+  public CouchdbClientConfig sessionAuth(boolean sessionAuth) {
+    this.sessionAuth = sessionAuth;
+    return this;
+  }
+
+  /**
+   * @param metrics the metrics every request is reported to, null for none
+   */
+  public CouchdbClientConfig metrics(CouchdbMetrics metrics) {
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * @param retryOptions the options to repeat transiently failed requests,
+   *        null to not repeat them
+   */
+  public CouchdbClientConfig retryOptions(RetryOptions retryOptions) {
+    this.retryOptions = retryOptions;
+    return this;
+  }
+
+  /**
+   * @param circuitBreakerOptions the options of the circuit breaker of the
+   *        server, null for none
+   */
+  public CouchdbClientConfig circuitBreakerOptions(CircuitBreakerOptions circuitBreakerOptions) {
+    this.circuitBreakerOptions = circuitBreakerOptions;
+    return this;
+  }
+
+  /**
+   * @param cluster the nodes to spread requests over instead of host and
+   *        port, null for a single server
+   */
+  public CouchdbClientConfig cluster(Cluster cluster) {
+    this.cluster = cluster;
+    return this;
+  }
+
+  /**
+   * @param requestTimeout the milliseconds a request with a buffered
+   *        response may take, 0 for no timeout. Streaming requests like
+   *        continuous _changes feeds are not limited.
+   */
+  public CouchdbClientConfig requestTimeout(long requestTimeout) {
+    this.requestTimeout = requestTimeout;
+    return this;
+  }
+
+  public Vertx getVertx() {
+    return vertx;
+  }
+
+  public WebClient getWebClient() {
+    return webClient;
+  }
+
+  public String getHost() {
+    return host;
+  }
+
+  public int getPort() {
+    return port;
+  }
+
+  public boolean isHttps() {
+    return https;
+  }
+
+  public Credentials getCredentials() {
+    return credentials;
+  }
+
+  public CouchDbDatabaseOptions getDatabaseOptions() {
+    return databaseOptions;
+  }
+
+  public boolean isSessionAuth() {
+    return sessionAuth;
+  }
+
+  public CouchdbMetrics getMetrics() {
+    return metrics;
+  }
+
+  public RetryOptions getRetryOptions() {
+    return retryOptions;
+  }
+
+  public CircuitBreakerOptions getCircuitBreakerOptions() {
+    return circuitBreakerOptions;
+  }
+
+  public Cluster getCluster() {
+    return cluster;
+  }
+
+  public long getRequestTimeout() {
+    return requestTimeout;
+  }
+}
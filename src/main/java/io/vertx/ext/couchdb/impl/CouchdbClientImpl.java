@@ -11,8 +11,15 @@
 package io.vertx.ext.couchdb.impl;
 
 import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.LongFunction;
 
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
@@ -21,53 +28,142 @@ import io.vertx.core.http.HttpResponseExpectation;
 import io.vertx.core.internal.VertxInternal;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
+import io.vertx.ext.couchdb.CircuitBreakerOptions;
 import io.vertx.ext.couchdb.CouchdbClient;
 import io.vertx.ext.couchdb.admin.CouchdbAdmin;
 import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.CouchDbDatabaseOptions;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
 import io.vertx.ext.couchdb.exception.CouchdbException;
-import io.vertx.ext.couchdb.parameters.BaseQueryParameters;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.exception.CouchdbTimeoutException;
+import io.vertx.ext.couchdb.metrics.CouchdbMetrics;
+import io.vertx.ext.couchdb.metrics.CouchdbOperation;
+import io.vertx.ext.couchdb.parameters.EncodedQueryParameters;
 import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
 import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
 
 public class CouchdbClientImpl implements CouchdbClient {
 
+  private static final UriTemplate STATUS_URL = UriTemplate.of("/");
+  private static final UriTemplate SESSION_URL = UriTemplate.of("/_session");
+  private static final UriTemplate UUIDS_URL =
+      UriTemplate.of("/_uuids" + PathParameterTemplates.QUERY);
+
   private final VertxInternal vertx;
   private final WebClient client;
   private final Credentials credentials;
   private final String host;
   private final int port;
   private final boolean https;
+  private final CouchDbDatabaseOptions databaseOptions;
+  private final SessionAuthenticator session;
+  private final CouchdbMetrics metrics;
+  private final RetryPolicy retryPolicy;
+  private final CircuitBreakerOptions breakerOptions;
+  /** circuit breakers by host:port, of the server or of each cluster node */
+  private final ConcurrentMap<String, CircuitBreaker> breakers;
+  private final Cluster cluster;
+  private final long requestTimeout;
+  private final RequestDeadlines deadlines;
+  private final StreamedResponses streamed;
+  /** end of a view created with withTimeout, epoch millis, 0 for none */
+  private final long deadline;
 
-  public CouchdbClientImpl(final Vertx vertx, final WebClient client,
-      final String host, final int port, final boolean https, final Credentials credentials) {
-    Objects.requireNonNull(vertx);
-    Objects.requireNonNull(client);
-    Objects.requireNonNull(host);
-    Objects.requireNonNull(port);
-    Objects.requireNonNull(https);
-    Objects.requireNonNull(credentials);
+  /**
+   * @param config the server, authentication and request handling of the
+   *        client, see CouchdbClientBuilder
+   */
+  public CouchdbClientImpl(final CouchdbClientConfig config) {
+    Objects.requireNonNull(config.getVertx());
+    Objects.requireNonNull(config.getWebClient());
+    Objects.requireNonNull(config.getHost());
+    Objects.requireNonNull(config.getCredentials());
+    Objects.requireNonNull(config.getDatabaseOptions());
+
+    this.vertx = (VertxInternal) config.getVertx();
+    this.client = config.getWebClient();
+    this.credentials = config.getCredentials();
+    this.host = config.getHost();
+    this.port = config.getPort();
+    this.https = config.isHttps();
+    this.databaseOptions = new CouchDbDatabaseOptions(config.getDatabaseOptions());
+    this.metrics = config.getMetrics();
+    this.cluster = config.getCluster();
+    this.requestTimeout = config.getRequestTimeout();
+    this.deadlines = new RequestDeadlines(this.vertx, this.client);
+    this.streamed = new StreamedResponses(this.client);
+    this.deadline = 0L;
+    this.retryPolicy = config.getRetryOptions() == null
+        ? null
+        : new RetryPolicy(this.vertx, config.getRetryOptions());
+    this.breakerOptions = config.getCircuitBreakerOptions() == null
+        ? null
+        : new CircuitBreakerOptions(config.getCircuitBreakerOptions());
+    this.breakers = new ConcurrentHashMap<>();
+    if (!config.isSessionAuth()) {
+      this.session = null;
+    } else if (this.credentials instanceof UsernamePasswordCredentials && this.cluster != null) {
+      this.session = new SessionAuthenticator(this.client, this.cluster::address, this.https,
+          (UsernamePasswordCredentials) this.credentials);
+    } else if (this.credentials instanceof UsernamePasswordCredentials) {
+      this.session = new SessionAuthenticator(this.client, this.host, this.port, this.https,
+          (UsernamePasswordCredentials) this.credentials);
+    } else {
+      throw new IllegalArgumentException("Session authentication needs UsernamePasswordCredentials");
+    }
+  }
 
-    this.vertx = (VertxInternal) vertx;
-    this.client = client;
-    this.credentials = credentials;
-    this.host = host;
-    this.port = port;
-    this.https = https;
+  /**
+   * A view of the base client ending at the deadline.
+   */
+  private CouchdbClientImpl(final CouchdbClientImpl base, final long deadline) {
+    this.vertx = base.vertx;
+    this.client = base.client;
+    this.credentials = base.credentials;
+    this.host = base.host;
+    this.port = base.port;
+    this.https = base.https;
+    this.databaseOptions = base.databaseOptions;
+    this.session = base.session;
+    this.metrics = base.metrics;
+    this.retryPolicy = base.retryPolicy;
+    this.breakerOptions = base.breakerOptions;
+    this.breakers = base.breakers;
+    this.cluster = base.cluster;
+    this.requestTimeout = base.requestTimeout;
+    this.deadlines = base.deadlines;
+    this.streamed = base.streamed;
+    this.deadline = deadline;
+  }
+
+  @Override
+  public CouchdbClient withTimeout(long timeout) {
+    if (timeout < 1) {
+      throw new IllegalArgumentException("timeout must be positive");
+    }
+    long end = System.currentTimeMillis() + timeout;
+    return new CouchdbClientImpl(this, this.deadline > 0 ? Math.min(this.deadline, end) : end);
   }
 
   @Override
   public Future<JsonObject> status() {
-    return this.getJsonObject(UriTemplate.of("/"), null);
+    return this.getJsonObject(STATUS_URL, null);
   }
 
   @Override
   public Future<JsonObject> session() {
-    UriTemplate baseUrl = UriTemplate.of("/_session");
-    return this.getJsonObject(baseUrl, null);
+    return this.getJsonObject(SESSION_URL, null);
   }
 
   @Override
@@ -90,18 +186,20 @@ public class CouchdbClientImpl implements CouchdbClient {
 
   @Override
   public Future<JsonObject> uuids(int count) {
-    UriTemplate baseUrl = UriTemplate.of("/_uuids" + PathParameterTemplates.QUERY);
-    BaseQueryParameters param = new BaseQueryParameters();
-    if (count > 0) {
-      param.addParameter("count", count, true);
-    }
-    return this.getJsonObject(baseUrl, param);
+    QueryParameters param = count > 0 ? EncodedQueryParameters.of("count", count) : null;
+    return this.getJsonObject(UUIDS_URL, param);
 
   }
 
   @Override
   public Future<CouchDbDatabase> getDatabase(final String databaseName) {
-    return CouchDbDatabase.create(this, databaseName);
+    return CouchDbDatabase.create(this, databaseName, this.databaseOptions);
+  }
+
+  @Override
+  public Future<CouchDbDatabase> getDatabase(final String databaseName,
+      final CouchDbDatabaseOptions options) {
+    return CouchDbDatabase.create(this, databaseName, options);
   }
 
   @Override
@@ -150,6 +248,26 @@ public class CouchdbClientImpl implements CouchdbClient {
     return this.jsonBody(HttpMethod.PUT, baseUrl, params, body);
   }
 
+  @Override
+  public Future<JsonObject> postJsonObject(UriTemplate baseUrl, QueryParameters params,
+      JsonObject body) {
+
+    return this.jsonBody(HttpMethod.POST, baseUrl, params, body);
+  }
+
+  @Override
+  public Future<JsonArray> postJsonArray(UriTemplate baseUrl, QueryParameters params,
+      JsonObject body) {
+
+    Promise<JsonArray> promise = this.vertx.promise();
+    this.sendJson(HttpMethod.POST, baseUrl, params, body)
+        .expecting(HttpResponseExpectation.JSON)
+        .onFailure(promise::fail)
+        .onSuccess(response -> promise.complete(response.bodyAsJsonArray()));
+
+    return promise.future();
+  }
+
   @Override
   public Future<Void> doesExist(UriTemplate urlToCheck) {
 
@@ -184,14 +302,7 @@ public class CouchdbClientImpl implements CouchdbClient {
   public Future<HttpResponse<Buffer>> noBody(HttpMethod method, UriTemplate baseUrl,
       QueryParameters params) {
 
-    QueryParameters actualParams = params == null ? new BaseQueryParameters() : params;
-
-    return client.request(method, this.port, this.host, baseUrl)
-        .setTemplateParam("query", actualParams.forTemplate())
-        .authentication(this.credentials)
-        .ssl(this.https)
-        .send()
-        .expecting(HttpResponseExpectation.SC_SUCCESS);
+    return this.send(method, baseUrl, params, 0L, HttpRequest::send);
   }
 
   /**
@@ -208,14 +319,8 @@ public class CouchdbClientImpl implements CouchdbClient {
       QueryParameters params, JsonObject body) {
 
     Promise<JsonObject> promise = this.vertx.promise();
-    QueryParameters actualParams = params == null ? new BaseQueryParameters() : params;
-
-    client.request(method, this.port, this.host, baseUrl)
-        .setTemplateParam("query", actualParams.forTemplate())
-        .authentication(this.credentials)
-        .ssl(this.https)
-        .sendJson(body)
-        .expecting(HttpResponseExpectation.SC_SUCCESS)
+
+    this.sendJson(method, baseUrl, params, body)
         .expecting(HttpResponseExpectation.JSON)
         .onFailure(promise::fail)
         .onSuccess(response -> promise.complete(response.bodyAsJsonObject()));
@@ -223,6 +328,389 @@ public class CouchdbClientImpl implements CouchdbClient {
     return promise.future();
   }
 
+  @Override
+  public Future<HttpResponse<Buffer>> getIfNoneMatch(UriTemplate baseUrl,
+      QueryParameters params, String etag) {
+
+    return this.exchange(HttpMethod.GET, baseUrl, params, 0L, request -> etag == null
+        ? request.send()
+        : request.putHeader("If-None-Match", etag).send())
+        .compose(response -> response.statusCode() == 304
+            ? Future.succeededFuture(response)
+            : this.checkStatus(response));
+  }
+
+  @Override
+  public Future<HttpResponse<Buffer>> bufferBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, Buffer body) {
+
+    return this.send(method, baseUrl, params, body.length(), request -> request
+        .putHeader("Content-Type", "application/json")
+        .sendBuffer(body));
+  }
+
+  @Override
+  public Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, WriteStream<Buffer> sink) {
+
+    return this.stream(method, baseUrl, params, 0L,
+        request -> this.streamed.pipe(request, sink, HttpRequest::send));
+  }
+
+  @Override
+  public Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, JsonObject body, WriteStream<Buffer> sink) {
+
+    return this.stream(method, baseUrl, params, -1L,
+        request -> this.streamed.pipe(request, sink, piped -> piped.sendJson(body)));
+  }
+
+  @Override
+  public Future<HttpResponse<Void>> streamBody(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, MultiMap headers, WriteStream<Buffer> sink) {
+
+    return this.stream(method, baseUrl, params, 0L,
+        request -> this.streamed.pipe(request.putHeaders(headers), sink, HttpRequest::send));
+  }
+
+  @Override
+  public Future<HttpResponse<Buffer>> sendStream(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, MultiMap headers, ReadStream<Buffer> body) {
+
+    return this.stream(method, baseUrl, params, contentLength(headers), request -> request
+        .putHeaders(headers)
+        .sendStream(body))
+        .compose(this::checkStatus);
+  }
+
+  private Future<HttpResponse<Buffer>> sendJson(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, JsonObject body) {
+
+    if (this.metrics == null || body == null) {
+      return this.send(method, baseUrl, params, -1L, request -> request.sendJson(body));
+    }
+    // encoded up front to report the size, sendJson would encode it the same way
+    Buffer encoded = body.toBuffer();
+    return this.send(method, baseUrl, params, encoded.length(), request -> request
+        .putHeader("Content-Type", "application/json")
+        .sendBuffer(encoded));
+  }
+
+  /**
+   * Creates an authenticated request, with the credentials or, in session
+   * mode, with the given AuthSession cookie.
+   */
+  private HttpRequest<Buffer> prepare(HttpMethod method, String host, int port,
+      UriTemplate baseUrl, QueryParameters params, String cookie, long timeout) {
+
+    QueryParameters actualParams = params == null ? EncodedQueryParameters.EMPTY : params;
+
+    HttpRequest<Buffer> request = client.request(method, port, host, baseUrl)
+        .setTemplateParam("query", actualParams.forTemplate());
+    if (cookie == null) {
+      request = request.authentication(this.credentials).ssl(this.https);
+    } else {
+      request = request.ssl(this.https).putHeader("Cookie", cookie);
+    }
+    return timeout > 0 ? request.timeout(timeout) : request;
+  }
+
+  /**
+   * Sends the request to the server, or to the node the cluster picks and
+   * tracks the outcome on that node. Buffered requests go through the
+   * circuit breaker of the server or node when configured.
+   */
+  private <T> Future<HttpResponse<T>> dispatch(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, String cookie, boolean buffered,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender) {
+    long timeout = this.timeout(buffered);
+    if (timeout < 0) {
+      return Future.failedFuture(new CouchdbTimeoutException("Deadline exceeded"));
+    }
+    boolean guarded = buffered && this.breakerOptions != null;
+    if (this.deadline > 0) {
+      // the request timeout is an idle timeout, the deadline bounds the total
+      long remaining = this.deadline - System.currentTimeMillis();
+      return this.dispatchTo(method, baseUrl, params, cookie, timeout, guarded,
+          request -> this.deadlines.send(request, remaining, sender));
+    }
+    return this.dispatchTo(method, baseUrl, params, cookie, timeout, guarded, sender);
+  }
+
+  private <T> Future<HttpResponse<T>> dispatchTo(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, String cookie, long timeout, boolean guarded,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender) {
+    if (this.cluster == null) {
+      CircuitBreaker breaker = guarded ? this.breaker(this.host + ":" + this.port) : null;
+      return guard(breaker, timeout, actualTimeout -> sender.apply(this.prepare(method,
+          this.host, this.port, baseUrl, params, cookie, actualTimeout)));
+    }
+    ClusterNode node = this.cluster.select();
+    CircuitBreaker breaker = guarded ? this.breaker(node.toString()) : null;
+    // while the circuit of a node is open, the other nodes take its requests
+    for (int i = 1; breaker != null && breaker.isOpen() && i < this.cluster.size(); i++) {
+      node = this.cluster.select();
+      breaker = this.breaker(node.toString());
+    }
+    ClusterNode target = node;
+    return guard(breaker, timeout, actualTimeout -> this.sendTo(target, method, baseUrl,
+        params, cookie, actualTimeout, sender));
+  }
+
+  private <T> Future<HttpResponse<T>> sendTo(ClusterNode node, HttpMethod method,
+      UriTemplate baseUrl, QueryParameters params, String cookie, long timeout,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender) {
+    SocketAddress address = node.address();
+    long start = System.nanoTime();
+    node.requestBegin();
+    Future<HttpResponse<T>> response;
+    try {
+      response = sender.apply(this.prepare(method, address.host(), address.port(), baseUrl,
+          params, cookie, timeout));
+    } catch (RuntimeException e) {
+      node.requestEnd(System.nanoTime() - start, false);
+      throw e;
+    }
+    return response.onComplete(ar -> node.requestEnd(System.nanoTime() - start,
+        ar.failed() && RetryPolicy.isTransient(ar.cause())));
+  }
+
+  /**
+   * @param breaker the circuit breaker of the server or node, null for none
+   * @param request sends the request with the given timeout
+   */
+  private static <T> Future<HttpResponse<T>> guard(CircuitBreaker breaker, long timeout,
+      LongFunction<Future<HttpResponse<T>>> request) {
+    return breaker == null ? request.apply(timeout) : breaker.execute(timeout, request);
+  }
+
+  private CircuitBreaker breaker(String server) {
+    return this.breakers.computeIfAbsent(server,
+        key -> new CircuitBreaker(this.breakerOptions, key));
+  }
+
+  /**
+   * @param buffered false for streaming requests, which are only bounded by
+   *        the deadline
+   * @return the timeout of a request in milliseconds, 0 for none, -1 when
+   *         the deadline has passed
+   */
+  private long timeout(boolean buffered) {
+    long timeout = buffered ? this.requestTimeout : 0L;
+    if (this.deadline > 0) {
+      long remaining = this.deadline - System.currentTimeMillis();
+      if (remaining <= 0) {
+        return -1L;
+      }
+      timeout = timeout > 0 ? Math.min(timeout, remaining) : remaining;
+    }
+    return timeout;
+  }
+
+  /**
+   * Fails with CouchdbTimeoutException instead of the timeout of Vert.x.
+   */
+  private <T> Future<T> timeoutFailure(Throwable err) {
+    if (err instanceof TimeoutException) {
+      return Future.failedFuture(new CouchdbTimeoutException(err.getMessage(), err));
+    }
+    return Future.failedFuture(err);
+  }
+
+  private Future<HttpResponse<Buffer>> send(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, long bytesWritten,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<Buffer>>> sender) {
+    return this.exchange(method, baseUrl, params, bytesWritten, sender)
+        .compose(this::checkStatus);
+  }
+
+  /**
+   * Sends the request without checking the status of the response, through
+   * the retry policy when configured.
+   */
+  private Future<HttpResponse<Buffer>> exchange(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, long bytesWritten,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<Buffer>>> unmeasured) {
+    Function<HttpRequest<Buffer>, Future<HttpResponse<Buffer>>> sender =
+        this.measured(method, baseUrl, bytesWritten, unmeasured);
+    if (this.retryPolicy == null) {
+      return this.exchangeOnce(method, baseUrl, params, sender)
+          .recover(this::timeoutFailure);
+    }
+    return this.retryPolicy.execute(method, baseUrl,
+        () -> this.exchangeOnce(method, baseUrl, params, sender))
+        .recover(this::timeoutFailure);
+  }
+
+  private Future<HttpResponse<Buffer>> exchangeOnce(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<Buffer>>> sender) {
+    if (this.session == null) {
+      return this.dispatch(method, baseUrl, params, null, true, sender);
+    }
+    return this.sendWithSession(method, baseUrl, params, sender, true);
+  }
+
+  /**
+   * Sends with the session cookie, a 401 means the session expired or was
+   * revoked server side, so the request is repeated once after a new login.
+   */
+  private Future<HttpResponse<Buffer>> sendWithSession(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, Function<HttpRequest<Buffer>, Future<HttpResponse<Buffer>>> sender,
+      boolean retry) {
+    return this.cookie()
+        .compose(cookie -> this.dispatch(method, baseUrl, params, cookie, true, sender)
+            .compose(response -> {
+              this.session.update(response);
+              if (response.statusCode() == 401 && retry) {
+                this.session.invalidate(cookie);
+                return this.sendWithSession(method, baseUrl, params, sender, false);
+              }
+              return Future.succeededFuture(response);
+            }));
+  }
+
+  /**
+   * The session cookie, waited for until the deadline. The login itself is
+   * shared with other requests and keeps running.
+   */
+  private Future<String> cookie() {
+    Future<String> cookie = this.session.cookie();
+    if (this.deadline == 0) {
+      return cookie;
+    }
+    long remaining = this.deadline - System.currentTimeMillis();
+    if (remaining <= 0) {
+      return Future.failedFuture(new CouchdbTimeoutException("Deadline exceeded"));
+    }
+    return cookie.timeout(remaining, TimeUnit.MILLISECONDS);
+  }
+
+  /**
+   * Streaming requests are not repeated on 401, the body of a streamed
+   * request may already be consumed. The cookie is dropped so the next
+   * request logs in again.
+   */
+  private <T> Future<HttpResponse<T>> stream(HttpMethod method, UriTemplate baseUrl,
+      QueryParameters params, long bytesWritten,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> unmeasured) {
+    Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender =
+        this.measured(method, baseUrl, bytesWritten, unmeasured);
+    if (this.session == null) {
+      return this.dispatch(method, baseUrl, params, null, false, sender)
+          .recover(this::timeoutFailure);
+    }
+    return this.cookie()
+        .compose(cookie -> this.dispatch(method, baseUrl, params, cookie, false, sender)
+            .onSuccess(this.session::update)
+            .onFailure(err -> {
+              if (err instanceof CouchdbResponseException
+                  && ((CouchdbResponseException) err).statusCode() == 401) {
+                this.session.invalidate(cookie);
+              }
+            }))
+        .recover(this::timeoutFailure);
+  }
+
+  /**
+   * Wraps the sender to report each request to the metrics, a request
+   * repeated after a new login is reported twice.
+   *
+   * @param bytesWritten the size of the request body, -1 when unknown
+   */
+  private <T> Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> measured(HttpMethod method,
+      UriTemplate baseUrl, long bytesWritten,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender) {
+    if (this.metrics == null) {
+      return sender;
+    }
+    String path = baseUrl.expandToString(Variables.variables());
+    String database = CouchdbOperation.database(path);
+    CouchdbOperation operation = CouchdbOperation.of(method, path);
+    return request -> {
+      Object requestMetric = this.metrics.requestBegin(database, operation, method);
+      Future<HttpResponse<T>> response;
+      try {
+        response = sender.apply(request);
+      } catch (RuntimeException e) {
+        this.metrics.requestFailed(requestMetric, e);
+        throw e;
+      }
+      this.metrics.requestEnd(requestMetric, bytesWritten);
+      return response
+          .onSuccess(resp -> this.metrics.responseEnd(requestMetric, resp.statusCode(),
+              bytesRead(resp)))
+          .onFailure(err -> {
+            if (err instanceof CouchdbResponseException) {
+              // a streamed error response, failed before its body was piped
+              this.metrics.responseEnd(requestMetric,
+                  ((CouchdbResponseException) err).statusCode(), -1L);
+            } else {
+              this.metrics.requestFailed(requestMetric, err);
+            }
+          });
+    };
+  }
+
+  /**
+   * @return the size of a buffered body, otherwise the Content-Length header
+   *         or -1
+   */
+  private static long bytesRead(HttpResponse<?> response) {
+    Object body = response.body();
+    if (body instanceof Buffer) {
+      return ((Buffer) body).length();
+    }
+    return contentLength(response.headers());
+  }
+
+  private static long contentLength(MultiMap headers) {
+    String contentLength = headers == null ? null : headers.get("Content-Length");
+    if (contentLength == null) {
+      return -1L;
+    }
+    try {
+      return Long.parseLong(contentLength.trim());
+    } catch (NumberFormatException e) {
+      return -1L;
+    }
+  }
+
+  /**
+   * Maps CouchDB's conflict responses, 409 for a stale or missing rev and 412
+   * for an existing document / database, to CouchdbConflictException. Other
+   * non 2xx responses with CouchDB's JSON error body, e.g. 404 not_found,
+   * fail with CouchdbResponseException, responses without one fail as
+   * before.
+   *
+   * @param response the HttpResponse to check
+   * @return the response when successful, a failed Future otherwise
+   */
+  private Future<HttpResponse<Buffer>> checkStatus(HttpResponse<Buffer> response) {
+    int statusCode = response.statusCode();
+    if (statusCode != 409 && statusCode != 412 && (statusCode < 200 || statusCode >= 300)) {
+      CouchdbResponseException error = CouchdbResponseException.of(statusCode, response.body());
+      if (error.error() != null) {
+        return Future.failedFuture(error);
+      }
+    }
+    if (statusCode == 409 || statusCode == 412) {
+      JsonObject error = new JsonObject();
+      try {
+        Buffer body = response.body();
+        if (body != null && body.length() > 0) {
+          error = body.toJsonObject();
+        }
+      } catch (RuntimeException e) {
+        // not a JSON error body, use defaults below
+      }
+      return Future.failedFuture(new CouchdbConflictException(null,
+          error.getString("error", CouchdbConflictException.CONFLICT),
+          error.getString("reason", "Response status code " + statusCode), statusCode));
+    }
+    return Future.succeededFuture(response).expecting(HttpResponseExpectation.SC_SUCCESS);
+  }
+
   @Override
   public Future<JsonObject> deleteJsonObject(UriTemplate baseUrl, QueryParameters params) {
     Promise<JsonObject> promise = this.vertx.promise();
@@ -234,8 +722,23 @@ public class CouchdbClientImpl implements CouchdbClient {
     return promise.future();
   }
 
+  @Override
+  public Vertx vertx() {
+    return this.vertx;
+  }
+
   @Override
   public void close() {
+    if (this.deadline > 0) {
+      // a view with a deadline shares the resources of its base client
+      return;
+    }
+    if (this.metrics != null) {
+      this.metrics.close();
+    }
+    if (this.cluster != null) {
+      this.cluster.close();
+    }
     this.client.close();
   }
 
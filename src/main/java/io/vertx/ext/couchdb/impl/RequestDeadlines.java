@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.ext.couchdb.exception.CouchdbTimeoutException;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.ClientPhase;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+
+/**
+ * Cancels requests running past a deadline of
+ * {@link io.vertx.ext.couchdb.CouchdbClient#withTimeout(long)}.
+ * <p>
+ * The timeout of a WebClient request is an idle timeout, a response that
+ * keeps trickling in outlives it. An interceptor on the WebClient hands the
+ * HttpClientRequest of each request sent with a deadline to that deadline,
+ * which resets it when the deadline passes. The exchange is aborted on the
+ * connection, buffered and streaming requests alike, instead of only failing
+ * the Future of the caller.
+ * <p>
+ * Requests are matched to their deadline by an internal header, removed
+ * before the request is written.
+ */
+class RequestDeadlines {
+
+  static final String HEADER = "x-vertx-couchdb-deadline";
+
+  private final Vertx vertx;
+  private final boolean intercepted;
+  private final Map<String, Deadline> pending = new ConcurrentHashMap<>();
+  private final AtomicLong ids = new AtomicLong();
+
+  RequestDeadlines(Vertx vertx, WebClient client) {
+    this.vertx = vertx;
+    this.intercepted = client instanceof WebClientInternal;
+    if (this.intercepted) {
+      ((WebClientInternal) client).addInterceptor(this::intercept);
+    }
+  }
+
+  /**
+   * Sends the request, failing it with a CouchdbTimeoutException and
+   * resetting it once remaining milliseconds have passed.
+   */
+  <T> Future<HttpResponse<T>> send(HttpRequest<Buffer> request, long remaining,
+      Function<HttpRequest<Buffer>, Future<HttpResponse<T>>> sender) {
+    Deadline deadline = new Deadline();
+    String id = Long.toString(this.ids.incrementAndGet());
+    if (this.intercepted) {
+      this.pending.put(id, deadline);
+      request.putHeader(HEADER, id);
+    }
+
+    Promise<HttpResponse<T>> promise = Promise.promise();
+    long timerId = this.vertx.setTimer(Math.max(1L, remaining), t -> {
+      deadline.expire();
+      promise.tryFail(new CouchdbTimeoutException("Deadline exceeded"));
+    });
+    Future<HttpResponse<T>> response;
+    try {
+      response = sender.apply(request);
+    } catch (RuntimeException e) {
+      this.done(id, deadline, timerId);
+      throw e;
+    }
+    response.onComplete(ar -> {
+      this.done(id, deadline, timerId);
+      if (ar.succeeded()) {
+        promise.tryComplete(ar.result());
+      } else {
+        promise.tryFail(ar.cause());
+      }
+    });
+    return promise.future();
+  }
+
+  private void done(String id, Deadline deadline, long timerId) {
+    this.vertx.cancelTimer(timerId);
+    this.pending.remove(id);
+    deadline.complete();
+  }
+
+  private void intercept(HttpContext<?> context) {
+    if (context.phase() == ClientPhase.SEND_REQUEST && !this.pending.isEmpty()) {
+      HttpClientRequest request = context.clientRequest();
+      String id = request.headers().get(HEADER);
+      Deadline deadline = id == null ? null : this.pending.get(id);
+      if (deadline != null) {
+        request.headers().remove(HEADER);
+        if (!deadline.attach(request)) {
+          context.fail(new CouchdbTimeoutException("Deadline exceeded"));
+          return;
+        }
+      }
+    }
+    context.next();
+  }
+
+  /**
+   * The connection level request of one exchange, replaced when a redirect is
+   * followed.
+   */
+  private static final class Deadline {
+
+    private HttpClientRequest request;
+    private boolean expired;
+    private boolean completed;
+
+    synchronized boolean attach(HttpClientRequest request) {
+      this.request = request;
+      return !this.expired;
+    }
+
+    void expire() {
+      HttpClientRequest toReset;
+      synchronized (this) {
+        if (this.completed) {
+          return;
+        }
+        this.expired = true;
+        toReset = this.request;
+      }
+      if (toReset != null) {
+        toReset.reset(0L, new CouchdbTimeoutException("Deadline exceeded"));
+      }
+    }
+
+    synchronized void complete() {
+      // the connection may already serve another request
+      this.completed = true;
+      this.request = null;
+    }
+  }
+}
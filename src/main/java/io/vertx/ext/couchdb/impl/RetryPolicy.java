@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClosedException;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.couchdb.RetryOptions;
+import io.vertx.ext.couchdb.metrics.CouchdbOperation;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+
+/**
+ * Repeats a request after transient failures, see {@link RetryOptions}. Each
+ * attempt goes through the {@link CircuitBreaker} of the server or cluster
+ * node it is sent to.
+ */
+class RetryPolicy {
+
+  private static final int TOO_MANY_REQUESTS = 429;
+
+  private final Vertx vertx;
+  private final RetryOptions options;
+
+  RetryPolicy(Vertx vertx, RetryOptions options) {
+    this.vertx = vertx;
+    this.options = new RetryOptions(options);
+  }
+
+  /**
+   * @param request sends the request once, called again for each retry
+   */
+  Future<HttpResponse<Buffer>> execute(HttpMethod method, UriTemplate baseUrl,
+      Supplier<Future<HttpResponse<Buffer>>> request) {
+    boolean idempotent = this.options.isRetryWrites() || isRead(method, baseUrl);
+    Promise<HttpResponse<Buffer>> promise = Promise.promise();
+    this.attempt(request, idempotent, 0, promise);
+    return promise.future();
+  }
+
+  private void attempt(Supplier<Future<HttpResponse<Buffer>>> request, boolean idempotent,
+      int retries, Promise<HttpResponse<Buffer>> promise) {
+    request.get().onComplete(ar -> {
+      long delay = this.retryDelay(ar, idempotent, retries);
+      if (delay < 0) {
+        promise.handle(ar);
+      } else {
+        this.vertx.setTimer(Math.max(1L, delay),
+            id -> this.attempt(request, idempotent, retries + 1, promise));
+      }
+    });
+  }
+
+  /**
+   * @return milliseconds to wait before the next attempt, -1 to complete
+   *         with the result
+   */
+  private long retryDelay(AsyncResult<HttpResponse<Buffer>> ar, boolean idempotent,
+      int retries) {
+    if (retries >= this.options.getMaxRetries()) {
+      return -1L;
+    }
+
+    if (ar.failed()) {
+      Throwable cause = ar.cause();
+      // a refused connection never reached the server, safe for writes too
+      if (!isTransient(cause) || !(idempotent || cause instanceof ConnectException)) {
+        return -1L;
+      }
+      return this.backoff(retries);
+    }
+
+    HttpResponse<Buffer> response = ar.result();
+    int statusCode = response.statusCode();
+    // 429 means the request was rejected, not applied
+    if (!this.options.getRetryStatusCodes().contains(statusCode)
+        || !(idempotent || statusCode == TOO_MANY_REQUESTS)) {
+      return -1L;
+    }
+    long retryAfter = retryAfter(response.getHeader("Retry-After"));
+    if (retryAfter < 0) {
+      return this.backoff(retries);
+    }
+    return retryAfter > this.options.getMaxBackoff() ? -1L : retryAfter;
+  }
+
+  /**
+   * Exponential backoff with full jitter.
+   */
+  private long backoff(int retries) {
+    double bound = this.options.getInitialBackoff()
+        * Math.pow(this.options.getBackoffMultiplier(), retries);
+    long maxDelay = (long) Math.min(bound, this.options.getMaxBackoff());
+    return ThreadLocalRandom.current().nextLong(maxDelay + 1);
+  }
+
+  /**
+   * @param retryAfter the header, delay seconds or an HTTP date
+   * @return the delay in milliseconds, -1 if missing or invalid
+   */
+  static long retryAfter(String retryAfter) {
+    if (retryAfter == null || retryAfter.isBlank()) {
+      return -1L;
+    }
+    String value = retryAfter.trim();
+    try {
+      return Math.max(0L, Long.parseLong(value) * 1000L);
+    } catch (NumberFormatException e) {
+      // not delay seconds, try a date
+    }
+    try {
+      ZonedDateTime date = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME);
+      return Math.max(0L, Duration.between(ZonedDateTime.now(date.getZone()), date).toMillis());
+    } catch (DateTimeParseException e) {
+      return -1L;
+    }
+  }
+
+  /**
+   * Connection errors and timeouts, the server may be fine on the next try.
+   */
+  static boolean isTransient(Throwable cause) {
+    return cause instanceof IOException
+        || cause instanceof HttpClosedException
+        || cause instanceof TimeoutException;
+  }
+
+  /**
+   * @return true for requests that don't change the database, POST included
+   *         for queries
+   */
+  static boolean isRead(HttpMethod method, UriTemplate baseUrl) {
+    if (HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)) {
+      return true;
+    }
+    if (!HttpMethod.POST.equals(method)) {
+      return false;
+    }
+    String path = baseUrl.expandToString(Variables.variables());
+    switch (CouchdbOperation.of(method, path)) {
+      case VIEW:
+      case FIND:
+        return true;
+      case BULK:
+        return path.endsWith("/_bulk_get");
+      default:
+        return false;
+    }
+  }
+}
@@ -0,0 +1,179 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Supplier;
+
+import io.vertx.core.Future;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpResponseExpectation;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Holds the AuthSession cookie shared by all requests of a client.
+ * <p>
+ * The cookie is obtained with a single POST to /_session, concurrent callers
+ * wait for the same login. Cookies CouchDB refreshes on regular responses are
+ * picked up, and once 80% of the session lifetime has passed a new login is
+ * started in the background while the current cookie is still handed out.
+ */
+public class SessionAuthenticator {
+
+  static final String COOKIE_NAME = "AuthSession";
+  /** CouchDB's default [chttpd_auth] timeout, used when no Max-Age is sent */
+  static final long DEFAULT_SESSION_TIMEOUT = 600_000L;
+
+  private static final UriTemplate SESSION_URL = UriTemplate.of("/_session");
+  private static final String MAX_AGE = "Max-Age=";
+
+  private final WebClient client;
+  private final Supplier<SocketAddress> server;
+  private final boolean https;
+  private final JsonObject loginBody;
+
+  private String cookie;
+  private long refreshAt;
+  private long expiresAt;
+  private Future<String> pendingLogin;
+
+  public SessionAuthenticator(WebClient client, String host, int port, boolean https,
+      UsernamePasswordCredentials credentials) {
+    this(client, fixedServer(SocketAddress.inetSocketAddress(port, Objects.requireNonNull(host))),
+        https, credentials);
+  }
+
+  /**
+   * @param server the server to log in at, asked for each login, e.g. a
+   *        healthy node of a cluster sharing the session secret
+   */
+  public SessionAuthenticator(WebClient client, Supplier<SocketAddress> server, boolean https,
+      UsernamePasswordCredentials credentials) {
+    this.client = Objects.requireNonNull(client);
+    this.server = Objects.requireNonNull(server);
+    this.https = https;
+    this.loginBody = new JsonObject()
+        .put("name", credentials.getUsername())
+        .put("password", credentials.getPassword());
+  }
+
+  /**
+   * @return the cookie header value to send, logging in first if there is no
+   *         valid session
+   */
+  public synchronized Future<String> cookie() {
+    long now = System.currentTimeMillis();
+    if (this.cookie != null && now < this.expiresAt) {
+      if (now >= this.refreshAt) {
+        // renew ahead of expiry, failures surface on the next expired call
+        this.login();
+      }
+      return Future.succeededFuture(this.cookie);
+    }
+    return this.login();
+  }
+
+  /**
+   * Logs in, or joins the login already in flight.
+   *
+   * @return the new cookie header value
+   */
+  public synchronized Future<String> login() {
+    if (this.pendingLogin != null) {
+      return this.pendingLogin;
+    }
+    SocketAddress address = this.server.get();
+    Future<String> login = this.client
+        .request(HttpMethod.POST, address.port(), address.host(), SESSION_URL)
+        .ssl(this.https)
+        .sendJson(this.loginBody)
+        .expecting(HttpResponseExpectation.SC_SUCCESS)
+        .compose(response -> {
+          String value = this.update(response);
+          return value != null
+              ? Future.succeededFuture(value)
+              : Future.failedFuture(new CouchdbException("No AuthSession cookie in _session response"));
+        });
+    this.pendingLogin = login;
+    login.onComplete(ar -> this.loginDone(login));
+    return login;
+  }
+
+  /**
+   * Takes over an AuthSession cookie set by a response, CouchDB sends a
+   * refreshed one when a session is used past part of its lifetime.
+   *
+   * @param response any response of a request made with the session
+   * @return the new cookie header value, null when the response set none
+   */
+  public synchronized String update(HttpResponse<?> response) {
+    List<String> setCookies = response.cookies();
+    if (setCookies == null) {
+      return null;
+    }
+    for (String setCookie : setCookies) {
+      String[] parts = setCookie.split(";");
+      String pair = parts[0].trim();
+      if (!pair.startsWith(COOKIE_NAME + "=") || pair.length() == COOKIE_NAME.length() + 1) {
+        continue;
+      }
+      long maxAge = DEFAULT_SESSION_TIMEOUT;
+      for (int i = 1; i < parts.length; i++) {
+        String attribute = parts[i].trim();
+        if (attribute.regionMatches(true, 0, MAX_AGE, 0, MAX_AGE.length())) {
+          try {
+            maxAge = Long.parseLong(attribute.substring(MAX_AGE.length())) * 1000L;
+          } catch (NumberFormatException e) {
+            // keep the default lifetime
+          }
+        }
+      }
+      if (maxAge <= 0) {
+        continue;
+      }
+      long now = System.currentTimeMillis();
+      this.cookie = pair;
+      this.expiresAt = now + maxAge;
+      this.refreshAt = now + maxAge * 4 / 5;
+      return pair;
+    }
+    return null;
+  }
+
+  /**
+   * Drops the cookie after the server rejected it, unless another request
+   * already replaced it.
+   *
+   * @param rejected the cookie header value sent with the rejected request
+   */
+  public synchronized void invalidate(String rejected) {
+    if (Objects.equals(this.cookie, rejected)) {
+      this.cookie = null;
+    }
+  }
+
+  private synchronized void loginDone(Future<String> login) {
+    if (this.pendingLogin == login) {
+      this.pendingLogin = null;
+    }
+  }
+
+  private static Supplier<SocketAddress> fixedServer(SocketAddress address) {
+    return () -> address;
+  }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpClientRequest;
+import io.vertx.core.http.HttpClientResponse;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.impl.ClientPhase;
+import io.vertx.ext.web.client.impl.HttpContext;
+import io.vertx.ext.web.client.impl.WebClientInternal;
+import io.vertx.ext.web.codec.BodyCodec;
+
+/**
+ * Pipes response bodies into a caller's WriteStream only for 2xx responses.
+ * <p>
+ * The status of a piped response is only returned once its body has been
+ * written and the sink ended, so an error body would end up in the caller's
+ * file or HTTP response. An interceptor on the WebClient checks the status
+ * when the response headers arrive: a non 2xx response is read internally
+ * and fails with a {@link CouchdbResponseException}, the body codec and with
+ * it the sink are never used.
+ * <p>
+ * Requests are marked by an internal header, removed before the request is
+ * written. A WebClient that takes no interceptors, e.g. a mock, gets the
+ * status checked once the body is piped.
+ */
+class StreamedResponses {
+
+  static final String HEADER = "x-vertx-couchdb-stream";
+
+  private static final String GATED = "couchdb.streamed";
+
+  private final boolean intercepted;
+
+  StreamedResponses(WebClient client) {
+    this.intercepted = client instanceof WebClientInternal;
+    if (this.intercepted) {
+      ((WebClientInternal) client).addInterceptor(this::intercept);
+    }
+  }
+
+  /**
+   * Sends the request, piping the body of a 2xx response into the sink.
+   *
+   * @param sender sends the request, e.g. with a JSON body
+   * @return the response once the body is piped, a CouchdbResponseException
+   *         for any other status
+   */
+  Future<HttpResponse<Void>> pipe(HttpRequest<Buffer> request, WriteStream<Buffer> sink,
+      Function<HttpRequest<Void>, Future<HttpResponse<Void>>> sender) {
+    if (this.intercepted) {
+      request.putHeader(HEADER, "true");
+    }
+    return sender.apply(request.as(BodyCodec.pipe(sink)))
+        .compose(response -> isSuccess(response.statusCode())
+            ? Future.succeededFuture(response)
+            : Future.failedFuture(CouchdbResponseException.of(response.statusCode(), null)));
+  }
+
+  private void intercept(HttpContext<?> context) {
+    if (context.phase() == ClientPhase.SEND_REQUEST) {
+      HttpClientRequest request = context.clientRequest();
+      if (request.headers().contains(HEADER)) {
+        request.headers().remove(HEADER);
+        context.set(GATED, Boolean.TRUE);
+      }
+    } else if (context.phase() == ClientPhase.RECEIVE_RESPONSE
+        && Boolean.TRUE.equals(context.get(GATED))) {
+      HttpClientResponse response = context.clientResponse();
+      int statusCode = response.statusCode();
+      if (!isSuccess(statusCode)) {
+        // the error is small JSON, read it so the connection can be reused
+        response.body().onComplete(ar -> context.fail(
+            CouchdbResponseException.of(statusCode, ar.succeeded() ? ar.result() : null)));
+        return;
+      }
+    }
+    context.next();
+  }
+
+  private static boolean isSuccess(int statusCode) {
+    return statusCode >= 200 && statusCode < 300;
+  }
+}
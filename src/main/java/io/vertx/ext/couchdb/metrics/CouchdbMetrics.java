@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.metrics;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.couchdb.metrics.impl.VertxCouchdbMetrics;
+
+/**
+ * Receives the metrics of every request the client sends, tagged with the
+ * database and the {@link CouchdbOperation}.
+ * <p>
+ * By default the client reports to the metrics SPI of Vert.x when metrics are
+ * enabled, e.g. with vertx-micrometer-metrics, see
+ * {@link #create(Vertx, String, int)}. Other implementations can be set with
+ * {@link io.vertx.ext.couchdb.CouchdbClientBuilder#metrics(CouchdbMetrics)}.
+ * Methods are called on the event loop and must not block.
+ */
+public interface CouchdbMetrics {
+
+  /**
+   * Creates the metrics reporting to the metrics SPI of Vert.x as client
+   * metrics of type "couchdb", with the database and the operation as
+   * namespace, e.g. "orders/view".
+   *
+   * @param vertx the Vert.x instance
+   * @param host the host of the server
+   * @param port the port of the server
+   * @return the metrics, null when Vert.x metrics are disabled
+   */
+  static CouchdbMetrics create(Vertx vertx, String host, int port) {
+    return VertxCouchdbMetrics.create(vertx, host, port);
+  }
+
+  /**
+   * Called before a request is sent.
+   *
+   * @param database the database, null for server level requests
+   * @param operation the kind of request
+   * @param method the method of the request
+   * @return the request metric passed to the other methods
+   */
+  Object requestBegin(String database, CouchdbOperation operation, HttpMethod method);
+
+  /**
+   * Called when the request has been handed to the connection.
+   *
+   * @param requestMetric the request metric
+   * @param bytesWritten the size of the request body, -1 when unknown
+   */
+  default void requestEnd(Object requestMetric, long bytesWritten) {
+  }
+
+  /**
+   * Called when the response has been received.
+   *
+   * @param requestMetric the request metric
+   * @param statusCode the status code of the response
+   * @param bytesRead the size of the response body, -1 when unknown
+   */
+  default void responseEnd(Object requestMetric, int statusCode, long bytesRead) {
+  }
+
+  /**
+   * Called when the request failed without a response, e.g. connection
+   * errors or timeouts.
+   *
+   * @param requestMetric the request metric
+   * @param failure the cause
+   */
+  default void requestFailed(Object requestMetric, Throwable failure) {
+  }
+
+  /**
+   * Called when the client is closed.
+   */
+  default void close() {
+  }
+}
@@ -0,0 +1,136 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.metrics;
+
+import io.vertx.core.http.HttpMethod;
+
+/**
+ * The kind of CouchDB request a metric is recorded for, derived from the
+ * method and the path of the request.
+ */
+public enum CouchdbOperation {
+
+  /** Server level endpoints, e.g. /_session, /_uuids, /_all_dbs */
+  SERVER,
+  /** The database itself and its maintenance endpoints, e.g. _security */
+  DATABASE,
+  /** GET or HEAD of a single document */
+  DOCUMENT_GET,
+  /** PUT, POST or DELETE of a single document */
+  DOCUMENT_WRITE,
+  /** Reads and writes of document attachments */
+  ATTACHMENT,
+  /** _all_docs, _design_docs and design document views */
+  VIEW,
+  /** Mango queries: _find, _explain and _index */
+  FIND,
+  /** _bulk_docs and _bulk_get */
+  BULK,
+  /** The _changes feed */
+  CHANGES;
+
+  /**
+   * @param method the method of the request
+   * @param path the path of the request, without the query
+   * @return the operation of the request
+   */
+  public static CouchdbOperation of(HttpMethod method, String path) {
+    return of(method, segments(path));
+  }
+
+  private static CouchdbOperation of(HttpMethod method, String[] segments) {
+    if (segments.length == 0 || segments[0].startsWith("_")) {
+      return SERVER;
+    }
+    if (segments.length == 1) {
+      return HttpMethod.POST.equals(method) ? DOCUMENT_WRITE : DATABASE;
+    }
+
+    switch (segments[1]) {
+      case "_changes":
+        return CHANGES;
+      case "_all_docs":
+      case "_design_docs":
+      case "_local_docs":
+        return VIEW;
+      case "_bulk_docs":
+      case "_bulk_get":
+        return BULK;
+      case "_find":
+      case "_explain":
+      case "_index":
+        return FIND;
+      case "_design":
+        if (segments.length > 3 && segments[3].startsWith("_")) {
+          return VIEW;
+        }
+        return document(method, segments.length - 1);
+      case "_local":
+        return document(method, segments.length - 1);
+      case "_partition":
+        if (segments.length < 4) {
+          return DATABASE;
+        }
+        // /{db}/_partition/{partition}/{endpoint}, classified like the
+        // endpoint of the database
+        String[] endpoint = new String[segments.length - 2];
+        endpoint[0] = segments[0];
+        System.arraycopy(segments, 3, endpoint, 1, segments.length - 3);
+        return of(method, endpoint);
+      default:
+        if (segments[1].startsWith("_")) {
+          return DATABASE;
+        }
+        return document(method, segments.length);
+    }
+  }
+
+  /**
+   * @param path the path of the request, without the query
+   * @return the database a request is addressed to, null for server level
+   *         requests
+   */
+  public static String database(String path) {
+    String[] segments = segments(path);
+    if (segments.length == 0 || segments[0].startsWith("_")) {
+      return null;
+    }
+    return segments[0];
+  }
+
+  /**
+   * @param segments the number of segments of the path, counting the two
+   *        segments of _design/ and _local/ ids as one
+   */
+  private static CouchdbOperation document(HttpMethod method, int segments) {
+    if (segments > 2) {
+      return ATTACHMENT;
+    }
+    return HttpMethod.GET.equals(method) || HttpMethod.HEAD.equals(method)
+        ? DOCUMENT_GET
+        : DOCUMENT_WRITE;
+  }
+
+  private static String[] segments(String path) {
+    int start = 0;
+    int end = path.indexOf('?');
+    if (end < 0) {
+      end = path.length();
+    }
+    while (start < end && path.charAt(start) == '/') {
+      start++;
+    }
+    if (start == end) {
+      return new String[0];
+    }
+    return path.substring(start, end).split("/");
+  }
+}
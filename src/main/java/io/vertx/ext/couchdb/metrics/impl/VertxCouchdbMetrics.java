@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.metrics.impl;
+
+import java.util.Locale;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.internal.VertxInternal;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.core.spi.metrics.ClientMetrics;
+import io.vertx.core.spi.metrics.VertxMetrics;
+import io.vertx.ext.couchdb.metrics.CouchdbMetrics;
+import io.vertx.ext.couchdb.metrics.CouchdbOperation;
+
+/**
+ * Reports to the {@link ClientMetrics} of the Vert.x metrics SPI. There is one
+ * ClientMetrics per database and operation, distinguished by the namespace,
+ * so a metrics implementation like vertx-micrometer-metrics exposes latency,
+ * bytes, in-flight requests and resets per namespace. The status code is
+ * passed as response of {@link ClientMetrics#responseBegin(Object, Object)}.
+ */
+public class VertxCouchdbMetrics implements CouchdbMetrics {
+
+  public static final String TYPE = "couchdb";
+
+  private final VertxMetrics vertxMetrics;
+  private final SocketAddress server;
+  private final ConcurrentMap<String, ClientMetrics<Object, Object, Object>> clientMetrics =
+      new ConcurrentHashMap<>();
+
+  public static CouchdbMetrics create(Vertx vertx, String host, int port) {
+    VertxMetrics vertxMetrics = ((VertxInternal) vertx).metrics();
+    if (vertxMetrics == null) {
+      return null;
+    }
+    return new VertxCouchdbMetrics(vertxMetrics, SocketAddress.inetSocketAddress(port, host));
+  }
+
+  public VertxCouchdbMetrics(VertxMetrics vertxMetrics, SocketAddress server) {
+    this.vertxMetrics = vertxMetrics;
+    this.server = server;
+  }
+
+  @Override
+  public Object requestBegin(String database, CouchdbOperation operation, HttpMethod method) {
+    String operationName = operation.name().toLowerCase(Locale.ROOT);
+    String namespace = database == null ? operationName : database + "/" + operationName;
+    ClientMetrics<Object, Object, Object> metrics =
+        this.clientMetrics.computeIfAbsent(namespace, this::clientMetrics);
+    if (metrics == null) {
+      return null;
+    }
+    return new RequestMetric(metrics, metrics.requestBegin(operationName, method));
+  }
+
+  @Override
+  public void requestEnd(Object requestMetric, long bytesWritten) {
+    if (requestMetric instanceof RequestMetric) {
+      RequestMetric request = (RequestMetric) requestMetric;
+      request.metrics.requestEnd(request.metric, bytesWritten);
+    }
+  }
+
+  @Override
+  public void responseEnd(Object requestMetric, int statusCode, long bytesRead) {
+    if (requestMetric instanceof RequestMetric) {
+      RequestMetric request = (RequestMetric) requestMetric;
+      request.metrics.responseBegin(request.metric, statusCode);
+      request.metrics.responseEnd(request.metric, bytesRead);
+    }
+  }
+
+  @Override
+  public void requestFailed(Object requestMetric, Throwable failure) {
+    if (requestMetric instanceof RequestMetric) {
+      RequestMetric request = (RequestMetric) requestMetric;
+      request.metrics.requestReset(request.metric);
+    }
+  }
+
+  @Override
+  public void close() {
+    this.clientMetrics.values().forEach(ClientMetrics::close);
+    this.clientMetrics.clear();
+  }
+
+  @SuppressWarnings("unchecked")
+  private ClientMetrics<Object, Object, Object> clientMetrics(String namespace) {
+    return (ClientMetrics<Object, Object, Object>) this.vertxMetrics
+        .createClientMetrics(this.server, TYPE, namespace);
+  }
+
+  private static final class RequestMetric {
+
+    final ClientMetrics<Object, Object, Object> metrics;
+    final Object metric;
+
+    RequestMetric(ClientMetrics<Object, Object, Object> metrics, Object metric) {
+      this.metrics = metrics;
+      this.metric = metric;
+    }
+  }
+}
@@ -0,0 +1,119 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.parameters;
+
+import java.util.Set;
+
+import io.vertx.core.json.Json;
+
+/**
+ * Query parameters for /{db}/_all_docs
+ * see https://docs.couchdb.org/en/stable/api/database/bulk-api.html#db-all-docs
+ * <p>
+ * Keys are JSON encoded, so a document id "abc" is sent as "\"abc\""
+ */
+public class AllDocsParams extends BaseQueryParameters {
+
+  static final Set<String> keys =
+      keySet("conflicts", "descending", "endkey", "include_docs", "inclusive_end", "key",
+          "limit", "skip", "startkey", "update_seq");
+
+  @Override
+  protected Set<String> knownKeys() {
+    return AllDocsParams.keys;
+  }
+
+  /**
+   * conflicts (boolean) – Include conflicts information in response. Ignored if include_docs
+   * isn’t true. Default is false
+   */
+  public AllDocsParams conflicts(boolean conflicts) {
+    this.paramStore.put("conflicts", conflicts);
+    return this;
+  }
+
+  /**
+   * descending (boolean) – Return the documents in descending order by key. Default is false
+   */
+  public AllDocsParams descending(boolean descending) {
+    this.paramStore.put("descending", descending);
+    return this;
+  }
+
+  /**
+   * endkey (json) – Stop returning records when the specified key is reached
+   */
+  public AllDocsParams endkey(Object endkey) {
+    this.paramStore.put("endkey", Json.encode(endkey));
+    return this;
+  }
+
+  /**
+   * include_docs (boolean) – Include the full content of the documents in the return. Default is
+   * false
+   */
+  public AllDocsParams includeDocs(boolean includeDocs) {
+    this.paramStore.put("include_docs", includeDocs);
+    return this;
+  }
+
+  /**
+   * inclusive_end (boolean) – Specifies whether the specified end key should be included in the
+   * result. Default is true
+   */
+  public AllDocsParams inclusiveEnd(boolean inclusiveEnd) {
+    this.paramStore.put("inclusive_end", inclusiveEnd);
+    return this;
+  }
+
+  /**
+   * key (json) – Return only documents that match the specified key
+   */
+  public AllDocsParams key(Object key) {
+    this.paramStore.put("key", Json.encode(key));
+    return this;
+  }
+
+  /**
+   * limit (number) – Limit the number of the returned documents to the specified number
+   */
+  public AllDocsParams limit(int limit) {
+    this.paramStore.put("limit", limit);
+    return this;
+  }
+
+  /**
+   * skip (number) – Skip this number of records before starting to return the results. Default
+   * is 0
+   */
+  public AllDocsParams skip(int skip) {
+    this.paramStore.put("skip", skip);
+    return this;
+  }
+
+  /**
+   * startkey (json) – Return records starting with the specified key
+   */
+  public AllDocsParams startkey(Object startkey) {
+    this.paramStore.put("startkey", Json.encode(startkey));
+    return this;
+  }
+
+  /**
+   * update_seq (boolean) – Response includes an update_seq value indicating which sequence id
+   * of the underlying database the view reflects. Default is false
+   */
+  public AllDocsParams updateSeq(boolean updateSeq) {
+    this.paramStore.put("update_seq", updateSeq);
+    return this;
+  }
+
+}
@@ -13,10 +13,13 @@ package io.vertx.ext.couchdb.parameters;
 import java.net.URLEncoder;
 import java.nio.charset.StandardCharsets;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collector;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 import io.vertx.core.json.JsonArray;
@@ -29,10 +32,7 @@ public class BaseQueryParameters implements QueryParameters, JsonObjectSerializa
 
   @Override
   public JsonObject toJson() {
-    return this.paramStore.entrySet().stream()
-        .collect(Collector.of(() -> new JsonObject(),
-            (j, e) -> j.put(e.getKey(), e.getValue()),
-            JsonObject::mergeIn));
+    return new JsonObject(new HashMap<>(this.paramStore));
   }
 
   @Override
@@ -40,16 +40,51 @@ public class BaseQueryParameters implements QueryParameters, JsonObjectSerializa
     return this.paramStore.get(paramName);
   }
 
+  /**
+   * Adds a parameter
+   *
+   * @param paramName String
+   * @param paramValue Any
+   * @param force add even if paramName is not known
+   */
   @Override
   public void addParameter(String paramName, Object paramValue, boolean force) {
-    if (force || this.knownParameters().contains(paramName)) {
+    if (force || this.knownKeys().contains(paramName)) {
       this.paramStore.put(paramName, paramValue);
     }
   }
 
+  /*
+   * like addParameter, but only known parameters
+   */
+  @Override
+  public void addParameter(String paramName, Object paramValue) {
+    this.addParameter(paramName, paramValue, false);
+  }
+
+  /**
+   * @return the names of the parameters addParameter accepts without force
+   */
   @Override
   public List<String> knownParameters() {
-    return new ArrayList<>();
+    return new ArrayList<>(this.knownKeys());
+  }
+
+  /**
+   * @return the constant set of parameter names addParameter accepts without
+   *         force, see {@link #keySet(String...)}
+   */
+  protected Set<String> knownKeys() {
+    return Collections.emptySet();
+  }
+
+  /**
+   * @param names the parameter names a subclass knows
+   * @return an unmodifiable set of the names in the given order, to be kept
+   *         in a static field
+   */
+  protected static Set<String> keySet(String... names) {
+    return Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(names)));
   }
 
   @Override
@@ -67,15 +102,29 @@ public class BaseQueryParameters implements QueryParameters, JsonObjectSerializa
     return URLEncoder.encode(source, StandardCharsets.UTF_8);
   }
 
+  /**
+   * Converts the parameters for each call, parameters sent unchanged with
+   * many requests are better frozen once with
+   * {@link EncodedQueryParameters#of(QueryParameters)}.
+   */
   @Override
   public Map<String, String> forTemplate() {
-    Map<String, String> result = new HashMap<>();
-    this.paramStore.forEach((key, value) -> {
-      result.put(key, this.valueOf(value));
-    });
+    if (this.paramStore.isEmpty()) {
+      return Collections.emptyMap();
+    }
+    Map<String, String> result = new HashMap<>(this.paramStore.size() * 2);
+    this.paramStore.forEach((key, value) -> result.put(key, valueOf(value)));
     return result;
   }
 
+  /**
+   * @return the parameters as they are now, encoded once for any number of
+   *         requests
+   */
+  public EncodedQueryParameters encode() {
+    return EncodedQueryParameters.of(this);
+  }
+
   /**
    * Converts an object to its string representation.
    * <p>
@@ -92,7 +141,7 @@ public class BaseQueryParameters implements QueryParameters, JsonObjectSerializa
    * @param value The object to be converted to a string.
    * @return The string representation of the object.
    */
-  private String valueOf(Object value) {
+  static String valueOf(Object value) {
     if (value instanceof JsonObject) {
       return ((JsonObject) value).encode();
     }
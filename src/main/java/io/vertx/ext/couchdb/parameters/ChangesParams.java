@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.parameters;
+
+import java.util.Set;
+
+/**
+ * Query parameters for /{db}/_changes
+ * see https://docs.couchdb.org/en/stable/api/database/changes.html
+ */
+public class ChangesParams extends BaseQueryParameters {
+
+  static final Set<String> keys =
+      keySet("conflicts", "descending", "feed", "filter", "heartbeat", "include_docs",
+          "limit", "since", "style", "timeout", "view", "seq_interval");
+
+  @Override
+  protected Set<String> knownKeys() {
+    return ChangesParams.keys;
+  }
+
+  /**
+   * conflicts (boolean) – Includes conflicts information in response. Ignored if include_docs
+   * isn’t true. Default is false
+   */
+  public ChangesParams conflicts(boolean conflicts) {
+    this.paramStore.put("conflicts", conflicts);
+    return this;
+  }
+
+  /**
+   * feed (string) – normal, longpoll, continuous or eventsource. Default is normal
+   */
+  public ChangesParams feed(String feed) {
+    this.paramStore.put("feed", feed);
+    return this;
+  }
+
+  /**
+   * filter (string) – Reference to a filter function from a design document, e.g. ddoc/name,
+   * or one of the builtin filters _doc_ids, _selector, _design, _view
+   */
+  public ChangesParams filter(String filter) {
+    this.paramStore.put("filter", filter);
+    return this;
+  }
+
+  /**
+   * heartbeat (number) – Period in milliseconds after which an empty line is sent in the
+   * results. Only applicable for longpoll, continuous, and eventsource feeds
+   */
+  public ChangesParams heartbeat(long heartbeat) {
+    this.paramStore.put("heartbeat", heartbeat);
+    return this;
+  }
+
+  /**
+   * include_docs (boolean) – Include the associated document with each result. Default is false
+   */
+  public ChangesParams includeDocs(boolean includeDocs) {
+    this.paramStore.put("include_docs", includeDocs);
+    return this;
+  }
+
+  /**
+   * limit (number) – Limit number of result rows to the specified value
+   */
+  public ChangesParams limit(int limit) {
+    this.paramStore.put("limit", limit);
+    return this;
+  }
+
+  /**
+   * since (string) – Start the results from the change immediately after the given update
+   * sequence. Can be "now" or 0. Default is 0
+   */
+  public ChangesParams since(String since) {
+    this.paramStore.put("since", since);
+    return this;
+  }
+
+  /**
+   * style (string) – main_only returns the current "winning" revision, all_docs all leaf
+   * revisions including conflicts and deleted former conflicts. Default is main_only
+   */
+  public ChangesParams style(String style) {
+    this.paramStore.put("style", style);
+    return this;
+  }
+
+  /**
+   * timeout (number) – Maximum period in milliseconds to wait for a change before the response
+   * is sent, even if there are no results. Only applicable for longpoll or continuous feeds
+   */
+  public ChangesParams timeout(long timeout) {
+    this.paramStore.put("timeout", timeout);
+    return this;
+  }
+
+  /**
+   * seq_interval (number) – When fetching changes in a batch, setting this allows CouchDB to
+   * compute the seq value only every N results instead of for every row
+   */
+  public ChangesParams seqInterval(int seqInterval) {
+    this.paramStore.put("seq_interval", seqInterval);
+    return this;
+  }
+
+}
@@ -10,19 +10,18 @@
  */
 package io.vertx.ext.couchdb.parameters;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Standard query parameter for db operations _all_dbs & _dbs_info
  */
 public class DbCreateParams extends BaseQueryParameters {
 
-  static final List<String> keys =
-      Arrays.asList("q", "n", "partitioned");
+  static final Set<String> keys =
+      keySet("q", "n", "partitioned");
 
   @Override
-  public List<String> knownParameters() {
+  protected Set<String> knownKeys() {
     return DbCreateParams.keys;
   }
 
@@ -10,16 +10,15 @@
  */
 package io.vertx.ext.couchdb.parameters;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 
 /**
  * Standard query parameter for db operations _all_dbs & _dbs_info
  */
 public class DbQueryParams extends BaseQueryParameters {
 
-  static final List<String> keys =
-      Arrays.asList("descending", "endkey", "startkey", "limit", "skip");
+  static final Set<String> keys =
+      keySet("descending", "endkey", "startkey", "limit", "skip");
 
   /**
    * @param descending the descending to set
@@ -10,8 +10,7 @@
  */
 package io.vertx.ext.couchdb.parameters;
 
-import java.util.Arrays;
-import java.util.List;
+import java.util.Set;
 
 import io.vertx.core.json.JsonArray;
 
@@ -21,8 +20,8 @@ import io.vertx.core.json.JsonArray;
  */
 public class DocumentGetParams extends BaseQueryParameters {
 
-  static final List<String> keys =
-      Arrays.asList("att_encoding_info", "atts_since", "conflicts", "deleted_conflicts", "latest",
+  static final Set<String> keys =
+      keySet("att_encoding_info", "atts_since", "conflicts", "deleted_conflicts", "latest",
           "local_seq", "meta", "open_revs", "rev", "revs", "revs_info");
 
   public DocumentGetParams() {
@@ -31,7 +30,7 @@ public class DocumentGetParams extends BaseQueryParameters {
   }
 
   @Override
-  public List<String> knownParameters() {
+  protected Set<String> knownKeys() {
     return DocumentGetParams.keys;
   }
 
@@ -39,7 +38,8 @@ public class DocumentGetParams extends BaseQueryParameters {
 
   /**
    * attachments (boolean) – Includes attachments bodies in response. Default is false
-   * Not used here since it would break JsonObject here
+   * Not used here since it would break JsonObject here, getDocumentWithAttachments
+   * sets it to stream the bodies as multipart/related parts instead
    */
 
   /**
@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.parameters;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Immutable query parameters, converted to their string form once when
+ * created. An instance can be shared by any number of requests,
+ * {@link #forTemplate()} returns the same map for each of them.
+ * <p>
+ * Use {@link #of(QueryParameters)} to freeze parameters built with one of the
+ * mutable classes, e.g. those of a view that is queried repeatedly.
+ */
+public final class EncodedQueryParameters implements QueryParameters {
+
+  /**
+   * No query parameters, used for requests without parameters.
+   */
+  public static final EncodedQueryParameters EMPTY =
+      new EncodedQueryParameters(new String[0], new Object[0]);
+
+  private static final String REV = "rev";
+
+  private final String[] names;
+  private final Object[] values;
+  private final Map<String, String> template;
+
+  private EncodedQueryParameters(String[] names, Object[] values) {
+    this.names = names;
+    this.values = values;
+    if (names.length == 0) {
+      this.template = Collections.emptyMap();
+    } else if (names.length == 1) {
+      this.template =
+          Collections.singletonMap(names[0], BaseQueryParameters.valueOf(values[0]));
+    } else {
+      Map<String, String> encoded = new LinkedHashMap<>(names.length * 2);
+      for (int i = 0; i < names.length; i++) {
+        encoded.put(names[i], BaseQueryParameters.valueOf(values[i]));
+      }
+      this.template = Collections.unmodifiableMap(encoded);
+    }
+  }
+
+  /**
+   * @param rev the revision of a document
+   * @return the rev parameter of a request on a document revision
+   */
+  public static EncodedQueryParameters rev(String rev) {
+    return of(REV, rev);
+  }
+
+  /**
+   * @param name the name of the parameter
+   * @param value the value of the parameter
+   * @return a single query parameter
+   */
+  public static EncodedQueryParameters of(String name, Object value) {
+    return new EncodedQueryParameters(new String[] {name}, new Object[] {value});
+  }
+
+  /**
+   * @param params the parameters to freeze, may be null
+   * @return the parameters as they are now, later changes to params are not
+   *         reflected
+   */
+  public static EncodedQueryParameters of(QueryParameters params) {
+    if (params == null) {
+      return EMPTY;
+    }
+    if (params instanceof EncodedQueryParameters) {
+      return (EncodedQueryParameters) params;
+    }
+    if (params instanceof BaseQueryParameters) {
+      Map<String, Object> store = ((BaseQueryParameters) params).paramStore;
+      if (store.isEmpty()) {
+        return EMPTY;
+      }
+      return new EncodedQueryParameters(store.keySet().toArray(new String[0]),
+          store.values().toArray());
+    }
+    Map<String, String> encoded = params.forTemplate();
+    if (encoded.isEmpty()) {
+      return EMPTY;
+    }
+    return new EncodedQueryParameters(encoded.keySet().toArray(new String[0]),
+        encoded.values().toArray());
+  }
+
+  /**
+   * @param name the name of the parameter
+   * @param value the value of the parameter
+   * @return a copy of these parameters with the parameter added or replaced,
+   *         this instance is unchanged
+   */
+  public EncodedQueryParameters with(String name, Object value) {
+    for (int i = 0; i < this.names.length; i++) {
+      if (this.names[i].equals(name)) {
+        Object[] newValues = this.values.clone();
+        newValues[i] = value;
+        return new EncodedQueryParameters(this.names, newValues);
+      }
+    }
+    String[] newNames = Arrays.copyOf(this.names, this.names.length + 1);
+    Object[] newValues = Arrays.copyOf(this.values, this.values.length + 1);
+    newNames[this.names.length] = name;
+    newValues[this.values.length] = value;
+    return new EncodedQueryParameters(newNames, newValues);
+  }
+
+  @Override
+  public Object getParameter(String paramName) {
+    for (int i = 0; i < this.names.length; i++) {
+      if (this.names[i].equals(paramName)) {
+        return this.values[i];
+      }
+    }
+    return null;
+  }
+
+  @Override
+  public String appendParamsToUrl(String sourceUrl) {
+    if (this.names.length == 0) {
+      return sourceUrl;
+    }
+    StringBuilder url = new StringBuilder(sourceUrl);
+    char separator = '?';
+    for (Map.Entry<String, String> entry : this.template.entrySet()) {
+      url.append(separator).append(entry.getKey()).append('=').append(entry.getValue());
+      separator = '&';
+    }
+    return url.toString();
+  }
+
+  @Override
+  public Map<String, String> forTemplate() {
+    return this.template;
+  }
+
+  @Override
+  public String toString() {
+    return this.template.toString();
+  }
+}
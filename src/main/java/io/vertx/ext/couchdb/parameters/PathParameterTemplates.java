@@ -10,13 +10,34 @@
  */
 package io.vertx.ext.couchdb.parameters;
 
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
 import io.vertx.uritemplate.UriTemplate;
 import io.vertx.uritemplate.Variables;
 
+/**
+ * Builds the UriTemplates of CouchDB endpoints: a percent-encoded path
+ * followed by the {@value #QUERY} expression for the query parameters.
+ * <p>
+ * Path segments are encoded directly into the path, like a simple
+ * {@code {var}} expansion would, so only the query expression is left to
+ * parse. Templates of database level endpoints are parsed once and cached.
+ */
 public class PathParameterTemplates {
 
   public static final String QUERY = "{?query*}";
 
+  /**
+   * Upper bound of cached database level templates, beyond it (e.g. with a
+   * database per user) templates are parsed for each call.
+   */
+  static final int MAX_CACHED_TEMPLATES = 1024;
+
+  private static final char[] HEX = "0123456789ABCDEF".toCharArray();
+  private static final ConcurrentMap<String, UriTemplate> DATABASE_TEMPLATES =
+      new ConcurrentHashMap<>();
+
   public static UriTemplate templateWithQueryParams(String rawTtemplate, Variables variables) {
     Variables actualVariables = variables != null ? variables : Variables.variables();
     UriTemplate temp = UriTemplate.of(rawTtemplate);
@@ -24,16 +45,12 @@ public class PathParameterTemplates {
   }
 
   public static UriTemplate database(String dbName) {
-    Variables variables = Variables.variables();
-    variables.set("database", dbName);
-    return templateWithQueryParams("/{database}", variables);
+    return databaseEndpoint(dbName, null);
   }
 
   public static UriTemplate databaseDocumentId(String dbName, String documentId) {
-    Variables variables = Variables.variables();
-    variables.set("database", dbName);
-    variables.set("documentId", documentId);
-    return templateWithQueryParams("/{database}/{documentId}", variables);
+    StringBuilder path = databasePath(dbName, documentId.length()).append('/');
+    return withQuery(appendPathSegment(path, documentId));
   }
 
 
@@ -46,9 +63,7 @@ public class PathParameterTemplates {
    * @see UriTemplate
    */
   public static UriTemplate databaseSecurity(String dbName) {
-    Variables variables = Variables.variables();
-    variables.set("database", dbName);
-    return templateWithQueryParams("/{database}/_security", variables);
+    return databaseEndpoint(dbName, "_security");
   }
 
   /**
@@ -61,10 +76,24 @@ public class PathParameterTemplates {
    * @see UriTemplate
    */
   public static UriTemplate databaseDesignDoc(String dbName, String designDocName) {
-    Variables variables = Variables.variables();
-    variables.set("database", dbName);
-    variables.set("designDoc", designDocName);
-    return templateWithQueryParams("/{database}/_design/{designDoc}", variables);
+    StringBuilder path = databasePath(dbName, designDocName.length()).append("/_design/");
+    return withQuery(appendPathSegment(path, designDocName));
+  }
+
+  /**
+   * Creates a URI template for querying a view of a design document.
+   *
+   * @param dbName        the name of the database
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName      the name of the view
+   * @return a UriTemplate object representing the path of the view
+   * @see UriTemplate
+   */
+  public static UriTemplate view(String dbName, String designDocName, String viewName) {
+    StringBuilder path = databasePath(dbName, designDocName.length() + viewName.length())
+        .append("/_design/");
+    appendPathSegment(path, designDocName).append("/_view/");
+    return withQuery(appendPathSegment(path, viewName));
   }
 
   /**
@@ -78,11 +107,261 @@ public class PathParameterTemplates {
    * @see                 UriTemplate
    */
   public static UriTemplate attachment(String dbName, String documentId, String attachmentName) {
-    Variables variables = Variables.variables();
-    variables.set("database", dbName);
-    variables.set("documentId", documentId);
-    variables.set("attachmentName", attachmentName);
-    return templateWithQueryParams("/{database}/{documentId}/{attachmentName}", variables);
+    StringBuilder path = databasePath(dbName, documentId.length() + attachmentName.length())
+        .append('/');
+    appendPathSegment(path, documentId).append('/');
+    return withQuery(appendPathSegment(path, attachmentName));
+  }
+
+  /**
+   * Creates a URI template for the _all_docs endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _all_docs path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate allDocs(String dbName) {
+    return databaseEndpoint(dbName, "_all_docs");
+  }
+
+  /**
+   * Creates a URI template for the _bulk_docs endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _bulk_docs path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate bulkDocs(String dbName) {
+    return databaseEndpoint(dbName, "_bulk_docs");
+  }
+
+  /**
+   * Creates a URI template for the _bulk_get endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _bulk_get path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate bulkGet(String dbName) {
+    return databaseEndpoint(dbName, "_bulk_get");
+  }
+
+  /**
+   * Creates a URI template for the _changes endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _changes path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate changes(String dbName) {
+    return databaseEndpoint(dbName, "_changes");
+  }
+
+  /**
+   * Creates a URI template for a local (non replicated) document of a CouchDB
+   * database.
+   *
+   * @param dbName the name of the database
+   * @param localDocId the id of the local document without the _local/ prefix
+   * @return a UriTemplate object representing the path of the local document
+   * @see UriTemplate
+   */
+  public static UriTemplate localDocument(String dbName, String localDocId) {
+    StringBuilder path = databasePath(dbName, localDocId.length()).append("/_local/");
+    return withQuery(appendPathSegment(path, localDocId));
+  }
+
+  /**
+   * Creates a URI template for the _find endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _find path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate find(String dbName) {
+    return databaseEndpoint(dbName, "_find");
+  }
+
+  /**
+   * Creates a URI template for the _index endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _index path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate index(String dbName) {
+    return databaseEndpoint(dbName, "_index");
+  }
+
+  /**
+   * Creates a URI template for the _explain endpoint of a CouchDB database.
+   *
+   * @param dbName the name of the database
+   * @return a UriTemplate object representing the _explain path of the database
+   * @see UriTemplate
+   */
+  public static UriTemplate explain(String dbName) {
+    return databaseEndpoint(dbName, "_explain");
+  }
+
+  /**
+   * Creates a URI template for a partition of a partitioned database.
+   * Templates of partitions are not cached, there may be one per user.
+   *
+   * @param dbName the name of the database
+   * @param partition the name of the partition
+   * @return a UriTemplate object representing the path of the partition
+   * @see UriTemplate
+   */
+  public static UriTemplate partition(String dbName, String partition) {
+    return withQuery(partitionPath(dbName, partition, 0));
+  }
+
+  /**
+   * Creates a URI template for the _all_docs endpoint of a partition.
+   *
+   * @param dbName the name of the database
+   * @param partition the name of the partition
+   * @return a UriTemplate object representing the _all_docs path of the partition
+   * @see UriTemplate
+   */
+  public static UriTemplate partitionAllDocs(String dbName, String partition) {
+    return withQuery(partitionPath(dbName, partition, 16).append("/_all_docs"));
+  }
+
+  /**
+   * Creates a URI template for the _find endpoint of a partition.
+   *
+   * @param dbName the name of the database
+   * @param partition the name of the partition
+   * @return a UriTemplate object representing the _find path of the partition
+   * @see UriTemplate
+   */
+  public static UriTemplate partitionFind(String dbName, String partition) {
+    return withQuery(partitionPath(dbName, partition, 16).append("/_find"));
+  }
+
+  /**
+   * Creates a URI template for the _explain endpoint of a partition.
+   *
+   * @param dbName the name of the database
+   * @param partition the name of the partition
+   * @return a UriTemplate object representing the _explain path of the partition
+   * @see UriTemplate
+   */
+  public static UriTemplate partitionExplain(String dbName, String partition) {
+    return withQuery(partitionPath(dbName, partition, 16).append("/_explain"));
+  }
+
+  /**
+   * Creates a URI template for querying a view of a design document within a
+   * partition.
+   *
+   * @param dbName        the name of the database
+   * @param partition     the name of the partition
+   * @param designDocName the name of the design document, without _design/
+   * @param viewName      the name of the view
+   * @return a UriTemplate object representing the path of the partitioned view
+   * @see UriTemplate
+   */
+  public static UriTemplate partitionView(String dbName, String partition, String designDocName,
+      String viewName) {
+    StringBuilder path = partitionPath(dbName, partition,
+        designDocName.length() + viewName.length()).append("/_design/");
+    appendPathSegment(path, designDocName).append("/_view/");
+    return withQuery(appendPathSegment(path, viewName));
+  }
+
+  /**
+   * Appends a path segment, percent-encoding everything but the unreserved
+   * characters of RFC 3986 as UTF-8, the same as a simple {@code {var}}
+   * expansion of a UriTemplate. Segments without reserved characters are
+   * appended as they are.
+   *
+   * @param path the path to append to
+   * @param segment the raw path segment, e.g. a document id
+   * @return the path
+   */
+  public static StringBuilder appendPathSegment(StringBuilder path, String segment) {
+    int length = segment.length();
+    for (int i = 0; i < length; i++) {
+      char c = segment.charAt(i);
+      if (isUnreserved(c)) {
+        path.append(c);
+      } else if (c < 0x80) {
+        appendEscaped(path, c);
+      } else if (c < 0x800) {
+        appendEscaped(path, 0xC0 | (c >> 6));
+        appendEscaped(path, 0x80 | (c & 0x3F));
+      } else if (Character.isHighSurrogate(c) && i + 1 < length
+          && Character.isLowSurrogate(segment.charAt(i + 1))) {
+        int codePoint = Character.toCodePoint(c, segment.charAt(++i));
+        appendEscaped(path, 0xF0 | (codePoint >> 18));
+        appendEscaped(path, 0x80 | ((codePoint >> 12) & 0x3F));
+        appendEscaped(path, 0x80 | ((codePoint >> 6) & 0x3F));
+        appendEscaped(path, 0x80 | (codePoint & 0x3F));
+      } else if (Character.isSurrogate(c)) {
+        // unpaired surrogate, encoded as '?' like String.getBytes
+        appendEscaped(path, '?');
+      } else {
+        appendEscaped(path, 0xE0 | (c >> 12));
+        appendEscaped(path, 0x80 | ((c >> 6) & 0x3F));
+        appendEscaped(path, 0x80 | (c & 0x3F));
+      }
+    }
+    return path;
+  }
+
+  private static boolean isUnreserved(char c) {
+    return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9')
+        || c == '-' || c == '.' || c == '_' || c == '~';
+  }
+
+  private static void appendEscaped(StringBuilder path, int octet) {
+    path.append('%').append(HEX[(octet >> 4) & 0xF]).append(HEX[octet & 0xF]);
+  }
+
+  /**
+   * @param extra the expected length of the rest of the path
+   * @return a new path starting with the encoded database
+   */
+  private static StringBuilder databasePath(String dbName, int extra) {
+    StringBuilder path = new StringBuilder(dbName.length() + extra + 32).append('/');
+    return appendPathSegment(path, dbName);
+  }
+
+  /**
+   * @param extra the expected length of the rest of the path
+   * @return a new path of the encoded partition of the database
+   */
+  private static StringBuilder partitionPath(String dbName, String partition, int extra) {
+    StringBuilder path = databasePath(dbName, partition.length() + extra + 12)
+        .append("/_partition/");
+    return appendPathSegment(path, partition);
+  }
+
+  private static UriTemplate withQuery(StringBuilder path) {
+    return UriTemplate.of(path.append(QUERY).toString());
+  }
+
+  /**
+   * @param endpoint the endpoint below the database, null for the database
+   * @return the cached template of the endpoint
+   */
+  private static UriTemplate databaseEndpoint(String dbName, String endpoint) {
+    StringBuilder path = databasePath(dbName, 16);
+    if (endpoint != null) {
+      path.append('/').append(endpoint);
+    }
+    String key = path.toString();
+    UriTemplate template = DATABASE_TEMPLATES.get(key);
+    if (template == null) {
+      template = withQuery(path);
+      if (DATABASE_TEMPLATES.size() < MAX_CACHED_TEMPLATES) {
+        DATABASE_TEMPLATES.putIfAbsent(key, template);
+      }
+    }
+    return template;
   }
 
   private PathParameterTemplates() {
@@ -10,9 +10,15 @@
  */
 package io.vertx.ext.couchdb.parameters;
 
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
 
+/**
+ * Query parameters as read when a request is sent. The mutable parameter
+ * classes extend {@link BaseQueryParameters}, {@link EncodedQueryParameters}
+ * are immutable.
+ */
 public interface QueryParameters {
 
   /**
@@ -29,17 +35,32 @@ public interface QueryParameters {
    * @param paramName String
    * @param paramValue Any
    * @param force add even if paramName is not known
+   * @throws UnsupportedOperationException for immutable parameters
+   * @deprecated only the mutable parameters support it, use
+   *             {@link BaseQueryParameters#addParameter(String, Object, boolean)}
    */
-  void addParameter(String paramName, Object paramValue, boolean force);
+  @Deprecated
+  default void addParameter(String paramName, Object paramValue, boolean force) {
+    throw new UnsupportedOperationException(getClass().getSimpleName() + " are immutable");
+  }
 
   /*
    * like addParameter, but only known parameters
    */
+  @Deprecated
   default void addParameter(String paramName, Object paramValue) {
     addParameter(paramName, paramValue, false);
   }
 
-  List<String> knownParameters();
+  /**
+   * @return the names of the parameters addParameter accepts without force
+   * @deprecated only the mutable parameters know parameter names, use
+   *             {@link BaseQueryParameters#knownParameters()}
+   */
+  @Deprecated
+  default List<String> knownParameters() {
+    return Collections.emptyList();
+  }
 
   /**
    * Takes in a base url without query parameters and adds
@@ -0,0 +1,250 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.parameters;
+
+import java.util.Collection;
+import java.util.Set;
+
+import io.vertx.core.json.Json;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+
+/**
+ * Query parameters for /{db}/_design/{ddoc}/_view/{view}
+ * see https://docs.couchdb.org/en/stable/api/ddoc/views.html
+ * <p>
+ * Keys are JSON encoded, so a key "abc" is sent as "\"abc\"". The keys of a
+ * multi key query are not a query parameter, they are sent in the body of a
+ * POST request so large key sets don't exceed the URL length limits.
+ */
+public class ViewQueryParams extends BaseQueryParameters {
+
+  static final Set<String> keys =
+      keySet("conflicts", "descending", "endkey", "endkey_docid", "group", "group_level",
+          "include_docs", "attachments", "att_encoding_info", "inclusive_end", "key", "limit",
+          "reduce", "skip", "sorted", "stable", "stale", "startkey", "startkey_docid", "update",
+          "update_seq");
+
+  private JsonArray viewKeys;
+
+  @Override
+  protected Set<String> knownKeys() {
+    return ViewQueryParams.keys;
+  }
+
+  /**
+   * conflicts (boolean) – Include conflicts information in response. Ignored if include_docs
+   * isn’t true. Default is false
+   */
+  public ViewQueryParams conflicts(boolean conflicts) {
+    this.paramStore.put("conflicts", conflicts);
+    return this;
+  }
+
+  /**
+   * descending (boolean) – Return the documents in descending order by key. Default is false
+   */
+  public ViewQueryParams descending(boolean descending) {
+    this.paramStore.put("descending", descending);
+    return this;
+  }
+
+  /**
+   * endkey (json) – Stop returning records when the specified key is reached
+   */
+  public ViewQueryParams endkey(Object endkey) {
+    this.paramStore.put("endkey", Json.encode(endkey));
+    return this;
+  }
+
+  /**
+   * endkey_docid (string) – Stop returning records when the specified document ID is reached.
+   * Ignored if endkey is not set
+   */
+  public ViewQueryParams endkeyDocid(String endkeyDocid) {
+    this.paramStore.put("endkey_docid", endkeyDocid);
+    return this;
+  }
+
+  /**
+   * group (boolean) – Group the results using the reduce function to a group or single row.
+   * Implies reduce is true and the maximum group_level. Default is false
+   */
+  public ViewQueryParams group(boolean group) {
+    this.paramStore.put("group", group);
+    return this;
+  }
+
+  /**
+   * group_level (number) – Specify the group level to be used. Implies group is true
+   */
+  public ViewQueryParams groupLevel(int groupLevel) {
+    this.paramStore.put("group_level", groupLevel);
+    return this;
+  }
+
+  /**
+   * include_docs (boolean) – Include the associated document with each row. Default is false
+   */
+  public ViewQueryParams includeDocs(boolean includeDocs) {
+    this.paramStore.put("include_docs", includeDocs);
+    return this;
+  }
+
+  /**
+   * attachments (boolean) – Include the Base64-encoded content of attachments in the documents
+   * that are included if include_docs is true. Default is false
+   */
+  public ViewQueryParams attachments(boolean attachments) {
+    this.paramStore.put("attachments", attachments);
+    return this;
+  }
+
+  /**
+   * att_encoding_info (boolean) – Include encoding information in attachment stubs if
+   * include_docs is true and the particular attachment is compressed. Default is false
+   */
+  public ViewQueryParams attEncodingInfo(boolean attEncodingInfo) {
+    this.paramStore.put("att_encoding_info", attEncodingInfo);
+    return this;
+  }
+
+  /**
+   * inclusive_end (boolean) – Specifies whether the specified end key should be included in the
+   * result. Default is true
+   */
+  public ViewQueryParams inclusiveEnd(boolean inclusiveEnd) {
+    this.paramStore.put("inclusive_end", inclusiveEnd);
+    return this;
+  }
+
+  /**
+   * key (json) – Return only documents that match the specified key
+   */
+  public ViewQueryParams key(Object key) {
+    this.paramStore.put("key", Json.encode(key));
+    return this;
+  }
+
+  /**
+   * keys (json-array) – Return only documents where the key matches one of the keys specified
+   * in the array. Sent in the body of a POST request
+   */
+  public ViewQueryParams keys(Collection<?> keys) {
+    this.viewKeys = new JsonArray();
+    keys.forEach(this.viewKeys::add);
+    return this;
+  }
+
+  /**
+   * limit (number) – Limit the number of the returned documents to the specified number
+   */
+  public ViewQueryParams limit(int limit) {
+    this.paramStore.put("limit", limit);
+    return this;
+  }
+
+  /**
+   * reduce (boolean) – Use the reduction function. Default is true when a reduce function is
+   * defined
+   */
+  public ViewQueryParams reduce(boolean reduce) {
+    this.paramStore.put("reduce", reduce);
+    return this;
+  }
+
+  /**
+   * skip (number) – Skip this number of records before starting to return the results. Default
+   * is 0
+   */
+  public ViewQueryParams skip(int skip) {
+    this.paramStore.put("skip", skip);
+    return this;
+  }
+
+  /**
+   * sorted (boolean) – Sort returned rows. Setting this to false offers a performance boost.
+   * The total_rows and offset fields are not available when this is set to false. Default is
+   * true
+   */
+  public ViewQueryParams sorted(boolean sorted) {
+    this.paramStore.put("sorted", sorted);
+    return this;
+  }
+
+  /**
+   * stable (boolean) – Whether or not the view results should be returned from a stable set of
+   * shards. Default is false
+   */
+  public ViewQueryParams stable(boolean stable) {
+    this.paramStore.put("stable", stable);
+    return this;
+  }
+
+  /**
+   * stale (string) – Allow the results from a stale view to be used, ok or update_after.
+   * Deprecated in favour of stable and update
+   */
+  public ViewQueryParams stale(String stale) {
+    this.paramStore.put("stale", stale);
+    return this;
+  }
+
+  /**
+   * startkey (json) – Return records starting with the specified key
+   */
+  public ViewQueryParams startkey(Object startkey) {
+    this.paramStore.put("startkey", Json.encode(startkey));
+    return this;
+  }
+
+  /**
+   * startkey_docid (string) – Return records starting with the specified document ID. Ignored
+   * if startkey is not set
+   */
+  public ViewQueryParams startkeyDocid(String startkeyDocid) {
+    this.paramStore.put("startkey_docid", startkeyDocid);
+    return this;
+  }
+
+  /**
+   * update (string) – Whether or not the view in question should be updated prior to
+   * responding to the user: true, false or lazy. Default is true
+   */
+  public ViewQueryParams update(String update) {
+    this.paramStore.put("update", update);
+    return this;
+  }
+
+  /**
+   * update_seq (boolean) – Whether to include in the response an update_seq value indicating
+   * the sequence id of the database the view reflects. Default is false
+   */
+  public ViewQueryParams updateSeq(boolean updateSeq) {
+    this.paramStore.put("update_seq", updateSeq);
+    return this;
+  }
+
+  /**
+   * @return true when keys are set and the query has to be sent as POST
+   */
+  public boolean hasKeys() {
+    return this.viewKeys != null;
+  }
+
+  /**
+   * @return the POST body {"keys": [...]} or null when no keys are set
+   */
+  public JsonObject keysBody() {
+    return this.viewKeys == null ? null : new JsonObject().put("keys", this.viewKeys);
+  }
+
+}
@@ -0,0 +1,217 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams;
+
+import java.util.Objects;
+
+/**
+ * Options for {@link CouchDbChangesStream}, following the _changes feed of a
+ * database.
+ * <p>
+ * With a {@code checkpointId} the stream stores the sequence of the last
+ * delivered change in the local document {@code _local/<checkpointId>} and
+ * resumes from it when opened again.
+ */
+public class ChangesOptions {
+
+  /**
+   * The _changes feed type.
+   */
+  public enum Feed {
+    /**
+     * One long lived response, one change per line. Back pressure pauses the
+     * HTTP response.
+     */
+    CONTINUOUS("continuous"),
+    /**
+     * One request per batch of changes, the next request is sent once the
+     * batch has been consumed.
+     */
+    LONGPOLL("longpoll");
+
+    private final String value;
+
+    Feed(String value) {
+      this.value = value;
+    }
+
+    public String value() {
+      return this.value;
+    }
+  }
+
+  public static final long DEFAULT_HEARTBEAT = 30000L;
+  public static final long DEFAULT_RECONNECT_DELAY = 1000L;
+  public static final int DEFAULT_BUFFER_SIZE = 100;
+  public static final int DEFAULT_CHECKPOINT_INTERVAL = 100;
+
+  private Feed feed = Feed.CONTINUOUS;
+  private String since = "0";
+  private boolean includeDocs = false;
+  private String filter;
+  private String style;
+  private long heartbeat = DEFAULT_HEARTBEAT;
+  private long reconnectDelay = DEFAULT_RECONNECT_DELAY;
+  private int maxReconnectAttempts = -1;
+  private int bufferSize = DEFAULT_BUFFER_SIZE;
+  private String checkpointId;
+  private int checkpointInterval = DEFAULT_CHECKPOINT_INTERVAL;
+
+  /**
+   * @param feed CONTINUOUS (default) or LONGPOLL
+   */
+  public ChangesOptions feed(Feed feed) {
+    this.feed = Objects.requireNonNull(feed);
+    return this;
+  }
+
+  /**
+   * @param since sequence to start after, "0" (default) or "now". Ignored
+   *        when a checkpoint is found
+   */
+  public ChangesOptions since(String since) {
+    this.since = Objects.requireNonNull(since);
+    return this;
+  }
+
+  /**
+   * @param includeDocs include the document with each change, default false
+   */
+  public ChangesOptions includeDocs(boolean includeDocs) {
+    this.includeDocs = includeDocs;
+    return this;
+  }
+
+  /**
+   * @param filter filter function (ddoc/name) or builtin filter
+   */
+  public ChangesOptions filter(String filter) {
+    this.filter = filter;
+    return this;
+  }
+
+  /**
+   * @param style main_only (server default) or all_docs
+   */
+  public ChangesOptions style(String style) {
+    this.style = style;
+    return this;
+  }
+
+  /**
+   * @param heartbeat milliseconds between heartbeat lines, default 30000
+   */
+  public ChangesOptions heartbeat(long heartbeat) {
+    if (heartbeat < 1L) {
+      throw new IllegalArgumentException("heartbeat must be positive");
+    }
+    this.heartbeat = heartbeat;
+    return this;
+  }
+
+  /**
+   * @param reconnectDelay milliseconds to wait before reconnecting after a
+   *        failed request, default 1000
+   */
+  public ChangesOptions reconnectDelay(long reconnectDelay) {
+    if (reconnectDelay < 1L) {
+      throw new IllegalArgumentException("reconnectDelay must be positive");
+    }
+    this.reconnectDelay = reconnectDelay;
+    return this;
+  }
+
+  /**
+   * @param maxReconnectAttempts consecutive failed reconnects before the
+   *        stream fails, -1 (default) retries forever
+   */
+  public ChangesOptions maxReconnectAttempts(int maxReconnectAttempts) {
+    this.maxReconnectAttempts = maxReconnectAttempts;
+    return this;
+  }
+
+  /**
+   * @param bufferSize number of received but undelivered changes at which
+   *        the HTTP response is paused, default 100
+   */
+  public ChangesOptions bufferSize(int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("bufferSize must be positive");
+    }
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
+  /**
+   * @param checkpointId id of the _local document storing the checkpoint,
+   *        null (default) disables checkpoints
+   */
+  public ChangesOptions checkpointId(String checkpointId) {
+    this.checkpointId = checkpointId;
+    return this;
+  }
+
+  /**
+   * @param checkpointInterval number of delivered changes between two
+   *        checkpoint writes, default 100
+   */
+  public ChangesOptions checkpointInterval(int checkpointInterval) {
+    if (checkpointInterval < 1) {
+      throw new IllegalArgumentException("checkpointInterval must be positive");
+    }
+    this.checkpointInterval = checkpointInterval;
+    return this;
+  }
+
+  public Feed getFeed() {
+    return this.feed;
+  }
+
+  public String getSince() {
+    return this.since;
+  }
+
+  public boolean isIncludeDocs() {
+    return this.includeDocs;
+  }
+
+  public String getFilter() {
+    return this.filter;
+  }
+
+  public String getStyle() {
+    return this.style;
+  }
+
+  public long getHeartbeat() {
+    return this.heartbeat;
+  }
+
+  public long getReconnectDelay() {
+    return this.reconnectDelay;
+  }
+
+  public int getMaxReconnectAttempts() {
+    return this.maxReconnectAttempts;
+  }
+
+  public int getBufferSize() {
+    return this.bufferSize;
+  }
+
+  public String getCheckpointId() {
+    return this.checkpointId;
+  }
+
+  public int getCheckpointInterval() {
+    return this.checkpointInterval;
+  }
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * The _changes feed of a database as a stream of change rows
+ * {"seq": "...", "id": "...", "changes": [{"rev": "..."}], "doc": {...}}.
+ * <p>
+ * The stream reconnects after failures, resuming from the last received
+ * sequence. The exception handler is only called when the stream gives up,
+ * see {@link ChangesOptions#maxReconnectAttempts(int)}, or the server
+ * rejects the request (4xx).
+ */
+@VertxGen
+public interface CouchDbChangesStream extends ReadStream<JsonObject> {
+
+  CouchDbChangesStream fetch(long amount);
+
+  CouchDbChangesStream resume();
+
+  CouchDbChangesStream pause();
+
+  CouchDbChangesStream endHandler(Handler<Void> endHandler);
+
+  CouchDbChangesStream handler(Handler<JsonObject> handler);
+
+  CouchDbChangesStream exceptionHandler(Handler<Throwable> exceptionHandler);
+
+  /**
+   * @return the sequence of the last change delivered to the handler, null
+   *         before the first one
+   */
+  String lastSeq();
+
+  /**
+   * @return the time in milliseconds (System.currentTimeMillis) at which the
+   *         server was last heard from, a change, heartbeat or complete
+   *         longpoll response, 0 before the first one
+   */
+  long lastActivity();
+
+  /**
+   * Stores the sequence of the last delivered change in the checkpoint
+   * document. Completes immediately when checkpoints are disabled.
+   *
+   * @return a Future completing once the checkpoint is written
+   */
+  Future<Void> checkpoint();
+
+  /**
+   * Stops following the feed, writes a final checkpoint and ends the stream.
+   * Undelivered changes are discarded, they are delivered again when the
+   * feed is resumed from the checkpoint.
+   *
+   * @return a Future completing once the final checkpoint is written
+   */
+  Future<Void> close();
+}
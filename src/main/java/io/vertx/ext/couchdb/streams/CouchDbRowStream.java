@@ -0,0 +1,46 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams;
+
+import io.vertx.codegen.annotations.VertxGen;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * The rows of a view or _all_docs response, emitted one by one as they are
+ * parsed from the response body. Memory use is bounded by the buffered rows,
+ * not by the size of the response.
+ */
+@VertxGen
+public interface CouchDbRowStream extends ReadStream<JsonObject> {
+
+  CouchDbRowStream fetch(long amount);
+
+  CouchDbRowStream resume();
+
+  CouchDbRowStream pause();
+
+  CouchDbRowStream endHandler(Handler<Void> endHandler);
+
+  CouchDbRowStream handler(Handler<JsonObject> handler);
+
+  CouchDbRowStream exceptionHandler(Handler<Throwable> exceptionHandler);
+
+  /**
+   * The top level fields of the response besides rows, e.g. total_rows,
+   * offset and update_seq.
+   *
+   * @return a Future completing once the response has been read completely
+   */
+  Future<JsonObject> metadata();
+}
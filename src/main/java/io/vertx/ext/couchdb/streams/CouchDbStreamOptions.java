@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams;
+
+/**
+ * Options for {@link CouchDbStream}, paging through _all_docs of a database.
+ * <p>
+ * The stream requests {@code batchSize} documents per page and only keeps a
+ * single page in flight, so memory use is bounded by the batch size, not by
+ * the size of the database.
+ */
+public class CouchDbStreamOptions {
+
+  public static final int DEFAULT_BATCH_SIZE = 100;
+
+  private int batchSize = DEFAULT_BATCH_SIZE;
+  private String startKey;
+  private String endKey;
+  private boolean descending = false;
+  private boolean includeDocs = true;
+  private boolean conflicts = false;
+
+  /**
+   * @param batchSize number of documents requested per page, default 100
+   */
+  public CouchDbStreamOptions batchSize(int batchSize) {
+    if (batchSize < 1) {
+      throw new IllegalArgumentException("batchSize must be positive");
+    }
+    this.batchSize = batchSize;
+    return this;
+  }
+
+  /**
+   * @param startKey document id to start streaming from (inclusive)
+   */
+  public CouchDbStreamOptions startKey(String startKey) {
+    this.startKey = startKey;
+    return this;
+  }
+
+  /**
+   * @param endKey document id to stop streaming at (inclusive)
+   */
+  public CouchDbStreamOptions endKey(String endKey) {
+    this.endKey = endKey;
+    return this;
+  }
+
+  /**
+   * @param descending stream documents in descending id order
+   */
+  public CouchDbStreamOptions descending(boolean descending) {
+    this.descending = descending;
+    return this;
+  }
+
+  /**
+   * @param includeDocs when true (default) the stream emits the documents,
+   *        otherwise the _all_docs rows (id, key, value.rev)
+   */
+  public CouchDbStreamOptions includeDocs(boolean includeDocs) {
+    this.includeDocs = includeDocs;
+    return this;
+  }
+
+  /**
+   * @param conflicts include conflict information in the emitted documents
+   */
+  public CouchDbStreamOptions conflicts(boolean conflicts) {
+    this.conflicts = conflicts;
+    return this;
+  }
+
+  public int getBatchSize() {
+    return this.batchSize;
+  }
+
+  public String getStartKey() {
+    return this.startKey;
+  }
+
+  public String getEndKey() {
+    return this.endKey;
+  }
+
+  public boolean isDescending() {
+    return this.descending;
+  }
+
+  public boolean isIncludeDocs() {
+    return this.includeDocs;
+  }
+
+  public boolean isConflicts() {
+    return this.conflicts;
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+
+/**
+ * Receives a response body piped by the web client and hands the chunks to
+ * a parser feeding an {@link InboundQueue}.
+ * <p>
+ * The sink reports its write queue as full while the queue is full, so the
+ * pipe pauses the HTTP response until the consumer caught up. Once closed,
+ * writes fail, which aborts the pipe.
+ */
+public class BodySink implements WriteStream<Buffer> {
+
+  private final InboundQueue<?> queue;
+  private final Handler<Buffer> dataHandler;
+  private Handler<Void> drainHandler;
+  private boolean closed;
+
+  /**
+   * @param queue the queue the parsed elements are written to
+   * @param dataHandler the parser receiving the body chunks
+   */
+  public BodySink(InboundQueue<?> queue, Handler<Buffer> dataHandler) {
+    this.queue = queue;
+    this.dataHandler = dataHandler;
+  }
+
+  /**
+   * Resumes a paused pipe, to be called from the queue's drain handler.
+   */
+  public void drain() {
+    Handler<Void> handler = this.drainHandler;
+    if (handler != null) {
+      this.drainHandler = null;
+      handler.handle(null);
+    }
+  }
+
+  /**
+   * Fails further writes and resumes a paused pipe so it notices.
+   */
+  public void close() {
+    this.closed = true;
+    this.drain();
+  }
+
+  @Override
+  public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    return this;
+  }
+
+  @Override
+  public Future<Void> write(Buffer data) {
+    if (this.closed) {
+      return Future.failedFuture(new CouchdbException("Stream closed"));
+    }
+    this.dataHandler.handle(data);
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> end() {
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+    // bounded by the high water mark of the queue
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return this.queue.isFull();
+  }
+
+  @Override
+  public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+    this.drainHandler = handler;
+    return this;
+  }
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Emits a sequence of buffers and streams as one ReadStream, e.g. the parts
+ * of a multipart request body.
+ * <p>
+ * Streams are consumed one after the other once a handler is set, a stream
+ * is paused while the queue of this stream is full.
+ */
+public class ConcatReadStream implements ReadStream<Buffer> {
+
+  public static final int DEFAULT_BUFFER_SIZE = 16;
+
+  private final List<Object> segments = new ArrayList<>();
+  private final InboundQueue<Buffer> queue = new InboundQueue<>(DEFAULT_BUFFER_SIZE);
+  private ReadStream<Buffer> current;
+  private Handler<Throwable> exceptionHandler;
+  private int next;
+  private boolean started;
+
+  public ConcatReadStream() {
+    this.queue.emptyHandler(v -> this.start());
+    this.queue.drainHandler(v -> {
+      if (this.current != null) {
+        this.current.resume();
+      }
+    });
+  }
+
+  /**
+   * @param buffer a buffer to emit
+   * @return this
+   */
+  public ConcatReadStream append(Buffer buffer) {
+    this.segments.add(buffer);
+    return this;
+  }
+
+  /**
+   * @param stream a stream to emit, read once all previous segments have
+   *        been emitted
+   * @return this
+   */
+  public ConcatReadStream append(ReadStream<Buffer> stream) {
+    stream.pause();
+    this.segments.add(stream);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+    this.queue.handler(handler);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> pause() {
+    this.queue.pause();
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> resume() {
+    return this.fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public ReadStream<Buffer> fetch(long amount) {
+    this.queue.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+    this.queue.endHandler(endHandler);
+    return this;
+  }
+
+  private void start() {
+    if (!this.started) {
+      this.started = true;
+      this.nextSegment();
+    }
+  }
+
+  @SuppressWarnings("unchecked")
+  private void nextSegment() {
+    while (this.next < this.segments.size()) {
+      Object segment = this.segments.get(this.next++);
+      if (segment instanceof Buffer) {
+        this.queue.write((Buffer) segment);
+        continue;
+      }
+      ReadStream<Buffer> stream = (ReadStream<Buffer>) segment;
+      this.current = stream;
+      stream.exceptionHandler(this::handleFailure);
+      stream.endHandler(v -> {
+        this.current = null;
+        this.nextSegment();
+      });
+      stream.handler(chunk -> {
+        if (!this.queue.write(chunk)) {
+          stream.pause();
+        }
+      });
+      stream.resume();
+      return;
+    }
+    this.queue.end();
+  }
+
+  private void handleFailure(Throwable err) {
+    this.current = null;
+    this.queue.clear();
+    if (this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Emits the body of an attachment chunk by chunk as it arrives.
+ * <p>
+ * The response is paused while bufferSize chunks wait for the consumer, so
+ * memory use does not depend on the attachment size. The request is sent
+ * once a handler is set. A non 2xx response fails the stream before any
+ * chunk is emitted, the client checks the status before piping the body.
+ */
+public class CouchDbAttachmentStreamImpl implements ReadStream<Buffer> {
+
+  public static final int DEFAULT_BUFFER_SIZE = 16;
+
+  private final CouchdbClient client;
+  private final UriTemplate url;
+  private final QueryParameters params;
+  private final InboundQueue<Buffer> queue;
+  private final BodySink sink;
+  private Handler<Throwable> exceptionHandler;
+  private boolean started;
+  private boolean failed;
+
+  public CouchDbAttachmentStreamImpl(CouchdbClient client, UriTemplate url,
+      QueryParameters params) {
+    this(client, url, params, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param client the CouchdbClient
+   * @param url the UriTemplate of the attachment
+   * @param params the query parameters, e.g. rev
+   * @param bufferSize number of chunks at which the response is paused
+   */
+  public CouchDbAttachmentStreamImpl(CouchdbClient client, UriTemplate url,
+      QueryParameters params, int bufferSize) {
+    this.client = client;
+    this.url = url;
+    this.params = params;
+    this.queue = new InboundQueue<>(bufferSize);
+    this.sink = new BodySink(this.queue, this.queue::write);
+    this.queue.emptyHandler(v -> this.start());
+    this.queue.drainHandler(v -> this.sink.drain());
+  }
+
+  @Override
+  public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+    this.queue.handler(handler);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> pause() {
+    this.queue.pause();
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> resume() {
+    return this.fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public ReadStream<Buffer> fetch(long amount) {
+    this.queue.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+    this.queue.endHandler(endHandler);
+    return this;
+  }
+
+  private void start() {
+    if (this.started) {
+      return;
+    }
+    this.started = true;
+    this.client.streamBody(HttpMethod.GET, this.url, this.params, this.sink)
+        .onComplete(this::handleResponse);
+  }
+
+  private void handleResponse(AsyncResult<HttpResponse<Void>> ar) {
+    if (ar.failed()) {
+      this.handleFailure(ar.cause());
+      return;
+    }
+    this.queue.end();
+  }
+
+  private void handleFailure(Throwable err) {
+    this.sink.close();
+    if (!this.failed) {
+      this.failed = true;
+      if (this.exceptionHandler != null) {
+        this.exceptionHandler.handle(err);
+      }
+    }
+  }
+}
@@ -0,0 +1,420 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.parameters.ChangesParams;
+import io.vertx.ext.couchdb.streams.ChangesOptions;
+import io.vertx.ext.couchdb.streams.CouchDbChangesStream;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Follows the _changes feed of a database.
+ * <p>
+ * The continuous feed is piped into a line parser, every line is one change.
+ * Parsed changes go to an {@link InboundQueue}, while it is full the pipe
+ * pauses the HTTP response, so a slow consumer slows down the server instead
+ * of buffering the feed in memory. The longpoll feed requests at most
+ * bufferSize changes per request and sends the next request once the queue
+ * has been consumed.
+ * <p>
+ * Reconnects resume from the sequence of the last received change, changes
+ * still queued are not lost. Checkpoints store the sequence of the last
+ * change delivered to the handler, so processing after a restart is at least
+ * once.
+ */
+public class CouchDbChangesStreamImpl implements CouchDbChangesStream {
+
+  private final CouchdbClient client;
+  private final Vertx vertx;
+  private final UriTemplate changesUrl;
+  private final UriTemplate checkpointUrl;
+  private final ChangesOptions options;
+  private final boolean continuous;
+  private final InboundQueue<JsonObject> queue;
+  private Handler<JsonObject> handler;
+  private Handler<Throwable> exceptionHandler;
+
+  private String receivedSeq;
+  private String deliveredSeq;
+  private String checkpointedSeq;
+  private String checkpointRev;
+  private Future<Void> checkpointWrite;
+  private int sinceCheckpoint;
+  private volatile long lastActivity;
+
+  private ChangesResponse response;
+  private boolean started;
+  private boolean connected;
+  private boolean closed;
+  private int failedAttempts;
+  private long reconnectTimer = -1L;
+
+  /**
+   * @param client the CouchdbClient
+   * @param changesUrl template of the database's _changes endpoint
+   * @param checkpointUrl template of the _local checkpoint document, null
+   *        when checkpoints are disabled
+   * @param options feed options
+   */
+  public CouchDbChangesStreamImpl(CouchdbClient client, UriTemplate changesUrl,
+      UriTemplate checkpointUrl, ChangesOptions options) {
+    this.client = client;
+    this.vertx = client.vertx();
+    this.changesUrl = changesUrl;
+    this.checkpointUrl = checkpointUrl;
+    this.options = options;
+    this.continuous = options.getFeed() == ChangesOptions.Feed.CONTINUOUS;
+    this.queue = new InboundQueue<>(options.getBufferSize());
+    this.queue.emptyHandler(v -> this.connect());
+    this.queue.drainHandler(v -> this.resumeSink());
+  }
+
+  @Override
+  public CouchDbChangesStream exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public CouchDbChangesStream handler(Handler<JsonObject> handler) {
+    this.handler = handler;
+    this.queue.handler(handler == null ? null : this::deliver);
+    return this;
+  }
+
+  @Override
+  public CouchDbChangesStream pause() {
+    this.queue.pause();
+    return this;
+  }
+
+  @Override
+  public CouchDbChangesStream resume() {
+    return this.fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public CouchDbChangesStream fetch(long amount) {
+    this.queue.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public CouchDbChangesStream endHandler(Handler<Void> endHandler) {
+    this.queue.endHandler(endHandler);
+    return this;
+  }
+
+  @Override
+  public String lastSeq() {
+    return this.deliveredSeq;
+  }
+
+  @Override
+  public long lastActivity() {
+    return this.lastActivity;
+  }
+
+  @Override
+  public Future<Void> checkpoint() {
+    if (this.checkpointUrl == null || this.deliveredSeq == null
+        || this.deliveredSeq.equals(this.checkpointedSeq)) {
+      return Future.succeededFuture();
+    }
+    if (this.checkpointWrite != null) {
+      return this.checkpointWrite.transform(ar -> this.checkpoint());
+    }
+
+    String seq = this.deliveredSeq;
+    Future<Void> write = this.writeCheckpoint(seq)
+        .recover(err -> err instanceof CouchdbConflictException
+            ? this.client.getJsonObject(this.checkpointUrl, null)
+                .compose(doc -> {
+                  this.checkpointRev = doc.getString("_rev");
+                  return this.writeCheckpoint(seq);
+                })
+            : Future.failedFuture(err));
+    this.checkpointWrite = write;
+    write.onComplete(ar -> {
+      if (this.checkpointWrite == write) {
+        this.checkpointWrite = null;
+      }
+    });
+    return write;
+  }
+
+  @Override
+  public Future<Void> close() {
+    if (!this.closed) {
+      this.closed = true;
+      if (this.reconnectTimer >= 0) {
+        this.vertx.cancelTimer(this.reconnectTimer);
+        this.reconnectTimer = -1L;
+      }
+      this.queue.clear();
+      this.queue.end();
+      if (this.response != null) {
+        // a paused pipe writes again and fails, which aborts the response
+        this.response.sink.close();
+      }
+    }
+    return this.checkpoint();
+  }
+
+  private void deliver(JsonObject change) {
+    this.handler.handle(change);
+    this.deliveredSeq = seqOf(change.getValue("seq"));
+    if (this.checkpointUrl != null
+        && ++this.sinceCheckpoint >= this.options.getCheckpointInterval()) {
+      this.sinceCheckpoint = 0;
+      this.checkpoint();
+    }
+  }
+
+  private Future<Void> writeCheckpoint(String seq) {
+    JsonObject doc = new JsonObject()
+        .put("_id", "_local/" + this.options.getCheckpointId())
+        .put("last_seq", seq);
+    if (this.checkpointRev != null) {
+      doc.put("_rev", this.checkpointRev);
+    }
+    return this.client.putJsonObject(this.checkpointUrl, null, doc)
+        .onSuccess(result -> {
+          this.checkpointRev = result.getString("rev");
+          this.checkpointedSeq = seq;
+        })
+        .mapEmpty();
+  }
+
+  private Future<Void> loadCheckpoint() {
+    this.receivedSeq = this.options.getSince();
+    if (this.checkpointUrl == null) {
+      return Future.succeededFuture();
+    }
+    return this.client.getJsonObject(this.checkpointUrl, null)
+        .onSuccess(doc -> {
+          this.checkpointRev = doc.getString("_rev");
+          if (doc.getValue("last_seq") != null) {
+            this.receivedSeq = seqOf(doc.getValue("last_seq"));
+            this.checkpointedSeq = this.receivedSeq;
+          }
+        })
+        .<Void>mapEmpty()
+        .recover(err -> isNotFound(err) ? Future.succeededFuture() : Future.failedFuture(err));
+  }
+
+  /**
+   * @return true for the 404 of a checkpoint that was never written, any
+   *         other failure must not restart the feed from the beginning
+   */
+  private static boolean isNotFound(Throwable err) {
+    return err instanceof CouchdbResponseException
+        && ((CouchdbResponseException) err).statusCode() == 404
+        && "not_found".equals(((CouchdbResponseException) err).error());
+  }
+
+  private void connect() {
+    if (this.connected || this.closed || this.reconnectTimer >= 0) {
+      return;
+    }
+    this.connected = true;
+    if (!this.started) {
+      this.started = true;
+      this.loadCheckpoint().onComplete(ar -> {
+        if (ar.succeeded()) {
+          this.request();
+        } else if (this.closed) {
+          this.connected = false;
+        } else {
+          // loaded again on the next attempt
+          this.started = false;
+          this.connected = false;
+          this.reconnect(ar.cause());
+        }
+      });
+    } else {
+      this.request();
+    }
+  }
+
+  private void request() {
+    if (this.closed) {
+      this.connected = false;
+      return;
+    }
+    ChangesParams params = new ChangesParams()
+        .feed(this.options.getFeed().value())
+        .since(this.receivedSeq)
+        .heartbeat(this.options.getHeartbeat());
+    if (!this.continuous) {
+      params.limit(this.options.getBufferSize());
+    }
+    if (this.options.isIncludeDocs()) {
+      params.includeDocs(true);
+    }
+    if (this.options.getFilter() != null) {
+      params.filter(this.options.getFilter());
+    }
+    if (this.options.getStyle() != null) {
+      params.style(this.options.getStyle());
+    }
+
+    ChangesResponse current = new ChangesResponse();
+    this.response = current;
+    this.client.streamBody(HttpMethod.GET, this.changesUrl, params, current.sink)
+        .onComplete(ar -> this.handleResponse(current, ar));
+  }
+
+  private void handleResponse(ChangesResponse current, AsyncResult<HttpResponse<Void>> ar) {
+    this.connected = false;
+    if (this.response == current) {
+      this.response = null;
+    }
+    if (this.closed) {
+      return;
+    }
+    if (ar.failed()) {
+      Throwable err = ar.cause();
+      int statusCode = err instanceof CouchdbResponseException
+          ? ((CouchdbResponseException) err).statusCode()
+          : 0;
+      if (statusCode >= 400 && statusCode < 500 && statusCode != 408 && statusCode != 429) {
+        this.fail(new CouchdbException("_changes failed: " + err.getMessage(), err));
+      } else {
+        this.reconnect(err);
+      }
+      return;
+    }
+
+    this.failedAttempts = 0;
+    this.lastActivity = System.currentTimeMillis();
+    if (this.continuous) {
+      // the server closed the feed (timeout, restart), follow it again
+      this.connect();
+      return;
+    }
+
+    List<JsonObject> batch = new ArrayList<>();
+    try {
+      JsonObject page = current.body.toJsonObject();
+      JsonArray results = page.getJsonArray("results", new JsonArray());
+      for (int i = 0; i < results.size(); i++) {
+        JsonObject change = results.getJsonObject(i);
+        if (change.containsKey("seq")) {
+          batch.add(change);
+          this.receivedSeq = seqOf(change.getValue("seq"));
+        }
+      }
+      if (page.getValue("last_seq") != null) {
+        this.receivedSeq = seqOf(page.getValue("last_seq"));
+      }
+    } catch (RuntimeException e) {
+      this.reconnect(e);
+      return;
+    }
+    this.queue.writeAll(batch);
+  }
+
+  private void reconnect(Throwable cause) {
+    this.failedAttempts++;
+    int maxAttempts = this.options.getMaxReconnectAttempts();
+    if (maxAttempts >= 0 && this.failedAttempts > maxAttempts) {
+      this.fail(cause);
+      return;
+    }
+    this.reconnectTimer = this.vertx.setTimer(this.options.getReconnectDelay(), id -> {
+      this.reconnectTimer = -1L;
+      this.connect();
+    });
+  }
+
+  private void fail(Throwable err) {
+    this.closed = true;
+    if (this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
+  }
+
+  private void resumeSink() {
+    if (this.response != null) {
+      this.response.sink.drain();
+    }
+  }
+
+  private void handleRow(JsonObject row) {
+    if (row.containsKey("seq")) {
+      this.receivedSeq = seqOf(row.getValue("seq"));
+      this.failedAttempts = 0;
+      this.queue.write(row);
+    } else if (row.getValue("last_seq") != null) {
+      this.receivedSeq = seqOf(row.getValue("last_seq"));
+    }
+  }
+
+  private static String seqOf(Object seq) {
+    return seq == null ? null : String.valueOf(seq);
+  }
+
+  /**
+   * State of one _changes request. The continuous feed is split into lines,
+   * the longpoll response is collected and parsed once complete.
+   */
+  private class ChangesResponse {
+
+    private final Buffer body;
+    private final BodySink sink;
+
+    ChangesResponse() {
+      CouchDbChangesStreamImpl outer = CouchDbChangesStreamImpl.this;
+      if (outer.continuous) {
+        RecordParser parser = RecordParser.newDelimited("\n", this::handleLine);
+        this.body = null;
+        this.sink = new BodySink(outer.queue, parser::handle);
+      } else {
+        this.body = Buffer.buffer();
+        this.sink = new BodySink(outer.queue, this.body::appendBuffer);
+      }
+    }
+
+    private void handleLine(Buffer line) {
+      CouchDbChangesStreamImpl.this.lastActivity = System.currentTimeMillis();
+      String text = line.toString().trim();
+      if (text.isEmpty()) {
+        // heartbeat
+        return;
+      }
+      JsonObject row;
+      try {
+        row = new JsonObject(text);
+      } catch (RuntimeException e) {
+        return;
+      }
+      CouchDbChangesStreamImpl.this.handleRow(row);
+    }
+  }
+}
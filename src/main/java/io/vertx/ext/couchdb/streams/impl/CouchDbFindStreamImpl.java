@@ -0,0 +1,156 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
+import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Streams the result of a Mango query, following the bookmark of each page.
+ * <p>
+ * One page is prefetched: when a page is handed to the queue the request for
+ * the next one is sent right away, so the consumer doesn't wait for a round
+ * trip at each page boundary. At most two pages are held, the one being
+ * consumed and the prefetched one.
+ */
+public class CouchDbFindStreamImpl implements CouchDbStream {
+
+  private final CouchdbClient client;
+  private final UriTemplate findUrl;
+  private final JsonObject query;
+  private final int pageSize;
+  private final InboundQueue<JsonObject> queue;
+  private Handler<Throwable> exceptionHandler;
+  private String bookmark;
+  private List<JsonObject> prefetched;
+  private boolean requesting;
+  private boolean exhausted;
+
+  public CouchDbFindStreamImpl(CouchdbClient client, UriTemplate findUrl, MangoQuery query) {
+    this.client = client;
+    this.findUrl = findUrl;
+    this.query = query.toJson();
+    this.pageSize = query.getLimit();
+    this.bookmark = query.getBookmark();
+    this.queue = new InboundQueue<>(this.pageSize);
+    this.queue.emptyHandler(v -> this.onEmpty());
+  }
+
+  @Override
+  public CouchDbStream exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public CouchDbStream handler(Handler<JsonObject> handler) {
+    this.queue.handler(handler);
+    return this;
+  }
+
+  @Override
+  public CouchDbStream pause() {
+    this.queue.pause();
+    return this;
+  }
+
+  @Override
+  public CouchDbStream resume() {
+    return this.fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public CouchDbStream fetch(long amount) {
+    this.queue.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public CouchDbStream endHandler(Handler<Void> endHandler) {
+    this.queue.endHandler(endHandler);
+    return this;
+  }
+
+  private void onEmpty() {
+    if (this.prefetched == null) {
+      this.requestPage();
+      return;
+    }
+    List<JsonObject> batch = this.prefetched;
+    this.prefetched = null;
+    this.queue.writeAll(batch);
+    // prefetch the page after the one just handed over
+    this.requestPage();
+    this.endIfDone();
+  }
+
+  private void requestPage() {
+    if (this.requesting || this.exhausted || this.prefetched != null) {
+      return;
+    }
+    this.requesting = true;
+
+    JsonObject body = this.query.copy();
+    if (this.bookmark != null) {
+      // the bookmark already points past the skipped rows
+      body.remove("skip");
+      body.put("bookmark", this.bookmark);
+    }
+    this.client.postJsonObject(this.findUrl, null, body)
+        .onSuccess(this::handlePage)
+        .onFailure(this::handleFailure);
+  }
+
+  private void handlePage(JsonObject page) {
+    this.requesting = false;
+    JsonArray docs = page.getJsonArray("docs", new JsonArray());
+    String nextBookmark = page.getString("bookmark");
+    this.exhausted = docs.size() < this.pageSize || nextBookmark == null
+        || nextBookmark.equals(this.bookmark);
+    this.bookmark = nextBookmark;
+
+    List<JsonObject> batch = new ArrayList<>(docs.size());
+    for (int i = 0; i < docs.size(); i++) {
+      batch.add(docs.getJsonObject(i));
+    }
+
+    if (this.queue.size() > 0) {
+      // the consumer is still busy with the previous page
+      this.prefetched = batch;
+      return;
+    }
+    this.queue.writeAll(batch);
+    this.requestPage();
+    this.endIfDone();
+  }
+
+  private void endIfDone() {
+    if (this.exhausted && !this.requesting && this.prefetched == null) {
+      this.queue.end();
+    }
+  }
+
+  private void handleFailure(Throwable err) {
+    this.requesting = false;
+    this.exhausted = true;
+    if (this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
+  }
+}
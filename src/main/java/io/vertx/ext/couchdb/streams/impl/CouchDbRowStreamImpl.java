@@ -0,0 +1,187 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Promise;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.parsetools.JsonEvent;
+import io.vertx.core.parsetools.JsonParser;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Parses a view style response {"total_rows": .., "offset": .., "rows": [..]}
+ * incrementally.
+ * <p>
+ * The JsonParser runs in event mode for the top level object and switches to
+ * object value mode inside the rows array, so each row is materialized on
+ * its own and written to the queue while the rest of the body is still on
+ * the wire. The request is sent once a handler is set.
+ */
+public class CouchDbRowStreamImpl implements CouchDbRowStream {
+
+  public static final int DEFAULT_BUFFER_SIZE = 100;
+
+  private final CouchdbClient client;
+  private final HttpMethod method;
+  private final UriTemplate url;
+  private final QueryParameters params;
+  private final JsonObject body;
+  private final InboundQueue<JsonObject> queue;
+  private final JsonParser parser = JsonParser.newParser();
+  private final BodySink sink;
+  private final JsonObject metadata = new JsonObject();
+  private final Promise<JsonObject> metadataPromise = Promise.promise();
+  private Handler<Throwable> exceptionHandler;
+  private int depth;
+  private boolean inRows;
+  private boolean started;
+
+  public CouchDbRowStreamImpl(CouchdbClient client, HttpMethod method, UriTemplate url,
+      QueryParameters params) {
+    this(client, method, url, params, null, DEFAULT_BUFFER_SIZE);
+  }
+
+  /**
+   * @param client the CouchdbClient
+   * @param method the HttpMethod of the request
+   * @param url the UriTemplate of the view or _all_docs endpoint
+   * @param params the query parameters
+   * @param body the JSON request body, null for none
+   * @param bufferSize number of parsed rows at which the response is paused
+   */
+  public CouchDbRowStreamImpl(CouchdbClient client, HttpMethod method, UriTemplate url,
+      QueryParameters params, JsonObject body, int bufferSize) {
+    this.client = client;
+    this.method = method;
+    this.url = url;
+    this.params = params;
+    this.body = body;
+    this.queue = new InboundQueue<>(bufferSize);
+    this.sink = new BodySink(this.queue, this.parser::handle);
+    this.parser.handler(this::handleEvent);
+    this.parser.exceptionHandler(this::handleFailure);
+    this.queue.emptyHandler(v -> this.start());
+    this.queue.drainHandler(v -> this.sink.drain());
+  }
+
+  @Override
+  public CouchDbRowStream exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public CouchDbRowStream handler(Handler<JsonObject> handler) {
+    this.queue.handler(handler);
+    return this;
+  }
+
+  @Override
+  public CouchDbRowStream pause() {
+    this.queue.pause();
+    return this;
+  }
+
+  @Override
+  public CouchDbRowStream resume() {
+    return this.fetch(Long.MAX_VALUE);
+  }
+
+  @Override
+  public CouchDbRowStream fetch(long amount) {
+    this.queue.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public CouchDbRowStream endHandler(Handler<Void> endHandler) {
+    this.queue.endHandler(endHandler);
+    return this;
+  }
+
+  @Override
+  public Future<JsonObject> metadata() {
+    return this.metadataPromise.future();
+  }
+
+  private void start() {
+    if (this.started) {
+      return;
+    }
+    this.started = true;
+    Future<HttpResponse<Void>> response = this.body == null
+        ? this.client.streamBody(this.method, this.url, this.params, this.sink)
+        : this.client.streamBody(this.method, this.url, this.params, this.body, this.sink);
+    response.onComplete(this::handleResponse);
+  }
+
+  private void handleEvent(JsonEvent event) {
+    switch (event.type()) {
+      case START_OBJECT:
+        this.depth++;
+        break;
+      case END_OBJECT:
+        this.depth--;
+        break;
+      case START_ARRAY:
+        if (this.depth == 1 && "rows".equals(event.fieldName())) {
+          this.inRows = true;
+          this.parser.objectValueMode();
+        } else {
+          this.depth++;
+        }
+        break;
+      case END_ARRAY:
+        if (this.inRows && this.depth == 1) {
+          this.inRows = false;
+          this.parser.objectEventMode();
+        } else {
+          this.depth--;
+        }
+        break;
+      case VALUE:
+        if (this.inRows) {
+          this.queue.write(event.objectValue());
+        } else if (this.depth == 1) {
+          this.metadata.put(event.fieldName(), event.value());
+        }
+        break;
+      default:
+        break;
+    }
+  }
+
+  private void handleResponse(AsyncResult<HttpResponse<Void>> ar) {
+    if (ar.failed()) {
+      // a non 2xx response fails before its body reaches the parser
+      this.handleFailure(ar.cause());
+      return;
+    }
+    this.parser.end();
+    this.metadataPromise.tryComplete(this.metadata);
+    this.queue.end();
+  }
+
+  private void handleFailure(Throwable err) {
+    this.sink.close();
+    if (this.metadataPromise.tryFail(err) && this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
+  }
+}
@@ -11,30 +11,47 @@
 
 package io.vertx.ext.couchdb.streams.impl;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.Handler;
+import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
 import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.streams.CouchDbStreamOptions;
+import io.vertx.uritemplate.UriTemplate;
 
+/**
+ * Streams a database by paging through _all_docs.
+ * <p>
+ * Each page requests batchSize + 1 rows, the extra row is not emitted but
+ * provides the startkey of the next page. A new page is only requested once
+ * the previous one has been consumed and there is demand, so at most one
+ * page is in flight or buffered.
+ */
 @VertxGen
 public class CouchDbStreamImpl implements CouchDbStream {
 
-  private CouchdbClient client;
-  private final String database;
-  private final int batchSize;
-  private String lastDocId;
-  private boolean paused;
-  private Handler<JsonObject> handler;
-  private Handler<Void> endHandler;
+  private final CouchdbClient client;
+  private final UriTemplate allDocsUrl;
+  private final CouchDbStreamOptions options;
+  private final InboundQueue<JsonObject> queue;
+  private Object nextStartKey;
+  private boolean fetching;
+  private boolean exhausted;
   private Handler<Throwable> exceptionHandler;
 
-  public CouchDbStreamImpl(CouchdbClient client, String database, int batchSize) {
+  public CouchDbStreamImpl(CouchdbClient client, UriTemplate allDocsUrl,
+      CouchDbStreamOptions options) {
     this.client = client;
-    this.database = database;
-    this.batchSize = batchSize;
-    this.lastDocId = null;
-    this.paused = false;
+    this.allDocsUrl = allDocsUrl;
+    this.options = options;
+    this.nextStartKey = options.getStartKey();
+    this.queue = new InboundQueue<>(options.getBatchSize());
+    this.queue.emptyHandler(v -> this.doFetch());
   }
 
   @Override
@@ -45,53 +62,87 @@ public class CouchDbStreamImpl implements CouchDbStream {
 
   @Override
   public CouchDbStream handler(Handler<JsonObject> handler) {
-    this.handler = handler;
-    if (handler != null && !paused) {
-      doFetch();
-    }
+    this.queue.handler(handler);
     return this;
   }
 
   @Override
   public CouchDbStream pause() {
-    paused = true;
+    this.queue.pause();
     return this;
   }
 
   @Override
   public CouchDbStream resume() {
-    if (paused) {
-      paused = false;
-      doFetch();
-    }
-    return this;
+    return this.fetch(Long.MAX_VALUE);
   }
 
   @Override
   public CouchDbStream fetch(long amount) {
+    this.queue.fetch(amount);
     return this;
   }
 
   @Override
   public CouchDbStream endHandler(Handler<Void> endHandler) {
-    this.endHandler = endHandler;
+    this.queue.endHandler(endHandler);
     return this;
   }
 
   private void doFetch() {
-    if (handler == null || paused) {
+    if (this.fetching || this.exhausted) {
       return;
     }
+    this.fetching = true;
 
-    JsonObject queryParams = new JsonObject()
-        .put("limit", batchSize + 1)
-        .put("include_docs", true);
+    AllDocsParams params = new AllDocsParams()
+        .limit(this.options.getBatchSize() + 1)
+        .includeDocs(this.options.isIncludeDocs())
+        .descending(this.options.isDescending());
+    if (this.options.isConflicts()) {
+      params.conflicts(true);
+    }
+    if (this.nextStartKey != null) {
+      params.startkey(this.nextStartKey);
+    }
+    if (this.options.getEndKey() != null) {
+      params.endkey(this.options.getEndKey());
+    }
 
-    if (lastDocId != null) {
-      queryParams.put("startkey", "\"" + lastDocId + "\"")
-          .put("skip", 1);
+    this.client.getJsonObject(this.allDocsUrl, params)
+        .onSuccess(this::handlePage)
+        .onFailure(this::handleFailure);
+  }
+
+  private void handlePage(JsonObject page) {
+    JsonArray rows = page.getJsonArray("rows", new JsonArray());
+    int batchSize = this.options.getBatchSize();
+    boolean more = rows.size() > batchSize;
+    this.nextStartKey = more ? rows.getJsonObject(batchSize).getValue("key") : null;
+    this.exhausted = !more;
+
+    int count = Math.min(rows.size(), batchSize);
+    List<JsonObject> batch = new ArrayList<>(count);
+    for (int i = 0; i < count; i++) {
+      JsonObject row = rows.getJsonObject(i);
+      JsonObject element = this.options.isIncludeDocs() ? row.getJsonObject("doc") : row;
+      if (element != null) {
+        batch.add(element);
+      }
     }
 
-    // input logic for fetch
+    this.fetching = false;
+    this.queue.writeAll(batch);
+    if (this.exhausted) {
+      this.queue.end();
+    }
+  }
+
+  private void handleFailure(Throwable err) {
+    this.fetching = false;
+    this.exhausted = true;
+    if (this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
   }
 }
@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+
+/**
+ * Gzip compresses a ReadStream on the fly.
+ * <p>
+ * Every source chunk is deflated with a sync flush, so each one results in
+ * exactly one compressed chunk and the flow control of the source (pause,
+ * resume, fetch) applies unchanged.
+ * <p>
+ * The native memory of the Deflater is released when the source ends or
+ * fails, an upload aborted before that calls {@link #close()}.
+ */
+public class GzipReadStream implements ReadStream<Buffer> {
+
+  private static final byte[] HEADER =
+      {0x1f, (byte) 0x8b, Deflater.DEFLATED, 0, 0, 0, 0, 0, 0, (byte) 0xff};
+
+  private final ReadStream<Buffer> source;
+  private final Deflater deflater;
+  private final CRC32 crc = new CRC32();
+  private final byte[] output = new byte[8192];
+  private Handler<Buffer> handler;
+  private Handler<Void> endHandler;
+  private Handler<Throwable> exceptionHandler;
+  private boolean headerWritten;
+  private boolean closed;
+
+  /**
+   * @param source the uncompressed stream
+   * @param level the compression level, 1 (fastest) to 9 (smallest), -1 for
+   *        the default
+   */
+  public GzipReadStream(ReadStream<Buffer> source, int level) {
+    this.source = source;
+    this.deflater = new Deflater(level, true);
+  }
+
+  @Override
+  public ReadStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    this.exceptionHandler = handler;
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> handler(Handler<Buffer> handler) {
+    this.handler = handler;
+    if (handler == null) {
+      this.source.handler(null);
+      this.source.endHandler(null);
+    } else {
+      this.source.exceptionHandler(this::handleFailure);
+      this.source.endHandler(v -> this.handleEnd());
+      this.source.handler(this::handleData);
+    }
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> pause() {
+    this.source.pause();
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> resume() {
+    this.source.resume();
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> fetch(long amount) {
+    this.source.fetch(amount);
+    return this;
+  }
+
+  @Override
+  public ReadStream<Buffer> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    return this;
+  }
+
+  /**
+   * Releases the Deflater, data the source emits afterwards is dropped.
+   * Called once the upload is complete, whether it succeeded, failed or was
+   * reset.
+   */
+  public void close() {
+    if (!this.closed) {
+      this.closed = true;
+      this.deflater.end();
+    }
+  }
+
+  private void handleData(Buffer data) {
+    if (this.closed) {
+      return;
+    }
+    byte[] bytes = data.getBytes();
+    this.crc.update(bytes);
+    this.deflater.setInput(bytes);
+    Buffer compressed = this.start();
+    int length;
+    do {
+      length = this.deflater.deflate(this.output, 0, this.output.length, Deflater.SYNC_FLUSH);
+      compressed.appendBytes(this.output, 0, length);
+    } while (length == this.output.length);
+    this.handler.handle(compressed);
+  }
+
+  private void handleEnd() {
+    if (this.closed) {
+      return;
+    }
+    Buffer trailer = this.start();
+    this.deflater.finish();
+    while (!this.deflater.finished()) {
+      int length = this.deflater.deflate(this.output);
+      trailer.appendBytes(this.output, 0, length);
+    }
+    trailer.appendIntLE((int) this.crc.getValue());
+    trailer.appendIntLE((int) this.deflater.getBytesRead());
+    this.close();
+    this.handler.handle(trailer);
+    if (this.endHandler != null) {
+      this.endHandler.handle(null);
+    }
+  }
+
+  private Buffer start() {
+    if (this.headerWritten) {
+      return Buffer.buffer();
+    }
+    this.headerWritten = true;
+    return Buffer.buffer(HEADER);
+  }
+
+  private void handleFailure(Throwable err) {
+    this.close();
+    if (this.exceptionHandler != null) {
+      this.exceptionHandler.handle(err);
+    }
+  }
+}
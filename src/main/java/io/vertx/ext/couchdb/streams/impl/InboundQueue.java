@@ -0,0 +1,208 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+
+import io.vertx.core.Handler;
+
+/**
+ * Demand aware element queue backing the CouchDB read streams.
+ * <p>
+ * Elements are delivered to the handler only while there is outstanding
+ * demand (see {@link #fetch(long)}). When the queue runs empty while demand
+ * is left, the empty handler is called so pull based sources (pagers) can
+ * request the next page. Push based sources use {@link #isFull()} and the
+ * drain handler to apply back pressure to their producer.
+ * <p>
+ * Not thread safe, all calls are expected on the same context.
+ *
+ * @param <T> element type
+ */
+public class InboundQueue<T> {
+
+  private final Deque<T> elements = new ArrayDeque<>();
+  private final int highWaterMark;
+  private Handler<T> handler;
+  private Handler<Void> endHandler;
+  private Handler<Void> emptyHandler;
+  private Handler<Void> drainHandler;
+  private long demand = Long.MAX_VALUE;
+  private boolean ended;
+  private boolean endDelivered;
+  private boolean emitting;
+  private boolean overflow;
+
+  /**
+   * @param highWaterMark number of queued elements at which the queue reports
+   *        itself as full
+   */
+  public InboundQueue(int highWaterMark) {
+    if (highWaterMark < 1) {
+      throw new IllegalArgumentException("highWaterMark must be positive");
+    }
+    this.highWaterMark = highWaterMark;
+  }
+
+  public InboundQueue<T> handler(Handler<T> handler) {
+    this.handler = handler;
+    this.drain();
+    return this;
+  }
+
+  public InboundQueue<T> endHandler(Handler<Void> endHandler) {
+    this.endHandler = endHandler;
+    this.drain();
+    return this;
+  }
+
+  /**
+   * @param emptyHandler called when the queue is empty and there is demand
+   *        for more elements
+   */
+  public InboundQueue<T> emptyHandler(Handler<Void> emptyHandler) {
+    this.emptyHandler = emptyHandler;
+    return this;
+  }
+
+  /**
+   * @param drainHandler called once the queue dropped to half of its high
+   *        water mark after it had been full
+   */
+  public InboundQueue<T> drainHandler(Handler<Void> drainHandler) {
+    this.drainHandler = drainHandler;
+    return this;
+  }
+
+  public InboundQueue<T> pause() {
+    this.demand = 0L;
+    return this;
+  }
+
+  public InboundQueue<T> fetch(long amount) {
+    if (amount < 0L) {
+      throw new IllegalArgumentException("Negative fetch amount " + amount);
+    }
+    this.demand += amount;
+    if (this.demand < 0L) {
+      this.demand = Long.MAX_VALUE;
+    }
+    this.drain();
+    return this;
+  }
+
+  /**
+   * Adds an element to the queue.
+   *
+   * @param element the element
+   * @return false when the queue is full and the producer should pause
+   */
+  public boolean write(T element) {
+    this.elements.add(element);
+    return this.afterWrite();
+  }
+
+  /**
+   * Adds a batch of elements, delivery starts after all of them are queued.
+   *
+   * @param batch the elements
+   * @return false when the queue is full and the producer should pause
+   */
+  public boolean writeAll(Collection<T> batch) {
+    this.elements.addAll(batch);
+    return this.afterWrite();
+  }
+
+  /**
+   * Signals that no more elements will be written. The end handler is called
+   * once all queued elements have been delivered.
+   */
+  public void end() {
+    this.ended = true;
+    this.drain();
+  }
+
+  public boolean isEnded() {
+    return this.ended;
+  }
+
+  public boolean isFull() {
+    return this.elements.size() >= this.highWaterMark;
+  }
+
+  public boolean isPaused() {
+    return this.demand == 0L;
+  }
+
+  public int size() {
+    return this.elements.size();
+  }
+
+  /**
+   * Discards all queued elements, used when a stream is closed early.
+   */
+  public void clear() {
+    this.elements.clear();
+  }
+
+  private boolean afterWrite() {
+    if (this.isFull()) {
+      this.overflow = true;
+    }
+    this.drain();
+    return !this.isFull();
+  }
+
+  private void drain() {
+    if (this.emitting) {
+      return;
+    }
+    this.emitting = true;
+    try {
+      while (true) {
+        while (this.handler != null && this.demand > 0L && !this.elements.isEmpty()) {
+          if (this.demand != Long.MAX_VALUE) {
+            this.demand--;
+          }
+          this.handler.handle(this.elements.poll());
+        }
+        if (this.overflow && this.elements.size() <= this.highWaterMark / 2) {
+          this.overflow = false;
+          if (this.drainHandler != null) {
+            this.drainHandler.handle(null);
+          }
+        }
+        if (!this.elements.isEmpty()) {
+          return;
+        }
+        if (this.ended) {
+          if (!this.endDelivered && this.endHandler != null) {
+            this.endDelivered = true;
+            this.endHandler.handle(null);
+          }
+          return;
+        }
+        if (this.handler == null || this.demand == 0L || this.emptyHandler == null) {
+          return;
+        }
+        this.emptyHandler.handle(null);
+        if (this.elements.isEmpty() && !this.ended) {
+          // refill is asynchronous, write() resumes delivery
+          return;
+        }
+      }
+    } finally {
+      this.emitting = false;
+    }
+  }
+}
@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+
+/**
+ * Parses a multipart/related response body as it is piped in.
+ * <p>
+ * The first part, the document JSON, is collected. The bodies of the
+ * following parts are passed on to the WriteStream returned for their
+ * headers, chunk by chunk, without holding a part in memory. The boundary is
+ * taken from the first line of the body, a body not starting with a
+ * delimiter (a plain JSON document or error) is collected as a whole.
+ * <p>
+ * The sink reports its write queue as full while the current part's stream
+ * does, so the response is paused for slow attachment sinks.
+ */
+public class MultipartRelatedParser implements WriteStream<Buffer> {
+
+  private static final Buffer CRLF = Buffer.buffer("\r\n");
+  private static final Buffer HEADERS_END = Buffer.buffer("\r\n\r\n");
+
+  private enum State {
+    PREAMBLE, PLAIN, HEADERS, BODY, DELIMITER, EPILOGUE
+  }
+
+  private final Function<MultiMap, WriteStream<Buffer>> partSinks;
+  private final Buffer document = Buffer.buffer();
+  private Buffer pending = Buffer.buffer();
+  private Buffer delimiter;
+  private State state = State.PREAMBLE;
+  private int parts;
+  private WriteStream<Buffer> current;
+  private boolean closed;
+
+  /**
+   * @param partSinks returns the stream receiving the body of a part for its
+   *        headers, null to skip the part
+   */
+  public MultipartRelatedParser(Function<MultiMap, WriteStream<Buffer>> partSinks) {
+    this.partSinks = partSinks;
+  }
+
+  /**
+   * @return the JSON of the first part, or the whole body when it was not
+   *         multipart
+   */
+  public Buffer document() {
+    return this.document;
+  }
+
+  /**
+   * @return true once the closing delimiter, or a non multipart body, has
+   *         been received
+   */
+  public boolean isComplete() {
+    return this.state == State.EPILOGUE || this.state == State.PLAIN;
+  }
+
+  /**
+   * @param headers the headers of a part
+   * @return the filename of the Content-Disposition header, null if none
+   */
+  public static String filename(MultiMap headers) {
+    String disposition = headers.get("Content-Disposition");
+    if (disposition == null) {
+      return null;
+    }
+    for (String parameter : disposition.split(";")) {
+      String trimmed = parameter.trim();
+      if (trimmed.startsWith("filename=")) {
+        String value = trimmed.substring("filename=".length());
+        return value.startsWith("\"") && value.endsWith("\"") && value.length() > 1
+            ? value.substring(1, value.length() - 1)
+            : value;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Fails further writes and ends the stream of the current part.
+   */
+  public void close() {
+    this.closed = true;
+    this.endPart();
+  }
+
+  @Override
+  public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+    return this;
+  }
+
+  @Override
+  public Future<Void> write(Buffer data) {
+    if (this.closed) {
+      return Future.failedFuture(new CouchdbException("Stream closed"));
+    }
+    this.pending.appendBuffer(data);
+    this.parse();
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public Future<Void> end() {
+    if (!this.isComplete()) {
+      this.endPart();
+    }
+    return Future.succeededFuture();
+  }
+
+  @Override
+  public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+    return this;
+  }
+
+  @Override
+  public boolean writeQueueFull() {
+    return this.current != null && this.current.writeQueueFull();
+  }
+
+  @Override
+  public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+    if (this.current != null) {
+      this.current.drainHandler(handler);
+    } else if (handler != null) {
+      handler.handle(null);
+    }
+    return this;
+  }
+
+  private void parse() {
+    while (true) {
+      switch (this.state) {
+        case PREAMBLE: {
+          if (this.pending.length() >= 2 && !this.pending.getString(0, 2).equals("--")) {
+            this.state = State.PLAIN;
+            break;
+          }
+          int lineEnd = indexOf(this.pending, CRLF, 0);
+          if (lineEnd < 0) {
+            return;
+          }
+          String boundary = this.pending.getString(2, lineEnd, StandardCharsets.US_ASCII.name());
+          this.delimiter = Buffer.buffer("\r\n--" + boundary.trim());
+          this.consume(lineEnd + CRLF.length());
+          this.state = State.HEADERS;
+          break;
+        }
+        case PLAIN:
+          this.document.appendBuffer(this.pending);
+          this.pending = Buffer.buffer();
+          return;
+        case HEADERS: {
+          MultiMap headers = MultiMap.caseInsensitiveMultiMap();
+          if (indexOf(this.pending, CRLF, 0) == 0) {
+            this.consume(CRLF.length());
+          } else {
+            int headersEnd = indexOf(this.pending, HEADERS_END, 0);
+            if (headersEnd < 0) {
+              return;
+            }
+            for (String line : this.pending.getString(0, headersEnd).split("\r\n")) {
+              int colon = line.indexOf(':');
+              if (colon > 0) {
+                headers.add(line.substring(0, colon).trim(), line.substring(colon + 1).trim());
+              }
+            }
+            this.consume(headersEnd + HEADERS_END.length());
+          }
+          this.parts++;
+          this.current = this.parts == 1 ? null : this.partSinks.apply(headers);
+          this.state = State.BODY;
+          break;
+        }
+        case BODY: {
+          int end = indexOf(this.pending, this.delimiter, 0);
+          if (end < 0) {
+            // keep what could be the start of a delimiter split across chunks
+            int safe = this.pending.length() - this.delimiter.length() + 1;
+            if (safe > 0) {
+              this.emit(this.pending.getBuffer(0, safe));
+              this.consume(safe);
+            }
+            return;
+          }
+          if (end > 0) {
+            this.emit(this.pending.getBuffer(0, end));
+          }
+          this.endPart();
+          this.consume(end + this.delimiter.length());
+          this.state = State.DELIMITER;
+          break;
+        }
+        case DELIMITER: {
+          if (this.pending.length() < 2) {
+            return;
+          }
+          if (this.pending.getString(0, 2).equals("--")) {
+            this.state = State.EPILOGUE;
+            break;
+          }
+          // skip transport padding up to the end of the delimiter line
+          int lineEnd = indexOf(this.pending, CRLF, 0);
+          if (lineEnd < 0) {
+            return;
+          }
+          this.consume(lineEnd + CRLF.length());
+          this.state = State.HEADERS;
+          break;
+        }
+        case EPILOGUE:
+        default:
+          this.pending = Buffer.buffer();
+          return;
+      }
+    }
+  }
+
+  private void emit(Buffer chunk) {
+    if (this.parts == 1) {
+      this.document.appendBuffer(chunk);
+    } else if (this.current != null) {
+      this.current.write(chunk);
+    }
+  }
+
+  private void endPart() {
+    WriteStream<Buffer> part = this.current;
+    if (part != null) {
+      this.current = null;
+      part.end();
+    }
+  }
+
+  private void consume(int length) {
+    this.pending = this.pending.getBuffer(length, this.pending.length());
+  }
+
+  static int indexOf(Buffer buffer, Buffer search, int from) {
+    int last = buffer.length() - search.length();
+    byte first = search.getByte(0);
+    for (int i = from; i <= last; i++) {
+      if (buffer.getByte(i) != first) {
+        continue;
+      }
+      int j = 1;
+      while (j < search.length() && buffer.getByte(i + j) == search.getByte(j)) {
+        j++;
+      }
+      if (j == search.length()) {
+        return i;
+      }
+    }
+    return -1;
+  }
+}
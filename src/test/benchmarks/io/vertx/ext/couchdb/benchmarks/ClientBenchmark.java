@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.CouchdbClientBuilder;
+import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.WriteMode;
+
+/**
+ * End to end document reads and writes against an in-process HTTP server
+ * answering like CouchDB, so the numbers show the per request overhead of the
+ * client and the HTTP stack without a real server.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ClientBenchmark {
+
+  private static final String DATABASE = "bench";
+
+  private final AtomicLong ids = new AtomicLong();
+  private Vertx vertx;
+  private HttpServer server;
+  private CouchdbClient client;
+  private CouchDbDatabase database;
+  private Buffer storedDocument;
+  private JsonObject newDocument;
+  private Buffer newDocumentRaw;
+
+  @Setup
+  public void setUp() throws Exception {
+    this.vertx = Vertx.vertx();
+    this.storedDocument = new JsonObject()
+        .put("_id", "doc")
+        .put("_rev", "1-967a00dff5e02add41819138abb3284d")
+        .put("type", "order")
+        .put("total", 42.5)
+        .put("customer", new JsonObject().put("name", "Jane").put("city", "Berlin"))
+        .toBuffer();
+    this.newDocument = new JsonObject()
+        .put("type", "order")
+        .put("total", 17.25)
+        .put("customer", new JsonObject().put("name", "John").put("city", "Paris"));
+    this.newDocumentRaw = this.newDocument.toBuffer();
+
+    this.server = await(this.vertx.createHttpServer()
+        .requestHandler(this::handle)
+        .listen(0, "localhost"));
+    this.client = new CouchdbClientBuilder(this.vertx)
+        .host("localhost")
+        .port(this.server.actualPort())
+        .build();
+    this.database = await(this.client.getDatabase(DATABASE));
+  }
+
+  @TearDown
+  public void tearDown() throws Exception {
+    this.client.close();
+    await(this.server.close());
+    await(this.vertx.close());
+  }
+
+  @Benchmark
+  public JsonObject getDocument() throws Exception {
+    return await(this.database.getDocument("doc"));
+  }
+
+  /**
+   * Same request as {@link #getDocument()}, without parsing the response.
+   */
+  @Benchmark
+  public Buffer getDocumentRaw() throws Exception {
+    return await(this.database.getDocumentRaw("doc"));
+  }
+
+  @Benchmark
+  public JsonObject createDocument() throws Exception {
+    return await(this.database.createDocument("doc-" + this.ids.incrementAndGet(),
+        this.newDocument.copy(), WriteMode.OPTIMISTIC));
+  }
+
+  /**
+   * Same request as {@link #createDocument()}, with an already encoded body.
+   */
+  @Benchmark
+  public JsonObject putDocumentRaw() throws Exception {
+    return await(this.database.putDocumentRaw("doc-" + this.ids.incrementAndGet(),
+        this.newDocumentRaw));
+  }
+
+  private void handle(HttpServerRequest request) {
+    if (HttpMethod.HEAD.equals(request.method())) {
+      request.response().end();
+    } else if (HttpMethod.PUT.equals(request.method())) {
+      String id = request.path().substring(DATABASE.length() + 2);
+      request.body().onSuccess(body -> request.response()
+          .setStatusCode(201)
+          .putHeader("Content-Type", "application/json")
+          .end(new JsonObject().put("ok", true).put("id", id).put("rev", "1-abc").toBuffer()));
+    } else {
+      request.response()
+          .putHeader("Content-Type", "application/json")
+          .end(this.storedDocument);
+    }
+  }
+
+  private static <T> T await(Future<T> future) throws Exception {
+    return future.toCompletionStage().toCompletableFuture().get(10, TimeUnit.SECONDS);
+  }
+}
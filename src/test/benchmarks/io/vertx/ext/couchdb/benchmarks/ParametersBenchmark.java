@@ -0,0 +1,132 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.benchmarks;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.parameters.BaseQueryParameters;
+import io.vertx.ext.couchdb.parameters.EncodedQueryParameters;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+
+/**
+ * Building the URL of a request: query parameters and path templates.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ParametersBenchmark {
+
+  private ViewQueryParams params;
+  private EncodedQueryParameters encoded;
+
+  @Setup
+  public void setUp() {
+    this.params = new ViewQueryParams()
+        .startkey(new JsonArray().add("2024").add("01"))
+        .endkey(new JsonArray().add("2024").add("12").add(new JsonObject()))
+        .groupLevel(2)
+        .limit(100)
+        .includeDocs(true);
+    this.encoded = this.params.encode();
+  }
+
+  @Benchmark
+  public Map<String, String> forTemplate() {
+    return this.params.forTemplate();
+  }
+
+  /**
+   * Same parameters as {@link #forTemplate()}, encoded once in the setup.
+   */
+  @Benchmark
+  public Map<String, String> forTemplateEncoded() {
+    return this.encoded.forTemplate();
+  }
+
+  /**
+   * Baseline of {@link #revEncoded()}: the rev parameter of a document
+   * update as built before each request.
+   */
+  @Benchmark
+  public Map<String, String> revMutable() {
+    BaseQueryParameters rev = new BaseQueryParameters();
+    rev.addParameter("rev", "3-917fa2381192822767f010b95b45325b", true);
+    return rev.forTemplate();
+  }
+
+  @Benchmark
+  public Map<String, String> revEncoded() {
+    return EncodedQueryParameters.rev("3-917fa2381192822767f010b95b45325b").forTemplate();
+  }
+
+  @Benchmark
+  public UriTemplate documentTemplate() {
+    return PathParameterTemplates.databaseDocumentId("orders", "order:2024-000042");
+  }
+
+  /**
+   * Baseline of {@link #documentTemplate()}: expanding a parsed path template
+   * and parsing the result with the query expression again.
+   */
+  @Benchmark
+  public UriTemplate documentTemplateExpanded() {
+    Variables variables = Variables.variables();
+    variables.set("database", "orders");
+    variables.set("documentId", "order:2024-000042");
+    return PathParameterTemplates.templateWithQueryParams("/{database}/{documentId}", variables);
+  }
+
+  @Benchmark
+  public UriTemplate allDocsTemplate() {
+    return PathParameterTemplates.allDocs("orders");
+  }
+
+  @Benchmark
+  public UriTemplate viewTemplate() {
+    return PathParameterTemplates.view("orders", "reports", "by_month");
+  }
+
+  @Benchmark
+  public String expandViewUrl() {
+    Variables variables = Variables.variables();
+    variables.set("query", this.params.forTemplate());
+    return PathParameterTemplates.view("orders", "reports", "by_month")
+        .expandToString(variables);
+  }
+
+  @Benchmark
+  public String expandViewUrlEncoded() {
+    Variables variables = Variables.variables();
+    variables.set("query", this.encoded.forTemplate());
+    return PathParameterTemplates.view("orders", "reports", "by_month")
+        .expandToString(variables);
+  }
+}
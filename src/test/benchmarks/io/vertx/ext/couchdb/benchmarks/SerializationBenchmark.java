@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.designdoc.DBDesignDoc;
+import io.vertx.ext.couchdb.database.security.DBSecurity;
+
+/**
+ * Conversion of design documents and security objects from and to JSON.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SerializationBenchmark {
+
+  private JsonObject designDocJson;
+  private DBDesignDoc designDoc;
+  private JsonObject securityJson;
+  private DBSecurity security;
+
+  @Setup
+  public void setUp() {
+    JsonObject views = new JsonObject();
+    for (int i = 0; i < 10; i++) {
+      views.put("view_" + i, new JsonObject()
+          .put("map", "function (doc) { if (doc.type === 'order') { emit(doc.date_" + i
+              + ", doc.total); } }")
+          .put("reduce", i % 2 == 0 ? "_sum" : "_count"));
+    }
+    this.designDocJson = new JsonObject()
+        .put("_id", "_design/reports")
+        .put("_rev", "3-8f2c0d4e6a1b")
+        .put("language", "javascript")
+        .put("views", views);
+    this.designDoc = DBDesignDoc.fromJson(this.designDocJson);
+
+    JsonArray names = new JsonArray();
+    JsonArray roles = new JsonArray();
+    for (int i = 0; i < 20; i++) {
+      names.add("user_" + i);
+      roles.add("role_" + i);
+    }
+    this.securityJson = new JsonObject()
+        .put(DBSecurity.ADMINS, new JsonObject().put(DBSecurity.NAMES, names.copy())
+            .put(DBSecurity.ROLES, new JsonArray().add(DBSecurity.SYSTEM_ADMIN_ROLE)))
+        .put(DBSecurity.MEMBERS, new JsonObject().put(DBSecurity.NAMES, names)
+            .put(DBSecurity.ROLES, roles));
+    this.security = DBSecurity.fromJson(this.securityJson);
+  }
+
+  @Benchmark
+  public JsonObject designDocToJson() {
+    return this.designDoc.toJson();
+  }
+
+  @Benchmark
+  public DBDesignDoc designDocFromJson() {
+    return DBDesignDoc.fromJson(this.designDocJson);
+  }
+
+  @Benchmark
+  public String designDocEncode() {
+    return this.designDoc.toJson().encode();
+  }
+
+  @Benchmark
+  public JsonObject securityToJson() {
+    return this.security.toJson();
+  }
+
+  @Benchmark
+  public DBSecurity securityFromJson() {
+    return DBSecurity.fromJson(this.securityJson);
+  }
+}
@@ -11,15 +11,20 @@
 package io.vertx.ext.couchdb;
 
 import static org.junit.Assert.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import io.vertx.core.Vertx;
+import io.vertx.core.http.HttpVersion;
+import io.vertx.core.http.PoolOptions;
 import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
 import io.vertx.ext.couchdb.testannotations.UnitTest;
 import io.vertx.ext.web.client.WebClient;
+import io.vertx.ext.web.client.WebClientOptions;
 
 @UnitTest
 public class CouchdbClientBuilderTest {
@@ -57,4 +62,31 @@ public class CouchdbClientBuilderTest {
     assertNotNull(couchDbClient);
   }
 
+  @Test
+  void testConnectionOptions(Vertx vertx) {
+    CouchdbClientBuilder ownClient = new CouchdbClientBuilder(vertx)
+        .host("tango.com")
+        .maxPoolSize(100)
+        .maxWaitQueueSize(10)
+        .http2(true)
+        .pipeliningLimit(4)
+        .idleTimeout(30);
+
+    WebClientOptions options = ownClient.webClientOptions();
+    assertEquals("tango.com", options.getDefaultHost());
+    assertEquals(HttpVersion.HTTP_2, options.getProtocolVersion());
+    assertTrue(options.isUseAlpn());
+    assertTrue(options.isPipelining());
+    assertEquals(4, options.getPipeliningLimit());
+    assertEquals(30, options.getIdleTimeout());
+
+    PoolOptions poolOptions = ownClient.poolOptions();
+    assertEquals(100, poolOptions.getHttp1MaxSize());
+    assertEquals(10, poolOptions.getMaxWaitQueueSize());
+
+    CouchdbClient couchDbClient = ownClient.build();
+    assertNotNull(couchDbClient);
+    couchDbClient.close();
+  }
+
 }
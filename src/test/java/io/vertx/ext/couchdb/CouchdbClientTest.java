@@ -15,13 +15,18 @@ import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyMap;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -30,14 +35,22 @@ import org.mockito.MockitoAnnotations;
 
 import io.vertx.core.Future;
 import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
 import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.auth.authentication.UsernamePasswordCredentials;
 import io.vertx.ext.couchdb.admin.CouchdbAdmin;
+import io.vertx.ext.couchdb.exception.CouchdbCircuitOpenException;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.exception.CouchdbTimeoutException;
+import io.vertx.ext.couchdb.metrics.CouchdbMetrics;
+import io.vertx.ext.couchdb.metrics.CouchdbOperation;
 import io.vertx.ext.couchdb.parameters.BaseQueryParameters;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
 import io.vertx.ext.couchdb.parameters.QueryParameters;
 import io.vertx.ext.couchdb.testannotations.UnitTest;
 import io.vertx.ext.web.client.HttpRequest;
@@ -274,6 +287,89 @@ public class CouchdbClientTest {
 
   }
 
+  @Test
+  void testMetricsReportsRequest(Vertx vertx, VertxTestContext testContext) {
+    CouchdbMetrics metrics = mock(CouchdbMetrics.class);
+    Object requestMetric = new Object();
+    when(metrics.requestBegin("test_db", CouchdbOperation.DOCUMENT_GET, HttpMethod.GET))
+        .thenReturn(requestMetric);
+    Buffer body = Buffer.buffer("{\"_id\":\"doc\"}");
+    when(mockHttpResponse.body()).thenReturn(body);
+    when(mockHttpResponse.bodyAsJsonObject()).thenReturn(body.toJsonObject());
+
+    CouchdbClient metered = new CouchdbClientBuilder(vertx, mockWebClient)
+        .metrics(metrics)
+        .build();
+    metered.getJsonObject(PathParameterTemplates.databaseDocumentId("test_db", "doc"), null)
+        .onSuccess(result -> testContext.verify(() -> {
+          verify(metrics).requestEnd(requestMetric, 0L);
+          verify(metrics).responseEnd(requestMetric, 200, body.length());
+          testContext.completeNow();
+        }))
+        .onFailure(testContext::failNow);
+  }
+
+  @Test
+  void testRetryOnUnavailable(Vertx vertx, VertxTestContext testContext) {
+    HttpResponse<Buffer> unavailable = unavailableResponse();
+    when(mockHttpRequest.send()).thenReturn(Future.succeededFuture(unavailable),
+        Future.succeededFuture(mockHttpResponse));
+    when(mockHttpResponse.bodyAsJsonObject()).thenReturn(new JsonObject().put("ok", true));
+
+    CouchdbClient retrying = new CouchdbClientBuilder(vertx, mockWebClient)
+        .retry(new RetryOptions().initialBackoff(1))
+        .build();
+    retrying.getJsonObject(UriTemplate.of("/test/doc"), null)
+        .onSuccess(result -> testContext.verify(() -> {
+          assertTrue(result.getBoolean("ok"));
+          verify(mockHttpRequest, times(2)).send();
+          testContext.completeNow();
+        }))
+        .onFailure(testContext::failNow);
+  }
+
+  @Test
+  void testCircuitBreakerOpens(Vertx vertx, VertxTestContext testContext) {
+    HttpResponse<Buffer> unavailable = unavailableResponse();
+    when(mockHttpRequest.send()).thenReturn(Future.succeededFuture(unavailable));
+
+    CouchdbClient guarded = new CouchdbClientBuilder(vertx, mockWebClient)
+        .circuitBreaker(new CircuitBreakerOptions().failureThreshold(2))
+        .build();
+    UriTemplate template = UriTemplate.of("/test/doc");
+    guarded.noBody(HttpMethod.GET, template, null)
+        .recover(err -> guarded.noBody(HttpMethod.GET, template, null))
+        .recover(err -> guarded.noBody(HttpMethod.GET, template, null))
+        .onSuccess(response -> testContext.failNow("The circuit should be open"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbCircuitOpenException);
+          verify(mockHttpRequest, times(2)).send();
+          testContext.completeNow();
+        }));
+  }
+
+  @Test
+  void testWithTimeoutFailsPastDeadline(Vertx vertx, VertxTestContext testContext) {
+    when(mockHttpRequest.timeout(anyLong())).thenReturn(mockHttpRequest);
+    when(mockHttpRequest.send()).thenReturn(Promise.<HttpResponse<Buffer>>promise().future());
+
+    client.withTimeout(50).getJsonObject(UriTemplate.of("/test/doc"), null)
+        .onSuccess(result -> testContext.failNow("The request should time out"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbTimeoutException);
+          verify(mockHttpRequest).timeout(anyLong());
+          testContext.completeNow();
+        }));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<Buffer> unavailableResponse() {
+    HttpResponse<Buffer> unavailable = mock(HttpResponse.class);
+    lenient().when(unavailable.statusCode()).thenReturn(503);
+    lenient().when(unavailable.statusMessage()).thenReturn("Service Unavailable");
+    return unavailable;
+  }
+
   @Test
   void testNoBody(Vertx vertx, VertxTestContext testContext) {
     UriTemplate template = UriTemplate.of("/test/no-body");
@@ -326,6 +422,24 @@ public class CouchdbClientTest {
         }));
   }
 
+  @Test
+  void testPutJsonObjectConflict(Vertx vertx, VertxTestContext testContext) {
+    when(mockHttpResponse.statusCode()).thenReturn(409);
+    when(mockHttpResponse.body()).thenReturn(new JsonObject()
+        .put("error", "conflict")
+        .put("reason", "Document update conflict.").toBuffer());
+    UriTemplate template = UriTemplate.of("/test/put-object");
+
+    client.putJsonObject(template, null, new JsonObject())
+        .onSuccess(result -> testContext.failNow("This call should have failed"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbConflictException);
+          assertEquals(409, ((CouchdbConflictException) err).statusCode());
+          assertEquals("Document update conflict.", ((CouchdbConflictException) err).reason());
+          testContext.completeNow();
+        }));
+  }
+
   @Test
   void testSession(Vertx vertx, VertxTestContext testContext) {
     JsonObject expectedObject = new JsonObject().put("key", "value");
@@ -346,6 +460,55 @@ public class CouchdbClientTest {
 
   }
 
+  @Test
+  void testSessionAuthSharesCookie(Vertx vertx, VertxTestContext testContext) {
+    CouchdbClient sessionClient = new CouchdbClientBuilder(vertx, mockWebClient)
+        .credentials(new UsernamePasswordCredentials("admin", "password"))
+        .sessionAuth(true)
+        .build();
+    when(mockHttpRequest.putHeader(anyString(), anyString())).thenReturn(mockHttpRequest);
+    when(mockHttpResponse.cookies())
+        .thenReturn(List.of("AuthSession=YWRtaW4; Version=1; Path=/; HttpOnly; Max-Age=600"));
+    when(mockHttpResponse.bodyAsJsonObject()).thenReturn(new JsonObject());
+
+    sessionClient.status()
+        .compose(v -> sessionClient.status())
+        .onSuccess(result -> testContext.verify(() -> {
+          verify(mockHttpRequest, times(1)).sendJson(any());
+          verify(mockHttpRequest, times(2)).send();
+          verify(mockHttpRequest, times(2)).putHeader("Cookie", "AuthSession=YWRtaW4");
+          testContext.completeNow();
+        }))
+        .onFailure(testContext::failNow);
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testSessionAuthRetriesOn401(Vertx vertx, VertxTestContext testContext) {
+    CouchdbClient sessionClient = new CouchdbClientBuilder(vertx, mockWebClient)
+        .credentials(new UsernamePasswordCredentials("admin", "password"))
+        .sessionAuth(true)
+        .build();
+    HttpResponse<Buffer> unauthorized = mock(HttpResponse.class);
+    when(unauthorized.statusCode()).thenReturn(401);
+    when(mockHttpRequest.putHeader(anyString(), anyString())).thenReturn(mockHttpRequest);
+    when(mockHttpRequest.send())
+        .thenReturn(Future.succeededFuture(unauthorized))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+    when(mockHttpResponse.cookies())
+        .thenReturn(List.of("AuthSession=YWRtaW4; Version=1; Path=/; HttpOnly; Max-Age=600"));
+    when(mockHttpResponse.bodyAsJsonObject()).thenReturn(new JsonObject());
+
+    sessionClient.status()
+        .onSuccess(result -> testContext.verify(() -> {
+          // logged in again after the 401 and repeated the request once
+          verify(mockHttpRequest, times(2)).sendJson(any());
+          verify(mockHttpRequest, times(2)).send();
+          testContext.completeNow();
+        }))
+        .onFailure(testContext::failNow);
+  }
+
   @Test
   void testStatus(Vertx vertx, VertxTestContext testContext) {
     JsonObject expectedObject = new JsonObject().put("key", "value");
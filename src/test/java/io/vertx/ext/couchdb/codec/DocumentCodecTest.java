@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.codec;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.EncodeException;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.database.ViewResult;
+import io.vertx.ext.couchdb.database.ViewRow;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+
+@UnitTest
+public class DocumentCodecTest {
+
+  @Test
+  void testJacksonMapsIdAndRev() {
+    Buffer json = new JsonObject()
+        .put("_id", "recipe_1")
+        .put("_rev", "1-a")
+        .put("name", "Pancakes")
+        .put("_attachments", new JsonObject())
+        .toBuffer();
+
+    Recipe recipe = DocumentCodec.jackson().decode(json, Recipe.class);
+    assertEquals("recipe_1", recipe.getId());
+    assertEquals("1-a", recipe.getRev());
+    assertEquals("Pancakes", recipe.getName());
+  }
+
+  @Test
+  void testJacksonSkipsNullRev() {
+    Recipe recipe = new Recipe();
+    recipe.setId("recipe_2");
+    recipe.setName("Waffles");
+
+    JsonObject encoded = DocumentCodec.jackson().encode(recipe).toJsonObject();
+    assertEquals("recipe_2", encoded.getString("_id"));
+    assertEquals("Waffles", encoded.getString("name"));
+    assertFalse(encoded.containsKey("_rev"));
+    assertFalse(encoded.containsKey("id"));
+  }
+
+  @Test
+  void testJacksonKeepsNestedIds() {
+    Ingredient flour = new Ingredient();
+    flour.setId("flour");
+    Recipe recipe = new Recipe();
+    recipe.setId("recipe_3");
+    recipe.setIngredients(List.of(flour));
+
+    JsonObject encoded = DocumentCodec.jackson().encode(recipe).toJsonObject();
+    assertEquals("recipe_3", encoded.getString("_id"));
+    JsonObject ingredient = encoded.getJsonArray("ingredients").getJsonObject(0);
+    assertEquals("flour", ingredient.getString("id"));
+    assertFalse(ingredient.containsKey("_id"));
+
+    Buffer json = new JsonObject()
+        .put("_id", "recipe_3")
+        .put("ingredients", new JsonArray().add(new JsonObject().put("id", "sugar")))
+        .toBuffer();
+    Recipe decoded = DocumentCodec.jackson().decode(json, Recipe.class);
+    assertEquals("recipe_3", decoded.getId());
+    assertEquals("sugar", decoded.getIngredients().get(0).getId());
+    assertEquals("recipe_3",
+        DocumentCodec.jackson().decode(json, JsonObject.class).getString("_id"));
+  }
+
+  @Test
+  void testJacksonDecodesViewRows() {
+    Buffer json = new JsonObject()
+        .put("total_rows", 3)
+        .put("offset", 1)
+        .put("rows", new JsonArray()
+            .add(new JsonObject().put("id", "recipe_1").put("key", new JsonArray().add("p"))
+                .put("value", new JsonObject().put("rev", "1-a"))
+                .put("doc", new JsonObject().put("_id", "recipe_1").put("name", "Pancakes")))
+            .add(new JsonObject().put("key", "missing").put("error", "not_found")))
+        .toBuffer();
+
+    ViewResult<Recipe> result = DocumentCodec.jackson().decodeView(json, Recipe.class);
+    assertEquals(3, result.getTotalRows());
+    assertEquals(1, result.getOffset());
+    List<ViewRow<Recipe>> rows = result.getRows();
+    assertEquals(2, rows.size());
+    assertEquals("recipe_1", rows.get(0).getId());
+    assertEquals(List.of("p"), rows.get(0).getKey());
+    assertEquals("Pancakes", rows.get(0).getDoc().getName());
+    assertNull(rows.get(1).getDoc());
+    assertEquals("not_found", rows.get(1).getError());
+  }
+
+  @Test
+  void testJsonCodec() {
+    Buffer json = new JsonObject().put("_id", "recipe_1").toBuffer();
+    assertEquals("recipe_1",
+        DocumentCodec.json().decode(json, JsonObject.class).getString("_id"));
+    assertTrue(DocumentCodec.json().decodeView(new JsonObject().toBuffer(), JsonObject.class)
+        .getRows().isEmpty());
+    assertThrows(EncodeException.class, () -> DocumentCodec.json().encode(new Recipe()));
+  }
+
+  public static class Recipe {
+
+    private String id;
+    private String rev;
+    private String name;
+    private List<Ingredient> ingredients;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+
+    public String getRev() {
+      return rev;
+    }
+
+    public void setRev(String rev) {
+      this.rev = rev;
+    }
+
+    public String getName() {
+      return name;
+    }
+
+    public void setName(String name) {
+      this.name = name;
+    }
+
+    public List<Ingredient> getIngredients() {
+      return ingredients;
+    }
+
+    public void setIngredients(List<Ingredient> ingredients) {
+      this.ingredients = ingredients;
+    }
+  }
+
+  public static class Ingredient {
+
+    private String id;
+
+    public String getId() {
+      return id;
+    }
+
+    public void setId(String id) {
+      this.id = id;
+    }
+  }
+}
@@ -13,36 +13,58 @@ package io.vertx.ext.couchdb.database;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.ArgumentMatchers.same;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
 import java.util.concurrent.TimeUnit;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 
 import io.vertx.core.Future;
+import io.vertx.core.MultiMap;
+import io.vertx.core.Promise;
 import io.vertx.core.Vertx;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
 import io.vertx.core.json.JsonArray;
 import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.core.streams.WriteStream;
 import io.vertx.ext.couchdb.CouchdbClient;
 import io.vertx.ext.couchdb.database.designdoc.DBDesignDoc;
 import io.vertx.ext.couchdb.database.designdoc.DBDesignView;
 import io.vertx.ext.couchdb.database.designdoc.ReduceOptions;
 import io.vertx.ext.couchdb.database.security.DBSecurity;
+import io.vertx.ext.couchdb.exception.CouchdbConflictException;
+import io.vertx.ext.couchdb.exception.CouchdbException;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
 import io.vertx.ext.couchdb.parameters.DocumentGetParams;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.couchdb.parameters.ViewQueryParams;
 import io.vertx.ext.couchdb.testannotations.UnitTest;
 import io.vertx.ext.web.client.HttpRequest;
 import io.vertx.ext.web.client.HttpResponse;
 import io.vertx.ext.web.client.WebClient;
 import io.vertx.junit5.VertxTestContext;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
 
 @UnitTest
 class CouchDbDatabaseTest {
@@ -131,6 +153,46 @@ class CouchDbDatabaseTest {
     assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
   }
 
+  @Test
+  void testCreateDocumentOptimistic(VertxTestContext testContext) throws InterruptedException {
+
+    JsonObject document = new JsonObject();
+    JsonObject resultDoc = new JsonObject().put("ok", true).put("id", "recipe_123");
+
+    when(mockClient.putJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(resultDoc));
+
+    database.createDocument("recipe_123", document, WriteMode.OPTIMISTIC)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          // only the database check from setUp, no pre-flight HEAD
+          verify(mockClient, times(1)).doesExist(any());
+          assertTrue(result.getBoolean("ok"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testUpdateDocumentOptimisticConflict(VertxTestContext testContext)
+      throws InterruptedException {
+
+    when(mockClient.putJsonObject(any(), any(), any()))
+        .thenReturn(Future.failedFuture(new CouchdbConflictException(null,
+            CouchdbConflictException.CONFLICT, "Document update conflict.", 409)));
+
+    database.updateDocument("recipe_123", "1-23456", new JsonObject(), WriteMode.OPTIMISTIC)
+        .onSuccess(result -> testContext.failNow("This call should fail"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbConflictException);
+          verify(mockClient, never()).getEtag(any());
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
   @Test
   void testCreateDocumentFailure(VertxTestContext testContext) throws InterruptedException {
 
@@ -166,6 +228,536 @@ class CouchDbDatabaseTest {
     assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
   }
 
+  @Test
+  void testBulkDocs(VertxTestContext testContext) throws InterruptedException {
+    JsonArray results = new JsonArray()
+        .add(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "1-a"))
+        .add(new JsonObject().put("id", "doc2").put("error", "conflict")
+            .put("reason", "Document update conflict."));
+
+    when(mockClient.postJsonArray(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(results));
+
+    database.bulkDocs(List.of(new JsonObject().put("_id", "doc1"),
+        new JsonObject().put("_id", "doc2")))
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          ArgumentCaptor<JsonObject> body = ArgumentCaptor.forClass(JsonObject.class);
+          verify(mockClient).postJsonArray(any(), any(), body.capture());
+          assertEquals(2, body.getValue().getJsonArray("docs").size());
+          assertEquals(results, result);
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testBulkWriterCoalescesWrites(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    JsonArray results = new JsonArray()
+        .add(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "1-a"))
+        .add(new JsonObject().put("id", "doc2").put("error", "conflict")
+            .put("reason", "Document update conflict."));
+
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json");
+    when(mockClient.vertx()).thenReturn(vertx);
+    when(mockHttpResponse.bodyAsJsonArray()).thenReturn(results);
+    lenient().when(mockHttpResponse.headers()).thenReturn(headers);
+    when(mockClient.bufferBody(any(), any(), any(), any()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    CouchDbBulkWriter writer = database.bulkWriter(new BulkWriterOptions().maxBatchSize(2));
+    JsonObject doc1 = new JsonObject().put("name", "one");
+    Future<JsonObject> first = writer.createDocument("doc1", doc1);
+    Future<JsonObject> second = writer.createDocument("doc2", new JsonObject());
+
+    Future.join(first, second).onComplete(v -> testContext.verify(() -> {
+      ArgumentCaptor<Buffer> body = ArgumentCaptor.forClass(Buffer.class);
+      verify(mockClient, times(1)).bufferBody(any(), any(), any(), body.capture());
+      JsonArray docs = body.getValue().toJsonObject().getJsonArray("docs");
+      assertEquals("doc1", docs.getJsonObject(0).getString("_id"));
+      assertEquals("doc2", docs.getJsonObject(1).getString("_id"));
+      assertFalse(doc1.containsKey("_id"));
+      assertEquals("1-a", first.result().getString("rev"));
+      assertTrue(second.cause() instanceof CouchdbConflictException);
+      testContext.completeNow();
+    }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testGetDocumentRaw(VertxTestContext testContext) throws InterruptedException {
+    Buffer document = Buffer.buffer("{\"_id\":\"doc1\",\"_rev\":\"1-a\"}");
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json");
+    lenient().when(mockHttpResponse.headers()).thenReturn(headers);
+    when(mockHttpResponse.body()).thenReturn(document);
+    when(mockClient.noBody(eq(HttpMethod.GET), any(), isNull()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    database.getDocumentRaw("doc1")
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          assertSame(document, result);
+          verify(mockHttpResponse, never()).bodyAsJsonObject();
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testGetDocumentAs(VertxTestContext testContext) throws InterruptedException {
+    Buffer document = Buffer.buffer("{\"_id\":\"doc1\",\"_rev\":\"1-a\",\"name\":\"a\"}");
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json");
+    lenient().when(mockHttpResponse.headers()).thenReturn(headers);
+    when(mockHttpResponse.body()).thenReturn(document);
+    when(mockClient.noBody(eq(HttpMethod.GET), any(), isNull()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    database.getDocumentAs("doc1", JsonObject.class)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          assertEquals("a", result.getString("name"));
+          verify(mockHttpResponse, never()).bodyAsJsonObject();
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testCreateDocumentTyped(VertxTestContext testContext) throws InterruptedException {
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json");
+    lenient().when(mockHttpResponse.headers()).thenReturn(headers);
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "1-a"));
+    when(mockClient.bufferBody(eq(HttpMethod.PUT), any(), isNull(), any()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    database.createDocument("doc1", List.of("a", "b"), WriteMode.OPTIMISTIC)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          assertEquals("1-a", result.getString("rev"));
+          ArgumentCaptor<Buffer> body = ArgumentCaptor.forClass(Buffer.class);
+          verify(mockClient).bufferBody(any(), any(), any(), body.capture());
+          assertEquals(new JsonArray().add("a").add("b"), body.getValue().toJsonArray());
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testPutDocumentRaw(VertxTestContext testContext) throws InterruptedException {
+    Buffer document = Buffer.buffer("{\"name\":\"raw\"}");
+    MultiMap headers = MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json");
+    lenient().when(mockHttpResponse.headers()).thenReturn(headers);
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "2-b"));
+    when(mockClient.bufferBody(eq(HttpMethod.PUT), any(), any(), eq(document)))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    database.putDocumentRaw("doc1", "1-a", document)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          assertEquals("2-b", result.getString("rev"));
+          ArgumentCaptor<QueryParameters> params = ArgumentCaptor.forClass(QueryParameters.class);
+          verify(mockClient).bufferBody(any(), any(), params.capture(), any());
+          assertEquals("1-a", params.getValue().getParameter("rev"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testPartitionQueryView(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.succeededFuture(new JsonObject().put("rows", new JsonArray())));
+
+    CouchDbPartition partition = database.partition("sensor-1");
+    partition.queryView("readings", "by_day", null)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          ArgumentCaptor<UriTemplate> url = ArgumentCaptor.forClass(UriTemplate.class);
+          verify(mockClient).getJsonObject(url.capture(), isNull());
+          assertEquals("/test_db/_partition/sensor-1/_design/readings/_view/by_day",
+              url.getValue().expandToString(Variables.variables()));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testPartitionNameValidated() {
+    assertThrows(IllegalArgumentException.class, () -> database.partition("_design"));
+    assertThrows(IllegalArgumentException.class, () -> database.partition("a:b"));
+  }
+
+  @Test
+  void testGetDocuments(VertxTestContext testContext) throws InterruptedException {
+    JsonObject allDocs = new JsonObject().put("rows", new JsonArray()
+        .add(new JsonObject().put("id", "doc1").put("key", "doc1")
+            .put("doc", new JsonObject().put("_id", "doc1").put("_rev", "1-a")))
+        .add(new JsonObject().put("key", "doc2").put("error", "not_found")));
+
+    when(mockClient.postJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(allDocs));
+
+    database.getDocuments(List.of("doc1", "doc2"))
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          ArgumentCaptor<JsonObject> body = ArgumentCaptor.forClass(JsonObject.class);
+          verify(mockClient).postJsonObject(any(), any(), body.capture());
+          assertEquals(new JsonArray().add("doc1").add("doc2"),
+              body.getValue().getJsonArray("keys"));
+          assertEquals(1, result.size());
+          assertEquals("1-a", result.get("doc1").getString("_rev"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testGetDocumentCoalesced(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    JsonObject allDocs = new JsonObject().put("rows", new JsonArray()
+        .add(new JsonObject().put("id", "doc1").put("key", "doc1")
+            .put("doc", new JsonObject().put("_id", "doc1")))
+        .add(new JsonObject().put("key", "doc2").put("error", "not_found")));
+
+    when(mockClient.vertx()).thenReturn(vertx);
+    when(mockClient.postJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(allDocs));
+
+    CouchDbDatabase.create(mockClient, "test_db",
+        new CouchDbDatabaseOptions().coalesceReads(true))
+        .onFailure(testContext::failNow)
+        .onSuccess(coalescing -> {
+          Future<JsonObject> first = coalescing.getDocument("doc1");
+          Future<JsonObject> second = coalescing.getDocument("doc2");
+          Future<JsonObject> third = coalescing.getDocument("doc1");
+          Future.join(first, second, third).onComplete(v -> testContext.verify(() -> {
+            verify(mockClient, times(1)).postJsonObject(any(), any(), any());
+            verify(mockClient, never()).getJsonObject(any(), any());
+            assertEquals("doc1", first.result().getString("_id"));
+            assertEquals("doc1", third.result().getString("_id"));
+            assertTrue(second.failed());
+            testContext.completeNow();
+          }));
+        });
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testQueryView(VertxTestContext testContext) throws InterruptedException {
+    JsonObject viewResult = new JsonObject().put("total_rows", 1).put("offset", 0)
+        .put("rows", new JsonArray().add(new JsonObject().put("id", "doc1").put("key", "a")));
+
+    when(mockClient.getJsonObject(any(), any())).thenReturn(Future.succeededFuture(viewResult));
+
+    database.queryView("recipes", "by_name", new ViewQueryParams().key("a"))
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          verify(mockClient, never()).postJsonObject(any(), any(), any());
+          assertEquals(1, result.getJsonArray("rows").size());
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testQueryViewWithKeys(VertxTestContext testContext) throws InterruptedException {
+    JsonObject viewResult = new JsonObject().put("total_rows", 3).put("offset", 0)
+        .put("rows", new JsonArray());
+
+    when(mockClient.postJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(viewResult));
+
+    ViewQueryParams params = new ViewQueryParams().keys(List.of("a", "b")).includeDocs(true);
+    database.queryView("recipes", "by_name", params)
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          ArgumentCaptor<JsonObject> body = ArgumentCaptor.forClass(JsonObject.class);
+          verify(mockClient).postJsonObject(any(), any(), body.capture());
+          assertEquals(new JsonArray().add("a").add("b"), body.getValue().getJsonArray("keys"));
+          assertEquals(null, params.getParameter("keys"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testStreamAttachment(VertxTestContext testContext) throws InterruptedException {
+    HttpResponse<Void> response = mock(HttpResponse.class);
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("%PDF-1.7 "));
+          sink.write(Buffer.buffer("scanned page"));
+          return Future.succeededFuture(response);
+        });
+
+    Buffer received = Buffer.buffer();
+    database.streamAttachment("doc1", "scan.pdf", "1-a")
+        .exceptionHandler(testContext::failNow)
+        .endHandler(v -> testContext.verify(() -> {
+          assertEquals("%PDF-1.7 scanned page", received.toString());
+          testContext.completeNow();
+        }))
+        .handler(received::appendBuffer);
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testStreamAttachmentNotFound(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenReturn(Future.failedFuture(
+            new CouchdbResponseException(404, "not_found", "missing")));
+
+    database.streamAttachment("doc1", "missing.pdf", null, mock(WriteStream.class))
+        .onSuccess(v -> testContext.failNow("Missing attachment should fail"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertEquals(404, ((CouchdbResponseException) err).statusCode());
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testGetDocumentWithAttachmentsKeepsParams(VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any(MultiMap.class), any()))
+        .thenReturn(Future.failedFuture(new CouchdbException("Connection closed")));
+
+    DocumentGetParams params = new DocumentGetParams().conflicts(true);
+    database.getDocumentWithAttachments("doc1", params, name -> mock(WriteStream.class))
+        .onSuccess(doc -> testContext.failNow("Failed request should fail"))
+        .onFailure(err -> testContext.verify(() -> {
+          ArgumentCaptor<QueryParameters> sent = ArgumentCaptor.forClass(QueryParameters.class);
+          verify(mockClient).streamBody(any(), any(), sent.capture(), any(MultiMap.class), any());
+          assertEquals("true", sent.getValue().forTemplate().get("attachments"));
+          assertEquals("true", sent.getValue().forTemplate().get("conflicts"));
+          // the caller's parameters still read documents without attachment bodies
+          assertEquals(false, params.getParameter("attachments"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testPutAttachment(VertxTestContext testContext) throws InterruptedException {
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "2-b"));
+    lenient().when(mockHttpResponse.headers())
+        .thenReturn(MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json"));
+    when(mockClient.sendStream(any(), any(), any(), any(), any()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    ReadStream<Buffer> body = mock(ReadStream.class);
+    database.putAttachment("doc1", "data.json", "1-a", "application/json", body,
+        new AttachmentUploadOptions().gzip(true).contentLength(4096))
+        .onFailure(testContext::failNow)
+        .onSuccess(rev -> testContext.verify(() -> {
+          assertEquals("2-b", rev);
+          ArgumentCaptor<MultiMap> headers = ArgumentCaptor.forClass(MultiMap.class);
+          verify(mockClient).sendStream(any(), any(), any(), headers.capture(), any());
+          assertEquals("gzip", headers.getValue().get("Content-Encoding"));
+          // the compressed length is unknown, sent chunked
+          assertFalse(headers.getValue().contains("Content-Length"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testPutAttachmentWithoutOptions(VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "2-b"));
+    lenient().when(mockHttpResponse.headers())
+        .thenReturn(MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json"));
+    when(mockClient.sendStream(any(), any(), any(), any(), any()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    ReadStream<Buffer> body = mock(ReadStream.class);
+    database.putAttachment("doc1", "data.json", "1-a", "application/json", body, null)
+        .onFailure(testContext::failNow)
+        .onSuccess(rev -> testContext.verify(() -> {
+          assertEquals("2-b", rev);
+          ArgumentCaptor<MultiMap> headers = ArgumentCaptor.forClass(MultiMap.class);
+          verify(mockClient).sendStream(any(), any(), any(), headers.capture(), same(body));
+          assertFalse(headers.getValue().contains("Content-Encoding"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testPutDocumentWithAttachments(VertxTestContext testContext) throws InterruptedException {
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "doc1").put("rev", "1-a"));
+    lenient().when(mockHttpResponse.headers())
+        .thenReturn(MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json"));
+    when(mockClient.sendStream(any(), any(), any(), any(), any()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    database.putDocumentWithAttachments("doc1", new JsonObject().put("title", "scan"),
+        List.of(new MultipartAttachment("page.txt", "text/plain", Buffer.buffer("page one"))))
+        .onFailure(testContext::failNow)
+        .onSuccess(result -> testContext.verify(() -> {
+          ArgumentCaptor<MultiMap> headers = ArgumentCaptor.forClass(MultiMap.class);
+          ArgumentCaptor<ReadStream<Buffer>> body = ArgumentCaptor.forClass(ReadStream.class);
+          verify(mockClient).sendStream(any(), any(), any(), headers.capture(), body.capture());
+
+          Buffer sent = Buffer.buffer();
+          body.getValue().endHandler(v -> {
+          }).handler(sent::appendBuffer);
+          String text = sent.toString();
+          assertEquals(sent.length(),
+              Integer.parseInt(headers.getValue().get("Content-Length")));
+          assertTrue(headers.getValue().get("Content-Type").startsWith("multipart/related"));
+          assertTrue(text.contains("\"page.txt\":{\"follows\":true"));
+          assertTrue(text.contains("\r\n\r\npage one\r\n--"));
+          assertTrue(text.endsWith("--"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testGetDocumentCachedWithEtag(VertxTestContext testContext) throws InterruptedException {
+    HttpResponse<Buffer> notModified = mock(HttpResponse.class);
+    when(notModified.statusCode()).thenReturn(304);
+    when(mockHttpResponse.statusCode()).thenReturn(200);
+    when(mockHttpResponse.getHeader("ETag")).thenReturn("\"1-a\"");
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("_id", "config").put("_rev", "1-a"));
+    when(mockClient.getIfNoneMatch(any(), any(), isNull()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+    when(mockClient.getIfNoneMatch(any(), any(), eq("\"1-a\"")))
+        .thenReturn(Future.succeededFuture(notModified));
+
+    CouchDbDatabaseOptions options =
+        new CouchDbDatabaseOptions().cache(new DocumentCacheOptions().maxSize(10));
+    CouchDbDatabase.create(mockClient, "test_db", options)
+        .compose(db -> db.getDocument("config")
+            .compose(first -> {
+              // callers get copies, the cached document stays intact
+              first.put("changed", true);
+              return db.getDocument("config");
+            })
+            .onSuccess(second -> testContext.verify(() -> {
+              assertEquals("1-a", second.getString("_rev"));
+              assertFalse(second.containsKey("changed"));
+              DocumentCacheStats stats = db.cacheStats();
+              assertEquals(1, stats.getMisses());
+              assertEquals(1, stats.getRevalidations());
+              assertEquals(0, stats.getHits());
+              assertEquals(1, stats.getSize());
+              testContext.completeNow();
+            })))
+        .onFailure(testContext::failNow);
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testBulkDocsInvalidatesCache(VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockHttpResponse.statusCode()).thenReturn(200);
+    when(mockHttpResponse.getHeader("ETag")).thenReturn("\"1-a\"");
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("_id", "config").put("_rev", "1-a"));
+    when(mockClient.getIfNoneMatch(any(), any(), isNull()))
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+    when(mockClient.postJsonArray(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(new JsonArray()
+            .add(new JsonObject().put("ok", true).put("id", "config").put("rev", "2-b"))));
+
+    CouchDbDatabaseOptions options = new CouchDbDatabaseOptions()
+        .cache(new DocumentCacheOptions().maxSize(10).revalidateAfter(60000));
+    CouchDbDatabase.create(mockClient, "test_db", options)
+        .compose(db -> db.getDocument("config")
+            .compose(first -> db.bulkDocs(List.of(new JsonObject().put("_id", "config")
+                .put("_rev", "1-a").put("enabled", true))))
+            .compose(results -> db.getDocument("config"))
+            .onSuccess(second -> testContext.verify(() -> {
+              // fetched again instead of served from the cache
+              verify(mockClient, times(2)).getIfNoneMatch(any(), any(), isNull());
+              assertEquals(0, db.cacheStats().getHits());
+              assertEquals(2, db.cacheStats().getMisses());
+              testContext.completeNow();
+            })))
+        .onFailure(testContext::failNow);
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testReadRacingWriteNotCached(VertxTestContext testContext)
+      throws InterruptedException {
+    HttpResponse<Buffer> putResponse = mock(HttpResponse.class);
+    when(putResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("ok", true).put("id", "scan").put("rev", "2-b"));
+    lenient().when(putResponse.headers())
+        .thenReturn(MultiMap.caseInsensitiveMultiMap().add("Content-Type", "application/json"));
+    when(mockClient.sendStream(any(), any(), any(), any(), any()))
+        .thenReturn(Future.succeededFuture(putResponse));
+    when(mockHttpResponse.statusCode()).thenReturn(200);
+    when(mockHttpResponse.getHeader("ETag")).thenReturn("\"1-a\"");
+    when(mockHttpResponse.bodyAsJsonObject())
+        .thenReturn(new JsonObject().put("_id", "scan").put("_rev", "1-a"));
+    Promise<HttpResponse<Buffer>> slowRead = Promise.promise();
+    when(mockClient.getIfNoneMatch(any(), any(), isNull()))
+        .thenReturn(slowRead.future())
+        .thenReturn(Future.succeededFuture(mockHttpResponse));
+
+    CouchDbDatabaseOptions options = new CouchDbDatabaseOptions()
+        .cache(new DocumentCacheOptions().maxSize(10).revalidateAfter(60000));
+    CouchDbDatabase.create(mockClient, "test_db", options)
+        .compose(db -> {
+          // the read is sent before the attachment PUT, answered after it
+          Future<JsonObject> racingRead = db.getDocument("scan");
+          return db.putAttachment("scan", "page.txt", "1-a", "text/plain",
+              mock(ReadStream.class), null)
+              .compose(rev -> {
+                slowRead.complete(mockHttpResponse);
+                return racingRead;
+              })
+              .compose(old -> db.getDocument("scan"))
+              .onSuccess(doc -> testContext.verify(() -> {
+                verify(mockClient, times(2)).getIfNoneMatch(any(), any(), isNull());
+                assertEquals(0, db.cacheStats().getHits());
+                testContext.completeNow();
+              }));
+        })
+        .onFailure(testContext::failNow);
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
   @Test
   void testGetDocumentSuccess(VertxTestContext testContext) throws InterruptedException {
 
@@ -0,0 +1,190 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.database.CouchDbDatabase;
+import io.vertx.ext.couchdb.database.ReplicaOptions;
+import io.vertx.ext.couchdb.exception.CouchdbDocumentException;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.junit5.VertxTestContext;
+
+@UnitTest
+class CouchDbReplicaImplTest {
+
+  @Mock
+  private CouchdbClient mockClient;
+
+  @Mock
+  private HttpResponse<Void> mockResponse;
+
+  AutoCloseable mockCloseable;
+
+  @BeforeEach
+  void setUp(Vertx vertx) {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+    lenient().when(mockClient.vertx()).thenReturn(vertx);
+    lenient().when(mockClient.doesExist(any())).thenReturn(Future.succeededFuture());
+    lenient().when(mockResponse.statusCode()).thenReturn(200);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockCloseable.close();
+  }
+
+  @Test
+  void testBootstrapAndFollowChanges(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"total_rows\":2,\"offset\":0,\"update_seq\":\"2-x\","
+              + "\"rows\":[" + row("a") + "," + row("b") + "]}"));
+          return Future.succeededFuture(mockResponse);
+        })
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"seq\":\"3-x\",\"id\":\"a\",\"deleted\":true,"
+              + "\"changes\":[{\"rev\":\"2-a\"}]}\n"
+              + "{\"seq\":\"4-x\",\"id\":\"b\",\"changes\":[{\"rev\":\"2-b\"}],"
+              + "\"doc\":{\"_id\":\"b\",\"_rev\":\"2-b\",\"flag\":true}}\n"));
+          // the continuous feed stays open
+          return Promise.promise().future();
+        });
+
+    CouchDbDatabase.create(mockClient, "flags")
+        .compose(db -> db.replica(new ReplicaOptions()))
+        .onFailure(testContext::failNow)
+        .onSuccess(replica -> vertx.setTimer(50, id -> replica.getDocument("b")
+            .onFailure(testContext::failNow)
+            .onSuccess(doc -> testContext.verify(() -> {
+              assertTrue(doc.getBoolean("flag"));
+              assertEquals(1, replica.size());
+              assertEquals("4-x", replica.lastSeq());
+              assertTrue(replica.isFresh());
+              JsonObject metrics = replica.metrics();
+              assertEquals(2, metrics.getLong("changesApplied"));
+              assertEquals(1, metrics.getLong("localReads"));
+              replica.getDocument("a")
+                  .onSuccess(deleted -> testContext.failNow("a was deleted"))
+                  .onFailure(err -> testContext.verify(() -> {
+                    assertTrue(err instanceof CouchdbDocumentException);
+                    testContext.completeNow();
+                  }));
+            }))));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testFeedRestartedAfterFailure(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"total_rows\":1,\"offset\":0,\"update_seq\":\"1-x\","
+              + "\"rows\":[" + row("a") + "]}"));
+          return Future.succeededFuture(mockResponse);
+        })
+        .thenReturn(Future.failedFuture(
+            new CouchdbResponseException(400, "bad_request", "Malformed request")))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"seq\":\"2-x\",\"id\":\"b\",\"changes\":[],"
+              + "\"doc\":{\"_id\":\"b\",\"_rev\":\"1-b\"}}\n"));
+          return Promise.promise().future();
+        });
+
+    CouchDbDatabase.create(mockClient, "flags")
+        .compose(db -> db.replica(new ReplicaOptions().restartDelay(10)))
+        .onFailure(testContext::failNow)
+        .onSuccess(replica -> vertx.setTimer(200, id -> testContext.verify(() -> {
+          verify(mockClient, times(3)).streamBody(any(), any(), any(), any());
+          JsonObject metrics = replica.metrics();
+          assertEquals(1, metrics.getLong("feedFailures"));
+          assertTrue(metrics.getString("lastFailure").contains("bad_request"));
+          assertEquals(2, replica.size());
+          assertEquals("2-x", replica.lastSeq());
+          assertTrue(replica.isFresh());
+          testContext.completeNow();
+        })));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testMaxDocumentsAppliedToChanges(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"total_rows\":2,\"offset\":0,\"update_seq\":\"2-x\","
+              + "\"rows\":[" + row("a") + "," + row("b") + "]}"));
+          return Future.succeededFuture(mockResponse);
+        })
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer("{\"seq\":\"3-x\",\"id\":\"a\",\"changes\":[],"
+              + "\"doc\":{\"_id\":\"a\",\"_rev\":\"2-a\"}}\n"
+              + "{\"seq\":\"4-x\",\"id\":\"c\",\"changes\":[],"
+              + "\"doc\":{\"_id\":\"c\",\"_rev\":\"1-c\"}}\n"));
+          return Promise.promise().future();
+        });
+
+    CouchDbDatabase.create(mockClient, "flags")
+        .compose(db -> db.replica(new ReplicaOptions().maxDocuments(2)))
+        .onFailure(testContext::failNow)
+        .onSuccess(replica -> vertx.setTimer(50, id -> testContext.verify(() -> {
+          // an update of a held document fits, a third document does not
+          assertEquals(0, replica.size());
+          assertFalse(replica.isFresh());
+          JsonObject metrics = replica.metrics();
+          assertEquals(1, metrics.getLong("changesApplied"));
+          assertTrue(metrics.getBoolean("tooLarge"));
+          testContext.completeNow();
+        })));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  private static String row(String id) {
+    return new JsonObject().put("id", id).put("key", id)
+        .put("value", new JsonObject().put("rev", "1-" + id))
+        .put("doc", new JsonObject().put("_id", id).put("_rev", "1-" + id))
+        .encode();
+  }
+}
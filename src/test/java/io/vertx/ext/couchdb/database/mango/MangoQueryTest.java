@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.database.mango;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+
+@UnitTest
+class MangoQueryTest {
+
+  @Test
+  void testSelector() {
+    Selector selector = Selector.eq("type", "recipe")
+        .and(Selector.or(Selector.gt("rating", 3), Selector.in("tags", List.of("quick"))));
+
+    JsonObject expected = new JsonObject().put("$and", new JsonArray()
+        .add(new JsonObject().put("type", new JsonObject().put("$eq", "recipe")))
+        .add(new JsonObject().put("$or", new JsonArray()
+            .add(new JsonObject().put("rating", new JsonObject().put("$gt", 3)))
+            .add(new JsonObject().put("tags",
+                new JsonObject().put("$in", new JsonArray().add("quick")))))));
+    assertEquals(expected, selector.toJson());
+  }
+
+  @Test
+  void testQuery() {
+    JsonObject query = new MangoQuery(Selector.exists("name", true))
+        .fields("_id", "name")
+        .sort("name", true)
+        .limit(10)
+        .useIndex("recipes", "by_name")
+        .toJson();
+
+    assertEquals(10, query.getInteger("limit"));
+    assertEquals(new JsonArray().add("_id").add("name"), query.getJsonArray("fields"));
+    assertEquals(new JsonArray().add(new JsonObject().put("name", "asc")),
+        query.getJsonArray("sort"));
+    assertEquals(new JsonArray().add("recipes").add("by_name"), query.getJsonArray("use_index"));
+  }
+
+  @Test
+  void testIndex() {
+    JsonObject index = new MangoIndex("type", "name").name("by_type_name")
+        .partialFilter(Selector.ne("archived", true))
+        .toJson();
+
+    assertEquals(new JsonArray().add("type").add("name"),
+        index.getJsonObject("index").getJsonArray("fields"));
+    assertEquals("by_type_name", index.getString("name"));
+    assertEquals("json", index.getString("type"));
+  }
+}
@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.ConnectException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.auth.authentication.Credentials;
+import io.vertx.ext.couchdb.CircuitBreakerOptions;
+import io.vertx.ext.couchdb.ClusterOptions;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.CouchdbClientBuilder;
+import io.vertx.ext.couchdb.exception.CouchdbCircuitOpenException;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.uritemplate.UriTemplate;
+
+@UnitTest
+class CircuitBreakerTest {
+
+  @Test
+  void testTrialRequestBounded(VertxTestContext testContext) throws InterruptedException {
+    CircuitBreaker breaker = new CircuitBreaker(new CircuitBreakerOptions()
+        .failureThreshold(1).resetTimeout(20L).trialTimeout(500L), "node1:5984");
+    AtomicLong timeout = new AtomicLong(-1L);
+
+    breaker.<Buffer>execute(0L, t -> Future.failedFuture(new ConnectException("refused")))
+        .recover(err -> breaker.execute(0L, t -> {
+          throw new AssertionError("The circuit should be open");
+        }))
+        .onSuccess(response -> testContext.failNow("The circuit should be open"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbCircuitOpenException, err.toString());
+          assertEquals("node1:5984", ((CouchdbCircuitOpenException) err).server());
+          Thread.sleep(30L);
+          breaker.execute(0L, t -> {
+            timeout.set(t);
+            return Future.succeededFuture(response(200));
+          })
+              .onFailure(testContext::failNow)
+              .onSuccess(response -> testContext.verify(() -> {
+                // the trial was sent without request timeout
+                assertEquals(500L, timeout.get());
+                assertEquals(CircuitBreaker.State.CLOSED, breaker.state());
+                testContext.completeNow();
+              }));
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testCircuitPerClusterNode(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    WebClient webClient = mock(WebClient.class);
+    HttpRequest<Buffer> unavailable = request(response(503));
+    HttpRequest<Buffer> up = request(response(200));
+    when(webClient.request(any(HttpMethod.class), any(Integer.class), any(),
+        any(UriTemplate.class)))
+        .thenAnswer(invocation -> "node1".equals(invocation.getArgument(2)) ? unavailable : up);
+
+    CouchdbClient client = new CouchdbClientBuilder(vertx, webClient)
+        .endpoint("node1", 5984)
+        .endpoint("node2", 5984)
+        .clusterOptions(new ClusterOptions().healthCheckInterval(60_000L))
+        .circuitBreaker(new CircuitBreakerOptions().failureThreshold(1))
+        .build();
+    UriTemplate template = UriTemplate.of("/test/doc");
+    // round robin: node1 fails and its circuit opens, node2 takes the next
+    // request and the one meant for node1
+    client.noBody(HttpMethod.GET, template, null)
+        .transform(ar -> ar.succeeded()
+            ? Future.<HttpResponse<Buffer>>failedFuture("node1 should answer 503")
+            : client.noBody(HttpMethod.GET, template, null))
+        .compose(response -> client.noBody(HttpMethod.GET, template, null))
+        .onFailure(testContext::failNow)
+        .onSuccess(response -> testContext.verify(() -> {
+          verify(unavailable, times(1)).send();
+          verify(up, times(2)).send();
+          client.close();
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<Buffer> response(int statusCode) {
+    HttpResponse<Buffer> response = mock(HttpResponse.class);
+    lenient().when(response.statusCode()).thenReturn(statusCode);
+    return response;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpRequest<Buffer> request(HttpResponse<Buffer> response) {
+    HttpRequest<Buffer> request = mock(HttpRequest.class);
+    lenient().when(request.setTemplateParam(any(), anyMap())).thenReturn(request);
+    lenient().when(request.authentication(any(Credentials.class))).thenReturn(request);
+    lenient().when(request.ssl(any())).thenReturn(request);
+    lenient().when(request.send()).thenReturn(Future.succeededFuture(response));
+    return request;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.net.SocketAddress;
+import io.vertx.ext.couchdb.ClusterOptions;
+import io.vertx.ext.couchdb.LoadBalancing;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.ext.web.client.HttpRequest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.ext.web.client.WebClient;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.uritemplate.UriTemplate;
+
+@UnitTest
+class ClusterTest {
+
+  private static final List<SocketAddress> ENDPOINTS = List.of(
+      SocketAddress.inetSocketAddress(5984, "node1"),
+      SocketAddress.inetSocketAddress(5984, "node2"),
+      SocketAddress.inetSocketAddress(5984, "node3"));
+
+  @Mock
+  WebClient mockWebClient;
+
+  @Mock
+  HttpResponse<Buffer> mockHttpResponse;
+
+  AutoCloseable mockCloseable;
+  Cluster cluster;
+
+  @BeforeEach
+  void setUp() {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    if (cluster != null) {
+      cluster.close();
+    }
+    mockCloseable.close();
+  }
+
+  @Test
+  void testRoundRobinSkipsUnhealthyNodes(Vertx vertx) {
+    cluster = new Cluster(vertx, mockWebClient, ENDPOINTS, false,
+        new ClusterOptions().healthCheckInterval(60_000L).unhealthyThreshold(2));
+    assertEquals("node1", cluster.select().address().host());
+    assertEquals("node2", cluster.select().address().host());
+    assertEquals("node3", cluster.select().address().host());
+
+    cluster.select();
+    // round robin is back at the first node, the next one is node2
+    ClusterNode node2 = cluster.select();
+    assertEquals("node2", node2.address().host());
+    node2.failure();
+    assertTrue(node2.isHealthy());
+    node2.failure();
+    assertFalse(node2.isHealthy());
+    for (int i = 0; i < 6; i++) {
+      assertFalse(cluster.select() == node2);
+    }
+
+    node2.success();
+    boolean selected = false;
+    for (int i = 0; i < 3; i++) {
+      selected |= cluster.select() == node2;
+    }
+    assertTrue(selected);
+  }
+
+  @Test
+  void testLeastInFlight(Vertx vertx) {
+    cluster = new Cluster(vertx, mockWebClient, ENDPOINTS, false,
+        new ClusterOptions().healthCheckInterval(60_000L)
+            .loadBalancing(LoadBalancing.LEAST_IN_FLIGHT));
+    ClusterNode first = cluster.select();
+    first.requestBegin();
+    ClusterNode second = cluster.select();
+    second.requestBegin();
+    ClusterNode third = cluster.select();
+    assertFalse(third == first || third == second);
+    second.requestEnd(1_000_000L, false);
+    assertTrue(cluster.select() == second || cluster.select() == second);
+  }
+
+  @Test
+  void testHealthCheckEjectsNode(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    HttpRequest<Buffer> maintenance = mockRequest(mockResponse(404));
+    HttpRequest<Buffer> up = mockRequest(mockHttpResponse);
+    lenient().when(mockHttpResponse.statusCode()).thenReturn(200);
+    when(mockWebClient.request(eq(HttpMethod.GET), anyInt(), anyString(), any(UriTemplate.class)))
+        .thenAnswer(invocation -> "node1".equals(invocation.getArgument(2)) ? maintenance : up);
+
+    cluster = new Cluster(vertx, mockWebClient, ENDPOINTS, false,
+        new ClusterOptions().healthCheckInterval(10L).unhealthyThreshold(2));
+    vertx.setTimer(200L, id -> testContext.verify(() -> {
+      for (int i = 0; i < 6; i++) {
+        assertFalse("node1".equals(cluster.select().address().host()));
+      }
+      testContext.completeNow();
+    }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpResponse<Buffer> mockResponse(int statusCode) {
+    HttpResponse<Buffer> response = mock(HttpResponse.class);
+    lenient().when(response.statusCode()).thenReturn(statusCode);
+    return response;
+  }
+
+  @SuppressWarnings("unchecked")
+  private static HttpRequest<Buffer> mockRequest(HttpResponse<Buffer> response) {
+    HttpRequest<Buffer> request = mock(HttpRequest.class);
+    lenient().when(request.ssl(any())).thenReturn(request);
+    lenient().when(request.timeout(anyLong())).thenReturn(request);
+    lenient().when(request.send()).thenReturn(Future.succeededFuture(response));
+    return request;
+  }
+}
@@ -0,0 +1,155 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.CouchdbClientBuilder;
+import io.vertx.ext.couchdb.exception.CouchdbTimeoutException;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.junit5.Checkpoint;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Runs against a server that keeps trickling a response, so only the
+ * deadline, not the idle timeout, can end the request.
+ */
+@UnitTest
+class RequestDeadlinesTest {
+
+  private HttpServer server;
+  private CouchdbClient client;
+  private volatile boolean deadlineHeaderSeen;
+  private volatile Checkpoint connectionClosed;
+
+  @BeforeEach
+  void setUp(Vertx vertx, VertxTestContext testContext) {
+    vertx.createHttpServer()
+        .requestHandler(this::trickle)
+        .listen(0, "localhost")
+        .onFailure(testContext::failNow)
+        .onSuccess(started -> {
+          this.server = started;
+          this.client = new CouchdbClientBuilder(vertx)
+              .host("localhost")
+              .port(started.actualPort())
+              .build();
+          testContext.completeNow();
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.client.close();
+    this.server.close();
+  }
+
+  private void trickle(HttpServerRequest request) {
+    this.deadlineHeaderSeen |= request.headers().contains(RequestDeadlines.HEADER);
+    request.response()
+        .setChunked(true)
+        .putHeader("Content-Type", "application/json")
+        .write("{\"rows\":[");
+    long timerId = request.vertx().setPeriodic(20, id -> request.response().write(" "));
+    request.connection().closeHandler(v -> {
+      request.vertx().cancelTimer(timerId);
+      // the client reset the exchange, the server did not end the response
+      this.connectionClosed.flag();
+    });
+  }
+
+  @Test
+  void testBufferedRequestAborted(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    Checkpoint failed = testContext.checkpoint();
+    this.connectionClosed = testContext.checkpoint();
+
+    this.client.withTimeout(200).getJsonObject(UriTemplate.of("/slow"), null)
+        .onSuccess(result -> testContext.failNow("The request should be aborted"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbTimeoutException, err.toString());
+          assertFalse(this.deadlineHeaderSeen);
+          failed.flag();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testStreamingRequestAborted(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    Checkpoint failed = testContext.checkpoint();
+    this.connectionClosed = testContext.checkpoint();
+
+    WriteStream<Buffer> sink = new DiscardingWriteStream();
+    this.client.withTimeout(200).streamBody(HttpMethod.GET, UriTemplate.of("/slow"), null, sink)
+        .onSuccess(result -> testContext.failNow("The request should be aborted"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbTimeoutException, err.toString());
+          failed.flag();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Accepts and drops all data, like a consumer that keeps up.
+   */
+  private static final class DiscardingWriteStream implements WriteStream<Buffer> {
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> end() {
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return false;
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+
+@UnitTest
+class RetryPolicyTest {
+
+  @Test
+  void testRetryAfter() {
+    assertEquals(-1L, RetryPolicy.retryAfter(null));
+    assertEquals(-1L, RetryPolicy.retryAfter("soon"));
+    assertEquals(3000L, RetryPolicy.retryAfter(" 3 "));
+    String inTenSeconds = DateTimeFormatter.RFC_1123_DATE_TIME
+        .format(ZonedDateTime.now().plusSeconds(10));
+    long delay = RetryPolicy.retryAfter(inTenSeconds);
+    assertTrue(delay > 8000L && delay <= 10000L, "delay " + delay);
+    String past = DateTimeFormatter.RFC_1123_DATE_TIME
+        .format(ZonedDateTime.now().minusSeconds(10));
+    assertEquals(0L, RetryPolicy.retryAfter(past));
+  }
+
+  @Test
+  void testIsRead() {
+    assertTrue(RetryPolicy.isRead(HttpMethod.GET,
+        PathParameterTemplates.databaseDocumentId("test", "doc")));
+    assertTrue(RetryPolicy.isRead(HttpMethod.POST, PathParameterTemplates.find("test")));
+    assertTrue(RetryPolicy.isRead(HttpMethod.POST, PathParameterTemplates.bulkGet("test")));
+    assertFalse(RetryPolicy.isRead(HttpMethod.POST, PathParameterTemplates.bulkDocs("test")));
+    assertFalse(RetryPolicy.isRead(HttpMethod.PUT,
+        PathParameterTemplates.databaseDocumentId("test", "doc")));
+  }
+}
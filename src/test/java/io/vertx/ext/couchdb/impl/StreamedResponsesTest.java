@@ -0,0 +1,176 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.http.HttpServer;
+import io.vertx.core.http.HttpServerRequest;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.CouchdbClientBuilder;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.streams.impl.CouchDbAttachmentStreamImpl;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.junit5.VertxTestContext;
+import io.vertx.uritemplate.UriTemplate;
+
+/**
+ * Runs against a server answering attachment requests, a missing attachment
+ * gets CouchDB's 404 JSON error.
+ */
+@UnitTest
+class StreamedResponsesTest {
+
+  private HttpServer server;
+  private CouchdbClient client;
+  private volatile boolean streamHeaderSeen;
+
+  @BeforeEach
+  void setUp(Vertx vertx, VertxTestContext testContext) {
+    vertx.createHttpServer()
+        .requestHandler(this::attachment)
+        .listen(0, "localhost")
+        .onFailure(testContext::failNow)
+        .onSuccess(started -> {
+          this.server = started;
+          this.client = new CouchdbClientBuilder(vertx)
+              .host("localhost")
+              .port(started.actualPort())
+              .build();
+          testContext.completeNow();
+        });
+  }
+
+  @AfterEach
+  void tearDown() {
+    this.client.close();
+    this.server.close();
+  }
+
+  private void attachment(HttpServerRequest request) {
+    this.streamHeaderSeen |= request.headers().contains(StreamedResponses.HEADER);
+    if (request.path().endsWith("/scan.pdf")) {
+      request.response()
+          .putHeader("Content-Type", "application/pdf")
+          .end("%PDF-1.7 scanned page");
+    } else {
+      request.response()
+          .setStatusCode(404)
+          .putHeader("Content-Type", "application/json")
+          .end("{\"error\":\"not_found\",\"reason\":\"Document is missing attachment\"}");
+    }
+  }
+
+  @Test
+  void testErrorNotPiped(VertxTestContext testContext) throws InterruptedException {
+    RecordingWriteStream sink = new RecordingWriteStream();
+
+    this.client.streamBody(HttpMethod.GET, UriTemplate.of("/db/doc1/missing.pdf"), null, sink)
+        .onSuccess(response -> testContext.failNow("A 404 should fail"))
+        .onFailure(err -> testContext.verify(() -> {
+          assertTrue(err instanceof CouchdbResponseException, err.toString());
+          CouchdbResponseException error = (CouchdbResponseException) err;
+          assertEquals(404, error.statusCode());
+          assertEquals("not_found", error.error());
+          assertEquals(0, sink.received.length());
+          assertFalse(sink.ended);
+          assertFalse(this.streamHeaderSeen);
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testSuccessPiped(VertxTestContext testContext) throws InterruptedException {
+    RecordingWriteStream sink = new RecordingWriteStream();
+
+    this.client.streamBody(HttpMethod.GET, UriTemplate.of("/db/doc1/scan.pdf"), null, sink)
+        .onFailure(testContext::failNow)
+        .onSuccess(response -> testContext.verify(() -> {
+          assertEquals(200, response.statusCode());
+          assertEquals("%PDF-1.7 scanned page", sink.received.toString());
+          assertTrue(sink.ended);
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testAttachmentStreamEmitsNoError(VertxTestContext testContext)
+      throws InterruptedException {
+    new CouchDbAttachmentStreamImpl(this.client, UriTemplate.of("/db/doc1/missing.pdf"), null)
+        .exceptionHandler(err -> testContext.verify(() -> {
+          assertEquals(404, ((CouchdbResponseException) err).statusCode());
+          testContext.completeNow();
+        }))
+        .endHandler(v -> testContext.failNow("A 404 should not end the stream"))
+        .handler(chunk -> testContext.failNow("The error body should not be emitted"));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  /**
+   * Keeps what was written, like a file the attachment is saved to.
+   */
+  private static final class RecordingWriteStream implements WriteStream<Buffer> {
+
+    private final Buffer received = Buffer.buffer();
+    private boolean ended;
+
+    @Override
+    public WriteStream<Buffer> exceptionHandler(Handler<Throwable> handler) {
+      return this;
+    }
+
+    @Override
+    public Future<Void> write(Buffer data) {
+      this.received.appendBuffer(data);
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public Future<Void> end() {
+      this.ended = true;
+      return Future.succeededFuture();
+    }
+
+    @Override
+    public WriteStream<Buffer> setWriteQueueMaxSize(int maxSize) {
+      return this;
+    }
+
+    @Override
+    public boolean writeQueueFull() {
+      return false;
+    }
+
+    @Override
+    public WriteStream<Buffer> drainHandler(Handler<Void> handler) {
+      return this;
+    }
+  }
+}
@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.metrics;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.http.HttpMethod;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.uritemplate.UriTemplate;
+import io.vertx.uritemplate.Variables;
+
+@UnitTest
+class CouchdbOperationTest {
+
+  @Test
+  void testServerAndDatabase() {
+    assertEquals(CouchdbOperation.SERVER, CouchdbOperation.of(HttpMethod.GET, "/"));
+    assertEquals(CouchdbOperation.SERVER, CouchdbOperation.of(HttpMethod.GET, "/_uuids?count=2"));
+    assertEquals(CouchdbOperation.DATABASE, CouchdbOperation.of(HttpMethod.PUT, "/test"));
+    assertEquals(CouchdbOperation.DATABASE,
+        CouchdbOperation.of(HttpMethod.GET, path(PathParameterTemplates.databaseSecurity("test"))));
+    assertNull(CouchdbOperation.database("/_session"));
+    assertEquals("test", CouchdbOperation.database("/test/_all_docs"));
+  }
+
+  @Test
+  void testDocuments() {
+    String doc = path(PathParameterTemplates.databaseDocumentId("test", "123"));
+    assertEquals(CouchdbOperation.DOCUMENT_GET, CouchdbOperation.of(HttpMethod.GET, doc));
+    assertEquals(CouchdbOperation.DOCUMENT_GET, CouchdbOperation.of(HttpMethod.HEAD, doc));
+    assertEquals(CouchdbOperation.DOCUMENT_WRITE, CouchdbOperation.of(HttpMethod.PUT, doc));
+    assertEquals(CouchdbOperation.DOCUMENT_WRITE, CouchdbOperation.of(HttpMethod.POST, "/test"));
+    assertEquals(CouchdbOperation.DOCUMENT_GET, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.localDocument("test", "checkpoint"))));
+    assertEquals(CouchdbOperation.DOCUMENT_WRITE, CouchdbOperation.of(HttpMethod.DELETE,
+        path(PathParameterTemplates.databaseDesignDoc("test", "recipes"))));
+    assertEquals(CouchdbOperation.ATTACHMENT, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.attachment("test", "123", "image.png"))));
+  }
+
+  @Test
+  void testQueries() {
+    assertEquals(CouchdbOperation.VIEW, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.view("test", "recipes", "by_name"))));
+    assertEquals(CouchdbOperation.VIEW,
+        CouchdbOperation.of(HttpMethod.POST, path(PathParameterTemplates.allDocs("test"))));
+    assertEquals(CouchdbOperation.BULK,
+        CouchdbOperation.of(HttpMethod.POST, path(PathParameterTemplates.bulkDocs("test"))));
+    assertEquals(CouchdbOperation.BULK,
+        CouchdbOperation.of(HttpMethod.POST, path(PathParameterTemplates.bulkGet("test"))));
+    assertEquals(CouchdbOperation.FIND,
+        CouchdbOperation.of(HttpMethod.POST, path(PathParameterTemplates.find("test"))));
+    assertEquals(CouchdbOperation.CHANGES,
+        CouchdbOperation.of(HttpMethod.GET, path(PathParameterTemplates.changes("test"))));
+  }
+
+  @Test
+  void testPartitions() {
+    assertEquals(CouchdbOperation.DATABASE, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.partition("test", "sensor-1"))));
+    assertEquals(CouchdbOperation.VIEW, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.partitionAllDocs("test", "sensor-1"))));
+    assertEquals(CouchdbOperation.VIEW, CouchdbOperation.of(HttpMethod.GET,
+        path(PathParameterTemplates.partitionView("test", "sensor-1", "readings", "by_day"))));
+    assertEquals(CouchdbOperation.FIND, CouchdbOperation.of(HttpMethod.POST,
+        path(PathParameterTemplates.partitionFind("test", "sensor-1"))));
+  }
+
+  private static String path(UriTemplate template) {
+    return template.expandToString(Variables.variables());
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.parameters;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.uritemplate.Variables;
+
+@UnitTest
+public class EncodedQueryParametersTest {
+
+  @Test
+  void testEncodedLikeMutableParameters() {
+    ViewQueryParams params = new ViewQueryParams()
+        .startkey(new JsonArray().add("2024").add(1))
+        .groupLevel(2)
+        .includeDocs(true);
+    EncodedQueryParameters encoded = params.encode();
+    assertEquals(params.forTemplate(), encoded.forTemplate());
+    assertSame(encoded.forTemplate(), encoded.forTemplate());
+    assertEquals(2, encoded.getParameter("group_level"));
+  }
+
+  @Test
+  void testFrozenCopy() {
+    DbQueryParams params = new DbQueryParams().limit(10);
+    EncodedQueryParameters encoded = EncodedQueryParameters.of(params);
+    params.limit(20);
+    assertEquals("10", encoded.forTemplate().get("limit"));
+    assertSame(encoded, EncodedQueryParameters.of(encoded));
+    assertThrows(UnsupportedOperationException.class,
+        () -> encoded.addParameter("skip", 5, true));
+  }
+
+  @Test
+  void testWith() {
+    DocumentGetParams params = new DocumentGetParams().conflicts(true);
+    EncodedQueryParameters encoded = EncodedQueryParameters.of(params);
+    EncodedQueryParameters withAttachments = encoded.with("attachments", true);
+    assertEquals("true", withAttachments.forTemplate().get("attachments"));
+    assertEquals("true", withAttachments.forTemplate().get("conflicts"));
+    assertEquals("false", encoded.forTemplate().get("attachments"));
+    assertEquals(false, params.getParameter("attachments"));
+    assertEquals(Map.of("rev", "1-a", "latest", "true"),
+        EncodedQueryParameters.rev("1-a").with("latest", true).forTemplate());
+  }
+
+  @Test
+  void testRev() {
+    EncodedQueryParameters rev = EncodedQueryParameters.rev("1-abc");
+    assertEquals(Map.of("rev", "1-abc"), rev.forTemplate());
+    assertEquals("1-abc", rev.getParameter("rev"));
+    assertNull(rev.getParameter("conflicts"));
+
+    Variables variables = Variables.variables();
+    variables.set("query", rev.forTemplate());
+    assertEquals("/test/doc?rev=1-abc", PathParameterTemplates
+        .databaseDocumentId("test", "doc").expandToString(variables));
+  }
+
+  @Test
+  void testEmpty() {
+    assertSame(EncodedQueryParameters.EMPTY, EncodedQueryParameters.of(null));
+    assertSame(EncodedQueryParameters.EMPTY, new AllDocsParams().encode());
+    assertTrue(EncodedQueryParameters.EMPTY.forTemplate().isEmpty());
+    assertEquals("/test", EncodedQueryParameters.EMPTY.appendParamsToUrl("/test"));
+  }
+}
@@ -11,12 +11,16 @@
 package io.vertx.ext.couchdb.parameters;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import org.junit.jupiter.api.Test;
 
+import io.vertx.ext.couchdb.testannotations.UnitTest;
 import io.vertx.uritemplate.UriTemplate;
 import io.vertx.uritemplate.Variables;
 
+@UnitTest
 public class PathParameterTemplatesTest {
   @Test
   void testDatabase() {
@@ -39,4 +43,50 @@ public class PathParameterTemplatesTest {
     assertEquals("/test/123", template.expandToString(Variables.variables()));
   }
 
+  @Test
+  void testViewWithParams() {
+    UriTemplate template = PathParameterTemplates.view("test", "recipes", "by_name");
+    ViewQueryParams params = new ViewQueryParams().startkey("a").groupLevel(2);
+    Variables variables = Variables.variables();
+    variables.set("query", params.forTemplate());
+    String url = template.expandToString(variables);
+    assertTrue(url.startsWith("/test/_design/recipes/_view/by_name?"));
+    assertTrue(url.contains("startkey=%22a%22"));
+    assertTrue(url.contains("group_level=2"));
+  }
+
+  @Test
+  void testPartition() {
+    Variables variables = Variables.variables();
+    assertEquals("/test/_partition/sensor%201",
+        PathParameterTemplates.partition("test", "sensor 1").expandToString(variables));
+    assertEquals("/test/_partition/sensor-1/_all_docs",
+        PathParameterTemplates.partitionAllDocs("test", "sensor-1").expandToString(variables));
+    assertEquals("/test/_partition/sensor-1/_design/readings/_view/by_day",
+        PathParameterTemplates.partitionView("test", "sensor-1", "readings", "by_day")
+            .expandToString(variables));
+  }
+
+  @Test
+  void testSegmentsEncodedLikeTemplateExpansion() {
+    UriTemplate reference = UriTemplate.of("/{database}/{documentId}");
+    for (String id : new String[] {"plain-id_1.0~", "a b/c?d#e&f=g+h", "100%", "_design/x",
+        "caf\u00e9", "\u20ac uro", "emoji \ud83d\ude00", ":@!$'()*,;[]"}) {
+      Variables variables = Variables.variables();
+      variables.set("database", "test/db");
+      variables.set("documentId", id);
+      assertEquals(reference.expandToString(variables),
+          PathParameterTemplates.databaseDocumentId("test/db", id)
+              .expandToString(Variables.variables()),
+          id);
+    }
+  }
+
+  @Test
+  void testDatabaseTemplatesCached() {
+    assertSame(PathParameterTemplates.allDocs("test"), PathParameterTemplates.allDocs("test"));
+    assertEquals("/test/_all_docs",
+        PathParameterTemplates.allDocs("test").expandToString(Variables.variables()));
+  }
+
 }
@@ -0,0 +1,267 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.Promise;
+import io.vertx.core.Vertx;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.couchdb.streams.ChangesOptions;
+import io.vertx.ext.couchdb.streams.CouchDbChangesStream;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.junit5.VertxTestContext;
+
+@UnitTest
+class CouchDbChangesStreamImplTest {
+
+  @Mock
+  private CouchdbClient mockClient;
+
+  @Mock
+  private HttpResponse<Void> mockResponse;
+
+  AutoCloseable mockCloseable;
+
+  @BeforeEach
+  void setUp(Vertx vertx) {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+    lenient().when(mockClient.vertx()).thenReturn(vertx);
+    lenient().when(mockResponse.statusCode()).thenReturn(200);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockCloseable.close();
+  }
+
+  @Test
+  void testContinuousFeedLines(Vertx vertx, VertxTestContext testContext)
+      throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          // lines split across chunks, with a heartbeat in between
+          sink.write(Buffer.buffer(change("1-a", "a") + "\n{\"seq\":\"2-b\","));
+          sink.write(Buffer.buffer("\"id\":\"b\",\"changes\":[]}\n\n"));
+          sink.write(Buffer.buffer(change("3-c", "c") + "\n"));
+          return Promise.promise().future();
+        });
+
+    List<String> ids = new ArrayList<>();
+    CouchDbChangesStream stream = changesStream(new ChangesOptions());
+    stream.exceptionHandler(testContext::failNow)
+        .handler(row -> {
+          ids.add(row.getString("id"));
+          if (ids.size() == 3) {
+            vertx.runOnContext(v -> testContext.verify(() -> {
+              assertEquals(List.of("a", "b", "c"), ids);
+              assertEquals("3-c", stream.lastSeq());
+              testContext.completeNow();
+            }));
+          }
+        });
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testContinuousFeedBackPressure(VertxTestContext testContext)
+      throws InterruptedException {
+    List<WriteStream<Buffer>> sinks = new ArrayList<>();
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          sinks.add(invocation.getArgument(3));
+          return Promise.promise().future();
+        });
+
+    List<String> ids = new ArrayList<>();
+    CouchDbChangesStream stream = changesStream(new ChangesOptions().bufferSize(2));
+    stream.pause();
+    stream.handler(row -> ids.add(row.getString("id")));
+    stream.fetch(1);
+
+    testContext.verify(() -> {
+      WriteStream<Buffer> sink = sinks.get(0);
+      sink.write(Buffer.buffer(change("1-a", "a") + "\n"));
+      sink.write(Buffer.buffer(change("2-b", "b") + "\n"));
+      assertFalse(sink.writeQueueFull());
+      sink.write(Buffer.buffer(change("3-c", "c") + "\n"));
+      assertTrue(sink.writeQueueFull());
+
+      boolean[] drained = new boolean[1];
+      sink.drainHandler(v -> drained[0] = true);
+      stream.resume();
+      assertTrue(drained[0]);
+      assertEquals(List.of("a", "b", "c"), ids);
+      testContext.completeNow();
+    });
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testReconnectFromLastSeq(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer(change("1-a", "a") + "\n"));
+          return Future.failedFuture(new Exception("Connection reset"));
+        })
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer(change("2-b", "b") + "\n"));
+          return Promise.promise().future();
+        });
+
+    List<String> ids = new ArrayList<>();
+    changesStream(new ChangesOptions().reconnectDelay(1))
+        .exceptionHandler(testContext::failNow)
+        .handler(row -> {
+          ids.add(row.getString("id"));
+          if (ids.size() == 2) {
+            testContext.verify(() -> {
+              ArgumentCaptor<QueryParameters> params =
+                  ArgumentCaptor.forClass(QueryParameters.class);
+              verify(mockClient, times(2)).streamBody(any(), any(), params.capture(), any());
+              assertEquals("0", params.getAllValues().get(0).getParameter("since"));
+              assertEquals("1-a", params.getAllValues().get(1).getParameter("since"));
+              testContext.completeNow();
+            });
+          }
+        });
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testCheckpoint(Vertx vertx, VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.succeededFuture(new JsonObject()
+            .put("_id", "_local/projection")
+            .put("_rev", "0-1")
+            .put("last_seq", "5-e")));
+    when(mockClient.putJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(new JsonObject().put("ok", true).put("rev", "0-2")));
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer(change("6-f", "f") + "\n"));
+          return Promise.promise().future();
+        });
+
+    CouchDbChangesStream stream =
+        changesStream(new ChangesOptions().checkpointId("projection").checkpointInterval(10));
+    stream.exceptionHandler(testContext::failNow)
+        .handler(row -> vertx.runOnContext(v -> stream.close()
+            .onFailure(testContext::failNow)
+            .onSuccess(done -> testContext.verify(() -> {
+              ArgumentCaptor<QueryParameters> params =
+                  ArgumentCaptor.forClass(QueryParameters.class);
+              verify(mockClient).streamBody(any(), any(), params.capture(), any());
+              assertEquals("5-e", params.getValue().getParameter("since"));
+
+              ArgumentCaptor<JsonObject> checkpoint = ArgumentCaptor.forClass(JsonObject.class);
+              verify(mockClient).putJsonObject(any(), any(), checkpoint.capture());
+              assertEquals("6-f", checkpoint.getValue().getString("last_seq"));
+              assertEquals("0-1", checkpoint.getValue().getString("_rev"));
+              testContext.completeNow();
+            }))));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testMissingCheckpoint(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.failedFuture(new CouchdbResponseException(404, "not_found", "missing")));
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          sink.write(Buffer.buffer(change("1-a", "a") + "\n"));
+          return Promise.promise().future();
+        });
+
+    changesStream(new ChangesOptions().checkpointId("projection").since("now"))
+        .exceptionHandler(testContext::failNow)
+        .handler(row -> testContext.verify(() -> {
+          ArgumentCaptor<QueryParameters> params = ArgumentCaptor.forClass(QueryParameters.class);
+          verify(mockClient).streamBody(any(), any(), params.capture(), any());
+          assertEquals("now", params.getValue().getParameter("since"));
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testCheckpointLoadFailure(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.failedFuture(new CouchdbResponseException(500, "unknown_error", "")))
+        .thenReturn(Future.failedFuture(new CouchdbResponseException(500, "unknown_error", "")));
+
+    changesStream(new ChangesOptions().checkpointId("projection").reconnectDelay(1)
+        .maxReconnectAttempts(1))
+        .handler(row -> testContext.failNow("The feed should not start without its checkpoint"))
+        .exceptionHandler(err -> testContext.verify(() -> {
+          assertEquals(500, ((CouchdbResponseException) err).statusCode());
+          verify(mockClient, times(2)).getJsonObject(any(), any());
+          verify(mockClient, never()).streamBody(any(), any(), any(), any());
+          testContext.completeNow();
+        }));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  private CouchDbChangesStream changesStream(ChangesOptions options) {
+    return new CouchDbChangesStreamImpl(mockClient, PathParameterTemplates.changes("test_db"),
+        options.getCheckpointId() == null ? null
+            : PathParameterTemplates.localDocument("test_db", options.getCheckpointId()),
+        options);
+  }
+
+  static String change(String seq, String id) {
+    return new JsonObject()
+        .put("seq", seq)
+        .put("id", id)
+        .put("changes", new JsonArray()
+            .add(new JsonObject().put("rev", "1-" + id)))
+        .encode();
+  }
+}
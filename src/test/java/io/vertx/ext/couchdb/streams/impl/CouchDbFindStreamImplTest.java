@@ -0,0 +1,128 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.database.mango.MangoQuery;
+import io.vertx.ext.couchdb.database.mango.Selector;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.junit5.VertxTestContext;
+
+@UnitTest
+class CouchDbFindStreamImplTest {
+
+  @Mock
+  private CouchdbClient mockClient;
+
+  AutoCloseable mockCloseable;
+
+  @BeforeEach
+  void setUp() {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockCloseable.close();
+  }
+
+  @Test
+  void testFollowsBookmarks(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.postJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(page("b1", "a", "b")))
+        .thenReturn(Future.succeededFuture(page("b2", "c")));
+
+    List<String> ids = new ArrayList<>();
+    new CouchDbFindStreamImpl(mockClient, PathParameterTemplates.find("test_db"),
+        new MangoQuery(Selector.matchAll()).limit(2).skip(5))
+        .exceptionHandler(testContext::failNow)
+        .endHandler(v -> testContext.verify(() -> {
+          assertEquals(List.of("a", "b", "c"), ids);
+          ArgumentCaptor<JsonObject> bodies = ArgumentCaptor.forClass(JsonObject.class);
+          verify(mockClient, times(2)).postJsonObject(any(), any(), bodies.capture());
+          assertFalse(bodies.getAllValues().get(0).containsKey("bookmark"));
+          assertEquals(5, bodies.getAllValues().get(0).getInteger("skip"));
+          assertEquals("b1", bodies.getAllValues().get(1).getString("bookmark"));
+          assertFalse(bodies.getAllValues().get(1).containsKey("skip"));
+          assertEquals(2, bodies.getAllValues().get(1).getInteger("limit"));
+          testContext.completeNow();
+        }))
+        .handler(doc -> ids.add(doc.getString("_id")));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testPrefetchesOnePage(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.postJsonObject(any(), any(), any()))
+        .thenReturn(Future.succeededFuture(page("b1", "a", "b")))
+        .thenReturn(Future.succeededFuture(page("b2", "c", "d")))
+        .thenReturn(Future.succeededFuture(page("b3")));
+
+    List<String> ids = new ArrayList<>();
+    CouchDbStream stream = stream(2);
+    stream.pause();
+    stream.handler(doc -> ids.add(doc.getString("_id")));
+    stream.fetch(1);
+
+    testContext.verify(() -> {
+      // first page delivered partially, the second one prefetched, no third
+      assertEquals(List.of("a"), ids);
+      verify(mockClient, times(2)).postJsonObject(any(), any(), any());
+    });
+
+    stream.endHandler(v -> testContext.verify(() -> {
+      assertEquals(List.of("a", "b", "c", "d"), ids);
+      verify(mockClient, times(3)).postJsonObject(any(), any(), any());
+      testContext.completeNow();
+    }));
+    stream.resume();
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  private CouchDbStream stream(int pageSize) {
+    return new CouchDbFindStreamImpl(mockClient, PathParameterTemplates.find("test_db"),
+        new MangoQuery(Selector.matchAll()).limit(pageSize));
+  }
+
+  static JsonObject page(String bookmark, String... ids) {
+    JsonArray docs = new JsonArray();
+    for (String id : ids) {
+      docs.add(new JsonObject().put("_id", id));
+    }
+    return new JsonObject().put("docs", docs).put("bookmark", bookmark);
+  }
+}
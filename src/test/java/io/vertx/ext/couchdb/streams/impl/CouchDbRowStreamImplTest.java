@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.http.HttpMethod;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.exception.CouchdbResponseException;
+import io.vertx.ext.couchdb.parameters.AllDocsParams;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.streams.CouchDbRowStream;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.ext.web.client.HttpResponse;
+import io.vertx.junit5.VertxTestContext;
+
+@UnitTest
+class CouchDbRowStreamImplTest {
+
+  @Mock
+  private CouchdbClient mockClient;
+
+  @Mock
+  private HttpResponse<Void> mockResponse;
+
+  AutoCloseable mockCloseable;
+
+  @BeforeEach
+  void setUp() {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockCloseable.close();
+  }
+
+  @Test
+  void testRowsAndMetadata(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenAnswer(invocation -> {
+          WriteStream<Buffer> sink = invocation.getArgument(3);
+          // chunk boundaries in the middle of rows
+          sink.write(Buffer.buffer("{\"total_rows\":2,\"offset\":0,\"rows\":[{\"id\":\"a\","));
+          sink.write(Buffer.buffer("\"key\":\"a\",\"value\":{\"rev\":\"1-a\"}},{\"id\":\"b\",\"key\""));
+          sink.write(Buffer.buffer(":\"b\",\"value\":{\"rev\":\"1-b\"}}],\"update_seq\":\"7-x\"}"));
+          return Future.succeededFuture(mockResponse);
+        });
+
+    List<String> ids = new ArrayList<>();
+    CouchDbRowStream stream = stream();
+    stream.exceptionHandler(testContext::failNow)
+        .endHandler(v -> stream.metadata()
+            .onFailure(testContext::failNow)
+            .onSuccess(metadata -> testContext.verify(() -> {
+              assertEquals(List.of("a", "b"), ids);
+              assertEquals(2, metadata.getInteger("total_rows"));
+              assertEquals(0, metadata.getInteger("offset"));
+              assertEquals("7-x", metadata.getString("update_seq"));
+              testContext.completeNow();
+            })))
+        .handler(row -> {
+          ids.add(row.getString("id"));
+          assertEquals("1-" + row.getString("id"),
+              row.getJsonObject("value").getString("rev"));
+        });
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testErrorResponse(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.streamBody(any(), any(), any(), any()))
+        .thenReturn(Future.failedFuture(
+            new CouchdbResponseException(404, "not_found", "missing")));
+
+    stream()
+        .exceptionHandler(err -> testContext.verify(() -> {
+          assertEquals("Response status code 404: not_found - missing", err.getMessage());
+          testContext.completeNow();
+        }))
+        .handler(row -> testContext.failNow("No row expected"));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  private CouchDbRowStream stream() {
+    return new CouchDbRowStreamImpl(mockClient, HttpMethod.GET,
+        PathParameterTemplates.allDocs("test_db"), new AllDocsParams());
+  }
+}
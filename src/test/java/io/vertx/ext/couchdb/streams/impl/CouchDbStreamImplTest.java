@@ -0,0 +1,151 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import io.vertx.core.Future;
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.ext.couchdb.CouchdbClient;
+import io.vertx.ext.couchdb.parameters.PathParameterTemplates;
+import io.vertx.ext.couchdb.parameters.QueryParameters;
+import io.vertx.ext.couchdb.streams.CouchDbStream;
+import io.vertx.ext.couchdb.streams.CouchDbStreamOptions;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+import io.vertx.junit5.VertxTestContext;
+
+@UnitTest
+class CouchDbStreamImplTest {
+
+  @Mock
+  private CouchdbClient mockClient;
+
+  AutoCloseable mockCloseable;
+
+  @BeforeEach
+  void setUp() {
+    mockCloseable = MockitoAnnotations.openMocks(this);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    mockCloseable.close();
+  }
+
+  @Test
+  void testStreamAllPages(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.succeededFuture(page("a", "b", "c")))
+        .thenReturn(Future.succeededFuture(page("c", "d", "e")))
+        .thenReturn(Future.succeededFuture(page("e")));
+
+    List<String> ids = new ArrayList<>();
+    CouchDbStream stream = new CouchDbStreamImpl(mockClient,
+        PathParameterTemplates.allDocs("test_db"), new CouchDbStreamOptions().batchSize(2));
+
+    stream.exceptionHandler(testContext::failNow)
+        .endHandler(v -> testContext.verify(() -> {
+          assertEquals(List.of("a", "b", "c", "d", "e"), ids);
+          ArgumentCaptor<QueryParameters> params = ArgumentCaptor.forClass(QueryParameters.class);
+          verify(mockClient, times(3)).getJsonObject(any(), params.capture());
+          assertNull(params.getAllValues().get(0).getParameter("startkey"));
+          assertEquals("\"c\"", params.getAllValues().get(1).getParameter("startkey"));
+          assertEquals("\"e\"", params.getAllValues().get(2).getParameter("startkey"));
+          assertEquals(3, params.getAllValues().get(2).getParameter("limit"));
+          testContext.completeNow();
+        }))
+        .handler(doc -> ids.add(doc.getString("_id")));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testStreamRespectsDemand(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.succeededFuture(page("a", "b", "c")))
+        .thenReturn(Future.succeededFuture(page("c")));
+
+    List<String> ids = new ArrayList<>();
+    CouchDbStream stream = new CouchDbStreamImpl(mockClient,
+        PathParameterTemplates.allDocs("test_db"), new CouchDbStreamOptions().batchSize(2));
+
+    stream.pause();
+    stream.handler(doc -> ids.add(doc.getString("_id")));
+    stream.fetch(1);
+
+    testContext.verify(() -> {
+      assertEquals(List.of("a"), ids);
+      verify(mockClient, times(1)).getJsonObject(any(), any());
+    });
+
+    stream.fetch(1);
+    testContext.verify(() -> {
+      // second element comes from the buffered page, no new request
+      assertEquals(List.of("a", "b"), ids);
+      verify(mockClient, times(1)).getJsonObject(any(), any());
+    });
+
+    stream.endHandler(v -> testContext.verify(() -> {
+      assertEquals(List.of("a", "b", "c"), ids);
+      verify(mockClient, times(2)).getJsonObject(any(), any());
+      testContext.completeNow();
+    }));
+    stream.resume();
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  @Test
+  void testStreamFailure(VertxTestContext testContext) throws InterruptedException {
+    when(mockClient.getJsonObject(any(), any()))
+        .thenReturn(Future.failedFuture(new Exception("Database not found")));
+
+    new CouchDbStreamImpl(mockClient, PathParameterTemplates.allDocs("test_db"),
+        new CouchDbStreamOptions())
+        .exceptionHandler(err -> testContext.verify(() -> {
+          assertEquals("Database not found", err.getMessage());
+          testContext.completeNow();
+        }))
+        .handler(doc -> testContext.failNow("No document expected"));
+
+    assertTrue(testContext.awaitCompletion(5, TimeUnit.SECONDS));
+  }
+
+  static JsonObject page(String... ids) {
+    JsonArray rows = new JsonArray();
+    for (String id : ids) {
+      rows.add(new JsonObject()
+          .put("id", id)
+          .put("key", id)
+          .put("value", new JsonObject().put("rev", "1-" + id))
+          .put("doc", new JsonObject().put("_id", id).put("_rev", "1-" + id)));
+    }
+    return new JsonObject().put("total_rows", 5).put("offset", 0).put("rows", rows);
+  }
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.ReadStream;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+
+@UnitTest
+class GzipReadStreamTest {
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCompressesChunkByChunk() throws IOException {
+    ReadStream<Buffer> source = mock(ReadStream.class);
+    List<Buffer> chunks = new ArrayList<>();
+    boolean[] ended = new boolean[1];
+
+    new GzipReadStream(source, 6)
+        .endHandler(v -> ended[0] = true)
+        .handler(chunks::add);
+
+    ArgumentCaptor<Handler<Buffer>> data = ArgumentCaptor.forClass(Handler.class);
+    ArgumentCaptor<Handler<Void>> end = ArgumentCaptor.forClass(Handler.class);
+    verify(source).handler(data.capture());
+    verify(source).endHandler(end.capture());
+
+    String text = "{\"name\":\"value\"}\n".repeat(2000);
+    data.getValue().handle(Buffer.buffer(text.substring(0, 10000)));
+    data.getValue().handle(Buffer.buffer(text.substring(10000)));
+    // one compressed chunk per source chunk keeps the flow control intact
+    assertEquals(2, chunks.size());
+    end.getValue().handle(null);
+    assertTrue(ended[0]);
+
+    Buffer compressed = Buffer.buffer();
+    chunks.forEach(compressed::appendBuffer);
+    assertTrue(compressed.length() < text.length() / 10);
+    try (GZIPInputStream in =
+        new GZIPInputStream(new ByteArrayInputStream(compressed.getBytes()))) {
+      assertEquals(text, new String(in.readAllBytes(), "UTF-8"));
+    }
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testFailureReleasesDeflater() {
+    ReadStream<Buffer> source = mock(ReadStream.class);
+    List<Buffer> chunks = new ArrayList<>();
+    List<Throwable> failures = new ArrayList<>();
+
+    new GzipReadStream(source, 6)
+        .exceptionHandler(failures::add)
+        .handler(chunks::add);
+
+    ArgumentCaptor<Handler<Buffer>> data = ArgumentCaptor.forClass(Handler.class);
+    ArgumentCaptor<Handler<Throwable>> failure = ArgumentCaptor.forClass(Handler.class);
+    verify(source).handler(data.capture());
+    verify(source).exceptionHandler(failure.capture());
+
+    data.getValue().handle(Buffer.buffer("first chunk"));
+    failure.getValue().handle(new IOException("Connection reset"));
+    assertEquals(1, failures.size());
+    // the ended Deflater is not used again
+    data.getValue().handle(Buffer.buffer("late chunk"));
+    assertEquals(1, chunks.size());
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testCloseDropsLaterData() {
+    ReadStream<Buffer> source = mock(ReadStream.class);
+    List<Buffer> chunks = new ArrayList<>();
+    boolean[] ended = new boolean[1];
+
+    GzipReadStream gzip = new GzipReadStream(source, 6);
+    gzip.endHandler(v -> ended[0] = true).handler(chunks::add);
+    ArgumentCaptor<Handler<Buffer>> data = ArgumentCaptor.forClass(Handler.class);
+    ArgumentCaptor<Handler<Void>> end = ArgumentCaptor.forClass(Handler.class);
+    verify(source).handler(data.capture());
+    verify(source).endHandler(end.capture());
+
+    gzip.close();
+    gzip.close();
+    data.getValue().handle(Buffer.buffer("after the upload was reset"));
+    end.getValue().handle(null);
+    assertTrue(chunks.isEmpty());
+    assertFalse(ended[0]);
+  }
+}
@@ -0,0 +1,109 @@
+/*
+ * Copyright (c) 2024 Contributors to the Eclipse Foundation
+ *
+ * This program and the accompanying materials are made available under the
+ * terms of the Eclipse Public License 2.0 which is available at
+ * http://www.eclipse.org/legal/epl-2.0, or the Apache License, Version 2.0
+ * which is available at https://www.apache.org/licenses/LICENSE-2.0.
+ *
+ * SPDX-License-Identifier: EPL-2.0 OR Apache-2.0
+ */
+package io.vertx.ext.couchdb.streams.impl;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+
+import io.vertx.core.Future;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.streams.WriteStream;
+import io.vertx.ext.couchdb.testannotations.UnitTest;
+
+@UnitTest
+class MultipartRelatedParserTest {
+
+  static final String BODY = "--abc123\r\n"
+      + "Content-Type: application/json\r\n\r\n"
+      + "{\"_id\":\"doc1\",\"_attachments\":{\"a.txt\":{\"follows\":true},"
+      + "\"b.bin\":{\"follows\":true}}}\r\n"
+      + "--abc123\r\n"
+      + "Content-Disposition: attachment; filename=\"a.txt\"\r\n"
+      + "Content-Type: text/plain\r\n\r\n"
+      + "hello\r\n--abc12 is not a delimiter\r\n"
+      + "--abc123\r\n"
+      + "Content-Disposition: attachment; filename=\"b.bin\"\r\n\r\n"
+      + "\u0001\u0002\u0003\r\n"
+      + "--abc123--";
+
+  @Test
+  void testPartsSplitAcrossChunks() {
+    // one byte per chunk, every delimiter and header is split
+    for (int chunkSize : new int[] {1, 7, BODY.length()}) {
+      Map<String, Buffer> attachments = new HashMap<>();
+      MultipartRelatedParser parser = new MultipartRelatedParser(headers -> {
+        String name = MultipartRelatedParser.filename(headers);
+        return collect(attachments, name);
+      });
+
+      Buffer body = Buffer.buffer(BODY);
+      for (int i = 0; i < body.length(); i += chunkSize) {
+        parser.write(body.getBuffer(i, Math.min(i + chunkSize, body.length())));
+      }
+      parser.end();
+
+      assertTrue(parser.isComplete());
+      assertEquals("doc1", parser.document().toJsonObject().getString("_id"));
+      assertEquals("hello\r\n--abc12 is not a delimiter", attachments.get("a.txt").toString());
+      assertEquals("\u0001\u0002\u0003", attachments.get("b.bin").toString());
+    }
+  }
+
+  @Test
+  void testPlainJsonBody() {
+    MultipartRelatedParser parser = new MultipartRelatedParser(headers -> null);
+    parser.write(Buffer.buffer("{\"error\":\"not_found\","));
+    parser.write(Buffer.buffer("\"reason\":\"missing\"}"));
+
+    assertTrue(parser.isComplete());
+    assertEquals("not_found", parser.document().toJsonObject().getString("error"));
+  }
+
+  @Test
+  @SuppressWarnings("unchecked")
+  void testBackpressureFollowsPartSink() {
+    WriteStream<Buffer> slow = mock(WriteStream.class);
+    lenient().when(slow.write(any())).thenReturn(Future.succeededFuture());
+    when(slow.writeQueueFull()).thenReturn(true);
+    MultipartRelatedParser parser = new MultipartRelatedParser(headers -> slow);
+
+    assertFalse(parser.writeQueueFull());
+    parser.write(Buffer.buffer(BODY.substring(0, BODY.indexOf("hello"))));
+    assertTrue(parser.writeQueueFull());
+    parser.drainHandler(v -> {
+    });
+    verify(slow).drainHandler(any());
+  }
+
+  @SuppressWarnings("unchecked")
+  private static WriteStream<Buffer> collect(Map<String, Buffer> attachments, String name) {
+    Buffer content = Buffer.buffer();
+    attachments.put(name, content);
+    WriteStream<Buffer> sink = mock(WriteStream.class);
+    when(sink.write(any())).thenAnswer(invocation -> {
+      content.appendBuffer(invocation.getArgument(0));
+      return Future.succeededFuture();
+    });
+    when(sink.end()).thenReturn(Future.succeededFuture());
+    return sink;
+  }
+}